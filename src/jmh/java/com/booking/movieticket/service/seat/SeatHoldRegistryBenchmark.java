@@ -0,0 +1,162 @@
+package com.booking.movieticket.service.seat;
+
+import com.booking.movieticket.entity.compositekey.ShowtimeId;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Seat clicks on {@link SeatHoldRegistry} against the map it replaced in SeatSocketController: a ConcurrentHashMap
+ * keyed by "roomId-scheduleId-seatId" strings, holding a HashMap with the boxed user id and timestamp per hold.
+ * <p>
+ * The click benchmarks run eight threads selecting and releasing random seats of a few hot showtimes, so claims on
+ * the same showtime, and now and then the same seat, contend. The sweep benchmarks time one expiry pass over
+ * 10,000 live holds that are not due yet, which the old cleanup job had to scan in full.
+ * <p>
+ * Run with {@code ./gradlew jmh}; the gc profiler adds the bytes allocated per operation.
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SeatHoldRegistryBenchmark {
+
+    private static final int SEATS_PER_SHOWTIME = 200;
+    private static final int LIVE_HOLDS = 10_000;
+    private static final long HOLD_TIMEOUT_MINUTES = 5;
+    private static final ShowtimeId[] SHOWTIMES = {
+            new ShowtimeId(101L, 1L), new ShowtimeId(102L, 1L), new ShowtimeId(103L, 2L), new ShowtimeId(104L, 3L)
+    };
+
+    private SeatHoldRegistry registry;
+    private ConcurrentHashMap<String, Map<String, Object>> legacyHolds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        registry = new SeatHoldRegistry(HOLD_TIMEOUT_MINUTES);
+        legacyHolds = new ConcurrentHashMap<>();
+    }
+
+    @State(Scope.Thread)
+    public static class Clicker {
+        String userId;
+
+        @Setup
+        public void setUp() {
+            userId = "user-" + Thread.currentThread().getId();
+        }
+    }
+
+    /**
+     * Holds that stay live for the whole trial, spread over the hot showtimes and many more
+     */
+    @State(Scope.Benchmark)
+    public static class LiveHolds {
+        SeatHoldRegistry registry;
+        ConcurrentHashMap<String, Map<String, Object>> legacyHolds;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            registry = new SeatHoldRegistry(HOLD_TIMEOUT_MINUTES);
+            legacyHolds = new ConcurrentHashMap<>();
+            long now = System.currentTimeMillis();
+            for (int i = 0; i < LIVE_HOLDS; i++) {
+                ShowtimeId showtimeId = new ShowtimeId(1000L + i / SEATS_PER_SHOWTIME, 1L);
+                long seatId = i % SEATS_PER_SHOWTIME;
+                String userId = "user-" + i;
+                registry.claim(showtimeId, seatId, userId, now);
+                legacyHolds.put(legacyKey(showtimeId, seatId), legacyHold(userId, now));
+            }
+        }
+    }
+
+    @Benchmark
+    @Threads(8)
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public boolean registryClick(Clicker clicker) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        ShowtimeId showtimeId = SHOWTIMES[random.nextInt(SHOWTIMES.length)];
+        long seatId = random.nextInt(SEATS_PER_SHOWTIME);
+        if (registry.claim(showtimeId, seatId, clicker.userId, System.currentTimeMillis()).isClaimed()) {
+            return registry.release(showtimeId, seatId, clicker.userId);
+        }
+        return false;
+    }
+
+    /**
+     * The old select and release: an unconditional put, then a get, an owner check and a remove
+     */
+    @Benchmark
+    @Threads(8)
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public boolean legacyMapClick(Clicker clicker) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        ShowtimeId showtimeId = SHOWTIMES[random.nextInt(SHOWTIMES.length)];
+        long seatId = random.nextInt(SEATS_PER_SHOWTIME);
+        String seatKey = legacyKey(showtimeId, seatId);
+        legacyHolds.put(seatKey, legacyHold(clicker.userId, System.currentTimeMillis()));
+        Map<String, Object> existing = legacyHolds.get(seatKey);
+        if (existing != null && existing.get("userId").equals(clicker.userId)) {
+            legacyHolds.remove(seatKey);
+            return true;
+        }
+        return false;
+    }
+
+    @Benchmark
+    @Threads(1)
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<SeatHold> registrySweep(LiveHolds holds) {
+        return holds.registry.expire(System.currentTimeMillis());
+    }
+
+    /**
+     * The old cleanup pass: every hold's timestamp is unboxed and compared, expired keys are split and parsed
+     */
+    @Benchmark
+    @Threads(1)
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public int legacyMapSweep(LiveHolds holds) {
+        long cutoffTime = System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(HOLD_TIMEOUT_MINUTES);
+        int expired = 0;
+        for (Map.Entry<String, Map<String, Object>> entry : holds.legacyHolds.entrySet()) {
+            Long timestamp = (Long) entry.getValue().get("timestamp");
+            if (timestamp < cutoffTime) {
+                String[] parts = entry.getKey().split("-");
+                expired += Long.parseLong(parts[0]) + Long.parseLong(parts[1]) + Long.parseLong(parts[2]) >= 0 ? 1 : 0;
+            }
+        }
+        return expired;
+    }
+
+    private static String legacyKey(ShowtimeId showtimeId, long seatId) {
+        return showtimeId.getRoomId() + "-" + showtimeId.getScheduleId() + "-" + seatId;
+    }
+
+    private static Map<String, Object> legacyHold(String userId, long timestamp) {
+        Map<String, Object> reservationInfo = new HashMap<>();
+        reservationInfo.put("userId", userId);
+        reservationInfo.put("timestamp", timestamp);
+        return reservationInfo;
+    }
+}
@@ -0,0 +1,72 @@
+package com.booking.movieticket.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class ExecutorConfig {
+
+    /**
+     * Workers of the queued booking mode. Each worker drains one showtime's queue at a time, so the pool size
+     * bounds how many bookings hit the database concurrently, independently of the number of HTTP threads.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor bookingQueueExecutor(@Value("${booking.queue.workers:4}") int workers,
+                                                       @Value("${booking.queue.max-active-showtimes:1000}") int maxActiveShowtimes) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(maxActiveShowtimes);
+        executor.setThreadNamePrefix("booking-queue-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+
+    /**
+     * Runs showtime generation jobs off the HTTP threads. Jobs beyond the queue capacity are refused rather than
+     * piling up; a job interrupted by shutdown resumes from its checkpoint at the next start.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor showtimeGenerationExecutor(@Value("${showtime.generation.workers:1}") int workers,
+                                                             @Value("${showtime.generation.queue-capacity:20}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("showtime-generation-");
+        return executor;
+    }
+
+    /**
+     * Generates report files off the HTTP threads. Each worker holds one database connection while it streams a
+     * report, so the pool size bounds how many connections reports can take.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor reportExecutor(@Value("${report.jobs.workers:2}") int workers,
+                                                 @Value("${report.jobs.queue-capacity:20}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("report-");
+        return executor;
+    }
+
+    /**
+     * Refreshes the revenue rollup after bills are paid, so checkout never waits on the showtime's advisory lock or
+     * the aggregate query. A refresh refused by a full queue is repaired by the nightly reconciliation.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor revenueRollupExecutor(@Value("${revenue.rollup.workers:2}") int workers,
+                                                        @Value("${revenue.rollup.queue-capacity:1000}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("revenue-rollup-");
+        return executor;
+    }
+}
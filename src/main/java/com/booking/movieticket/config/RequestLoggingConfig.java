@@ -10,7 +10,6 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.web.filter.CommonsRequestLoggingFilter;
 import org.springframework.web.filter.OncePerRequestFilter;
 import org.springframework.web.util.ContentCachingRequestWrapper;
-import org.springframework.web.util.ContentCachingResponseWrapper;
 
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
@@ -37,7 +36,6 @@ public class RequestLoggingConfig {
             @Override
             protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
                 ContentCachingRequestWrapper requestWrapper = new ContentCachingRequestWrapper(request);
-                ContentCachingResponseWrapper responseWrapper = new ContentCachingResponseWrapper(response);
                 
                 long startTime = System.currentTimeMillis();
                 
@@ -52,8 +50,9 @@ public class RequestLoggingConfig {
                     log.info("Header: {} = {}", headerName, request.getHeader(headerName));
                 }
                 
-                // Continue with filter chain
-                filterChain.doFilter(requestWrapper, responseWrapper);
+                // Continue with filter chain. The response is not wrapped: a caching wrapper would buffer streamed
+                // bodies (e.g. the booking history export) in memory, and its body is not logged anyway.
+                filterChain.doFilter(requestWrapper, response);
                 
                 // Calculate request duration
                 long duration = System.currentTimeMillis() - startTime;
@@ -68,19 +67,9 @@ public class RequestLoggingConfig {
                 log.info("=== [RESPONSE] {} {} - {} ({} ms) ===", 
                         request.getMethod(), 
                         request.getRequestURI(),
-                        responseWrapper.getStatus(),
+                        response.getStatus(),
                         duration);
                 
-                // Log response body if enabled
-                /* 
-                String responseBody = new String(responseWrapper.getContentAsByteArray(), StandardCharsets.UTF_8);
-                if (!responseBody.isEmpty()) {
-                    log.info("Response Body: {}", responseBody);
-                }
-                */
-                
-                // Copy content of response wrapper back to original response
-                responseWrapper.copyBodyToResponse();
             }
         };
     }
@@ -1,5 +1,6 @@
 package com.booking.movieticket.configuration.socket;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Bean;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
@@ -17,12 +18,42 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 //    @Autowired
 //    private AuthChannelInterceptor authChannelInterceptor;
 
+    // Relay to an external STOMP broker (e.g. RabbitMQ) so broadcasts reach clients connected to any node
+    @Value("${messagebroker.relay-enabled:false}")
+    private boolean relayEnabled;
+
+    @Value("${messagebroker.host:localhost}")
+    private String relayHost;
+
+    @Value("${messagebroker.port:61613}")
+    private int relayPort;
+
+    @Value("${messagebroker.username:guest}")
+    private String relayUsername;
+
+    @Value("${messagebroker.password:guest}")
+    private String relayPassword;
+
+    @Value("${messagebroker.virtualHost:/}")
+    private String relayVirtualHost;
+
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
-        // Enable and configure heart beats to maintain connection
-        config.enableSimpleBroker("/topic", "/receive", "/queue")
-            .setHeartbeatValue(new long[] {10000, 10000})
-            .setTaskScheduler(heartBeatScheduler());
+        if (relayEnabled) {
+            config.enableStompBrokerRelay("/topic", "/queue")
+                .setRelayHost(relayHost)
+                .setRelayPort(relayPort)
+                .setClientLogin(relayUsername)
+                .setClientPasscode(relayPassword)
+                .setSystemLogin(relayUsername)
+                .setSystemPasscode(relayPassword)
+                .setVirtualHost(relayVirtualHost);
+        } else {
+            // Enable and configure heart beats to maintain connection
+            config.enableSimpleBroker("/topic", "/receive", "/queue")
+                .setHeartbeatValue(new long[] {10000, 10000})
+                .setTaskScheduler(heartBeatScheduler());
+        }
             
         config.setApplicationDestinationPrefixes("/send", "/app"); // Client gửi tin nhắn đến server qua "/send" or "/app"
         // Thiết lập prefix cho destination riêng của người dùng
@@ -39,6 +70,19 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
                 .setHeartbeatTime(10000); // 10 second heartbeat
     }
 
+    /**
+     * Scheduler for @Scheduled jobs. Declaring heartBeatScheduler makes Spring Boot skip its own scheduler, and
+     * without a bean named taskScheduler every job would share one thread, so the seat broadcast flush would
+     * wait behind the DB sync jobs.
+     */
+    @Bean
+    public TaskScheduler taskScheduler(@Value("${spring.task.scheduling.pool.size:4}") int poolSize) {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(poolSize);
+        scheduler.setThreadNamePrefix("scheduling-");
+        return scheduler;
+    }
+
     @Bean
     public TaskScheduler heartBeatScheduler() {
         ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
@@ -3,12 +3,17 @@ package com.booking.movieticket.controller;
 import com.booking.movieticket.dto.request.BookingRequest;
 import com.booking.movieticket.dto.response.ApiResponse;
 import com.booking.movieticket.dto.response.BookingResponse;
+import com.booking.movieticket.dto.response.BookingTicketResponse;
+import com.booking.movieticket.exception.AppException;
+import com.booking.movieticket.exception.ErrorCode;
 import com.booking.movieticket.security.jwt.DomainUserDetails;
+import com.booking.movieticket.service.BookingQueueService;
 import com.booking.movieticket.service.BookingService;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
@@ -24,6 +29,7 @@ import java.util.Map;
 public class ApiBookingController {
 
     BookingService bookingService;
+    BookingQueueService bookingQueueService;
     
     @PostMapping("/create")
     public ResponseEntity<ApiResponse<?>> createBooking(
@@ -48,6 +54,36 @@ public class ApiBookingController {
         }
     }
     
+    /**
+     * Queue a booking instead of booking synchronously, for hot showtimes.
+     * The response carries a ticket id to poll on /queue/{ticketId} or to follow on /topic/booking-tickets/{ticketId}.
+     */
+    @PostMapping("/queue")
+    public ResponseEntity<ApiResponse<?>> queueBooking(
+            @AuthenticationPrincipal DomainUserDetails userDetails,
+            @RequestBody BookingRequest bookingRequest) {
+        BookingTicketResponse ticket = bookingQueueService.submit(requireUserId(userDetails), bookingRequest);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(new ApiResponse<>("Booking request queued", ticket));
+    }
+
+    @GetMapping("/queue/{ticketId}")
+    public ResponseEntity<ApiResponse<?>> getBookingTicket(
+            @AuthenticationPrincipal DomainUserDetails userDetails,
+            @PathVariable String ticketId) {
+        BookingTicketResponse ticket = bookingQueueService.getTicket(requireUserId(userDetails), ticketId);
+        return ResponseEntity.ok(new ApiResponse<>("Booking ticket retrieved successfully", ticket));
+    }
+
+    /**
+     * /api/v1/bookings/** is open to anonymous callers, so endpoints acting for a user check the principal here
+     */
+    private Long requireUserId(DomainUserDetails userDetails) {
+        if (userDetails == null) {
+            throw new AppException(ErrorCode.UNAUTHENTICATED);
+        }
+        return userDetails.getUserId();
+    }
+
     @PostMapping("/payment/qr-code")
     public ResponseEntity<ApiResponse<?>> generateQRCode(
             @AuthenticationPrincipal DomainUserDetails userDetails,
@@ -3,17 +3,24 @@ package com.booking.movieticket.controller;
 import com.booking.movieticket.dto.request.BookingRequest;
 import com.booking.movieticket.dto.response.ApiResponse;
 import com.booking.movieticket.dto.response.BookingResponse;
+import com.booking.movieticket.dto.response.BookingHistoryPageResponse;
 import com.booking.movieticket.dto.response.BookingHistoryResponse;
 import com.booking.movieticket.security.jwt.DomainUserDetails;
 import com.booking.movieticket.service.BookingService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 import java.util.Map;
 
@@ -26,6 +33,7 @@ import java.util.Map;
 public class BookingController {
 
     BookingService bookingService;
+    ObjectMapper objectMapper;
 
     @PostMapping("/sepay-webhook")
     public ResponseEntity<ApiResponse<?>> createBooking(
@@ -80,6 +88,57 @@ public class BookingController {
         return ResponseEntity.ok(new ApiResponse<>("User booking history retrieved successfully", bookingHistory));
     }
 
+    /**
+     * Get one page of the booking history, newest first
+     *
+     * @param userDetails Authenticated user details
+     * @param after Cursor returned as nextCursor by the previous page; omit for the first page
+     * @param limit Page size, at most 100
+     * @return The page and the cursor of the next one
+     */
+    @GetMapping("/history/page")
+    public ResponseEntity<ApiResponse<?>> getUserBookingHistoryPage(
+            @AuthenticationPrincipal DomainUserDetails userDetails,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "20") int limit) {
+        log.info("Getting booking history page for user: {} after {}", userDetails.getUserId(), after);
+        BookingHistoryPageResponse page = bookingService.getUserBookingHistoryPage(userDetails.getUserId(), after, limit);
+        return ResponseEntity.ok(new ApiResponse<>("User booking history retrieved successfully", page));
+    }
+
+    /**
+     * Export the whole booking history as newline-delimited JSON, one booking per line, newest first.
+     * Bookings are written page by page as they are read, so the response never holds the full history.
+     *
+     * @param userDetails Authenticated user details
+     */
+    @GetMapping(value = "/history/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportUserBookingHistory(
+            @AuthenticationPrincipal DomainUserDetails userDetails) {
+        Long userId = userDetails.getUserId();
+        log.info("Exporting booking history for user: {}", userId);
+        StreamingResponseBody body = outputStream -> {
+            try {
+                bookingService.exportUserBookingHistory(userId, booking -> {
+                    try {
+                        // writeValue(OutputStream) would close the response after the first line
+                        outputStream.write(objectMapper.writeValueAsBytes(booking));
+                        outputStream.write('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            outputStream.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"booking-history.ndjson\"")
+                .body(body);
+    }
+
     /**
      * Lấy thông tin chi tiết đơn đặt vé
      *
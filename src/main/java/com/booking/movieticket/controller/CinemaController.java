@@ -7,6 +7,7 @@ import com.booking.movieticket.dto.response.ApiResponse;
 import com.booking.movieticket.dto.response.admin.CinemaResponse;
 import com.booking.movieticket.dto.response.admin.create.CinemaCreatedResponse;
 import com.booking.movieticket.service.BranchService;
+import com.booking.movieticket.service.CatalogVersionService;
 import com.booking.movieticket.service.CinemaService;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Min;
@@ -24,6 +25,7 @@ import org.springframework.validation.BindingResult;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.util.List;
@@ -39,16 +41,25 @@ public class CinemaController {
 
     CinemaService cinemaService;
     BranchService branchService;
+    CatalogVersionService catalogVersionService;
 
     @GetMapping("")
     public ResponseEntity<ApiResponse<Page<CinemaResponse>>> getAllCinemas(CinemaCriteria cinemaCriteria,
-                                                                           @PageableDefault(size = 20, sort = "id", direction = Sort.Direction.DESC) Pageable pageable) {
+                                                                           @PageableDefault(size = 20, sort = "id", direction = Sort.Direction.DESC) Pageable pageable,
+                                                                           WebRequest webRequest) {
+        if (webRequest.checkNotModified(catalogVersionService.cinemas())) {
+            return null;
+        }
         return ResponseEntity.status(HttpStatus.OK)
                 .body(new ApiResponse<>("Cinema fetched successfully.", cinemaService.getAllCinemas(cinemaCriteria, pageable)));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<ApiResponse<CinemaResponse>> getCinemaById(@PathVariable @Min(value = 1, message = "Id must be greater than or equal to 1.") Long id) {
+    public ResponseEntity<ApiResponse<CinemaResponse>> getCinemaById(@PathVariable @Min(value = 1, message = "Id must be greater than or equal to 1.") Long id,
+                                                                     WebRequest webRequest) {
+        if (webRequest.checkNotModified(catalogVersionService.cinemas())) {
+            return null;
+        }
         return ResponseEntity.status(HttpStatus.OK).body(new ApiResponse<>("Cinema details fetched successfully.", cinemaService.getCinemaById(id)));
     }
 
@@ -83,7 +94,10 @@ public class CinemaController {
     }
 
     @GetMapping("/name")
-    public ResponseEntity<ApiResponse<List<String>>> getAllActiveCinemaName() {
+    public ResponseEntity<ApiResponse<List<String>>> getAllActiveCinemaName(WebRequest webRequest) {
+        if (webRequest.checkNotModified(catalogVersionService.cinemas())) {
+            return null;
+        }
         List<String> names = cinemaService.getAllActiveCinemaName();
         return ResponseEntity.status(HttpStatus.OK)
                 .body(new ApiResponse<>("List cinema name fetched successfully.", names));
@@ -4,6 +4,7 @@ import com.booking.movieticket.dto.response.ApiResponse;
 import com.booking.movieticket.dto.response.FoodResponse;
 import com.booking.movieticket.entity.Food;
 import com.booking.movieticket.repository.FoodRepository;
+import com.booking.movieticket.service.CatalogVersionService;
 import com.booking.movieticket.service.FoodService;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
@@ -11,6 +12,7 @@ import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -23,10 +25,14 @@ import java.util.List;
 public class FoodController {
 
     FoodService foodService;
+    CatalogVersionService catalogVersionService;
 
     @GetMapping
-    public ResponseEntity<ApiResponse<?>> getAllFoods() {
+    public ResponseEntity<ApiResponse<?>> getAllFoods(WebRequest webRequest) {
         log.info("Getting all foods");
+        if (webRequest.checkNotModified(catalogVersionService.foods())) {
+            return null;
+        }
         List<FoodResponse> foods = foodService.listFoods();
         return ResponseEntity.ok(new ApiResponse<>("Foods retrieved successfully", foods));
     }
@@ -7,6 +7,8 @@ import com.booking.movieticket.dto.response.ApiResponse;
 import com.booking.movieticket.dto.response.admin.MovieResponse;
 import com.booking.movieticket.dto.response.admin.create.MovieCreatedResponse;
 import com.booking.movieticket.entity.Movie;
+import com.booking.movieticket.entity.enums.StatusMovie;
+import com.booking.movieticket.service.CatalogVersionService;
 import com.booking.movieticket.service.MovieService;
 import com.booking.movieticket.service.ImageUploadService;
 import jakarta.validation.Valid;
@@ -25,6 +27,7 @@ import org.springframework.validation.BindingResult;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
@@ -43,6 +46,7 @@ public class MovieController {
 
     MovieService movieService;
     ImageUploadService imageUploadService;
+    CatalogVersionService catalogVersionService;
 
     @GetMapping("")
     public ResponseEntity<ApiResponse<Page<MovieResponse>>> getAllMovies(MovieCriteria movieCriteria,
@@ -131,19 +135,28 @@ public class MovieController {
     }
 
     @GetMapping("/showing")
-    public ResponseEntity<ApiResponse<?>> getShowingMovies() {
+    public ResponseEntity<ApiResponse<?>> getShowingMovies(WebRequest webRequest) {
+        if (webRequest.checkNotModified(catalogVersionService.moviesByStatus(StatusMovie.SHOWING))) {
+            return null;
+        }
         List<Movie> movies = movieService.getShowingMovies();
         return ResponseEntity.ok(new ApiResponse<>("Successfully retrieved showing movies", movies));
     }
 
     @GetMapping("/upcoming")
-    public ResponseEntity<ApiResponse<?>> getUpcomingMovies() {
+    public ResponseEntity<ApiResponse<?>> getUpcomingMovies(WebRequest webRequest) {
+        if (webRequest.checkNotModified(catalogVersionService.moviesByStatus(StatusMovie.UPCOMING))) {
+            return null;
+        }
         List<Movie> movies = movieService.getUpcomingMovies();
         return ResponseEntity.ok(new ApiResponse<>("Successfully retrieved upcoming movies", movies));
     }
 
     @GetMapping("/detail/{id}")
-    public ResponseEntity<ApiResponse<?>> getMovieDetail(@PathVariable Long id) {
+    public ResponseEntity<ApiResponse<?>> getMovieDetail(@PathVariable Long id, WebRequest webRequest) {
+        if (webRequest.checkNotModified(catalogVersionService.movie(id))) {
+            return null;
+        }
         Movie movieInfo = movieService.findMovie(id);
         return ResponseEntity.ok(new ApiResponse<>("Get movie information successfully", movieInfo));
     }
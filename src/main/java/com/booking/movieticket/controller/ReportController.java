@@ -2,13 +2,19 @@ package com.booking.movieticket.controller;
 
 import com.booking.movieticket.dto.report.SalesReportDTO;
 import com.booking.movieticket.dto.report.AttendanceReportDTO;
+import com.booking.movieticket.dto.report.ReportJobRequest;
+import com.booking.movieticket.dto.report.ReportJobResponse;
+import com.booking.movieticket.service.ReportJobService;
 import com.booking.movieticket.service.ReportService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.Resource;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -19,6 +25,7 @@ import java.util.List;
 public class ReportController {
 
     private final ReportService reportService;
+    private final ReportJobService reportJobService;
 
     @GetMapping("/sales")
     public ResponseEntity<List<SalesReportDTO>> getSalesReport(
@@ -37,11 +44,13 @@ public class ReportController {
     }
 
     @GetMapping("/sales/export")
-    public ResponseEntity<byte[]> exportSalesReport(
+    public ResponseEntity<StreamingResponseBody> exportSalesReport(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
             @RequestParam(defaultValue = "daily") String type) {
-        byte[] reportData = reportService.exportSalesReport(startDate, endDate, type);
+        // Written straight to the response as rows are read
+        StreamingResponseBody reportData = outputStream ->
+                reportService.exportSalesReport(startDate, endDate, type, outputStream);
         
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
@@ -54,11 +63,12 @@ public class ReportController {
     }
 
     @GetMapping("/attendance/export")
-    public ResponseEntity<byte[]> exportAttendanceReport(
+    public ResponseEntity<StreamingResponseBody> exportAttendanceReport(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
             @RequestParam(defaultValue = "daily") String type) {
-        byte[] reportData = reportService.exportAttendanceReport(startDate, endDate, type);
+        StreamingResponseBody reportData = outputStream ->
+                reportService.exportAttendanceReport(startDate, endDate, type, outputStream);
         
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
@@ -69,4 +79,34 @@ public class ReportController {
                 .headers(headers)
                 .body(reportData);
     }
+
+    /**
+     * Queue the generation of a report file instead of exporting it within the request. Poll the returned job or
+     * subscribe to /topic/reports/{jobId}; once COMPLETED, download it from its downloadUrl.
+     */
+    @PostMapping("/jobs")
+    public ResponseEntity<ReportJobResponse> submitReportJob(@RequestBody ReportJobRequest request) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(reportJobService.submit(request));
+    }
+
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<ReportJobResponse> getReportJob(@PathVariable String jobId) {
+        return ResponseEntity.ok(reportJobService.getJob(jobId));
+    }
+
+    @GetMapping("/jobs/{jobId}/download")
+    public ResponseEntity<Resource> downloadReport(@PathVariable String jobId) {
+        ReportJobResponse job = reportJobService.getJob(jobId);
+        Resource artifact = reportJobService.getArtifact(jobId);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
+        headers.setContentDispositionFormData("attachment",
+            String.format("%s-report-%s-%s.xlsx", job.getReport().name().toLowerCase(), job.getStartDate(),
+                    job.getEndDate()));
+
+        return ResponseEntity.ok()
+                .headers(headers)
+                .body(artifact);
+    }
 } 
\ No newline at end of file
@@ -2,6 +2,7 @@ package com.booking.movieticket.controller;
 
 import com.booking.movieticket.dto.response.ApiResponse;
 import com.booking.movieticket.dto.response.RevenueByCategoryDTO;
+import com.booking.movieticket.dto.response.RevenueDashboardDTO;
 import com.booking.movieticket.dto.response.RevenueSummaryDTO;
 import com.booking.movieticket.dto.response.RevenueTimeSeriesDTO;
 import com.booking.movieticket.service.RevenueAnalyticsService;
@@ -97,4 +98,30 @@ public class RevenueAnalyticsController {
         RevenueSummaryDTO result = revenueAnalyticsService.getRevenueSummary(startDate, endDate);
         return ResponseEntity.ok(new ApiResponse<>("Revenue summary retrieved successfully", result));
     }
+
+    /**
+     * Get the summary, daily, by-movie, by-cinema, by-showtime and by-ticket-type revenue of a date range at once.
+     * Same data as the six endpoints above, read in a single pass.
+     */
+    @GetMapping("/dashboard")
+    public ResponseEntity<ApiResponse<?>> getRevenueDashboard(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) Integer movieLimit) {
+        log.info("Getting revenue dashboard for period: {} to {}", startDate, endDate);
+        RevenueDashboardDTO result = revenueAnalyticsService.getRevenueDashboard(startDate, endDate, movieLimit);
+        return ResponseEntity.ok(new ApiResponse<>("Revenue dashboard retrieved successfully", result));
+    }
+
+    /**
+     * Check the revenue rollup against the raw bills for a date range, repairing the showtimes that differ
+     */
+    @PostMapping("/rollup/reconcile")
+    public ResponseEntity<ApiResponse<Integer>> reconcileRollup(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        log.info("Reconciling revenue rollup for period: {} to {}", startDate, endDate);
+        int repaired = revenueAnalyticsService.reconcileRollup(startDate, endDate);
+        return ResponseEntity.ok(new ApiResponse<>("Revenue rollup reconciled, showtimes repaired", repaired));
+    }
 }
\ No newline at end of file
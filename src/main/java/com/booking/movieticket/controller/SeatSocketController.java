@@ -2,28 +2,44 @@ package com.booking.movieticket.controller;
 
 import com.booking.movieticket.dto.request.SeatReservationRequest;
 import com.booking.movieticket.dto.response.SeatReservationResponse;
-import com.booking.movieticket.entity.ShowtimeSeat;
+import com.booking.movieticket.dto.response.SeatStateResponse;
 import com.booking.movieticket.entity.compositekey.ShowtimeId;
 import com.booking.movieticket.entity.enums.StatusSeat;
+import com.booking.movieticket.event.SeatsBookedEvent;
 import com.booking.movieticket.repository.ShowtimeSeatRepository;
+import com.booking.movieticket.repository.projection.SeatStatusView;
 import com.booking.movieticket.security.jwt.DomainUserDetails;
+import com.booking.movieticket.service.seat.SeatBroadcastCoalescer;
+import com.booking.movieticket.service.seat.SeatClaimResult;
+import com.booking.movieticket.service.seat.SeatHold;
+import com.booking.movieticket.service.seat.SeatHoldStore;
+import com.booking.movieticket.service.seat.SeatHoldTokenService;
+import com.booking.movieticket.service.seat.SeatStateTracker;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
 import org.springframework.messaging.handler.annotation.DestinationVariable;
 import org.springframework.messaging.handler.annotation.MessageMapping;
-import org.springframework.messaging.handler.annotation.SendTo;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.stereotype.Controller;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
 
 import java.time.Instant;
-import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 @Controller
 @RequiredArgsConstructor
@@ -31,21 +47,46 @@ import java.util.concurrent.ConcurrentHashMap;
 public class SeatSocketController {
     private final SimpMessagingTemplate messagingTemplate;
     private final ShowtimeSeatRepository showtimeSeatRepository;
-    
-    // Map to track temporary seat reservations: roomId-scheduleId-seatId -> {userId, timestamp}
-    private final ConcurrentHashMap<String, Map<String, Object>> temporaryReservations = new ConcurrentHashMap<>();
-    
-    // Timeout for temporary reservations (in minutes)
-    private static final int RESERVATION_TIMEOUT_MINUTES = 5;
+
+    // Temporary seat reservations, in memory or shared between nodes depending on seat.hold.store
+    private final SeatHoldStore seatHoldStore;
+
+    // Versioned seat map per showtime, sent to subscribers as a snapshot or as the changes they missed
+    private final SeatStateTracker seatStateTracker;
+
+    // Batches broadcasts per showtime topic, see seat.broadcast.coalesce-window-ms
+    private final SeatBroadcastCoalescer seatBroadcastCoalescer;
+
+    // Signs the hold token the holder sends back with the booking
+    private final SeatHoldTokenService seatHoldTokenService;
+
+    // Per-session destination for rejections and other messages meant for the requester only
+    private static final String SEAT_QUEUE = "/queue/seats";
+
+    // Per-session destination for the seat state sent when a client subscribes to a showtime's seat topic
+    private static final String SEAT_STATE_QUEUE = "/queue/seats/state";
+
+    // Optional STOMP SUBSCRIBE header with the last version a reconnecting client has applied
+    private static final String SINCE_VERSION_HEADER = "since-version";
+
+    // Upper bound on ids per bulk status query, far below the driver's bind parameter limit
+    private static final int STATUS_QUERY_BATCH = 1000;
+
+    private static final Pattern SEAT_TOPIC = Pattern.compile("^/topic/seats/(\\d+)/(\\d+)$");
     
     /**
-     * Handle temporary seat reservation requests from clients
+     * Handle temporary seat reservation requests from clients.
+     * A seat is claimed atomically: only the first user to select an AVAILABLE seat gets the hold and the broadcast,
+     * every other selection is rejected privately on /user/queue/seats instead of being broadcast as SELECTED.
+     * The winner also gets a private confirmation on /user/queue/seats carrying the seat's hold token.
+     * Accepted changes reach the showtime topic inside a SeatBatchUpdate within one coalescing window.
      */
     @MessageMapping("/seats/reserve/{roomId}/{scheduleId}")
-    @SendTo("/topic/seats/{roomId}/{scheduleId}")
-    public SeatReservationResponse reserveSeat(@DestinationVariable Long roomId, 
-                                             @DestinationVariable Long scheduleId,
-                                             SeatReservationRequest request) {
+    public void reserveSeat(@DestinationVariable Long roomId, 
+                            @DestinationVariable Long scheduleId,
+                            SeatReservationRequest request,
+                            SimpMessageHeaderAccessor headerAccessor) {
+        String sessionId = headerAccessor.getSessionId();
         try {
             String userId = request.getUserId();
             Long seatId = request.getSeatId();
@@ -54,244 +95,319 @@ public class SeatSocketController {
             log.debug("Received seat reservation: Room={}, Schedule={}, Seat={}, User={}, Status={}", 
                 roomId, scheduleId, seatId, userId, status);
             
-            // Create a unique key for this seat
-            String seatKey = roomId + "-" + scheduleId + "-" + seatId;
-            
+            // Holds are owned by the user id; one without an owner would block the seat for everybody
+            if (userId == null || userId.isBlank()) {
+                log.warn("Rejected seat reservation without a user id for seat {} of showtime {}/{}", seatId, roomId, scheduleId);
+                sendToSession(sessionId, SeatReservationResponse.builder()
+                        .seatId(seatId)
+                        .roomId(roomId)
+                        .scheduleId(scheduleId)
+                        .error("User id is required")
+                        .build());
+                return;
+            }
+
+            ShowtimeId showtimeId = new ShowtimeId(scheduleId, roomId);
+
             // If reservation is being made (SELECTED status)
             if (status == StatusSeat.SELECTED) {
-                // Store the reservation with timestamp
-                Map<String, Object> reservationInfo = new HashMap<>();
-                reservationInfo.put("userId", userId);
-                reservationInfo.put("timestamp", Instant.now().toEpochMilli());
-                temporaryReservations.put(seatKey, reservationInfo);
-                
-                log.debug("Temporary reservation created for seat {}", seatKey);
+                // Booked (or unknown) seats can never be held, whatever the in-memory state says
+                StatusSeat statusInDb = showtimeSeatRepository.findStatusById(seatId, scheduleId, roomId).orElse(null);
+                if (statusInDb != StatusSeat.AVAILABLE) {
+                    log.warn("User {} attempted to select seat {} of showtime {}/{} with status {} in DB", userId, seatId, roomId, scheduleId, statusInDb);
+                    SeatReservationResponse rejection = systemStatusResponse(roomId, scheduleId, seatId,
+                            statusInDb != null ? statusInDb : StatusSeat.AVAILABLE);
+                    rejection.setError(statusInDb != null ? "Seat is not available" : "Seat does not belong to this showtime");
+                    sendToSession(sessionId, rejection);
+                    return;
+                }
+
+                SeatClaimResult claim = seatHoldStore.claim(showtimeId, seatId, userId, Instant.now().toEpochMilli());
+                if (!claim.isClaimed()) {
+                    log.warn("User {} attempted to select seat {} of showtime {}/{} already held by user {}",
+                            userId, seatId, roomId, scheduleId, claim.getHold().getUserId());
+                    SeatReservationResponse rejection = toResponse(claim.getHold(), StatusSeat.SELECTED);
+                    rejection.setError("Seat is already selected by another user");
+                    sendToSession(sessionId, rejection);
+                    return;
+                }
+                log.debug("Temporary reservation created for seat {} of showtime {}/{}", seatId, roomId, scheduleId);
+
+                // Only the holder gets the hold token, to be passed back in BookingRequest.holdTokens
+                SeatReservationResponse confirmation = toResponse(claim.getHold(), StatusSeat.SELECTED);
+                confirmation.setHoldToken(seatHoldTokenService.issue(claim.getHold()));
+                sendToSession(sessionId, confirmation);
             } 
             // If seat is being released (AVAILABLE status)
             else if (status == StatusSeat.AVAILABLE) {
                 // Only allow if this user made the reservation
-                Map<String, Object> existing = temporaryReservations.get(seatKey);
-                if (existing != null && existing.get("userId").equals(userId)) {
-                    temporaryReservations.remove(seatKey);
-                    log.debug("Temporary reservation removed for seat {}", seatKey);
+                if (seatHoldStore.release(showtimeId, seatId, userId)) {
+                    log.debug("Temporary reservation removed for seat {} of showtime {}/{}", seatId, roomId, scheduleId);
                 } else {
-                    log.warn("User {} attempted to release seat {} reserved by another user", userId, seatKey);
-                    // Don't allow the action, return current status
-                    return createCurrentStatusResponse(roomId, scheduleId, seatId, userId);
+                    log.warn("User {} attempted to release seat {} of showtime {}/{} reserved by another user", userId, seatId, roomId, scheduleId);
+                    // Don't allow the action, tell the requester the current status
+                    SeatReservationResponse rejection = createCurrentStatusResponse(roomId, scheduleId, seatId, userId);
+                    rejection.setError("Seat is not reserved by this user");
+                    sendToSession(sessionId, rejection);
+                    return;
                 }
             }
             
-            // Return the response to broadcast to all clients
-            return SeatReservationResponse.builder()
-                    .seatId(seatId)
-                    .status(status)
-                    .userId(userId)
-                    .roomId(roomId)
-                    .scheduleId(scheduleId)
-                    .timestamp(Instant.now().toEpochMilli())
-                    .build();
+            // Broadcast the accepted change to all clients of this showtime
+            publishChange(showtimeId, seatId, status, userId);
         } catch (Exception e) {
             log.error("Error processing seat reservation", e);
-            return SeatReservationResponse.builder()
+            sendToSession(sessionId, SeatReservationResponse.builder()
+                    .roomId(roomId)
+                    .scheduleId(scheduleId)
                     .error("Error processing reservation: " + e.getMessage())
-                    .build();
+                    .build());
+        }
+    }
+
+    /**
+     * Send the seat state of a showtime to a client subscribing to its seat topic.
+     * Clients subscribe to /user/queue/seats/state first, then to /topic/seats/{roomId}/{scheduleId}; a reconnecting
+     * client may add a since-version header and only receives the changes after that version when they are still
+     * in the history, otherwise a full snapshot. Broadcast versions are contiguous per showtime, so a client that
+     * sees a gap re-subscribes with the last version it applied.
+     */
+    @EventListener
+    public void onSeatTopicSubscribe(SessionSubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        String destination = accessor.getDestination();
+        if (destination == null) {
+            return;
+        }
+        Matcher matcher = SEAT_TOPIC.matcher(destination);
+        if (!matcher.matches()) {
+            return;
+        }
+        ShowtimeId showtimeId = new ShowtimeId(Long.valueOf(matcher.group(2)), Long.valueOf(matcher.group(1)));
+        try {
+            Optional<SeatStateResponse> state = Optional.empty();
+            String sinceVersion = accessor.getFirstNativeHeader(SINCE_VERSION_HEADER);
+            if (sinceVersion != null) {
+                try {
+                    state = seatStateTracker.changesSince(showtimeId, Long.parseLong(sinceVersion));
+                } catch (NumberFormatException e) {
+                    log.debug("Ignoring invalid {} header: {}", SINCE_VERSION_HEADER, sinceVersion);
+                }
+            }
+            if (state.isEmpty()) {
+                state = seatStateTracker.snapshot(showtimeId);
+            }
+            state.ifPresent(seatState -> sendToSession(accessor.getSessionId(), SEAT_STATE_QUEUE, seatState));
+        } catch (Exception e) {
+            log.error("Error sending seat state of showtime {}/{} to session {}",
+                    showtimeId.getRoomId(), showtimeId.getScheduleId(), accessor.getSessionId(), e);
         }
     }
+
+    /**
+     * Once a booking commits, drop the holds on its seats and broadcast them as BOOKED
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onSeatsBooked(SeatsBookedEvent event) {
+        ShowtimeId showtimeId = new ShowtimeId(event.getScheduleId(), event.getRoomId());
+        for (Long seatId : event.getShowtimeSeatIds()) {
+            seatHoldStore.remove(showtimeId, seatId);
+            publishChange(showtimeId, seatId, StatusSeat.BOOKED, "system_booking");
+        }
+        log.debug("Broadcasted {} booked seats for showtime {}/{}", event.getShowtimeSeatIds().size(),
+                event.getRoomId(), event.getScheduleId());
+    }
+
+    /**
+     * Record a seat change in the versioned seat state and queue it for the showtime's next batched broadcast
+     */
+    private void publishChange(ShowtimeId showtimeId, Long seatId, StatusSeat status, String userId) {
+        // Enqueued while the tracker holds the showtime's lock, so batches carry versions in order
+        seatStateTracker.recordChange(showtimeId, seatId, status, userId, change ->
+                seatBroadcastCoalescer.enqueue(showtimeId, SeatReservationResponse.builder()
+                        .seatId(seatId)
+                        .status(status)
+                        .userId(userId)
+                        .roomId(showtimeId.getRoomId())
+                        .scheduleId(showtimeId.getScheduleId())
+                        .timestamp(Instant.now().toEpochMilli())
+                        .version(change != null ? change.getVersion() : null)
+                        .build()));
+    }
+
+    /**
+     * Send a message to the requesting WebSocket session only (subscribed on /user/queue/seats)
+     */
+    private void sendToSession(String sessionId, SeatReservationResponse response) {
+        sendToSession(sessionId, SEAT_QUEUE, response);
+    }
+
+    private void sendToSession(String sessionId, String destination, Object payload) {
+        SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        headers.setSessionId(sessionId);
+        headers.setLeaveMutable(true);
+        messagingTemplate.convertAndSendToUser(sessionId, destination, payload, headers.getMessageHeaders());
+    }
     
     /**
      * Check seat status before allowing action
      */
     private SeatReservationResponse createCurrentStatusResponse(Long roomId, Long scheduleId, Long seatId, String userId) {
-        String seatKey = roomId + "-" + scheduleId + "-" + seatId;
-        Map<String, Object> reservationInfo = temporaryReservations.get(seatKey);
+        SeatHold hold = seatHoldStore.get(new ShowtimeId(scheduleId, roomId), seatId);
         
-        if (reservationInfo != null) {
-            String currentUserId = (String) reservationInfo.get("userId");
-            return SeatReservationResponse.builder()
-                    .seatId(seatId)
-                    .status(StatusSeat.SELECTED)
-                    .userId(currentUserId)
-                    .roomId(roomId)
-                    .scheduleId(scheduleId)
-                    .timestamp((Long) reservationInfo.get("timestamp"))
-                    .build();
+        if (hold != null) {
+            return toResponse(hold, StatusSeat.SELECTED);
         }
         
         // Check database for permanent status
         try {
-            List<ShowtimeSeat> seats = showtimeSeatRepository.findByShowtimeId(scheduleId, roomId);
-            for (ShowtimeSeat seat : seats) {
-                if (seat.getId().equals(seatId)) {
-                    return SeatReservationResponse.builder()
-                            .seatId(seatId)
-                            .status(seat.getStatus())
-                            .userId("system")  // System-set status
-                            .roomId(roomId)
-                            .scheduleId(scheduleId)
-                            .timestamp(Instant.now().toEpochMilli())
-                            .build();
-                }
+            StatusSeat statusInDb = showtimeSeatRepository.findStatusById(seatId, scheduleId, roomId).orElse(null);
+            if (statusInDb != null) {
+                return systemStatusResponse(roomId, scheduleId, seatId, statusInDb);
             }
         } catch (Exception e) {
             log.error("Error checking seat status in database", e);
         }
         
         // Default to available if not found
+        return systemStatusResponse(roomId, scheduleId, seatId, StatusSeat.AVAILABLE);
+    }
+
+    private SeatReservationResponse systemStatusResponse(Long roomId, Long scheduleId, Long seatId, StatusSeat status) {
         return SeatReservationResponse.builder()
                 .seatId(seatId)
-                .status(StatusSeat.AVAILABLE)
-                .userId("system")
+                .status(status)
+                .userId("system")  // System-set status
                 .roomId(roomId)
                 .scheduleId(scheduleId)
                 .timestamp(Instant.now().toEpochMilli())
                 .build();
     }
+
+    private SeatReservationResponse toResponse(SeatHold hold, StatusSeat status) {
+        return SeatReservationResponse.builder()
+                .seatId(hold.getSeatId())
+                .status(status)
+                .userId(hold.getUserId())
+                .roomId(hold.getRoomId())
+                .scheduleId(hold.getScheduleId())
+                .timestamp(hold.getHeldAt())
+                .build();
+    }
     
     /**
-     * Regularly clean up expired temporary reservations
+     * Regularly clean up expired temporary reservations.
+     * The hold store only hands back holds that are due, so this can run far more often than once a minute.
+     * The DB status of every expired seat is read in one bulk (id, status) query.
      */
-    @Scheduled(fixedDelay = 60000) // Run every minute
-    @Transactional // Added @Transactional to allow database access
+    @Scheduled(fixedDelayString = "${seat.hold.sweep-interval-ms:1000}")
+    @Transactional(readOnly = true)
     public void cleanupExpiredReservations() {
-        Instant cutoff = Instant.now().minus(RESERVATION_TIMEOUT_MINUTES, ChronoUnit.MINUTES);
-        long cutoffTime = cutoff.toEpochMilli();
-        int cleaned = 0;
+        List<SeatHold> expiredHolds = seatHoldStore.expire(Instant.now().toEpochMilli());
+        if (expiredHolds.isEmpty()) {
+            return;
+        }
         int notBroadcastedDueToBooking = 0; // Counter for seats not broadcasted
 
-        log.debug("Starting cleanup of expired temporary seat reservations. Cutoff time: {}", cutoff);
-
-        for (Map.Entry<String, Map<String, Object>> entry : temporaryReservations.entrySet()) {
-            Long timestamp = (Long) entry.getValue().get("timestamp");
-            String seatKey = entry.getKey();
-
-            if (timestamp < cutoffTime) {
-                log.debug("Temporary reservation for seatKey {} with timestamp {} is expired.", seatKey, timestamp);
-                // Parse the key to get components
-                String[] parts = seatKey.split("-");
-                if (parts.length != 3) {
-                    log.error("Invalid seatKey format found during cleanup: {}. Skipping.", seatKey);
-                    temporaryReservations.remove(seatKey); // Remove malformed key
-                    cleaned++; // Count as cleaned to avoid reprocessing
-                    continue;
-                }
+        log.debug("Starting cleanup of {} expired temporary seat reservations.", expiredHolds.size());
 
-                Long roomId = Long.parseLong(parts[0]);
-                Long scheduleId = Long.parseLong(parts[1]);
-                Long seatId = Long.parseLong(parts[2]);
+        Map<Long, StatusSeat> statusesInDb;
+        try {
+            statusesInDb = findStatuses(expiredHolds);
+        } catch (Exception e) {
+            // Holds are already gone from the hold store; broadcast them as released rather than leaving clients stale
+            log.error("Error checking database status of {} expired seats during cleanup. Broadcasting them as AVAILABLE.", expiredHolds.size(), e);
+            statusesInDb = Map.of();
+        }
 
-                // Check database status before broadcasting AVAILABLE
-                try {
-                    ShowtimeSeat seatInDb = showtimeSeatRepository.findById(seatId)
-                        .orElse(null); // Find by primary key
-
-                    if (seatInDb != null && seatInDb.getStatus() == StatusSeat.BOOKED) {
-                        log.info("Seat {} (Key: {}) was BOOKED in DB. Removing from temporary reservations without broadcasting AVAILABLE.", seatId, seatKey);
-                        notBroadcastedDueToBooking++;
-                    } else {
-                        // If not booked, or not found (should ideally not happen if key is valid), proceed to mark AVAILABLE
-                        log.debug("Seat {} (Key: {}) is not BOOKED in DB (or not found). Broadcasting AVAILABLE.", seatId, seatKey);
-                        SeatReservationResponse update = SeatReservationResponse.builder()
-                                .seatId(seatId)
-                                .status(StatusSeat.AVAILABLE)
-                                .userId("system_timeout") // Clarify source of update
-                                .roomId(roomId)
-                                .scheduleId(scheduleId)
-                                .timestamp(Instant.now().toEpochMilli())
-                                .build();
-                        messagingTemplate.convertAndSend("/topic/seats/" + roomId + "/" + scheduleId, update);
-                        log.info("Broadcasted AVAILABLE for expired seatId {} (Key: {}) for showtime {}/{}", seatId, seatKey, roomId, scheduleId);
-                    }
-                } catch (Exception e) {
-                    log.error("Error checking database status for seatId {} (Key: {}) during cleanup. Seat will be removed from temp reservations.", seatId, seatKey, e);
-                    // Still remove from temporary reservations to prevent loop, but log error
-                }
-                
-                temporaryReservations.remove(seatKey);
-                cleaned++;
+        for (SeatHold hold : expiredHolds) {
+            Long roomId = hold.getRoomId();
+            Long scheduleId = hold.getScheduleId();
+            Long seatId = hold.getSeatId();
+
+            if (statusesInDb.get(seatId) == StatusSeat.BOOKED) {
+                log.info("Seat {} of showtime {}/{} was BOOKED in DB. Removed from temporary reservations without broadcasting AVAILABLE.", seatId, roomId, scheduleId);
+                notBroadcastedDueToBooking++;
+            } else {
+                // If not booked, or not found (should ideally not happen if key is valid), proceed to mark AVAILABLE
+                publishChange(new ShowtimeId(scheduleId, roomId), seatId, StatusSeat.AVAILABLE, "system_timeout"); // Clarify source of update
+                log.info("Broadcasted AVAILABLE for expired seatId {} for showtime {}/{}", seatId, roomId, scheduleId);
             }
         }
 
-        if (cleaned > 0) {
-            log.info("Finished cleanup. Cleaned {} expired seat reservations. {} reservations were already BOOKED and not broadcasted as AVAILABLE.", cleaned, notBroadcastedDueToBooking);
-        }
+        log.info("Finished cleanup. Cleaned {} expired seat reservations. {} reservations were already BOOKED and not broadcasted as AVAILABLE.", expiredHolds.size(), notBroadcastedDueToBooking);
     }
     
     /**
-     * Sync with database to ensure temporary reservations reflect current DB state
+     * Sync with database to ensure temporary reservations reflect current DB state.
+     * The statuses of all held seats, across every showtime, are read in one bulk (id, status) query.
      */
     @Scheduled(fixedDelay = 300000) // Every 5 minutes
     @Transactional(readOnly = true)
     public void syncWithDatabase() {
         log.info("Starting periodic sync of temporary seat reservations with database."); // Changed to info
         
-        Map<ShowtimeId, List<ShowtimeSeat>> showtimesCache = new HashMap<>();
         int syncedToBooked = 0;
         int alreadyConsistent = 0;
-        int keysProcessed = 0;
-
-        for (String seatKey : temporaryReservations.keySet()) { // Iterate over keys to allow removal
-            keysProcessed++;
-            String[] parts = seatKey.split("-");
-            if (parts.length != 3) {
-                log.warn("Invalid seatKey format found during DB sync: {}. Skipping.", seatKey);
-                continue;
-            }
 
-            try {
-                Long roomId = Long.parseLong(parts[0]);
-                Long scheduleId = Long.parseLong(parts[1]);
-                Long seatId = Long.parseLong(parts[2]);
-
-                ShowtimeId showtimeId = new ShowtimeId(scheduleId, roomId);
-
-                // Use cached seat list or fetch from database
-                List<ShowtimeSeat> seats = showtimesCache.computeIfAbsent(showtimeId,
-                    id -> {
-                        log.debug("DB Sync: Fetching seats for showtimeId: {}", id);
-                        return showtimeSeatRepository.findByShowtimeId(id.getScheduleId(), id.getRoomId());
-                    });
-
-                ShowtimeSeat seatInDb = seats.stream()
-                    .filter(s -> s.getId().equals(seatId))
-                    .findFirst()
-                    .orElse(null);
-
-                if (seatInDb != null) {
-                    if (seatInDb.getStatus() == StatusSeat.BOOKED) {
-                        // Seat is booked in DB but still in temporary reservations, remove it
-                        temporaryReservations.remove(seatKey); // Safe to remove while iterating a copy of keyset or manage iterator
-
-                        // Notify clients about the updated status
-                        SeatReservationResponse update = SeatReservationResponse.builder()
-                                .seatId(seatId)
-                                .status(StatusSeat.BOOKED)
-                                .userId("system_sync") // Clarify source
-                                .roomId(roomId)
-                                .scheduleId(scheduleId)
-                                .timestamp(Instant.now().toEpochMilli())
-                                .build();
-
-                        messagingTemplate.convertAndSend("/topic/seats/" + roomId + "/" + scheduleId, update);
-                        log.info("DB Sync: Seat {} (Key: {}) status updated to BOOKED from database and removed from temp reservations.", seatId, seatKey);
-                        syncedToBooked++;
-                    } else {
-                        // Seat in DB is not BOOKED, but is in temporary reservations. This is an expected state for an active selection.
-                        log.debug("DB Sync: Seat {} (Key: {}) is in temp reservations and status in DB is {}. No action needed.", seatId, seatKey, seatInDb.getStatus());
-                        alreadyConsistent++;
-                    }
-                } else {
-                    // Seat is in temporary reservations but not found in DB for that showtime.
-                    // This could mean the seat or showtime was deleted, or data inconsistency.
-                    log.warn("DB Sync: Seat {} (Key: {}) in temporary reservations but not found in database for showtime {}/{}. Removing from temp.", seatId, seatKey, roomId, scheduleId);
-                    temporaryReservations.remove(seatKey);
-                }
+        List<SeatHold> holds = new ArrayList<>();
+        for (ShowtimeId showtimeId : seatHoldStore.activeShowtimes()) {
+            holds.addAll(seatHoldStore.holdsFor(showtimeId));
+        }
+        if (holds.isEmpty()) {
+            log.info("Finished DB sync. No temporary reservations to check.");
+            return;
+        }
 
-            } catch (NumberFormatException e) {
-                log.error("DB Sync: Invalid seat key format: {}", seatKey, e);
-            } catch (Exception e) {
-                log.error("DB Sync: Error during database sync for seat key: {}", seatKey, e);
+        Map<Long, StatusSeat> statusesInDb;
+        try {
+            statusesInDb = findStatuses(holds);
+        } catch (Exception e) {
+            log.error("DB Sync: Error reading database status of {} held seats", holds.size(), e);
+            return;
+        }
+
+        for (SeatHold hold : holds) {
+            ShowtimeId showtimeId = new ShowtimeId(hold.getScheduleId(), hold.getRoomId());
+            Long roomId = hold.getRoomId();
+            Long scheduleId = hold.getScheduleId();
+            Long seatId = hold.getSeatId();
+            StatusSeat statusInDb = statusesInDb.get(seatId);
+
+            if (statusInDb == null) {
+                // Seat is in temporary reservations but not found in DB.
+                // This could mean the seat or showtime was deleted, or data inconsistency.
+                log.warn("DB Sync: Seat {} in temporary reservations but not found in database for showtime {}/{}. Removing from temp.", seatId, roomId, scheduleId);
+                seatHoldStore.remove(showtimeId, seatId);
+            } else if (statusInDb == StatusSeat.BOOKED) {
+                // Seat is booked in DB but still in temporary reservations, remove it
+                seatHoldStore.remove(showtimeId, seatId);
+
+                // Notify clients about the updated status
+                publishChange(showtimeId, seatId, StatusSeat.BOOKED, "system_sync"); // Clarify source
+                log.info("DB Sync: Seat {} of showtime {}/{} status updated to BOOKED from database and removed from temp reservations.", seatId, roomId, scheduleId);
+                syncedToBooked++;
+            } else {
+                // Seat in DB is not BOOKED, but is in temporary reservations. This is an expected state for an active selection.
+                log.debug("DB Sync: Seat {} of showtime {}/{} is in temp reservations and status in DB is {}. No action needed.", seatId, roomId, scheduleId, statusInDb);
+                alreadyConsistent++;
+            }
+        }
+        log.info("Finished DB sync. Processed {} temporary reservations. Synced {} to BOOKED. {} were already consistent or handled.", holds.size(), syncedToBooked, alreadyConsistent);
+    }
+
+    /**
+     * Read the DB status of the held seats with one (id, status) query per STATUS_QUERY_BATCH seats
+     */
+    private Map<Long, StatusSeat> findStatuses(List<SeatHold> holds) {
+        List<Long> seatIds = holds.stream().map(SeatHold::getSeatId).distinct().toList();
+        Map<Long, StatusSeat> statuses = new HashMap<>(seatIds.size() * 2);
+        for (int from = 0; from < seatIds.size(); from += STATUS_QUERY_BATCH) {
+            List<Long> chunk = seatIds.subList(from, Math.min(from + STATUS_QUERY_BATCH, seatIds.size()));
+            for (SeatStatusView seat : showtimeSeatRepository.findStatusesByIds(chunk)) {
+                statuses.put(seat.getId(), seat.getStatus());
             }
         }
-        log.info("Finished DB sync. Processed {} temporary reservation keys. Synced {} to BOOKED. {} were already consistent or handled.", keysProcessed, syncedToBooked, alreadyConsistent);
+        return statuses;
     }
-} 
\ No newline at end of file
+}
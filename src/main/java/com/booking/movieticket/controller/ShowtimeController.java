@@ -1,17 +1,28 @@
 package com.booking.movieticket.controller;
 
 import com.booking.movieticket.dto.request.admin.create.ShowtimeForCreateRequest;
+import com.booking.movieticket.dto.request.admin.create.ShowtimeGenerationRequest;
 import com.booking.movieticket.dto.response.ApiResponse;
+import com.booking.movieticket.dto.response.DateAvailabilityResponse;
+import com.booking.movieticket.dto.response.RoomLayoutResponse;
+import com.booking.movieticket.dto.response.SeatStateResponse;
+import com.booking.movieticket.dto.response.SeatStatusVectorResponse;
 import com.booking.movieticket.dto.response.ShowtimeDetailResponse;
+import com.booking.movieticket.dto.response.ShowtimeGenerationJobResponse;
 import com.booking.movieticket.dto.response.ShowtimeResponse;
+import com.booking.movieticket.event.ShowtimesChangedEvent;
+import com.booking.movieticket.service.CatalogVersionService;
+import com.booking.movieticket.service.ShowtimeGenerationService;
 import com.booking.movieticket.service.ShowtimeService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import jakarta.persistence.Query;
 import org.springframework.http.HttpStatus;
 
@@ -21,12 +32,6 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
-import java.util.Set;
-import java.util.HashSet;
-import java.util.Collections;
-import java.util.concurrent.atomic.AtomicInteger;
-import java.util.stream.Collectors;
-import java.util.Arrays;
 
 import com.booking.movieticket.entity.Movie;
 import com.booking.movieticket.entity.Room;
@@ -36,7 +41,6 @@ import com.booking.movieticket.entity.Showtime;
 import com.booking.movieticket.entity.ShowtimeSeat;
 import com.booking.movieticket.entity.compositekey.ShowtimeId;
 import com.booking.movieticket.entity.enums.StatusSeat;
-import com.booking.movieticket.entity.enums.StatusMovie;
 import com.booking.movieticket.entity.enums.TypeSeat;
 import com.booking.movieticket.exception.AppException;
 
@@ -51,6 +55,15 @@ public class ShowtimeController {
     @Autowired
     private EntityManager entityManager;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private CatalogVersionService catalogVersionService;
+
+    @Autowired
+    private ShowtimeGenerationService showtimeGenerationService;
+
     @Autowired
     public ShowtimeController(ShowtimeService showtimeService) {
         this.showtimeService = showtimeService;
@@ -72,8 +85,12 @@ public class ShowtimeController {
     @GetMapping("/{movieId}/by-date")
     public ResponseEntity<ApiResponse<?>> getShowtimesByMovieAndDate(
             @PathVariable Long movieId,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            WebRequest webRequest) {
         log.info("Fetching showtimes for movie with ID: {} on date: {}", movieId, date);
+        if (webRequest.checkNotModified(catalogVersionService.showtimesOfMovie(movieId))) {
+            return null;
+        }
         ShowtimeResponse showtimeResponse = showtimeService.getShowtimesByMovieAndDate(movieId, date);
         return ResponseEntity.ok(new ApiResponse<>(
                 "Successfully retrieved showtimes for movie on specified date", showtimeResponse));
@@ -91,7 +108,11 @@ public class ShowtimeController {
     public ResponseEntity<ApiResponse<?>> getShowtimesByMovieAndDate(
             @PathVariable Long movieId,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
-            @RequestParam(required = false) Long cinemaId) {
+            @RequestParam(required = false) Long cinemaId,
+            WebRequest webRequest) {
+        if (webRequest.checkNotModified(catalogVersionService.showtimesOfMovie(movieId))) {
+            return null;
+        }
         ShowtimeResponse showtimeResponse = showtimeService.getShowtimesByMovieAndDateAndCinema(movieId, date, cinemaId);
 
         return ResponseEntity.ok(new ApiResponse<>(
@@ -112,6 +133,23 @@ public class ShowtimeController {
                 "Successfully retrieved available dates for movie", availableDates));
     }
 
+    /**
+     * Get the upcoming dates of a movie with showtime and free seat counts, flagging sold-out dates
+     *
+     * @param movieId ID of the movie
+     * @param cinemaId Optional ID of cinema to filter by
+     * @return API response with one entry per date
+     */
+    @GetMapping("/{movieId}/availability")
+    public ResponseEntity<ApiResponse<List<DateAvailabilityResponse>>> getAvailabilityByMovie(
+            @PathVariable Long movieId,
+            @RequestParam(required = false) Long cinemaId) {
+        log.info("Fetching availability for movie with ID: {}, cinemaId: {}", movieId, cinemaId);
+        List<DateAvailabilityResponse> availability = showtimeService.getAvailabilityByMovie(movieId, cinemaId);
+        return ResponseEntity.ok(new ApiResponse<>(
+                "Successfully retrieved availability for movie", availability));
+    }
+
     /**
      * API to get detail information for a specific showtime
      */
@@ -132,6 +170,45 @@ public class ShowtimeController {
         }
     }
 
+    /**
+     * Get the seat map state of a showtime, including seats currently held by other users.
+     * Pass the version of the last state or change applied to only get what changed since then.
+     */
+    @GetMapping("/{scheduleId}/{roomId}/seat-state")
+    public ResponseEntity<ApiResponse<SeatStateResponse>> getSeatState(
+            @PathVariable Long scheduleId,
+            @PathVariable Long roomId,
+            @RequestParam(required = false) Long sinceVersion) {
+        SeatStateResponse seatState = showtimeService.getSeatState(scheduleId, roomId, sinceVersion);
+        return ResponseEntity.ok(new ApiResponse<>("Successfully retrieved seat state", seatState));
+    }
+
+    /**
+     * Get the static seat layout of a room. Fetch it once per room and revalidate with If-None-Match;
+     * an unchanged layout is answered with 304 and no body.
+     */
+    @GetMapping("/rooms/{roomId}/layout")
+    public ResponseEntity<ApiResponse<RoomLayoutResponse>> getRoomLayout(@PathVariable Long roomId) {
+        RoomLayoutResponse layout = showtimeService.getRoomLayout(roomId);
+        return ResponseEntity.ok()
+                .eTag(layout.getLayoutVersion())
+                .body(new ApiResponse<>("Successfully retrieved room layout", layout));
+    }
+
+    /**
+     * Get the compact seat map of a showtime: run-length encoded statuses and prices in the seat order of the room
+     * layout. The ETag changes with every seat change, so polling clients get 304 while nothing moved.
+     */
+    @GetMapping("/{scheduleId}/{roomId}/seat-status")
+    public ResponseEntity<ApiResponse<SeatStatusVectorResponse>> getSeatStatusVector(
+            @PathVariable Long scheduleId,
+            @PathVariable Long roomId) {
+        SeatStatusVectorResponse statusVector = showtimeService.getSeatStatusVector(scheduleId, roomId);
+        return ResponseEntity.ok()
+                .eTag(statusVector.getLayoutVersion() + "-" + statusVector.getVersion())
+                .body(new ApiResponse<>("Successfully retrieved seat status", statusVector));
+    }
+
     // Endpoint tạm thời để thêm lịch chiếu cho phim ID 8
     @GetMapping("/add-sample-showtimes")
     @Transactional
@@ -247,6 +324,7 @@ public class ShowtimeController {
                 }
             }
 
+            eventPublisher.publishEvent(new ShowtimesChangedEvent(8L));
             return ResponseEntity.ok(new ApiResponse<>("Added sample showtimes for movie ID 8", addedShowtimes));
         } catch (Exception e) {
             return ResponseEntity.ok(new ApiResponse<>("Error adding sample showtimes: " + e.getMessage(), null));
@@ -277,254 +355,32 @@ public class ShowtimeController {
 
     // Public endpoint để thêm lịch chiếu cho tất cả phim đang hoạt động
     @PostMapping("/public/add-showtimes-for-active-movies")
-    @Transactional
-    public ResponseEntity<ApiResponse<?>> addShowtimesForActiveMoviesPublic() {
-        log.info("Starting creation of showtimes for active movies");
-
-        try {
-            // Lấy danh sách phim SHOWING
-            long startTime = System.currentTimeMillis();
-            Query query = entityManager.createQuery("SELECT m FROM Movie m WHERE m.status = :status");
-            query.setParameter("status", StatusMovie.SHOWING);
-            List<Movie> showingMovies = query.getResultList();
-
-            if (showingMovies.isEmpty()) {
-                log.warn("No movies currently in 'SHOWING' status found");
-                return ResponseEntity.ok(new ApiResponse<>("No movies currently in 'SHOWING' status found", null));
-            }
-            log.info("Fetched {} movies in 'SHOWING' status", showingMovies.size());
-
-            // Prepare dates and times
-            LocalDate today = LocalDate.now();
-            LocalDate tomorrow = today.plusDays(1);
-            LocalDate[] datesToProcess = {today, tomorrow};
-
-            // Danh sách thời gian chiếu
-            LocalTime[] times = {
-                    LocalTime.of(10, 0),
-                    LocalTime.of(13, 30),
-                    LocalTime.of(17, 0),
-                    LocalTime.of(20, 30)
-            };
-
-            // Lấy danh sách tất cả các phòng chiếu có sẵn một lần duy nhất
-            Query roomQuery = entityManager.createQuery("SELECT r FROM Room r WHERE r.isDeleted = false");
-            List<Room> allRooms = roomQuery.getResultList();
-
-            if (allRooms.isEmpty()) {
-                log.warn("No active rooms found in the system.");
-                return ResponseEntity.ok(new ApiResponse<>("No active rooms found. Cannot create showtimes.", null));
-            }
-            log.info("Found {} active rooms", allRooms.size());
-
-            // Preload all seats for all rooms to avoid repeated queries
-            Map<Long, List<Seat>> roomSeatsMap = new HashMap<>();
-            Query allSeatsQuery = entityManager.createQuery("SELECT s FROM Seat s WHERE s.isDeleted = false");
-            List<Seat> allSeats = allSeatsQuery.getResultList();
-
-            for (Seat seat : allSeats) {
-                Long roomId = seat.getRoom().getId();
-                if (!roomSeatsMap.containsKey(roomId)) {
-                    roomSeatsMap.put(roomId, new ArrayList<>());
-                }
-                roomSeatsMap.get(roomId).add(seat);
-            }
-            log.info("Preloaded seats for {} rooms", roomSeatsMap.size());
-
-            // Check existing schedules to avoid duplicates
-            Query existingSchedulesQuery = entityManager.createQuery(
-                    "SELECT NEW map(m.id as movieId, s.date as date, s.timeStart as time, s.id as id) " +
-                    "FROM Schedule s JOIN s.movie m " +
-                    "WHERE m.id IN :movieIds AND s.date IN :dates AND s.isDeleted = false");
-            existingSchedulesQuery.setParameter("movieIds", showingMovies.stream()
-                    .map(Movie::getId).collect(Collectors.toList()));
-            existingSchedulesQuery.setParameter("dates", Arrays.asList(datesToProcess));
-
-            // Create a map of existing schedules for quick lookup
-            Map<String, Long> existingSchedules = new HashMap<>();
-            List<Map<String, Object>> existingSchedulesList = existingSchedulesQuery.getResultList();
-            for (Map<String, Object> schedule : existingSchedulesList) {
-                String key = schedule.get("movieId") + "-" + schedule.get("date") + "-" + schedule.get("time");
-                existingSchedules.put(key, (Long) schedule.get("id"));
-            }
-            log.info("Found {} existing schedules", existingSchedules.size());
-
-            // Check existing showtimes to avoid duplicates
-            Query existingShowtimesQuery = entityManager.createQuery(
-                    "SELECT NEW map(st.id.scheduleId as scheduleId, st.id.roomId as roomId) " +
-                    "FROM Showtime st WHERE st.isDeleted = false");
-
-            // Create a set of existing showtimes for quick lookup
-            Set<String> existingShowtimes = new HashSet<>();
-            List<Map<String, Object>> existingShowtimesList = existingShowtimesQuery.getResultList();
-            for (Map<String, Object> showtime : existingShowtimesList) {
-                String key = showtime.get("scheduleId") + "-" + showtime.get("roomId");
-                existingShowtimes.add(key);
-            }
-            log.info("Found {} existing showtimes", existingShowtimes.size());
-
-            // Prepare batch processing
-            int batchSize = 100;
-            List<Object> batchEntities = new ArrayList<>(batchSize);
-            AtomicInteger totalShowtimesCreated = new AtomicInteger(0);
-            AtomicInteger totalSeatsCreated = new AtomicInteger(0);
-            List<String> operationLog = Collections.synchronizedList(new ArrayList<>());
-
-            // Process all movies in parallel
-            showingMovies.parallelStream().forEach(movie -> {
-                log.info("Processing movie: {} (ID: {})", movie.getName(), movie.getId());
-
-                for (LocalDate date : datesToProcess) {
-                    for (LocalTime time : times) {
-                        // Generate a key for quick lookup
-                        String scheduleKey = movie.getId() + "-" + date + "-" + time;
-
-                        // Get or create schedule
-                        Schedule schedule;
-                        Long scheduleId = existingSchedules.get(scheduleKey);
-
-                        if (scheduleId != null) {
-                            // Use existing schedule
-                            synchronized (this) {
-                                schedule = entityManager.find(Schedule.class, scheduleId);
-                            }
-                            log.info("Found existing schedule (ID: {}) for movie {} on {} at {}",
-                                    scheduleId, movie.getName(), date, time);
-                        } else {
-                            // Create new schedule
-                            schedule = new Schedule();
-                            schedule.setMovie(movie);
-                            schedule.setDate(date);
-                            schedule.setTimeStart(time);
-                            schedule.setIsDeleted(false);
-
-                            synchronized (this) {
-                                entityManager.persist(schedule);
-                                entityManager.flush(); // Ensure ID is assigned
-                            }
-
-                            log.info("Created new schedule (ID: {}) for movie {} on {} at {}",
-                                    schedule.getId(), movie.getName(), date, time);
-                        }
-
-                        // Process rooms for this schedule
-                        for (Room room : allRooms) {
-                            String showtimeKey = schedule.getId() + "-" + room.getId();
-                            if (!existingShowtimes.contains(showtimeKey)) {
-                                Showtime showtime = new Showtime();
-                                ShowtimeId showtimeId = new ShowtimeId();
-                                showtimeId.setScheduleId(schedule.getId());
-                                showtimeId.setRoomId(room.getId());
-
-                                showtime.setId(showtimeId);
-                                showtime.setSchedule(schedule);
-                                showtime.setRoom(room);
-                                showtime.setFormat(room.getRoomType() != null ? room.getRoomType().toString() : "2D");
-                                showtime.setIsDeleted(false);
-
-                                synchronized (this) {
-                                    entityManager.persist(showtime);
-                                }
-
-                                totalShowtimesCreated.incrementAndGet();
-                                operationLog.add(String.format("CREATED Showtime - Movie: %s, Date: %s, Time: %s, Room: %s (ID: %d)",
-                                        movie.getName(), date, time, room.getName(), room.getId()));
-
-                                List<Seat> seatsInRoom = roomSeatsMap.get(room.getId());
-                                if (seatsInRoom != null) {
-                                    List<ShowtimeSeat> newShowtimeSeatsToPersist = new ArrayList<>();
-                                    for (Seat seat : seatsInRoom) {
-                                        // CHECK IF ShowtimeSeat ALREADY EXISTS
-                                        ShowtimeSeat existingShowtimeSeat = null;
-                                        try {
-                                            Query findExistingSeatQuery = entityManager.createQuery(
-                                                    "SELECT ss FROM ShowtimeSeat ss WHERE ss.showtime.id.scheduleId = :scheduleId AND ss.showtime.id.roomId = :roomId AND ss.seat.id = :seatId");
-                                            findExistingSeatQuery.setParameter("scheduleId", schedule.getId());
-                                            findExistingSeatQuery.setParameter("roomId", room.getId());
-                                            findExistingSeatQuery.setParameter("seatId", seat.getId());
-                                            existingShowtimeSeat = (ShowtimeSeat) findExistingSeatQuery.getSingleResult();
-                                        } catch (jakarta.persistence.NoResultException nre) {
-                                            // This is expected if the seat doesn't exist for this showtime yet
-                                        }
-
-                                        if (existingShowtimeSeat == null) {
-                                            ShowtimeSeat showtimeSeat = new ShowtimeSeat();
-                                            showtimeSeat.setShowtime(showtime); // Use the showtime entity just persisted or found
-                                            showtimeSeat.setSeat(seat);
-                                            showtimeSeat.setStatus(StatusSeat.AVAILABLE);
-
-                                            double basePrice = 75000;
-                                            if (seat.getTypeSeat() == TypeSeat.VIP) {
-                                                basePrice *= 1.5;
-                                            } else if (seat.getTypeSeat() == TypeSeat.DOUBLE) {
-                                                basePrice *= 2.2;
-                                            }
-                                            if (date.getDayOfWeek().getValue() >= 5) { // Friday, Saturday, Sunday
-                                                basePrice += 15000;
-                                            }
-                                            showtimeSeat.setPrice(basePrice);
-                                            newShowtimeSeatsToPersist.add(showtimeSeat);
-                                            totalSeatsCreated.incrementAndGet();
-                                        } else {
-                                            log.warn("SKIPPED ShowtimeSeat - Already exists for Movie: {}, Date: {}, Time: {}, Room: {}, Seat: {}. Status: {}",
-                                                    movie.getName(), date, time, room.getName(), seat.getId(), existingShowtimeSeat.getStatus());
-                                        }
-                                    }
-
-                                    if (!newShowtimeSeatsToPersist.isEmpty()) {
-                                        synchronized (batchEntities) {
-                                            batchEntities.addAll(newShowtimeSeatsToPersist);
-                                            if (batchEntities.size() >= batchSize) {
-                                                flushBatch(batchEntities);
-                                            }
-                                        }
-                                    }
-                                }
-                            } else {
-                                log.info("Showtime already exists for scheduleId: {} and roomId: {}",
-                                        schedule.getId(), room.getId());
-                                operationLog.add(String.format("SKIPPED Showtime - Already exists for Movie: %s, Date: %s, Time: %s, Room: %s",
-                                        movie.getName(), date, time, room.getName()));
-                            }
-                        }
-                    }
-                }
-            });
-
-            // Final batch flush
-            if (!batchEntities.isEmpty()) {
-                flushBatch(batchEntities);
-            }
-
-            long endTime = System.currentTimeMillis();
-            log.info("Finished creating showtimes in {} ms. Created {} showtimes with {} seats",
-                    (endTime - startTime), totalShowtimesCreated.get(), totalSeatsCreated.get());
-
-            if (operationLog.isEmpty()) {
-                return ResponseEntity.ok(new ApiResponse<>("No new showtimes were added. All were already existing.", operationLog));
-            } else {
-                return ResponseEntity.ok(new ApiResponse<>("Successfully added showtimes for active movies.", operationLog));
-            }
+    public ResponseEntity<ApiResponse<ShowtimeGenerationJobResponse>> addShowtimesForActiveMoviesPublic() {
+        ShowtimeGenerationJobResponse job = showtimeGenerationService.startForShowingMovies();
+        log.info("Showtime generation for active movies: job {} is {}", job.getJobId(), job.getStatus());
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(new ApiResponse<>("Showtime generation started", job));
+    }
 
-        } catch (Exception e) {
-            log.error("Error creating showtimes: {}", e.getMessage(), e);
-            return ResponseEntity.ok(new ApiResponse<>("Error creating showtimes: " + e.getMessage(), null));
-        }
+    /**
+     * Queue a showtime generation plan (dates, start times, movies, rooms and prices). It runs in the background in
+     * chunked transactions; poll the returned job for progress.
+     */
+    @PostMapping("/generation-jobs")
+    public ResponseEntity<ApiResponse<ShowtimeGenerationJobResponse>> submitShowtimeGeneration(
+            @RequestBody ShowtimeGenerationRequest request) {
+        ShowtimeGenerationJobResponse job = showtimeGenerationService.submit(request);
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(new ApiResponse<>("Showtime generation queued", job));
     }
 
-    // Helper method to flush batch entities
-    private void flushBatch(List<Object> entities) {
-        if (!entities.isEmpty()) {
-            try {
-                for (Object entity : entities) {
-                    entityManager.persist(entity);
-                }
-                entityManager.flush();
-                entities.clear();
-            } catch (Exception e) {
-                log.error("Error during batch flush: {}", e.getMessage(), e);
-            }
-        }
+    /**
+     * Get the progress and throughput of a showtime generation job
+     */
+    @GetMapping("/public/generation-jobs/{jobId}")
+    public ResponseEntity<ApiResponse<ShowtimeGenerationJobResponse>> getShowtimeGenerationJob(@PathVariable String jobId) {
+        return ResponseEntity.ok(new ApiResponse<>("Showtime generation job status",
+                showtimeGenerationService.getJob(jobId)));
     }
 
     // Thêm API endpoint mới để lấy thông tin seat layout
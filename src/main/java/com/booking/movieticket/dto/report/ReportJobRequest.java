@@ -0,0 +1,24 @@
+package com.booking.movieticket.dto.report;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDate;
+
+/**
+ * Report to generate in the background. Same parameters as the synchronous export endpoints; two requests with the
+ * same fields are the same report.
+ */
+@Getter
+@Setter
+public class ReportJobRequest {
+    Report report;
+    LocalDate startDate;
+    LocalDate endDate;
+    // Movie status filter, as for the synchronous reports
+    String type;
+
+    public enum Report {
+        SALES, ATTENDANCE
+    }
+}
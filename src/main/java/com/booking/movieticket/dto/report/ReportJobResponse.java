@@ -0,0 +1,36 @@
+package com.booking.movieticket.dto.report;
+
+import com.booking.movieticket.entity.enums.JobStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * State of a report job. Returned on submission and on polling, and pushed on /topic/reports/{jobId} whenever it
+ * changes.
+ */
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReportJobResponse {
+    private String jobId;
+    private ReportJobRequest.Report report;
+    private JobStatus status;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private String type;
+    // Set once COMPLETED
+    private String downloadUrl;
+    private Long sizeBytes;
+    // Set once FAILED
+    private String errorMessage;
+    private Long createdAt;
+    private Long startedAt;
+    private Long finishedAt;
+    // After this the file is deleted and an identical request generates a new one
+    private Long expiresAt;
+}
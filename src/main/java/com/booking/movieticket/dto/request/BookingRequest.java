@@ -16,6 +16,9 @@ public class BookingRequest {
     private Long roomId;
     private List<Long> seatIds;
     private List<FoodOrderItem> foodItems;
+    // Hold tokens received over WebSocket when the seats were selected; seats they cover are
+    // booked without checking the hold store for other users' holds
+    private List<String> holdTokens;
 
     @Data
     @NoArgsConstructor
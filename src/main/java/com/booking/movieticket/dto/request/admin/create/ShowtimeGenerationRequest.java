@@ -0,0 +1,27 @@
+package com.booking.movieticket.dto.request.admin.create;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+/**
+ * Showtime generation plan. Every field is optional: by default today and tomorrow, at 10:00, 13:30, 17:00 and
+ * 20:30, for every SHOWING movie in every active room, at 75000 with x1.5 for VIP, x2.2 for DOUBLE seats and
+ * +15000 from Friday to Sunday.
+ */
+@Getter
+@Setter
+public class ShowtimeGenerationRequest {
+    LocalDate fromDate;
+    LocalDate toDate;
+    List<LocalTime> startTimes;
+    List<Long> movieIds;
+    List<Long> roomIds;
+    Double basePrice;
+    Double vipFactor;
+    Double doubleFactor;
+    Double weekendSurcharge;
+}
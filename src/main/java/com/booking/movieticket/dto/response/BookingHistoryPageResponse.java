@@ -0,0 +1,16 @@
+package com.booking.movieticket.dto.response;
+
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BookingHistoryPageResponse {
+    private List<BookingHistoryResponse> items;
+    // "<bookingTime>,<bookingId>" of the last item; pass it back as "after" to get the next page, null on the last page
+    private String nextCursor;
+    private boolean hasMore;
+}
@@ -0,0 +1,36 @@
+package com.booking.movieticket.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * State of a queued booking request. Returned when the request is queued and on polling by its owner, and pushed
+ * without the booking on /topic/booking-tickets/{ticketId} whenever it changes.
+ */
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingTicketResponse {
+    private String ticketId;
+    // Owner of the ticket; only they can read it back
+    @JsonIgnore
+    private Long userId;
+    private Status status;
+    private Long scheduleId;
+    private Long roomId;
+    // Set once CONFIRMED
+    private BookingResponse booking;
+    // Set once FAILED
+    private Integer errorCode;
+    private String errorMessage;
+    private Long createdAt;
+    private Long updatedAt;
+
+    public enum Status {
+        QUEUED, PROCESSING, CONFIRMED, FAILED
+    }
+}
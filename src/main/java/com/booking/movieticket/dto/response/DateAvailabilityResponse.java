@@ -0,0 +1,22 @@
+package com.booking.movieticket.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DateAvailabilityResponse {
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate date;
+    private int showtimeCount;
+    // Seats neither booked nor held by a user
+    private int freeSeats;
+    private boolean soldOut;
+}
@@ -0,0 +1,20 @@
+package com.booking.movieticket.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Every revenue breakdown of a date range, as returned by the individual analytics endpoints
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RevenueDashboardDTO {
+    private RevenueSummaryDTO summary;
+    private RevenueTimeSeriesDTO daily;
+    private RevenueByCategoryDTO byMovie;
+    private RevenueByCategoryDTO byCinema;
+    private RevenueByCategoryDTO byShowtime;
+    private RevenueByCategoryDTO byTicketType;
+}
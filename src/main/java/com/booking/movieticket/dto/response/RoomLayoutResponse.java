@@ -0,0 +1,49 @@
+package com.booking.movieticket.dto.response;
+
+import com.booking.movieticket.entity.enums.RoomType;
+import com.booking.movieticket.entity.enums.TypeSeat;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Static seat layout of a room, shared by all of its showtimes. Seats are ordered by id; that order is the order of
+ * the status and price vectors in {@link SeatStatusVectorResponse}.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoomLayoutResponse {
+    private Long roomId;
+    private String name;
+    private RoomType roomType;
+    private Integer seatRowNumbers;
+    private Integer seatColumnNumbers;
+    private Integer aislePosition;
+    private Integer aisleWidth;
+    private Integer aisleHeight;
+    private String branchName;
+    // Content hash of this layout, also sent as its ETag
+    private String layoutVersion;
+
+    @Builder.Default
+    private List<LayoutSeat> seats = new ArrayList<>();
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class LayoutSeat {
+        private Long id;
+        private String rowName;
+        private String columnName;
+        private String rowScreenLabel;
+        private String columnScreenLabel;
+        private TypeSeat typeSeat;
+    }
+}
@@ -0,0 +1,23 @@
+package com.booking.movieticket.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Seat changes of one showtime collected over a short window and broadcast as a single frame.
+ * Changes are ordered by version; clients apply them in order and skip versions they already have.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SeatBatchUpdate {
+    private Long roomId;
+    private Long scheduleId;
+    private Long timestamp;
+    private List<SeatReservationResponse> changes;
+}
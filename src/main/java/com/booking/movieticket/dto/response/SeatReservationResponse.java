@@ -17,5 +17,9 @@ public class SeatReservationResponse {
     private Long roomId;
     private Long scheduleId;
     private Long timestamp;
+    // Seat-state version of this change for the showtime; null on private rejections, which change nothing
+    private Long version;
     private String error;
+    // Only in the private confirmation of a successful selection, to be sent back with the booking
+    private String holdToken;
 } 
\ No newline at end of file
@@ -0,0 +1,38 @@
+package com.booking.movieticket.dto.response;
+
+import com.booking.movieticket.entity.enums.StatusSeat;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Seat state of one showtime: either a full snapshot (database status merged with live holds) or the ordered
+ * list of changes after a version the client already has.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SeatStateResponse {
+    private Long scheduleId;
+    private Long roomId;
+    // Version of the latest change included; the next change for this showtime will carry version + 1
+    private Long version;
+    // true when seats contains every seat of the showtime, false when it only contains changes
+    private Boolean snapshot;
+    private List<SeatState> seats;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class SeatState {
+        private Long seatId;
+        private StatusSeat status;
+        private String userId;
+        private Long version;
+    }
+}
@@ -0,0 +1,39 @@
+package com.booking.movieticket.dto.response;
+
+import com.booking.movieticket.entity.enums.StatusSeat;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Seat statuses and prices of a showtime, run-length encoded in the seat order of the room layout.
+ * <p>
+ * {@code statusRuns} and {@code priceRuns} are flat lists of (index, count) pairs: the next {@code count} seats of the
+ * layout have {@code statusTable[index]} / {@code priceTable[index]}. Index -1 marks seats of the layout that are not
+ * on sale for this showtime. The runs of both lists always add up to the number of layout seats.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SeatStatusVectorResponse {
+    private Long scheduleId;
+    private Long roomId;
+    // The layout these vectors are aligned with; refetch the layout when it differs from the cached one
+    private String layoutVersion;
+    // Seat-state version, usable as sinceVersion for seat-state deltas and the seat topic
+    private Long version;
+
+    @Builder.Default
+    private List<StatusSeat> statusTable = new ArrayList<>();
+    @Builder.Default
+    private List<Integer> statusRuns = new ArrayList<>();
+    @Builder.Default
+    private List<Double> priceTable = new ArrayList<>();
+    @Builder.Default
+    private List<Integer> priceRuns = new ArrayList<>();
+}
@@ -0,0 +1,42 @@
+package com.booking.movieticket.dto.response;
+
+import com.booking.movieticket.entity.enums.JobStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Progress of a showtime generation job. Counters only count rows actually inserted, so re-running a plan over
+ * days that are already generated reports zeros.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ShowtimeGenerationJobResponse {
+    private String jobId;
+    private JobStatus status;
+    private LocalDate fromDate;
+    private LocalDate toDate;
+    private List<String> startTimes;
+    // One chunk is one (movie, date)
+    private Integer totalChunks;
+    private Integer processedChunks;
+    private Long checkpointMovieId;
+    private LocalDate checkpointDate;
+    private Long schedulesCreated;
+    private Long showtimesCreated;
+    private Long seatsCreated;
+    private Long processingMillis;
+    // Showtime seats inserted per second of processing
+    private Double seatsPerSecond;
+    // Set once FAILED
+    private String errorMessage;
+    private Long createdAt;
+    private Long startedAt;
+    private Long finishedAt;
+}
@@ -38,10 +38,10 @@ public class Bill extends BaseEntity {
     @JoinColumn(name = "promotion_id")
     private Promotion promotion;
 
-    @OneToMany(mappedBy = "bill")
+    @OneToMany(mappedBy = "bill", cascade = CascadeType.PERSIST)
     private Set<BillDetail> billDetails = new HashSet<>();
 
-    @OneToMany(mappedBy = "bill")
+    @OneToMany(mappedBy = "bill", cascade = CascadeType.PERSIST)
     private Set<BillFood> billFoods = new HashSet<>();
 
     @ManyToOne
@@ -12,7 +12,10 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "bookings")
+@Table(name = "bookings", indexes = {
+        // Serves the keyset-paginated booking history: WHERE user_id = ? ORDER BY booking_time DESC, booking_id DESC
+        @Index(name = "idx_bookings_user_time", columnList = "user_id, booking_time DESC, booking_id DESC")
+})
 @Getter
 @Setter
 @NoArgsConstructor
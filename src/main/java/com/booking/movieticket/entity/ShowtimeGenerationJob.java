@@ -0,0 +1,101 @@
+package com.booking.movieticket.entity;
+
+import com.booking.movieticket.entity.base.BaseEntity;
+import com.booking.movieticket.entity.enums.JobStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * A showtime generation plan and its progress. The plan is processed in chunks of one (movie, date); each chunk
+ * commits together with the checkpoint below, so a job interrupted by a restart resumes after its last chunk.
+ */
+@Entity
+@Table(name = "showtime_generation_jobs", indexes = {
+        @Index(name = "idx_showtime_generation_jobs_status", columnList = "status")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ShowtimeGenerationJob extends BaseEntity {
+
+    @Id
+    @Column(name = "job_id", length = 36)
+    private String id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private JobStatus status;
+
+    // Plan
+    @Column(name = "from_date", nullable = false)
+    private LocalDate fromDate;
+
+    @Column(name = "to_date", nullable = false)
+    private LocalDate toDate;
+
+    // Comma-separated HH:mm start times
+    @Column(name = "start_times", nullable = false)
+    private String startTimes;
+
+    // Comma-separated ids; null means every SHOWING movie / every active room
+    @Column(name = "movie_ids", columnDefinition = "TEXT")
+    private String movieIds;
+
+    @Column(name = "room_ids", columnDefinition = "TEXT")
+    private String roomIds;
+
+    @Column(name = "base_price", nullable = false)
+    private Double basePrice;
+
+    @Column(name = "vip_factor", nullable = false)
+    private Double vipFactor;
+
+    @Column(name = "double_factor", nullable = false)
+    private Double doubleFactor;
+
+    @Column(name = "weekend_surcharge", nullable = false)
+    private Double weekendSurcharge;
+
+    // Progress
+    @Column(name = "total_chunks")
+    private Integer totalChunks;
+
+    @Column(name = "processed_chunks", nullable = false)
+    private Integer processedChunks;
+
+    // Last committed chunk
+    @Column(name = "checkpoint_movie_id")
+    private Long checkpointMovieId;
+
+    @Column(name = "checkpoint_date")
+    private LocalDate checkpointDate;
+
+    @Column(name = "schedules_created", nullable = false)
+    private Long schedulesCreated;
+
+    @Column(name = "showtimes_created", nullable = false)
+    private Long showtimesCreated;
+
+    @Column(name = "seats_created", nullable = false)
+    private Long seatsCreated;
+
+    // Time spent in committed chunks, across restarts
+    @Column(name = "processing_millis", nullable = false)
+    private Long processingMillis;
+
+    @Column(name = "error_message", length = 1000)
+    private String errorMessage;
+
+    @Column(name = "started_at")
+    private Instant startedAt;
+
+    @Column(name = "finished_at")
+    private Instant finishedAt;
+}
@@ -15,6 +15,9 @@ import java.util.Set;
 @Table(name = "showtime_seat",
         uniqueConstraints = {
                 @UniqueConstraint(columnNames = {"seat_id", "schedule_id", "room_id"})
+        },
+        indexes = {
+                @Index(name = "idx_showtime_seat_booking", columnList = "booking_id")
         }
 )
 @Getter
@@ -48,6 +51,11 @@ public class ShowtimeSeat extends BaseEntity {
 
     private Double price;
 
+    // Bumped on every update; the optimistic booking mode books a seat only if it is unchanged since it was read
+    @Version
+    @Column(name = "version", columnDefinition = "bigint default 0 not null")
+    private Long version;
+
     @OneToMany(mappedBy = "showtimeSeat", cascade = CascadeType.ALL)
     private Set<BillDetail> billDetails = new HashSet<>();
 
@@ -0,0 +1,8 @@
+package com.booking.movieticket.entity.enums;
+
+public enum JobStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
@@ -0,0 +1,18 @@
+package com.booking.movieticket.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Published inside the booking transaction once a bill for tickets of a showtime is PAID.
+ * The revenue rollup of the showtime is refreshed after the transaction commits.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class BillPaidEvent {
+    private final Long billId;
+    private final Long scheduleId;
+    private final Long roomId;
+}
@@ -0,0 +1,16 @@
+package com.booking.movieticket.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Published inside the transaction that changes a room or its seats, so the cached room layout is rebuilt after it
+ * commits
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class RoomLayoutChangedEvent {
+    private final Long roomId;
+}
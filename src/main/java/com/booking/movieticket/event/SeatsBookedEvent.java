@@ -0,0 +1,21 @@
+package com.booking.movieticket.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.List;
+
+/**
+ * Published inside the booking transaction once showtime seats have been marked BOOKED.
+ * Listeners that touch in-memory state should use {@code @TransactionalEventListener} so they only react to commits.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class SeatsBookedEvent {
+    private final Long scheduleId;
+    private final Long roomId;
+    private final List<Long> showtimeSeatIds;
+    private final Long userId;
+}
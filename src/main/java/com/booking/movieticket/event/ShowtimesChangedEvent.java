@@ -0,0 +1,20 @@
+package com.booking.movieticket.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Published inside the transaction that creates showtimes, so cached showtime listings can be dropped once it commits.
+ * A null movieId means showtimes of any number of movies may have changed.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class ShowtimesChangedEvent {
+    private final Long movieId;
+
+    public static ShowtimesChangedEvent allMovies() {
+        return new ShowtimesChangedEvent(null);
+    }
+}
@@ -16,6 +16,7 @@ public enum ErrorCode {
     ROLE_NOT_FOUND(1003, "Role not found", HttpStatus.NOT_FOUND),
     EMAIL_ALREADY_EXISTS(1004, "Email already exists", HttpStatus.CONFLICT),
     INVALID_TOKEN(1005, "Invalid or expired token", HttpStatus.UNAUTHORIZED),
+    UNAUTHENTICATED(1006, "Authentication required", HttpStatus.UNAUTHORIZED),
 
     // Content Errors (1100-1199)
     ACTOR_NOT_FOUND(1100, "Actor not found", HttpStatus.NOT_FOUND),
@@ -36,6 +37,9 @@ public enum ErrorCode {
     ROOM_NOT_FOUND(1208, "Room not found", HttpStatus.NOT_FOUND),
     ROOM_IS_UNASSIGNED(1209, "Room can not be status updated . Only accept AVAILABLE and MAINTENANCE status.", HttpStatus.NOT_FOUND),
     ROOM_IS_NOT_UNASSIGNED(1210, "Room can not be removed. Only accept delete for UNASSIGNED status.", HttpStatus.NOT_FOUND),
+    SEAT_HELD_BY_ANOTHER_USER(1211, "Seat is currently held by another user", HttpStatus.CONFLICT),
+    // Retriable: another checkout held the seats longer than booking.lock-timeout-ms
+    SEAT_LOCK_TIMEOUT(1212, "Seats are being booked by another user, please try again", HttpStatus.CONFLICT),
 
     // Transaction Errors (1300-1399)
     BILL_NOT_FOUND(1300, "Bill not found", HttpStatus.NOT_FOUND),
@@ -51,6 +55,14 @@ public enum ErrorCode {
 
     // Booking related errors
     BOOKING_NOT_FOUND(1310, "Booking not found", HttpStatus.NOT_FOUND),
+    BOOKING_CONFLICT(1314, "Seats were changed by another booking, please try again", HttpStatus.CONFLICT),
+    BOOKING_QUEUE_FULL(1315, "Too many bookings are waiting for this showtime, please try again later", HttpStatus.TOO_MANY_REQUESTS),
+    BOOKING_TICKET_NOT_FOUND(1316, "Booking ticket not found or expired", HttpStatus.NOT_FOUND),
+    SHOWTIME_GENERATION_JOB_NOT_FOUND(1317, "Showtime generation job not found", HttpStatus.NOT_FOUND),
+    SHOWTIME_GENERATION_QUEUE_FULL(1318, "Too many showtime generation jobs are waiting, please try again later", HttpStatus.TOO_MANY_REQUESTS),
+    REPORT_JOB_NOT_FOUND(1319, "Report job not found or expired", HttpStatus.NOT_FOUND),
+    REPORT_QUEUE_FULL(1320, "Too many reports are waiting to be generated, please try again later", HttpStatus.TOO_MANY_REQUESTS),
+    REPORT_NOT_READY(1321, "Report is not generated yet", HttpStatus.CONFLICT),
 
     // Review related errors
     REVIEW_ALREADY_EXISTS(1311, "User has already reviewed this movie", HttpStatus.CONFLICT),
@@ -2,9 +2,13 @@ package com.booking.movieticket.repository;
 
 import com.booking.movieticket.entity.Bill;
 import com.booking.movieticket.entity.Booking;
+import com.booking.movieticket.repository.projection.BookingFoodView;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,4 +16,9 @@ import java.util.Optional;
 public interface BillRepository extends JpaRepository<Bill, Long> {
     Optional<Bill> findByBooking(Booking booking);
     List<Bill> findByUserIdOrderByCreatedAtDesc(Long userId);
+
+    // Food lines of several bookings' bills at once, for the booking history
+    @Query("SELECT b.booking.id AS bookingId, f.name AS name, bf.quantity AS quantity, f.price AS price " +
+           "FROM BillFood bf JOIN bf.bill b JOIN bf.food f WHERE b.booking.id IN :bookingIds")
+    List<BookingFoodView> findFoodsByBookingIds(@Param("bookingIds") Collection<Long> bookingIds);
 }
\ No newline at end of file
@@ -1,8 +1,14 @@
 package com.booking.movieticket.repository;
 
 import com.booking.movieticket.entity.Booking;
+import com.booking.movieticket.repository.projection.BookingHistoryView;
+import com.booking.movieticket.repository.projection.SalesReportRowView;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -10,18 +16,42 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface BookingRepository extends JpaRepository<Booking, Long> {
-    @Query("SELECT b FROM Booking b " +
-           "JOIN FETCH b.showtime s " +
-           "JOIN FETCH s.schedule sched " +
-           "JOIN FETCH sched.movie m " +
+
+    /**
+     * Confirmed bookings summed per movie, format and date. Tickets are counted by a subquery per booking, so
+     * neither bookings nor their seats are loaded.
+     */
+    String SALES_REPORT_QUERY = "SELECT m.name AS movieName, s.format AS format, sched.date AS date, " +
+           "SUM(b.totalAmount) AS revenue, SUM(SIZE(b.showtimeSeats)) AS tickets " +
+           "FROM Booking b " +
+           "JOIN b.showtime s " +
+           "JOIN s.schedule sched " +
+           "JOIN sched.movie m " +
            "WHERE sched.date BETWEEN :startDate AND :endDate " +
            "AND b.status = 'CONFIRMED' " +
            "AND (:type IS NULL OR m.status = :type) " +
-           "ORDER BY sched.date")
-    List<Booking> findSalesReport(
+           "GROUP BY m.id, m.name, s.format, sched.date " +
+           "ORDER BY sched.date, m.name, s.format";
+
+    @Query(SALES_REPORT_QUERY)
+    List<SalesReportRowView> findSalesReport(
+        @Param("startDate") LocalDate startDate,
+        @Param("endDate") LocalDate endDate,
+        @Param("type") String type
+    );
+
+    /**
+     * Same rows as findSalesReport, read through a forward-only cursor.
+     * Must be consumed inside a transaction and closed.
+     */
+    @Query(SALES_REPORT_QUERY)
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    Stream<SalesReportRowView> streamSalesReport(
         @Param("startDate") LocalDate startDate,
         @Param("endDate") LocalDate endDate,
         @Param("type") String type
@@ -42,17 +72,34 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
         @Param("currentDate") LocalDate currentDate,
         @Param("currentTimeOfDay") LocalTime currentTimeOfDay
     );
-    
-    @Query("SELECT b FROM Booking b " +
-           "JOIN FETCH b.user u " +
-           "JOIN FETCH b.showtime s " +
-           "JOIN FETCH s.schedule sched " +
-           "JOIN FETCH sched.movie m " +
-           "JOIN FETCH s.room r " +
-           "JOIN FETCH r.branch br " +
-           "JOIN FETCH br.cinema c " +
-           "LEFT JOIN FETCH b.showtimeSeats ss " +
+
+    String HISTORY_SELECT = "SELECT b.id AS bookingId, b.bookingCode AS bookingCode, b.bookingTime AS bookingTime, " +
+           "b.totalAmount AS totalAmount, b.status AS status, b.paymentMethod AS paymentMethod, " +
+           "b.paymentStatus AS paymentStatus, m.id AS movieId, m.name AS movieName, m.duration AS movieDuration, " +
+           "sched.date AS scheduleDate, sched.timeStart AS timeStart, r.roomType AS roomType, r.name AS roomName, " +
+           "c.name AS cinemaName, br.address AS branchAddress " +
+           "FROM Booking b " +
+           "JOIN b.showtime s " +
+           "JOIN s.schedule sched " +
+           "JOIN sched.movie m " +
+           "JOIN s.room r " +
+           "JOIN r.branch br " +
+           "JOIN br.cinema c ";
+
+    // Keyset pages of a user's history, newest first; (bookingTime, id) is the cursor
+    @Query(HISTORY_SELECT +
            "WHERE b.user.id = :userId " +
-           "ORDER BY b.bookingTime DESC")
-    List<Booking> findByUserIdWithDetails(@Param("userId") Long userId);
-} 
\ No newline at end of file
+           "ORDER BY b.bookingTime DESC, b.id DESC")
+    List<BookingHistoryView> findHistoryFirstPage(@Param("userId") Long userId, Pageable pageable);
+
+    @Query(HISTORY_SELECT +
+           "WHERE b.user.id = :userId " +
+           "AND (b.bookingTime < :bookingTime OR (b.bookingTime = :bookingTime AND b.id < :bookingId)) " +
+           "ORDER BY b.bookingTime DESC, b.id DESC")
+    List<BookingHistoryView> findHistoryPageAfter(
+        @Param("userId") Long userId,
+        @Param("bookingTime") LocalDateTime bookingTime,
+        @Param("bookingId") Long bookingId,
+        Pageable pageable
+    );
+}
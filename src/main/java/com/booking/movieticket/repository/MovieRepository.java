@@ -3,8 +3,11 @@ package com.booking.movieticket.repository;
 import com.booking.movieticket.entity.Movie;
 import com.booking.movieticket.entity.User;
 import com.booking.movieticket.entity.enums.StatusMovie;
+import com.booking.movieticket.repository.projection.MovieHeaderView;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -15,4 +18,9 @@ public interface MovieRepository extends JpaRepository<Movie, Long>, JpaSpecific
     List<Movie> findByStatus(StatusMovie status);
 
     Optional<Movie> findById(long id);
+
+    @Query("SELECT m.id AS id, m.name AS name, m.imageSmallUrl AS imageSmallUrl, m.duration AS duration, " +
+           "m.summary AS summary, m.director AS director, m.ageLimit AS ageLimit " +
+           "FROM Movie m WHERE m.id = :movieId")
+    Optional<MovieHeaderView> findHeaderById(@Param("movieId") Long movieId);
 }
\ No newline at end of file
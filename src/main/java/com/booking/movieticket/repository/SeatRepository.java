@@ -7,9 +7,13 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface SeatRepository extends JpaRepository<Seat, Long> {
     @Modifying
     @Query("DELETE FROM Seat s WHERE s.room.id = :roomId")
     Integer deleteAllByRoomId(@Param("roomId") Long roomId);
+
+    List<Seat> findByRoomIdOrderByIdAsc(Long roomId);
 }
@@ -0,0 +1,18 @@
+package com.booking.movieticket.repository;
+
+import com.booking.movieticket.entity.ShowtimeGenerationJob;
+import com.booking.movieticket.entity.enums.JobStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ShowtimeGenerationJobRepository extends JpaRepository<ShowtimeGenerationJob, String> {
+
+    /**
+     * Jobs in the given states, oldest first; used to resume unfinished jobs and to find a duplicate plan
+     */
+    List<ShowtimeGenerationJob> findByStatusInOrderByCreatedAtAsc(Collection<JobStatus> statuses);
+}
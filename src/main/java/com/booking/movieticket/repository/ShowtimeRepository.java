@@ -2,66 +2,111 @@ package com.booking.movieticket.repository;
 
 import com.booking.movieticket.entity.Showtime;
 import com.booking.movieticket.entity.compositekey.ShowtimeId;
+import com.booking.movieticket.entity.enums.StatusSeat;
+import com.booking.movieticket.repository.projection.AttendanceReportRowView;
+import com.booking.movieticket.repository.projection.ShowtimeAvailabilityView;
+import com.booking.movieticket.repository.projection.ShowtimeListingView;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface ShowtimeRepository extends JpaRepository<Showtime, ShowtimeId> {
 
+    String LISTING_SELECT = "SELECT st.id.scheduleId AS scheduleId, st.id.roomId AS roomId, " +
+           "s.date AS scheduleDate, s.timeStart AS timeStart, r.name AS roomName, r.roomType AS roomType, " +
+           "b.id AS branchId, b.name AS branchName, b.address AS branchAddress, b.hotline AS branchHotline, " +
+           "b.imageUrl AS branchImageUrl " +
+           "FROM Showtime st " +
+           "JOIN st.schedule s " +
+           "JOIN st.room r " +
+           "JOIN r.branch b ";
+
     /**
-     * Find showtimes for a specific movie on a specific date, ordered by branch and time
-     * This query uses JOIN FETCH to eagerly load related entities to prevent N+1 issues.
+     * Find showtimes for a specific movie on a specific date, ordered by branch and time.
+     * Selects only the columns of the listing, so no Showtime, Schedule, Movie, Room or Branch entity is loaded.
      */
-    @Query("SELECT st FROM Showtime st " +
-           "JOIN FETCH st.schedule s " +
-           "JOIN FETCH s.movie m " + // Eagerly fetch the movie associated with the schedule
-           "JOIN FETCH st.room r " +
-           "JOIN FETCH r.branch b " + // Eagerly fetch the branch associated with the room
-           "LEFT JOIN FETCH b.cinema c " + // Optionally fetch cinema if needed for details like hotline/image
-           "WHERE m.id = :movieId " +
+    @Query(LISTING_SELECT +
+           "WHERE s.movie.id = :movieId " +
            "AND s.date = :date " +
            "AND st.isDeleted = false " +
-           "ORDER BY b.id, s.timeStart") // Keep original ordering
-    List<Showtime> findByMovieIdAndDateOrderByBranchAndTime(
+           "ORDER BY b.id, s.timeStart")
+    List<ShowtimeListingView> findListingByMovieIdAndDate(
             @Param("movieId") Long movieId,
             @Param("date") LocalDate date);
 
     /**
-     * Find showtimes for a specific movie on a specific date, optionally filtered by cinema, ordered by branch and time
-     * Updated to use JOIN FETCH for better performance and to avoid N+1 issues.
+     * Same listing, optionally filtered by cinema
      */
-    @Query("SELECT st FROM Showtime st " +
-            "JOIN FETCH st.schedule s " +
-            "JOIN FETCH s.movie m " +
-            "JOIN FETCH st.room r " +
-            "JOIN FETCH r.branch b " +
-            "LEFT JOIN FETCH b.cinema c " +
-            "WHERE m.id = :movieId " +
+    @Query(LISTING_SELECT +
+            "WHERE s.movie.id = :movieId " +
             "AND s.date = :date " +
             "AND st.isDeleted = false " +
             "AND (:cinemaId IS NULL OR b.cinema.id = :cinemaId) " +
             "ORDER BY b.id, s.timeStart")
-    List<Showtime> findByMovieIdAndDateAndCinemaIdOrderByBranchAndTime(
+    List<ShowtimeListingView> findListingByMovieIdAndDateAndCinemaId(
             @Param("movieId") Long movieId,
             @Param("date") LocalDate date,
             @Param("cinemaId") Long cinemaId);
 
     /**
-     * Find showtimes for attendance report within a date range
+     * Showtimes of a movie from a date on, each with its cinema and its number of seats in the given status
+     */
+    @Query("SELECT st.id.scheduleId AS scheduleId, st.id.roomId AS roomId, s.date AS scheduleDate, " +
+            "b.cinema.id AS cinemaId, SUM(CASE WHEN ss.status = :status THEN 1 ELSE 0 END) AS availableSeats " +
+            "FROM Showtime st " +
+            "JOIN st.schedule s " +
+            "JOIN st.room r " +
+            "JOIN r.branch b " +
+            "LEFT JOIN ShowtimeSeat ss ON ss.showtime = st " +
+            "WHERE s.movie.id = :movieId " +
+            "AND s.date >= :fromDate " +
+            "AND st.isDeleted = false " +
+            "GROUP BY st.id.scheduleId, st.id.roomId, s.date, b.cinema.id")
+    List<ShowtimeAvailabilityView> findAvailabilityByMovieId(
+            @Param("movieId") Long movieId,
+            @Param("fromDate") LocalDate fromDate,
+            @Param("status") StatusSeat status);
+
+    /**
+     * Showtime seats counted per movie, cinema and date for the attendance report, without loading showtimes
      */
-    @Query("SELECT st FROM Showtime st " +
+    String ATTENDANCE_REPORT_QUERY = "SELECT m.name AS movieName, b.name AS cinemaName, s.date AS date, " +
+            "COUNT(ss) AS attendance " +
+            "FROM Showtime st " +
             "JOIN st.schedule s " +
+            "JOIN s.movie m " +
             "JOIN st.room r " +
+            "JOIN r.branch b " +
+            "LEFT JOIN st.showtimeSeats ss " +
             "WHERE s.date BETWEEN :startDate AND :endDate " +
             "AND st.isDeleted = false " +
-            "AND (:type IS NULL OR s.movie.status = :type) " +
-            "ORDER BY s.date, s.movie.name")
-    List<Showtime> findAttendanceReport(
+            "AND (:type IS NULL OR m.status = :type) " +
+            "GROUP BY m.id, m.name, b.id, b.name, s.date " +
+            "ORDER BY s.date, m.name, b.name";
+
+    @Query(ATTENDANCE_REPORT_QUERY)
+    List<AttendanceReportRowView> findAttendanceReport(
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate,
+            @Param("type") String type);
+
+    /**
+     * Same rows as findAttendanceReport, read through a forward-only cursor.
+     * Must be consumed inside a transaction and closed.
+     */
+    @Query(ATTENDANCE_REPORT_QUERY)
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    Stream<AttendanceReportRowView> streamAttendanceReport(
             @Param("startDate") LocalDate startDate,
             @Param("endDate") LocalDate endDate,
             @Param("type") String type);
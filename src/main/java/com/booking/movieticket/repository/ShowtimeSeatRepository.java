@@ -2,14 +2,22 @@ package com.booking.movieticket.repository;
 
 import com.booking.movieticket.entity.Showtime;
 import com.booking.movieticket.entity.ShowtimeSeat;
+import com.booking.movieticket.entity.enums.StatusSeat;
+import com.booking.movieticket.repository.projection.BookingSeatView;
+import com.booking.movieticket.repository.projection.SeatStatusView;
+import com.booking.movieticket.repository.projection.ShowtimeSeatPriceView;
 import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ShowtimeSeatRepository extends JpaRepository<ShowtimeSeat, Long> {
@@ -25,13 +33,62 @@ public interface ShowtimeSeatRepository extends JpaRepository<ShowtimeSeat, Long
     @Query("SELECT ss FROM ShowtimeSeat ss WHERE ss.showtime.id.scheduleId = :scheduleId AND ss.showtime.id.roomId = :roomId")
     List<ShowtimeSeat> findByShowtimeId(@Param("scheduleId") Long scheduleId, @Param("roomId") Long roomId);
 
+    /**
+     * Read only the persisted status of one seat of a showtime, without loading the entity and its associations
+     */
+    @Query("SELECT ss.status FROM ShowtimeSeat ss WHERE ss.id = :id AND ss.showtime.id.scheduleId = :scheduleId AND ss.showtime.id.roomId = :roomId")
+    Optional<StatusSeat> findStatusById(@Param("id") Long id, @Param("scheduleId") Long scheduleId, @Param("roomId") Long roomId);
+
+    /**
+     * Read (id, status) of every seat of a showtime, ordered by seat id
+     */
+    @Query("SELECT ss.id AS id, ss.status AS status FROM ShowtimeSeat ss WHERE ss.showtime.id.scheduleId = :scheduleId AND ss.showtime.id.roomId = :roomId ORDER BY ss.id")
+    List<SeatStatusView> findStatusesByShowtimeId(@Param("scheduleId") Long scheduleId, @Param("roomId") Long roomId);
+
+    /**
+     * Read (id, status) of the given seats in one round trip, without loading the entities and their associations
+     */
+    @Query("SELECT ss.id AS id, ss.status AS status FROM ShowtimeSeat ss WHERE ss.id IN :ids")
+    List<SeatStatusView> findStatusesByIds(@Param("ids") Collection<Long> ids);
+
     /**
      * Find all ShowtimeSeat entities by their IDs and lock them for update.
      * This is intended to be used during the booking process to prevent concurrent modifications.
+     * Rows are locked in id order, so two bookings with overlapping seats always lock them in the same order and
+     * cannot deadlock each other.
      * @param ids List of ShowtimeSeat IDs to find and lock.
      * @return List of locked ShowtimeSeat entities.
      */
     @Lock(LockModeType.PESSIMISTIC_WRITE)
-    @Query("SELECT ss FROM ShowtimeSeat ss WHERE ss.id IN :ids")
+    @Query("SELECT ss FROM ShowtimeSeat ss WHERE ss.id IN :ids ORDER BY ss.id")
     List<ShowtimeSeat> findAllByIdsForUpdate(@Param("ids") List<Long> ids);
-}
\ No newline at end of file
+
+    /**
+     * Same as findAllByIdsForUpdate, but fails immediately (FOR UPDATE NOWAIT) if any row is already locked
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "0"))
+    @Query("SELECT ss FROM ShowtimeSeat ss WHERE ss.id IN :ids ORDER BY ss.id")
+    List<ShowtimeSeat> findAllByIdsForUpdateNoWait(@Param("ids") List<Long> ids);
+
+    /**
+     * Limit how long the current transaction waits for row locks (PostgreSQL lock_timeout, e.g. "3000ms").
+     * The setting is transaction-local and reset on commit or rollback.
+     */
+    @Query(value = "SELECT set_config('lock_timeout', :timeout, true)", nativeQuery = true)
+    String setLocalLockTimeout(@Param("timeout") String timeout);
+
+    /**
+     * Seat labels of several bookings at once, for the booking history
+     */
+    @Query("SELECT ss.booking.id AS bookingId, s.rowName AS rowName, s.columnName AS columnName " +
+           "FROM ShowtimeSeat ss JOIN ss.seat s WHERE ss.booking.id IN :bookingIds")
+    List<BookingSeatView> findSeatLabelsByBookingIds(@Param("bookingIds") Collection<Long> bookingIds);
+
+    /**
+     * Room seat and price of every seat of a showtime, for the compact seat map
+     */
+    @Query("SELECT ss.id AS id, ss.seat.id AS seatId, ss.price AS price FROM ShowtimeSeat ss " +
+           "WHERE ss.showtime.id.scheduleId = :scheduleId AND ss.showtime.id.roomId = :roomId")
+    List<ShowtimeSeatPriceView> findPricesByShowtimeId(@Param("scheduleId") Long scheduleId, @Param("roomId") Long roomId);
+}
@@ -0,0 +1,16 @@
+package com.booking.movieticket.repository.projection;
+
+import java.time.LocalDate;
+
+/**
+ * Showtimes of one movie, cinema and date as a row of the attendance report
+ */
+public interface AttendanceReportRowView {
+    String getMovieName();
+
+    String getCinemaName();
+
+    LocalDate getDate();
+
+    Long getAttendance();
+}
@@ -0,0 +1,14 @@
+package com.booking.movieticket.repository.projection;
+
+/**
+ * Food line of a booking's bill, keyed by the booking it belongs to
+ */
+public interface BookingFoodView {
+    Long getBookingId();
+
+    String getName();
+
+    Integer getQuantity();
+
+    Double getPrice();
+}
@@ -0,0 +1,46 @@
+package com.booking.movieticket.repository.projection;
+
+import com.booking.movieticket.entity.enums.BookingStatus;
+import com.booking.movieticket.entity.enums.RoomType;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * Flat row of a user's booking history: the booking with its movie, schedule, room and cinema columns,
+ * read in one query instead of walking the entity graph
+ */
+public interface BookingHistoryView {
+    Long getBookingId();
+
+    String getBookingCode();
+
+    LocalDateTime getBookingTime();
+
+    Double getTotalAmount();
+
+    BookingStatus getStatus();
+
+    String getPaymentMethod();
+
+    String getPaymentStatus();
+
+    Long getMovieId();
+
+    String getMovieName();
+
+    Integer getMovieDuration();
+
+    LocalDate getScheduleDate();
+
+    LocalTime getTimeStart();
+
+    RoomType getRoomType();
+
+    String getRoomName();
+
+    String getCinemaName();
+
+    String getBranchAddress();
+}
@@ -0,0 +1,12 @@
+package com.booking.movieticket.repository.projection;
+
+/**
+ * Seat label of a booked ShowtimeSeat, keyed by the booking it belongs to
+ */
+public interface BookingSeatView {
+    Long getBookingId();
+
+    String getRowName();
+
+    String getColumnName();
+}
@@ -0,0 +1,20 @@
+package com.booking.movieticket.repository.projection;
+
+/**
+ * The movie columns shown above a showtime listing; skips the long description and the associations
+ */
+public interface MovieHeaderView {
+    Long getId();
+
+    String getName();
+
+    String getImageSmallUrl();
+
+    Integer getDuration();
+
+    String getSummary();
+
+    String getDirector();
+
+    Integer getAgeLimit();
+}
@@ -0,0 +1,18 @@
+package com.booking.movieticket.repository.projection;
+
+import java.time.LocalDate;
+
+/**
+ * Confirmed bookings of one movie, format and date as a row of the sales report
+ */
+public interface SalesReportRowView {
+    String getMovieName();
+
+    String getFormat();
+
+    LocalDate getDate();
+
+    Double getRevenue();
+
+    Long getTickets();
+}
@@ -0,0 +1,12 @@
+package com.booking.movieticket.repository.projection;
+
+import com.booking.movieticket.entity.enums.StatusSeat;
+
+/**
+ * Minimal (id, status) view of a ShowtimeSeat, for code paths that never need the seat's associations
+ */
+public interface SeatStatusView {
+    Long getId();
+
+    StatusSeat getStatus();
+}
@@ -0,0 +1,18 @@
+package com.booking.movieticket.repository.projection;
+
+import java.time.LocalDate;
+
+/**
+ * A showtime of a movie with the cinema it plays in and its number of seats still AVAILABLE in the database
+ */
+public interface ShowtimeAvailabilityView {
+    Long getScheduleId();
+
+    Long getRoomId();
+
+    LocalDate getScheduleDate();
+
+    Long getCinemaId();
+
+    Long getAvailableSeats();
+}
@@ -0,0 +1,33 @@
+package com.booking.movieticket.repository.projection;
+
+import com.booking.movieticket.entity.enums.RoomType;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * One showtime of a movie listing with its room and branch columns, without loading any of the entities
+ */
+public interface ShowtimeListingView {
+    Long getScheduleId();
+
+    Long getRoomId();
+
+    LocalDate getScheduleDate();
+
+    LocalTime getTimeStart();
+
+    String getRoomName();
+
+    RoomType getRoomType();
+
+    Long getBranchId();
+
+    String getBranchName();
+
+    String getBranchAddress();
+
+    String getBranchHotline();
+
+    String getBranchImageUrl();
+}
@@ -0,0 +1,12 @@
+package com.booking.movieticket.repository.projection;
+
+/**
+ * A ShowtimeSeat reduced to the room seat it sells and its price
+ */
+public interface ShowtimeSeatPriceView {
+    Long getId();
+
+    Long getSeatId();
+
+    Double getPrice();
+}
@@ -67,6 +67,10 @@ public class SecurityConfiguration {
                         .requestMatchers("/api/v1/showtime/*/by-date").permitAll()
                         .requestMatchers("/api/v1/showtime/*/filter").permitAll()
                         .requestMatchers("/api/v1/showtime/*/*/detail").permitAll()
+                        // Showtime generation writes schedules, showtimes and prices: admin only, despite the public prefix
+                        .requestMatchers("/api/v1/showtime/public/add-showtimes-for-active-movies").hasRole("ADMIN")
+                        .requestMatchers("/api/v1/showtime/public/generation-jobs/**").hasRole("ADMIN")
+                        .requestMatchers("/api/v1/showtime/generation-jobs/**").hasRole("ADMIN")
                         .requestMatchers("/api/v1/showtime/public/**").permitAll()
                         .requestMatchers("/user/me").authenticated()
                         .requestMatchers("/user/bookings").authenticated()
@@ -74,6 +78,7 @@ public class SecurityConfiguration {
                         .requestMatchers("/user/**").hasRole("ADMIN")
                         .requestMatchers("/admin/**").hasRole("ADMIN")
                         .requestMatchers("/reports/**").hasRole("ADMIN")
+                        .requestMatchers("/api/reports/**").hasRole("ADMIN")
                         .requestMatchers("/cinema/create").hasRole("ADMIN")
                         .requestMatchers("/cinema/update").hasRole("ADMIN")
                         .requestMatchers("/cinema/delete/**").hasRole("ADMIN")
@@ -0,0 +1,23 @@
+package com.booking.movieticket.service;
+
+import com.booking.movieticket.dto.request.BookingRequest;
+import com.booking.movieticket.dto.response.BookingTicketResponse;
+
+public interface BookingQueueService {
+
+    /**
+     * Queue a booking request behind the other queued requests of the same showtime
+     * @param userId ID of the user booking
+     * @param bookingRequest Booking request, as for a direct booking
+     * @return Ticket in QUEUED state, to poll or to follow on /topic/booking-tickets/{ticketId} (without the booking)
+     */
+    BookingTicketResponse submit(Long userId, BookingRequest bookingRequest);
+
+    /**
+     * Get the current state of a queued booking request of the given user
+     * @param userId ID of the user who submitted the request
+     * @param ticketId ID of the ticket returned by submit
+     * @return Ticket state; once CONFIRMED it carries the booking
+     */
+    BookingTicketResponse getTicket(Long userId, String ticketId);
+}
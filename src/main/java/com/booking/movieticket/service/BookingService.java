@@ -2,9 +2,11 @@ package com.booking.movieticket.service;
 
 import com.booking.movieticket.dto.request.BookingRequest;
 import com.booking.movieticket.dto.response.BookingResponse;
+import com.booking.movieticket.dto.response.BookingHistoryPageResponse;
 import com.booking.movieticket.dto.response.BookingHistoryResponse;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface BookingService {
     /**
@@ -28,4 +30,20 @@ public interface BookingService {
      * @return Danh sách đơn đặt vé của người dùng
      */
     List<BookingHistoryResponse> getUserBookingHistory(Long userId);
-}
\ No newline at end of file
+
+    /**
+     * Lấy một trang lịch sử đặt vé, mới nhất trước
+     * @param userId ID của người dùng
+     * @param after Con trỏ "bookingTime,bookingId" của trang trước, null cho trang đầu
+     * @param limit Số đơn tối đa trong trang
+     * @return Trang đơn đặt vé và con trỏ của trang kế tiếp
+     */
+    BookingHistoryPageResponse getUserBookingHistoryPage(Long userId, String after, int limit);
+
+    /**
+     * Duyệt toàn bộ lịch sử đặt vé theo từng trang, không giữ cả danh sách trong bộ nhớ
+     * @param userId ID của người dùng
+     * @param consumer Nhận lần lượt từng đơn đặt vé, mới nhất trước
+     */
+    void exportUserBookingHistory(Long userId, Consumer<BookingHistoryResponse> consumer);
+}
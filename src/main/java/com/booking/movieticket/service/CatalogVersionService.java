@@ -0,0 +1,36 @@
+package com.booking.movieticket.service;
+
+import com.booking.movieticket.entity.enums.StatusMovie;
+
+/**
+ * ETags for catalog responses, derived from row counts and the latest created/modified timestamps of the rows a
+ * response is built from. Computing one costs a few aggregate queries, so a client revalidating an unchanged list
+ * can be answered with 304 before the list is loaded and serialized.
+ */
+public interface CatalogVersionService {
+
+    /**
+     * Version of the movies with the given status, including their schedules, reviews, categories and actors
+     */
+    String moviesByStatus(StatusMovie status);
+
+    /**
+     * Version of one movie, including its schedules, reviews, categories and actors
+     */
+    String movie(Long movieId);
+
+    /**
+     * Version of all cinemas and their branches
+     */
+    String cinemas();
+
+    /**
+     * Version of all food items
+     */
+    String foods();
+
+    /**
+     * Version of the showtime listings of a movie: its showtimes, schedules and the rooms and branches they use
+     */
+    String showtimesOfMovie(Long movieId);
+}
@@ -0,0 +1,30 @@
+package com.booking.movieticket.service;
+
+import com.booking.movieticket.dto.report.ReportJobRequest;
+import com.booking.movieticket.dto.report.ReportJobResponse;
+import org.springframework.core.io.Resource;
+
+public interface ReportJobService {
+
+    /**
+     * Queue the generation of a report file. An identical request that is still queued or running, or whose file
+     * has not expired yet, is returned instead of generating the file again.
+     * @param request Report and its parameters
+     * @return Job to poll or to follow on /topic/reports/{jobId}
+     */
+    ReportJobResponse submit(ReportJobRequest request);
+
+    /**
+     * Get the current state of a report job
+     * @param jobId ID of the job returned by submit
+     * @return Job state; once COMPLETED it carries the download URL
+     */
+    ReportJobResponse getJob(String jobId);
+
+    /**
+     * Get the generated file of a completed report job
+     * @param jobId ID of the job returned by submit
+     * @return The report file
+     */
+    Resource getArtifact(String jobId);
+}
@@ -2,12 +2,15 @@ package com.booking.movieticket.service;
 
 import com.booking.movieticket.dto.report.SalesReportDTO;
 import com.booking.movieticket.dto.report.AttendanceReportDTO;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDate;
 import java.util.List;
 
 public interface ReportService {
     List<SalesReportDTO> getSalesReport(LocalDate startDate, LocalDate endDate, String type);
     List<AttendanceReportDTO> getAttendanceReport(LocalDate startDate, LocalDate endDate, String type);
-    byte[] exportSalesReport(LocalDate startDate, LocalDate endDate, String type);
-    byte[] exportAttendanceReport(LocalDate startDate, LocalDate endDate, String type);
+    // Write the report as XLSX to the stream, reading and writing rows as they come instead of building it in memory
+    void exportSalesReport(LocalDate startDate, LocalDate endDate, String type, OutputStream outputStream) throws IOException;
+    void exportAttendanceReport(LocalDate startDate, LocalDate endDate, String type, OutputStream outputStream) throws IOException;
 } 
\ No newline at end of file
@@ -1,6 +1,7 @@
 package com.booking.movieticket.service;
 
 import com.booking.movieticket.dto.response.RevenueByCategoryDTO;
+import com.booking.movieticket.dto.response.RevenueDashboardDTO;
 import com.booking.movieticket.dto.response.RevenueSummaryDTO;
 import com.booking.movieticket.dto.response.RevenueTimeSeriesDTO;
 
@@ -24,4 +25,10 @@ public interface RevenueAnalyticsService {
 
     // Get summary statistics for a date range
     RevenueSummaryDTO getRevenueSummary(LocalDate startDate, LocalDate endDate);
+
+    // Get the summary and every breakdown above in one query; movieLimit applies to the by-movie breakdown
+    RevenueDashboardDTO getRevenueDashboard(LocalDate startDate, LocalDate endDate, Integer movieLimit);
+
+    // Compare the revenue rollup with the raw bills for a date range and recompute the showtimes that differ
+    int reconcileRollup(LocalDate startDate, LocalDate endDate);
 }
\ No newline at end of file
@@ -0,0 +1,27 @@
+package com.booking.movieticket.service;
+
+import com.booking.movieticket.dto.request.admin.create.ShowtimeGenerationRequest;
+import com.booking.movieticket.dto.response.ShowtimeGenerationJobResponse;
+
+public interface ShowtimeGenerationService {
+
+    /**
+     * Queue a generation plan. If an unfinished job has the same plan it is returned instead of a new one.
+     * @param request Plan; missing fields take their defaults
+     * @return Job in QUEUED or RUNNING state, to poll with getJob
+     */
+    ShowtimeGenerationJobResponse submit(ShowtimeGenerationRequest request);
+
+    /**
+     * Queue the default plan: every SHOWING movie in every active room for today and tomorrow
+     * @return Job in QUEUED or RUNNING state, to poll with getJob
+     */
+    ShowtimeGenerationJobResponse startForShowingMovies();
+
+    /**
+     * Get the progress of a generation job
+     * @param jobId ID of the job returned by submit
+     * @return Job state with the rows created so far and the throughput
+     */
+    ShowtimeGenerationJobResponse getJob(String jobId);
+}
@@ -1,7 +1,11 @@
 package com.booking.movieticket.service;
 
 import com.booking.movieticket.dto.request.admin.create.ShowtimeForCreateRequest;
+import com.booking.movieticket.dto.response.DateAvailabilityResponse;
+import com.booking.movieticket.dto.response.RoomLayoutResponse;
+import com.booking.movieticket.dto.response.SeatStatusVectorResponse;
 import com.booking.movieticket.dto.response.ShowtimeDetailResponse;
+import com.booking.movieticket.dto.response.SeatStateResponse;
 import com.booking.movieticket.dto.response.ShowtimeResponse;
 
 import java.time.LocalDate;
@@ -33,6 +37,14 @@ public interface ShowtimeService {
      */
     List<LocalDate> getAvailableDatesByMovie(Long movieId);
 
+    /**
+     * Get the upcoming dates of a movie with their showtime and free seat counts
+     * @param movieId ID of the movie
+     * @param cinemaId Optional ID of cinema to filter by
+     * @return One entry per date, flagged sold out when no seat is left
+     */
+    List<DateAvailabilityResponse> getAvailabilityByMovie(Long movieId, Long cinemaId);
+
     /**
      * Get detailed information for a specific showtime, including all seats
      * @param scheduleId ID of the schedule
@@ -41,5 +53,29 @@ public interface ShowtimeService {
      */
     ShowtimeDetailResponse getShowtimeDetail(Long scheduleId, Long roomId);
 
+    /**
+     * Get the static seat layout of a room, cached until the room or its seats change
+     * @param roomId ID of the room
+     * @return Layout with seats in the order used by the seat status vector
+     */
+    RoomLayoutResponse getRoomLayout(Long roomId);
+
+    /**
+     * Get the run-length encoded seat statuses and prices of a showtime, aligned with its room layout
+     * @param scheduleId ID of the schedule
+     * @param roomId ID of the room
+     * @return Status and price vectors of the showtime
+     */
+    SeatStatusVectorResponse getSeatStatusVector(Long scheduleId, Long roomId);
+
+    /**
+     * Get the versioned seat state of a showtime: database status merged with live seat holds
+     * @param scheduleId ID of the schedule
+     * @param roomId ID of the room
+     * @param sinceVersion Optional last version the client has; only later changes are returned when still known
+     * @return Full snapshot, or the changes after sinceVersion
+     */
+    SeatStateResponse getSeatState(Long scheduleId, Long roomId, Long sinceVersion);
+
     void createShowtime(ShowtimeForCreateRequest request);
 }
\ No newline at end of file
@@ -0,0 +1,215 @@
+package com.booking.movieticket.service.impl;
+
+import com.booking.movieticket.dto.request.BookingRequest;
+import com.booking.movieticket.dto.response.BookingResponse;
+import com.booking.movieticket.dto.response.BookingTicketResponse;
+import com.booking.movieticket.entity.compositekey.ShowtimeId;
+import com.booking.movieticket.exception.AppException;
+import com.booking.movieticket.exception.ErrorCode;
+import com.booking.movieticket.service.BookingQueueService;
+import com.booking.movieticket.service.BookingService;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.experimental.Accessors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+/**
+ * Queued booking mode for hot showtimes. Requests are put in a bounded queue per showtime and applied one at a
+ * time by a single worker per showtime, so bookings of the same showtime never wait on each other's row locks and
+ * the number of bookings in flight is bounded by the worker pool instead of the HTTP thread pool.
+ */
+@Service
+@Slf4j
+public class BookingQueueServiceImpl implements BookingQueueService {
+
+    private static final long FINISHED_TICKET_TTL_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+    private final BookingService bookingService;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final ThreadPoolTaskExecutor executor;
+    private final int capacityPerShowtime;
+
+    private final ConcurrentHashMap<ShowtimeId, ShowtimeLane> lanes = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, BookingTicketResponse> tickets = new ConcurrentHashMap<>();
+
+    public BookingQueueServiceImpl(BookingService bookingService,
+                                   SimpMessagingTemplate messagingTemplate,
+                                   @Qualifier("bookingQueueExecutor") ThreadPoolTaskExecutor executor,
+                                   @Value("${booking.queue.capacity-per-showtime:500}") int capacityPerShowtime) {
+        this.bookingService = bookingService;
+        this.messagingTemplate = messagingTemplate;
+        this.executor = executor;
+        this.capacityPerShowtime = capacityPerShowtime;
+    }
+
+    @Override
+    public BookingTicketResponse submit(Long userId, BookingRequest bookingRequest) {
+        if (bookingRequest.getScheduleId() == null || bookingRequest.getRoomId() == null
+                || bookingRequest.getSeatIds() == null || bookingRequest.getSeatIds().isEmpty()) {
+            throw new AppException(ErrorCode.BAD_REQUEST, "scheduleId, roomId and seatIds are required");
+        }
+        ShowtimeId showtimeId = new ShowtimeId(bookingRequest.getScheduleId(), bookingRequest.getRoomId());
+        long now = Instant.now().toEpochMilli();
+        BookingTicketResponse ticket = BookingTicketResponse.builder()
+                .ticketId(UUID.randomUUID().toString())
+                .userId(userId)
+                .status(BookingTicketResponse.Status.QUEUED)
+                .scheduleId(showtimeId.getScheduleId())
+                .roomId(showtimeId.getRoomId())
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+        tickets.put(ticket.getTicketId(), ticket);
+
+        // Offered inside compute, so it cannot land in a lane that evictFinishedTickets is unlinking
+        QueuedBooking queued = new QueuedBooking(ticket.getTicketId(), userId, bookingRequest);
+        AtomicBoolean offered = new AtomicBoolean();
+        ShowtimeLane lane = lanes.compute(showtimeId, (id, current) -> {
+            ShowtimeLane target = current != null ? current : new ShowtimeLane(capacityPerShowtime);
+            offered.set(target.queue.offer(queued));
+            return target;
+        });
+        if (!offered.get()) {
+            tickets.remove(ticket.getTicketId());
+            log.warn("Booking queue of showtime {}/{} is full ({} requests)", showtimeId.getRoomId(),
+                    showtimeId.getScheduleId(), capacityPerShowtime);
+            throw new AppException(ErrorCode.BOOKING_QUEUE_FULL);
+        }
+        scheduleDrain(showtimeId, lane);
+        log.info("Queued booking ticket {} for user {} on showtime {}/{}", ticket.getTicketId(), userId,
+                showtimeId.getRoomId(), showtimeId.getScheduleId());
+        return ticket;
+    }
+
+    @Override
+    public BookingTicketResponse getTicket(Long userId, String ticketId) {
+        BookingTicketResponse ticket = tickets.get(ticketId);
+        // Another user's ticket is reported as missing rather than forbidden, so ticket ids cannot be probed
+        if (ticket == null || !ticket.getUserId().equals(userId)) {
+            throw new AppException(ErrorCode.BOOKING_TICKET_NOT_FOUND);
+        }
+        return ticket;
+    }
+
+    @Scheduled(fixedDelay = 60000)
+    public void evictFinishedTickets() {
+        long threshold = Instant.now().toEpochMilli() - FINISHED_TICKET_TTL_MILLIS;
+        tickets.values().removeIf(ticket -> isFinished(ticket) && ticket.getUpdatedAt() < threshold);
+        for (ShowtimeId showtimeId : lanes.keySet()) {
+            // Atomic with the offer in submit, so a lane is never unlinked with a request in it
+            lanes.computeIfPresent(showtimeId, (id, lane) -> lane.isIdle() ? null : lane);
+        }
+    }
+
+    /**
+     * Start a worker for the lane unless one is already draining it
+     */
+    private void scheduleDrain(ShowtimeId showtimeId, ShowtimeLane lane) {
+        if (!lane.draining.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            executor.execute(() -> drain(showtimeId, lane));
+        } catch (TaskRejectedException e) {
+            lane.draining.set(false);
+            log.error("No booking worker available for showtime {}/{}, failing its queued requests",
+                    showtimeId.getRoomId(), showtimeId.getScheduleId(), e);
+            QueuedBooking queued;
+            while ((queued = lane.queue.poll()) != null) {
+                fail(queued.ticketId(), ErrorCode.BOOKING_QUEUE_FULL, ErrorCode.BOOKING_QUEUE_FULL.getMessage());
+            }
+        }
+    }
+
+    private void drain(ShowtimeId showtimeId, ShowtimeLane lane) {
+        try {
+            QueuedBooking queued;
+            while ((queued = lane.queue.poll()) != null) {
+                process(queued);
+            }
+        } finally {
+            lane.draining.set(false);
+            // A request offered after the last poll but before the flag was cleared would otherwise sit unprocessed
+            if (!lane.queue.isEmpty()) {
+                scheduleDrain(showtimeId, lane);
+            }
+        }
+    }
+
+    private void process(QueuedBooking queued) {
+        update(queued.ticketId(), ticket -> ticket.toBuilder().status(BookingTicketResponse.Status.PROCESSING));
+        try {
+            BookingResponse booking = bookingService.createBooking(queued.userId(), queued.request());
+            update(queued.ticketId(), ticket -> ticket.toBuilder()
+                    .status(BookingTicketResponse.Status.CONFIRMED)
+                    .booking(booking));
+            log.info("Booking ticket {} confirmed as booking {}", queued.ticketId(), booking.getBookingCode());
+        } catch (AppException e) {
+            fail(queued.ticketId(), e.getErrorCode(), e.getMessage());
+        } catch (Exception e) {
+            log.error("Unexpected error processing booking ticket {}", queued.ticketId(), e);
+            fail(queued.ticketId(), ErrorCode.UNCATEGORIZED_EXCEPTION, e.getMessage());
+        }
+    }
+
+    private void fail(String ticketId, ErrorCode errorCode, String message) {
+        update(ticketId, ticket -> ticket.toBuilder()
+                .status(BookingTicketResponse.Status.FAILED)
+                .errorCode(errorCode.getCode())
+                .errorMessage(message));
+        log.info("Booking ticket {} failed: {}", ticketId, message);
+    }
+
+    private void update(String ticketId,
+                        Function<BookingTicketResponse, BookingTicketResponse.BookingTicketResponseBuilder> change) {
+        BookingTicketResponse updated = tickets.computeIfPresent(ticketId,
+                (id, ticket) -> change.apply(ticket).updatedAt(Instant.now().toEpochMilli()).build());
+        if (updated != null) {
+            // The topic is open to anyone who knows the ticket id, so the booking itself is only returned by getTicket
+            messagingTemplate.convertAndSend("/topic/booking-tickets/" + ticketId, updated.toBuilder().booking(null).build());
+        }
+    }
+
+    private static boolean isFinished(BookingTicketResponse ticket) {
+        return ticket.getStatus() == BookingTicketResponse.Status.CONFIRMED
+                || ticket.getStatus() == BookingTicketResponse.Status.FAILED;
+    }
+
+    @Getter
+    @Accessors(fluent = true)
+    @AllArgsConstructor
+    private static final class QueuedBooking {
+        private final String ticketId;
+        private final Long userId;
+        private final BookingRequest request;
+    }
+
+    private static final class ShowtimeLane {
+        private final Queue<QueuedBooking> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        ShowtimeLane(int capacity) {
+            this.queue = new ArrayBlockingQueue<>(capacity);
+        }
+
+        boolean isIdle() {
+            return !draining.get() && queue.isEmpty();
+        }
+    }
+}
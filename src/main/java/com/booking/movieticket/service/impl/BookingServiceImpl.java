@@ -2,6 +2,7 @@ package com.booking.movieticket.service.impl;
 
 import com.booking.movieticket.dto.request.BookingRequest;
 import com.booking.movieticket.dto.response.BookingResponse;
+import com.booking.movieticket.dto.response.BookingHistoryPageResponse;
 import com.booking.movieticket.dto.response.BookingHistoryResponse;
 import com.booking.movieticket.entity.*;
 import com.booking.movieticket.entity.compositekey.BillFoodId;
@@ -9,19 +10,42 @@ import com.booking.movieticket.entity.compositekey.ShowtimeId;
 import com.booking.movieticket.entity.enums.StatusBill;
 import com.booking.movieticket.entity.enums.StatusSeat;
 import com.booking.movieticket.entity.enums.BookingStatus;
+import com.booking.movieticket.event.BillPaidEvent;
+import com.booking.movieticket.event.SeatsBookedEvent;
 import com.booking.movieticket.exception.AppException;
 import com.booking.movieticket.exception.ErrorCode;
 import com.booking.movieticket.repository.*;
+import com.booking.movieticket.repository.projection.BookingFoodView;
+import com.booking.movieticket.repository.projection.BookingHistoryView;
+import com.booking.movieticket.repository.projection.BookingSeatView;
 import com.booking.movieticket.service.BookingService;
+import com.booking.movieticket.service.seat.SeatHold;
+import com.booking.movieticket.service.seat.SeatHoldStore;
+import com.booking.movieticket.service.seat.SeatHoldTokenService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -29,16 +53,54 @@ import java.util.stream.Collectors;
 @Slf4j
 public class BookingServiceImpl implements BookingService {
 
+    private static final int HISTORY_PAGE_SIZE = 200;
+    private static final int MAX_HISTORY_PAGE_LIMIT = 100;
+
     private final UserRepository userRepository;
     private final ShowtimeRepository showtimeRepository;
     private final ShowtimeSeatRepository showtimeSeatRepository;
     private final BillRepository billRepository;
     private final FoodRepository foodRepository;
     private final BookingRepository bookingRepository;
-
+    private final ApplicationEventPublisher eventPublisher;
+    private final SeatHoldStore seatHoldStore;
+    private final SeatHoldTokenService seatHoldTokenService;
+    private final TransactionTemplate transactionTemplate;
+
+    // pessimistic: lock the seat rows up front; optimistic: read them unlocked and book them with versioned updates
+    @Value("${booking.concurrency-mode:pessimistic}")
+    private String concurrencyMode;
+
+    @Value("${booking.optimistic.max-attempts:3}")
+    private int optimisticMaxAttempts;
+
+    // Longest wait for seat row locks: > 0 sets lock_timeout, 0 locks with NOWAIT, < 0 waits indefinitely
+    @Value("${booking.lock-timeout-ms:3000}")
+    private long lockTimeoutMs;
+
+    /**
+     * Each attempt runs in its own transaction. In optimistic mode a booking that loses a race on one of its seats
+     * is retried from scratch a bounded number of times; the retry re-reads the seats, so a seat that was really
+     * taken then fails with SEAT_ALREADY_BOOKED.
+     */
     @Override
-    @Transactional
     public BookingResponse createBooking(Long userId, BookingRequest bookingRequest) {
+        int maxAttempts = isOptimistic() ? Math.max(1, optimisticMaxAttempts) : 1;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> doCreateBooking(userId, bookingRequest));
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= maxAttempts) {
+                    log.warn("Booking for user {} lost a seat race {} times, giving up: {}", userId, attempt, e.getMessage());
+                    throw new AppException(ErrorCode.BOOKING_CONFLICT);
+                }
+                log.info("Booking for user {} lost a seat race (attempt {}/{}), retrying", userId, attempt, maxAttempts);
+                backOff(attempt);
+            }
+        }
+    }
+
+    private BookingResponse doCreateBooking(Long userId, BookingRequest bookingRequest) {
         log.info("========= START CREATE BOOKING PROCESS FOR USER ID: {} =========", userId);
         log.debug("BookingRequest: {}", bookingRequest);
         try {
@@ -67,7 +129,22 @@ public class BookingServiceImpl implements BookingService {
 
             log.info("Retrieving selected ShowtimeSeats...");
             List<Long> selectedShowtimeSeatIds = bookingRequest.getSeatIds();
-            List<ShowtimeSeat> seatsToBook = showtimeSeatRepository.findAllByIdsForUpdate(selectedShowtimeSeatIds);
+
+            // Seats covered by a valid hold token were already won at hold time; the others must not be held by
+            // another user. All seats are then locked in a single pass in id order, so overlapping bookings always
+            // lock them in the same order, or in optimistic mode read unlocked and checked by the version on update.
+            Set<Long> heldSeatIds = consumeHeldSeats(showtimeId, userId, selectedShowtimeSeatIds, bookingRequest.getHoldTokens());
+            List<Long> unheldSeatIds = selectedShowtimeSeatIds.stream()
+                    .filter(seatId -> !heldSeatIds.contains(seatId))
+                    .toList();
+            ensureNotHeldByOtherUsers(showtimeId, userId, unheldSeatIds);
+            log.info("{} seats covered by hold tokens, {} seats checked against other holds", heldSeatIds.size(), unheldSeatIds.size());
+
+            List<Long> sortedSeatIds = selectedShowtimeSeatIds.stream().sorted().toList();
+            applyLockTimeout();
+            List<ShowtimeSeat> seatsToBook = new ArrayList<>(isOptimistic()
+                    ? showtimeSeatRepository.findAllById(sortedSeatIds)
+                    : lockSeats(sortedSeatIds));
             
             // NEW LOGGING: Check if all seats were found
             log.info("Found {} seats out of {} requested", seatsToBook.size(), selectedShowtimeSeatIds.size());
@@ -103,14 +180,11 @@ public class BookingServiceImpl implements BookingService {
             log.info("Total seat price: {}", totalSeatPrice);
 
             log.info("Processing food items...");
+            Map<Long, Food> foodsById = findFoods(bookingRequest.getFoodItems());
             if (bookingRequest.getFoodItems() != null && !bookingRequest.getFoodItems().isEmpty()) {
                 log.info("Food items found in request: {}", bookingRequest.getFoodItems().size());
                 for (BookingRequest.FoodOrderItem foodItem : bookingRequest.getFoodItems()) {
-                    Food food = foodRepository.findById(foodItem.getFoodId())
-                            .orElseThrow(() -> {
-                                log.error("CRITICAL: Food not found with ID: {}", foodItem.getFoodId());
-                                return new AppException(ErrorCode.FOOD_NOT_FOUND);
-                            });
+                    Food food = foodsById.get(foodItem.getFoodId());
                     totalFoodPrice += food.getPrice() * foodItem.getQuantity();
                     log.debug("Added food: {}, Quantity: {}, Price: {} x {} = {}", 
                         food.getName(), foodItem.getQuantity(), food.getPrice(), foodItem.getQuantity(), food.getPrice() * foodItem.getQuantity());
@@ -152,8 +226,8 @@ public class BookingServiceImpl implements BookingService {
 
             // Khai báo biến ở đây để có thể sử dụng bên ngoài khối try
             Booking savedBooking;
-            List<ShowtimeSeat> savedSeats;
             
+            // The seats are managed entities: their status and booking FK are flushed with the booking, no saveAll needed
             log.info("Attempting to save Booking entity (ID will be generated by DB)...");
             try {
                 savedBooking = bookingRepository.save(newBooking);
@@ -173,19 +247,16 @@ public class BookingServiceImpl implements BookingService {
                 throw e;
             }
 
-            log.info("Attempting to save all {} updated ShowtimeSeat entities (this will persist Booking FK)...", updatedShowtimeSeatsForBookingObject.size());
-            try {
-                savedSeats = showtimeSeatRepository.saveAll(updatedShowtimeSeatsForBookingObject);
-                log.info("SUCCESS: All {} ShowtimeSeat entities updated and saved.", savedSeats.size());
-                for (ShowtimeSeat seat : savedSeats) {
-                    log.info("  PERSISTED ShowtimeSeat ID: {}, Status: {}, Linked Booking ID (from seat.getBooking()): {}",
-                        seat.getId(), seat.getStatus(), (seat.getBooking() != null ? seat.getBooking().getId() : "NULL"));
-                }
-            } catch (Exception e) {
-                log.error("CRITICAL ERROR saving seats: {}", e.getMessage(), e);
-                throw e;
+            if (isOptimistic()) {
+                // Write the seats now with UPDATE ... WHERE id = ? AND version = ?, so a lost race fails before
+                // the bill is built rather than at commit
+                showtimeSeatRepository.flush();
             }
 
+            // Seat listeners (WebSocket seat map) only act once this transaction commits
+            eventPublisher.publishEvent(new SeatsBookedEvent(showtimeId.getScheduleId(), showtimeId.getRoomId(),
+                    selectedShowtimeSeatIds, userId));
+
             log.info("Creating new Bill entity for Booking ID: {}...", savedBooking.getId());
             Bill bill = new Bill();
             bill.setBooking(savedBooking);
@@ -196,16 +267,18 @@ public class BookingServiceImpl implements BookingService {
             log.debug("New Bill entity populated (pre-save): BookingID={}, UserID={}, BillCode={}",
                 savedBooking.getId(), user.getId(), bill.getBillCode());
 
+            // Persisted once; its BillFoods and BillDetails below are cascaded and batch-inserted at flush
             log.info("Attempting to save Bill entity...");
             Bill savedBill = billRepository.save(bill);
             log.info("SUCCESS: Bill entity saved. Generated Bill ID: {}, Linked to Booking ID: {}", savedBill.getId(), savedBill.getBooking().getId());
+            // Refreshes the showtime's revenue rollup once this transaction commits
+            eventPublisher.publishEvent(new BillPaidEvent(savedBill.getId(), showtimeId.getScheduleId(), showtimeId.getRoomId()));
 
             List<BookingResponse.FoodItem> foodItemsResponse = new ArrayList<>();
             if (bookingRequest.getFoodItems() != null && !bookingRequest.getFoodItems().isEmpty()) {
                 log.info("Processing {} food items for the Bill ID: {}...", bookingRequest.getFoodItems().size(), savedBill.getId());
                 for (BookingRequest.FoodOrderItem foodItemRequest : bookingRequest.getFoodItems()) {
-                    Food food = foodRepository.findById(foodItemRequest.getFoodId())
-                            .orElseThrow(() -> new AppException(ErrorCode.FOOD_NOT_FOUND));
+                    Food food = foodsById.get(foodItemRequest.getFoodId());
                     Integer quantity = foodItemRequest.getQuantity();
 
                     BillFood billFood = new BillFood();
@@ -215,7 +288,7 @@ public class BookingServiceImpl implements BookingService {
                     billFood.setQuantity(quantity);
                     billFood.setIsDeleted(false);
                     savedBill.getBillFoods().add(billFood);
-                    log.debug("Populated BillFood (pre-save Bill again): BillID={}, FoodID={}, Qty={}", savedBill.getId(), food.getId(), quantity);
+                    log.debug("Populated BillFood: BillID={}, FoodID={}, Qty={}", savedBill.getId(), food.getId(), quantity);
                     
                     foodItemsResponse.add(BookingResponse.FoodItem.builder()
                             .name(food.getName())
@@ -223,9 +296,7 @@ public class BookingServiceImpl implements BookingService {
                             .price(food.getPrice() * quantity)
                             .build());
                 }
-                log.info("Attempting to save Bill (ID: {}) again to persist BillFoods...", savedBill.getId());
-                billRepository.save(savedBill);
-                log.info("SUCCESS: Bill (ID: {}) re-saved with {} BillFoods.", savedBill.getId(), savedBill.getBillFoods().size());
+                log.info("Bill (ID: {}) has {} BillFoods.", savedBill.getId(), savedBill.getBillFoods().size());
             } else {
                 log.info("No food items in this booking request.");
             }
@@ -237,11 +308,9 @@ public class BookingServiceImpl implements BookingService {
                 billDetail.setShowtimeSeat(seat);
                 billDetail.setIsDeleted(false);
                 savedBill.addBillDetail(billDetail);
-                log.debug("Populated BillDetail (pre-save Bill again): BillID={}, ShowtimeSeatID={}", savedBill.getId(), seat.getId());
+                log.debug("Populated BillDetail: BillID={}, ShowtimeSeatID={}", savedBill.getId(), seat.getId());
             }
-            log.info("Attempting to save Bill (ID: {}) again to persist BillDetails...", savedBill.getId());
-            billRepository.save(savedBill);
-            log.info("SUCCESS: Bill (ID: {}) re-saved with {} BillDetails.", savedBill.getId(), savedBill.getBillDetails().size());
+            log.info("Bill (ID: {}) has {} BillDetails.", savedBill.getId(), savedBill.getBillDetails().size());
 
             log.info("Booking process completed successfully for Booking Code: {}. Preparing response...", savedBooking.getBookingCode());
             List<String> seatLabels = updatedShowtimeSeatsForBookingObject.stream()
@@ -273,6 +342,9 @@ public class BookingServiceImpl implements BookingService {
             log.error("CRITICAL ERROR (AppException) during booking process for User ID {}: {}. ErrorCode: {}. Request: {}",
                 userId, e.getMessage(), e.getErrorCode().getCode(), bookingRequest, e);
             throw e;
+        } catch (OptimisticLockingFailureException e) {
+            // Left to createBooking, which retries
+            throw e;
         } catch (Exception e) {
             log.error("CRITICAL UNEXPECTED ERROR during booking process for User ID {}: {}. Request: {}",
                 userId, e.getMessage(), bookingRequest, e);
@@ -347,77 +419,11 @@ public class BookingServiceImpl implements BookingService {
     public List<BookingHistoryResponse> getUserBookingHistory(Long userId) {
         log.info("Fetching booking history for user ID: {}", userId);
         try {
-            // Check if user exists
-            User user = userRepository.findById(userId)
-                    .orElseThrow(() -> {
-                        log.error("User not found with ID: {}", userId);
-                        return new AppException(ErrorCode.USER_NOT_FOUND);
-                    });
-            log.debug("User found: {}", user.getEmail());
-
-            // Find all bookings for this user with eager fetch of related entities
-            List<Booking> bookings = bookingRepository.findByUserIdWithDetails(userId);
-            log.info("Found {} bookings for user ID: {}", bookings.size(), userId);
-
-            // Map Booking entities to BookingHistoryResponse DTOs
-            return bookings.stream().map(booking -> {
-                // Extract required data
-                Showtime showtime = booking.getShowtime();
-                Schedule schedule = showtime.getSchedule();
-                Movie movie = schedule.getMovie();
-                Room room = showtime.getRoom();
-                Branch branch = room.getBranch();
-
-                // Get seat labels
-                List<String> seatLabels = booking.getShowtimeSeats().stream()
-                        .map(showtimeSeat -> showtimeSeat.getSeat().getRowName() + showtimeSeat.getSeat().getColumnName())
-                        .sorted()
-                        .collect(Collectors.toList());
-
-                // Bill-related data (if needed)
-                List<BookingHistoryResponse.FoodItem> foodItems = new ArrayList<>();
-                try {
-                    Bill bill = billRepository.findByBooking(booking).orElse(null);
-                    if (bill != null && bill.getBillFoods() != null) {
-                        foodItems = bill.getBillFoods().stream()
-                                .map(billFood -> BookingHistoryResponse.FoodItem.builder()
-                                        .name(billFood.getFood().getName())
-                                        .quantity(billFood.getQuantity())
-                                        .price(billFood.getFood().getPrice())
-                                        .build())
-                                .collect(Collectors.<BookingHistoryResponse.FoodItem>toList());
-                    }
-                } catch (Exception e) {
-                    log.warn("Could not retrieve food items for booking {}: {}", booking.getId(), e.getMessage());
-                    // Continue without food items
-                }
-
-                // Build and return DTO
-                return BookingHistoryResponse.builder()
-                        .bookingId(booking.getId())
-                        .bookingCode(booking.getBookingCode())
-                        .bookingTime(booking.getBookingTime())
-                        .totalAmount(booking.getTotalAmount())
-                        .status(booking.getStatus())
-                        .paymentMethod(booking.getPaymentMethod())
-                        .paymentStatus(booking.getPaymentStatus())
-                        .movie(BookingHistoryResponse.MovieInfo.builder()
-                                .movieId(movie.getId())
-                                .movieName(movie.getName())
-                                .format(room.getRoomType().toString())
-                                .date(schedule.getDate())
-                                .startTime(schedule.getTimeStart())
-                                .endTime(schedule.getTimeStart().plusMinutes(movie.getDuration()))
-                                .build())
-                        .cinema(BookingHistoryResponse.CinemaInfo.builder()
-                                .cinemaName(branch.getCinema().getName())
-                                .roomName(room.getName())
-                                .address(branch.getAddress())
-                                .build())
-                        .seats(seatLabels)
-                        .foodItems(foodItems)
-                        .build();
-            }).collect(Collectors.<BookingHistoryResponse>toList());
+            ensureUserExists(userId);
+            List<BookingHistoryResponse> history = new ArrayList<>();
+            forEachHistoryPage(userId, history::addAll);
+            log.info("Found {} bookings for user ID: {}", history.size(), userId);
+            return history;
         } catch (AppException e) {
             log.error("Error getting booking history for user ID {}: {}", userId, e.getMessage());
             throw e;
@@ -427,6 +433,236 @@ public class BookingServiceImpl implements BookingService {
         }
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public BookingHistoryPageResponse getUserBookingHistoryPage(Long userId, String after, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_HISTORY_PAGE_LIMIT));
+        ensureUserExists(userId);
+
+        // One extra row tells whether another page follows without a count query
+        Pageable page = PageRequest.of(0, pageSize + 1);
+        List<BookingHistoryView> rows;
+        if (after == null || after.isBlank()) {
+            rows = bookingRepository.findHistoryFirstPage(userId, page);
+        } else {
+            int separator = after.lastIndexOf(',');
+            LocalDateTime cursorTime;
+            Long cursorId;
+            try {
+                cursorTime = LocalDateTime.parse(after.substring(0, separator));
+                cursorId = Long.parseLong(after.substring(separator + 1));
+            } catch (RuntimeException e) {
+                log.warn("Invalid booking history cursor: {}", after);
+                throw new AppException(ErrorCode.BAD_REQUEST);
+            }
+            rows = bookingRepository.findHistoryPageAfter(userId, cursorTime, cursorId, page);
+        }
+
+        boolean hasMore = rows.size() > pageSize;
+        if (hasMore) {
+            rows = rows.subList(0, pageSize);
+        }
+        String nextCursor = null;
+        if (hasMore) {
+            BookingHistoryView last = rows.get(rows.size() - 1);
+            nextCursor = last.getBookingTime() + "," + last.getBookingId();
+        }
+        return BookingHistoryPageResponse.builder()
+                .items(toHistoryResponses(rows))
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .build();
+    }
+
+    /**
+     * Not transactional on purpose: every page runs in its own short read, so a slow client on the other end of
+     * the export never keeps a connection checked out for the whole history.
+     */
+    @Override
+    public void exportUserBookingHistory(Long userId, Consumer<BookingHistoryResponse> consumer) {
+        ensureUserExists(userId);
+        forEachHistoryPage(userId, page -> page.forEach(consumer));
+    }
+
+    private void ensureUserExists(Long userId) {
+        if (!userRepository.existsById(userId)) {
+            log.error("User not found with ID: {}", userId);
+            throw new AppException(ErrorCode.USER_NOT_FOUND);
+        }
+    }
+
+    /**
+     * Walk a user's whole history in keyset pages, newest first; each page costs three queries however many
+     * bookings it holds, and only one page is in memory at a time.
+     */
+    private void forEachHistoryPage(Long userId, Consumer<List<BookingHistoryResponse>> pageConsumer) {
+        Pageable page = PageRequest.of(0, HISTORY_PAGE_SIZE);
+        List<BookingHistoryView> rows = bookingRepository.findHistoryFirstPage(userId, page);
+        while (!rows.isEmpty()) {
+            pageConsumer.accept(toHistoryResponses(rows));
+            if (rows.size() < HISTORY_PAGE_SIZE) {
+                break;
+            }
+            BookingHistoryView last = rows.get(rows.size() - 1);
+            rows = bookingRepository.findHistoryPageAfter(userId, last.getBookingTime(), last.getBookingId(), page);
+        }
+    }
+
+    /**
+     * Map one page of history rows, loading the seat labels and food lines of all its bookings in one query each
+     */
+    private List<BookingHistoryResponse> toHistoryResponses(List<BookingHistoryView> rows) {
+        List<Long> bookingIds = rows.stream().map(BookingHistoryView::getBookingId).collect(Collectors.toList());
+
+        Map<Long, List<String>> seatsByBooking = showtimeSeatRepository.findSeatLabelsByBookingIds(bookingIds).stream()
+                .collect(Collectors.groupingBy(BookingSeatView::getBookingId,
+                        Collectors.mapping(seat -> seat.getRowName() + seat.getColumnName(), Collectors.toList())));
+
+        Map<Long, List<BookingHistoryResponse.FoodItem>> foodsByBooking = billRepository.findFoodsByBookingIds(bookingIds).stream()
+                .collect(Collectors.groupingBy(BookingFoodView::getBookingId,
+                        Collectors.mapping(food -> BookingHistoryResponse.FoodItem.builder()
+                                .name(food.getName())
+                                .quantity(food.getQuantity())
+                                .price(food.getPrice())
+                                .build(), Collectors.toList())));
+
+        return rows.stream().map(row -> {
+            List<String> seatLabels = new ArrayList<>(seatsByBooking.getOrDefault(row.getBookingId(), List.of()));
+            seatLabels.sort(null);
+
+            return BookingHistoryResponse.builder()
+                    .bookingId(row.getBookingId())
+                    .bookingCode(row.getBookingCode())
+                    .bookingTime(row.getBookingTime())
+                    .totalAmount(row.getTotalAmount())
+                    .status(row.getStatus())
+                    .paymentMethod(row.getPaymentMethod())
+                    .paymentStatus(row.getPaymentStatus())
+                    .movie(BookingHistoryResponse.MovieInfo.builder()
+                            .movieId(row.getMovieId())
+                            .movieName(row.getMovieName())
+                            .format(row.getRoomType().toString())
+                            .date(row.getScheduleDate())
+                            .startTime(row.getTimeStart())
+                            .endTime(row.getTimeStart().plusMinutes(row.getMovieDuration()))
+                            .build())
+                    .cinema(BookingHistoryResponse.CinemaInfo.builder()
+                            .cinemaName(row.getCinemaName())
+                            .roomName(row.getRoomName())
+                            .address(row.getBranchAddress())
+                            .build())
+                    .seats(seatLabels)
+                    .foodItems(foodsByBooking.getOrDefault(row.getBookingId(), new ArrayList<>()))
+                    .build();
+        }).collect(Collectors.<BookingHistoryResponse>toList());
+    }
+
+    private boolean isOptimistic() {
+        return "optimistic".equalsIgnoreCase(concurrencyMode);
+    }
+
+    /**
+     * Short randomized pause before retrying, so bookings that collided do not collide again in lockstep
+     */
+    private void backOff(int attempt) {
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(5, 25) * attempt);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AppException(ErrorCode.BOOKING_CONFLICT);
+        }
+    }
+
+    private void applyLockTimeout() {
+        if (lockTimeoutMs > 0) {
+            showtimeSeatRepository.setLocalLockTimeout(lockTimeoutMs + "ms");
+        }
+    }
+
+    /**
+     * Lock the seats (ids already sorted) within the configured timeout. A timeout, a NOWAIT miss or a deadlock
+     * all surface as the retriable SEAT_LOCK_TIMEOUT instead of an uncategorized error.
+     */
+    private List<ShowtimeSeat> lockSeats(List<Long> sortedSeatIds) {
+        try {
+            return lockTimeoutMs == 0
+                    ? showtimeSeatRepository.findAllByIdsForUpdateNoWait(sortedSeatIds)
+                    : showtimeSeatRepository.findAllByIdsForUpdate(sortedSeatIds);
+        } catch (PessimisticLockingFailureException e) {
+            log.warn("Could not lock seats {} within {} ms: {}", sortedSeatIds, lockTimeoutMs, e.getMessage());
+            throw new AppException(ErrorCode.SEAT_LOCK_TIMEOUT);
+        }
+    }
+
+    /**
+     * Load every food of the order in one query
+     */
+    private Map<Long, Food> findFoods(List<BookingRequest.FoodOrderItem> foodItems) {
+        if (foodItems == null || foodItems.isEmpty()) {
+            return Map.of();
+        }
+        Set<Long> foodIds = foodItems.stream().map(BookingRequest.FoodOrderItem::getFoodId).collect(Collectors.toSet());
+        Map<Long, Food> foodsById = foodRepository.findAllById(foodIds).stream()
+                .collect(Collectors.toMap(Food::getId, Function.identity()));
+        for (Long foodId : foodIds) {
+            if (!foodsById.containsKey(foodId)) {
+                log.error("CRITICAL: Food not found with ID: {}", foodId);
+                throw new AppException(ErrorCode.FOOD_NOT_FOUND);
+            }
+        }
+        return foodsById;
+    }
+
+    /**
+     * Consume the holds proven by the given tokens: a token counts only if it is valid, belongs to this user, covers
+     * one of the requested seats of this showtime, and the hold store still has that hold. Consuming removes the
+     * hold, so two bookings racing with the same token cannot both use it. If the booking does not commit, the
+     * holds are given back to the user.
+     */
+    private Set<Long> consumeHeldSeats(ShowtimeId showtimeId, Long userId, List<Long> seatIds, List<String> holdTokens) {
+        Set<Long> consumed = new HashSet<>();
+        if (holdTokens == null || holdTokens.isEmpty()) {
+            return consumed;
+        }
+        String holder = String.valueOf(userId);
+        long now = System.currentTimeMillis();
+        for (String token : holdTokens) {
+            seatHoldTokenService.verify(token)
+                    .filter(hold -> hold.isHeldBy(holder) && !hold.isExpired(now))
+                    .filter(hold -> hold.getScheduleId() == showtimeId.getScheduleId() && hold.getRoomId() == showtimeId.getRoomId())
+                    .filter(hold -> seatIds.contains(hold.getSeatId()) && !consumed.contains(hold.getSeatId()))
+                    .filter(hold -> seatHoldStore.release(showtimeId, hold.getSeatId(), holder))
+                    .ifPresent(hold -> consumed.add(hold.getSeatId()));
+        }
+        if (!consumed.isEmpty() && TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        long restoredAt = System.currentTimeMillis();
+                        consumed.forEach(seatId -> seatHoldStore.claim(showtimeId, seatId, holder, restoredAt));
+                    }
+                }
+            });
+        }
+        return consumed;
+    }
+
+    /**
+     * Seats booked without a hold token must not be held by someone else
+     */
+    private void ensureNotHeldByOtherUsers(ShowtimeId showtimeId, Long userId, List<Long> seatIds) {
+        String holder = String.valueOf(userId);
+        long now = System.currentTimeMillis();
+        for (Long seatId : seatIds) {
+            SeatHold hold = seatHoldStore.get(showtimeId, seatId);
+            if (hold != null && !hold.isExpired(now) && !hold.isHeldBy(holder)) {
+                log.error("CRITICAL: Seat {} is held by user {} until {}", seatId, hold.getUserId(), hold.getExpiresAt());
+                throw new AppException(ErrorCode.SEAT_HELD_BY_ANOTHER_USER);
+            }
+        }
+    }
+
     private String generateBookingCode() {
         return "MV" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
     }
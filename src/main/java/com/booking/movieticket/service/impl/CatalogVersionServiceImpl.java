@@ -0,0 +1,83 @@
+package com.booking.movieticket.service.impl;
+
+import com.booking.movieticket.entity.enums.StatusMovie;
+import com.booking.movieticket.service.CatalogVersionService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+@Service
+@RequiredArgsConstructor
+@FieldDefaults(makeFinal = true, level = AccessLevel.PRIVATE)
+@Transactional(readOnly = true)
+public class CatalogVersionServiceImpl implements CatalogVersionService {
+
+    // Rows seeded outside JPA have no audit timestamps; they still count
+    private static final String STAMP = "SELECT COUNT(e), MAX(COALESCE(e.lastModifiedAt, e.createdAt)) ";
+
+    EntityManager entityManager;
+
+    @Override
+    public String moviesByStatus(StatusMovie status) {
+        return etag(
+                stamp(STAMP + "FROM Movie e WHERE e.status = :value", status),
+                stamp(STAMP + "FROM Schedule e WHERE e.movie.status = :value", status),
+                stamp(STAMP + "FROM Review e WHERE e.movie.status = :value", status),
+                stamp(STAMP + "FROM Category e", null),
+                stamp(STAMP + "FROM Actor e", null));
+    }
+
+    @Override
+    public String movie(Long movieId) {
+        return etag(
+                stamp(STAMP + "FROM Movie e WHERE e.id = :value", movieId),
+                stamp(STAMP + "FROM Schedule e WHERE e.movie.id = :value", movieId),
+                stamp(STAMP + "FROM Review e WHERE e.movie.id = :value", movieId),
+                stamp(STAMP + "FROM Category e", null),
+                stamp(STAMP + "FROM Actor e", null));
+    }
+
+    @Override
+    public String cinemas() {
+        return etag(
+                stamp(STAMP + "FROM Cinema e", null),
+                stamp(STAMP + "FROM Branch e", null));
+    }
+
+    @Override
+    public String foods() {
+        return etag(stamp(STAMP + "FROM Food e", null));
+    }
+
+    @Override
+    public String showtimesOfMovie(Long movieId) {
+        return etag(
+                stamp(STAMP + "FROM Movie e WHERE e.id = :value", movieId),
+                stamp(STAMP + "FROM Schedule e WHERE e.movie.id = :value", movieId),
+                stamp(STAMP + "FROM Showtime e WHERE e.schedule.movie.id = :value", movieId),
+                stamp(STAMP + "FROM Room e", null),
+                stamp(STAMP + "FROM Branch e", null));
+    }
+
+    private String stamp(String jpql, Object value) {
+        Query query = entityManager.createQuery(jpql);
+        if (value != null) {
+            query.setParameter("value", value);
+        }
+        Object[] row = (Object[]) query.getSingleResult();
+        Instant lastModified = (Instant) row[1];
+        return row[0] + ":" + (lastModified != null ? lastModified.toEpochMilli() : 0);
+    }
+
+    private static String etag(String... stamps) {
+        return DigestUtils.md5DigestAsHex(String.join("|", stamps).getBytes(StandardCharsets.UTF_8));
+    }
+}
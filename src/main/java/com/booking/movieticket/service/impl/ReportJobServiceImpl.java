@@ -0,0 +1,205 @@
+package com.booking.movieticket.service.impl;
+
+import com.booking.movieticket.dto.report.ReportJobRequest;
+import com.booking.movieticket.dto.report.ReportJobResponse;
+import com.booking.movieticket.entity.enums.JobStatus;
+import com.booking.movieticket.exception.AppException;
+import com.booking.movieticket.exception.ErrorCode;
+import com.booking.movieticket.service.ReportJobService;
+import com.booking.movieticket.service.ReportService;
+import com.booking.movieticket.service.report.ReportArtifactStorage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.Resource;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Report files generated in the background. Jobs run on the bounded reportExecutor, so at most that many reports
+ * hold a database connection at once, and the finished file goes to the {@link ReportArtifactStorage}.
+ * <p>
+ * Jobs are indexed by their spec (report, dates and type): while a job is queued or running, or its file has not
+ * expired, an identical request gets the same job back. An expired job can no longer be downloaded, but its file
+ * is kept for {@code report.jobs.download-grace-minutes} more so downloads already streaming it can finish. Job
+ * state lives in this node's memory, so files left by a previous process are deleted at startup.
+ */
+@Service
+@Slf4j
+public class ReportJobServiceImpl implements ReportJobService {
+
+    private static final String TOPIC = "/topic/reports/";
+
+    private final ReportService reportService;
+    private final ReportArtifactStorage artifactStorage;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final ThreadPoolTaskExecutor executor;
+    private final long ttlMillis;
+    private final long downloadGraceMillis;
+
+    private final ConcurrentHashMap<String, ReportJobResponse> jobs = new ConcurrentHashMap<>();
+    // Spec key -> ID of the job producing or holding that report
+    private final ConcurrentHashMap<String, String> jobsBySpec = new ConcurrentHashMap<>();
+    // ID of an expired job -> time its file may be deleted, once downloads started before expiry are done
+    private final ConcurrentHashMap<String, Long> expiredArtifacts = new ConcurrentHashMap<>();
+
+    public ReportJobServiceImpl(ReportService reportService,
+                                ReportArtifactStorage artifactStorage,
+                                SimpMessagingTemplate messagingTemplate,
+                                @Qualifier("reportExecutor") ThreadPoolTaskExecutor executor,
+                                @Value("${report.jobs.ttl-minutes:30}") long ttlMinutes,
+                                @Value("${report.jobs.download-grace-minutes:10}") long downloadGraceMinutes) {
+        this.reportService = reportService;
+        this.artifactStorage = artifactStorage;
+        this.messagingTemplate = messagingTemplate;
+        this.executor = executor;
+        this.ttlMillis = TimeUnit.MINUTES.toMillis(ttlMinutes);
+        this.downloadGraceMillis = TimeUnit.MINUTES.toMillis(downloadGraceMinutes);
+    }
+
+    @Override
+    public synchronized ReportJobResponse submit(ReportJobRequest request) {
+        if (request.getReport() == null || request.getStartDate() == null || request.getEndDate() == null) {
+            throw new AppException(ErrorCode.BAD_REQUEST, "report, startDate and endDate are required");
+        }
+        if (request.getStartDate().isAfter(request.getEndDate())) {
+            throw new AppException(ErrorCode.BAD_REQUEST, "startDate must not be after endDate");
+        }
+        long now = Instant.now().toEpochMilli();
+        String specKey = specKey(request);
+        String existingId = jobsBySpec.get(specKey);
+        ReportJobResponse existing = existingId == null ? null : jobs.get(existingId);
+        if (existing != null && isReusable(existing, now)) {
+            log.info("Report {} already available as job {} ({})", specKey, existing.getJobId(), existing.getStatus());
+            return existing;
+        }
+
+        ReportJobResponse job = ReportJobResponse.builder()
+                .jobId(UUID.randomUUID().toString())
+                .report(request.getReport())
+                .status(JobStatus.QUEUED)
+                .startDate(request.getStartDate())
+                .endDate(request.getEndDate())
+                .type(request.getType())
+                .createdAt(now)
+                .build();
+        jobs.put(job.getJobId(), job);
+        jobsBySpec.put(specKey, job.getJobId());
+        try {
+            executor.execute(() -> run(job.getJobId(), request, specKey));
+        } catch (TaskRejectedException e) {
+            jobs.remove(job.getJobId());
+            jobsBySpec.remove(specKey, job.getJobId());
+            throw new AppException(ErrorCode.REPORT_QUEUE_FULL);
+        }
+        log.info("Queued report job {} for {}", job.getJobId(), specKey);
+        return job;
+    }
+
+    @Override
+    public ReportJobResponse getJob(String jobId) {
+        ReportJobResponse job = jobs.get(jobId);
+        if (job == null) {
+            throw new AppException(ErrorCode.REPORT_JOB_NOT_FOUND);
+        }
+        return job;
+    }
+
+    @Override
+    public Resource getArtifact(String jobId) {
+        ReportJobResponse job = getJob(jobId);
+        if (job.getStatus() != JobStatus.COMPLETED) {
+            throw new AppException(ErrorCode.REPORT_NOT_READY);
+        }
+        Resource artifact = artifactStorage.load(jobId);
+        if (artifact == null) {
+            throw new AppException(ErrorCode.REPORT_JOB_NOT_FOUND);
+        }
+        return artifact;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void deleteOrphanArtifacts() {
+        int deleted = artifactStorage.deleteOlderThan(Instant.now());
+        if (deleted > 0) {
+            log.info("Deleted {} report files left by a previous run", deleted);
+        }
+    }
+
+    @Scheduled(fixedDelay = 60000)
+    public void evictExpiredJobs() {
+        long now = Instant.now().toEpochMilli();
+        for (ReportJobResponse job : jobs.values()) {
+            if (job.getExpiresAt() != null && job.getExpiresAt() <= now) {
+                jobsBySpec.values().remove(job.getJobId());
+                jobs.remove(job.getJobId());
+                expiredArtifacts.put(job.getJobId(), job.getExpiresAt() + downloadGraceMillis);
+            }
+        }
+        expiredArtifacts.forEach((jobId, deleteAt) -> {
+            if (deleteAt <= now && expiredArtifacts.remove(jobId, deleteAt)) {
+                artifactStorage.delete(jobId);
+            }
+        });
+    }
+
+    private void run(String jobId, ReportJobRequest request, String specKey) {
+        update(jobId, job -> job.toBuilder().status(JobStatus.RUNNING).startedAt(Instant.now().toEpochMilli()));
+        try {
+            long size = artifactStorage.store(jobId, outputStream -> {
+                switch (request.getReport()) {
+                    case SALES -> reportService.exportSalesReport(request.getStartDate(), request.getEndDate(),
+                            request.getType(), outputStream);
+                    case ATTENDANCE -> reportService.exportAttendanceReport(request.getStartDate(),
+                            request.getEndDate(), request.getType(), outputStream);
+                }
+            });
+            long finishedAt = Instant.now().toEpochMilli();
+            update(jobId, job -> job.toBuilder()
+                    .status(JobStatus.COMPLETED)
+                    .downloadUrl("/api/reports/jobs/" + jobId + "/download")
+                    .sizeBytes(size)
+                    .finishedAt(finishedAt)
+                    .expiresAt(finishedAt + ttlMillis));
+            log.info("Report job {} completed, {} bytes", jobId, size);
+        } catch (Exception e) {
+            log.error("Report job {} failed", jobId, e);
+            // A failed report is not reused: the next identical request tries again
+            jobsBySpec.remove(specKey, jobId);
+            artifactStorage.delete(jobId);
+            long finishedAt = Instant.now().toEpochMilli();
+            update(jobId, job -> job.toBuilder()
+                    .status(JobStatus.FAILED)
+                    .errorMessage(e.getMessage())
+                    .finishedAt(finishedAt)
+                    .expiresAt(finishedAt + ttlMillis));
+        }
+    }
+
+    private void update(String jobId, Function<ReportJobResponse, ReportJobResponse.ReportJobResponseBuilder> change) {
+        ReportJobResponse updated = jobs.computeIfPresent(jobId, (id, job) -> change.apply(job).build());
+        if (updated != null) {
+            messagingTemplate.convertAndSend(TOPIC + jobId, updated);
+        }
+    }
+
+    private static boolean isReusable(ReportJobResponse job, long now) {
+        return job.getStatus() == JobStatus.QUEUED || job.getStatus() == JobStatus.RUNNING
+                || (job.getStatus() == JobStatus.COMPLETED && job.getExpiresAt() > now);
+    }
+
+    private static String specKey(ReportJobRequest request) {
+        return request.getReport() + "/" + request.getStartDate() + "/" + request.getEndDate() + "/" + request.getType();
+    }
+}
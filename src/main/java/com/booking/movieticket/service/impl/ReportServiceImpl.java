@@ -5,26 +5,33 @@ import com.booking.movieticket.dto.report.AttendanceReportDTO;
 import com.booking.movieticket.service.ReportService;
 import com.booking.movieticket.repository.BookingRepository;
 import com.booking.movieticket.repository.ShowtimeRepository;
+import com.booking.movieticket.repository.projection.AttendanceReportRowView;
+import com.booking.movieticket.repository.projection.SalesReportRowView;
 import lombok.RequiredArgsConstructor;
 import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class ReportServiceImpl implements ReportService {
 
+    // Rows kept in memory per sheet while exporting; older rows are flushed to a compressed temp file
+    private static final int ROW_WINDOW = 200;
+
     private final BookingRepository bookingRepository;
     private final ShowtimeRepository showtimeRepository;
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy");
@@ -35,13 +42,13 @@ public class ReportServiceImpl implements ReportService {
     public List<SalesReportDTO> getSalesReport(LocalDate startDate, LocalDate endDate, String type) {
         return bookingRepository.findSalesReport(startDate, endDate, type)
                 .stream()
-                .map(booking -> {
+                .map(row -> {
                     SalesReportDTO dto = new SalesReportDTO();
-                    dto.setMovieName(booking.getShowtime().getMovie().getName());
-                    dto.setFormat(booking.getShowtime().getFormat());
-                    dto.setDate(booking.getShowtime().getDate());
-                    dto.setRevenue(BigDecimal.valueOf(booking.getTotalAmount()));
-                    dto.setTickets(booking.getShowtimeSeats().size());
+                    dto.setMovieName(row.getMovieName());
+                    dto.setFormat(row.getFormat());
+                    dto.setDate(row.getDate());
+                    dto.setRevenue(BigDecimal.valueOf(row.getRevenue()));
+                    dto.setTickets(row.getTickets().intValue());
                     return dto;
                 })
                 .collect(Collectors.toList());
@@ -53,12 +60,12 @@ public class ReportServiceImpl implements ReportService {
     public List<AttendanceReportDTO> getAttendanceReport(LocalDate startDate, LocalDate endDate, String type) {
         return showtimeRepository.findAttendanceReport(startDate, endDate, type)
                 .stream()
-                .map(showtime -> {
+                .map(row -> {
                     AttendanceReportDTO dto = new AttendanceReportDTO();
-                    dto.setMovieName(showtime.getMovie().getName());
-                    dto.setCinemaName(showtime.getRoom().getBranch().getName());
-                    dto.setDate(showtime.getDate());
-                    dto.setAttendance(showtime.getShowtimeSeats().size());
+                    dto.setMovieName(row.getMovieName());
+                    dto.setCinemaName(row.getCinemaName());
+                    dto.setDate(row.getDate());
+                    dto.setAttendance(row.getAttendance().intValue());
                     return dto;
                 })
                 .collect(Collectors.toList());
@@ -72,64 +79,45 @@ public class ReportServiceImpl implements ReportService {
 
     @Override
     @Transactional(readOnly = true)
-    public byte[] exportSalesReport(LocalDate startDate, LocalDate endDate, String type) {
-        List<SalesReportDTO> salesData = getSalesReport(startDate, endDate, type);
-        
-        try (Workbook workbook = new XSSFWorkbook()) {
-            Sheet sheet = workbook.createSheet("Sales Report");
-            
-            // Create header row
-            Row headerRow = sheet.createRow(0);
-            String[] columns = {"Movie", "Format", "Date", "Revenue", "Tickets"};
-            for (int i = 0; i < columns.length; i++) {
-                Cell cell = headerRow.createCell(i);
-                cell.setCellValue(columns[i]);
-            }
+    public void exportSalesReport(LocalDate startDate, LocalDate endDate, String type, OutputStream outputStream)
+            throws IOException {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(ROW_WINDOW);
+        workbook.setCompressTempFiles(true);
+        try (Stream<SalesReportRowView> rows = bookingRepository.streamSalesReport(startDate, endDate, type)) {
+            Sheet sheet = createSheet(workbook, "Sales Report",
+                    new String[]{"Movie", "Format", "Date", "Revenue", "Tickets"}, new int[]{40, 10, 12, 14, 10});
 
             // Create data rows
             int rowNum = 1;
-            for (SalesReportDTO data : salesData) {
+            for (SalesReportRowView data : (Iterable<SalesReportRowView>) rows::iterator) {
                 Row row = sheet.createRow(rowNum++);
                 row.createCell(0).setCellValue(data.getMovieName());
                 row.createCell(1).setCellValue(data.getFormat());
                 row.createCell(2).setCellValue(data.getDate().format(DATE_FORMATTER));
-                row.createCell(3).setCellValue(data.getRevenue().doubleValue());
+                row.createCell(3).setCellValue(data.getRevenue());
                 row.createCell(4).setCellValue(data.getTickets());
             }
 
-            // Auto-size columns
-            for (int i = 0; i < columns.length; i++) {
-                sheet.autoSizeColumn(i);
-            }
-
-            // Write to byte array
-            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
             workbook.write(outputStream);
-            return outputStream.toByteArray();
-        } catch (Exception e) {
-            throw new RuntimeException("Error generating sales report", e);
+        } finally {
+            workbook.dispose();
+            workbook.close();
         }
     }
 
     @Override
     @Transactional(readOnly = true)
-    public byte[] exportAttendanceReport(LocalDate startDate, LocalDate endDate, String type) {
-        List<AttendanceReportDTO> attendanceData = getAttendanceReport(startDate, endDate, type);
-        
-        try (Workbook workbook = new XSSFWorkbook()) {
-            Sheet sheet = workbook.createSheet("Attendance Report");
-            
-            // Create header row
-            Row headerRow = sheet.createRow(0);
-            String[] columns = {"Movie", "Cinema", "Date", "Attendance"};
-            for (int i = 0; i < columns.length; i++) {
-                Cell cell = headerRow.createCell(i);
-                cell.setCellValue(columns[i]);
-            }
+    public void exportAttendanceReport(LocalDate startDate, LocalDate endDate, String type, OutputStream outputStream)
+            throws IOException {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(ROW_WINDOW);
+        workbook.setCompressTempFiles(true);
+        try (Stream<AttendanceReportRowView> rows = showtimeRepository.streamAttendanceReport(startDate, endDate, type)) {
+            Sheet sheet = createSheet(workbook, "Attendance Report",
+                    new String[]{"Movie", "Cinema", "Date", "Attendance"}, new int[]{40, 30, 12, 12});
 
             // Create data rows
             int rowNum = 1;
-            for (AttendanceReportDTO data : attendanceData) {
+            for (AttendanceReportRowView data : (Iterable<AttendanceReportRowView>) rows::iterator) {
                 Row row = sheet.createRow(rowNum++);
                 row.createCell(0).setCellValue(data.getMovieName());
                 row.createCell(1).setCellValue(data.getCinemaName());
@@ -137,17 +125,25 @@ public class ReportServiceImpl implements ReportService {
                 row.createCell(3).setCellValue(data.getAttendance());
             }
 
-            // Auto-size columns
-            for (int i = 0; i < columns.length; i++) {
-                sheet.autoSizeColumn(i);
-            }
-
-            // Write to byte array
-            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
             workbook.write(outputStream);
-            return outputStream.toByteArray();
-        } catch (Exception e) {
-            throw new RuntimeException("Error generating attendance report", e);
+        } finally {
+            workbook.dispose();
+            workbook.close();
+        }
+    }
+
+    /**
+     * Sheet with a header row and fixed column widths (in characters); autoSizeColumn would have to track every
+     * row, which defeats the streaming window
+     */
+    private static Sheet createSheet(SXSSFWorkbook workbook, String name, String[] columns, int[] widths) {
+        Sheet sheet = workbook.createSheet(name);
+        Row headerRow = sheet.createRow(0);
+        for (int i = 0; i < columns.length; i++) {
+            Cell cell = headerRow.createCell(i);
+            cell.setCellValue(columns[i]);
+            sheet.setColumnWidth(i, widths[i] * 256);
         }
+        return sheet;
     }
 } 
\ No newline at end of file
@@ -2,12 +2,14 @@ package com.booking.movieticket.service.impl;
 
 import com.booking.movieticket.dto.response.RevenueByCategoryDTO;
 import com.booking.movieticket.dto.response.RevenueByCategoryDTO.CategoryRevenuePoint;
+import com.booking.movieticket.dto.response.RevenueDashboardDTO;
 import com.booking.movieticket.dto.response.RevenueSummaryDTO;
 import com.booking.movieticket.dto.response.RevenueTimeSeriesDTO;
 import com.booking.movieticket.dto.response.RevenueTimeSeriesDTO.DateRevenuePoint;
 import com.booking.movieticket.exception.AppException;
 import com.booking.movieticket.exception.ErrorCode;
 import com.booking.movieticket.service.RevenueAnalyticsService;
+import com.booking.movieticket.service.revenue.RevenueRollup;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import jakarta.persistence.Query;
@@ -17,8 +19,13 @@ import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 
+/**
+ * Revenue reports over ticket revenue of PAID bills, read from the revenue_rollup table maintained by
+ * {@link RevenueRollup} rather than joined from bills down to seats on every call.
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
@@ -27,30 +34,22 @@ public class RevenueAnalyticsServiceImpl implements RevenueAnalyticsService {
     @PersistenceContext
     private EntityManager entityManager;
 
+    private final RevenueRollup revenueRollup;
+
     @Override
     public RevenueTimeSeriesDTO getDailyRevenue(LocalDate startDate, LocalDate endDate) {
         try {
             String sql = """
                     SELECT
-                        DATE(s.schedule_date) as date,
-                        SUM(ss.price) as revenue,
-                        COUNT(bd.id) as ticket_count
+                        rr.schedule_date as date,
+                        SUM(rr.revenue) as revenue,
+                        SUM(rr.ticket_count) as ticket_count
                     FROM
-                        bill b
-                    JOIN
-                        bill_detail bd ON b.bill_id = bd.bill_id
-                    JOIN
-                        showtime_seat ss ON bd.showtime_seat_id = ss.showtime_seat_id
-                    JOIN
-                        showtimes st ON ss.schedule_id = st.schedule_id AND ss.room_id = st.room_id
-                    JOIN
-                        schedules s ON st.schedule_id = s.schedule_id
+                        revenue_rollup rr
                     WHERE
-                        b.status_bill = 'PAID'
-                        AND b.is_deleted = false
-                        AND s.schedule_date BETWEEN :startDate AND :endDate
+                        rr.schedule_date BETWEEN :startDate AND :endDate
                     GROUP BY
-                        DATE(s.schedule_date)
+                        rr.schedule_date
                     ORDER BY
                         date
                 """;
@@ -87,28 +86,18 @@ public class RevenueAnalyticsServiceImpl implements RevenueAnalyticsService {
                         SELECT
                             m.movie_name as category_name,
                             m.movie_id as category_id,
-                            SUM(ss.price) as revenue,
-                            COUNT(bd.id) as ticket_count
+                            SUM(rr.revenue) as revenue,
+                            SUM(rr.ticket_count) as ticket_count
                         FROM
-                            bill b
-                        JOIN
-                            bill_detail bd ON b.bill_id = bd.bill_id
-                        JOIN
-                            showtime_seat ss ON bd.showtime_seat_id = ss.showtime_seat_id
-                        JOIN
-                            showtimes st ON ss.schedule_id = st.schedule_id AND ss.room_id = st.room_id
+                            revenue_rollup rr
                         JOIN
-                            schedules s ON st.schedule_id = s.schedule_id
-                        JOIN
-                            movies m ON s.movie_id = m.movie_id
+                            movies m ON rr.movie_id = m.movie_id
                         WHERE
-                            b.status_bill = 'PAID'
-                            AND b.is_deleted = false
-                            AND s.schedule_date BETWEEN :startDate AND :endDate
+                            rr.schedule_date BETWEEN :startDate AND :endDate
                         GROUP BY
                             m.movie_id, m.movie_name
                         ORDER BY
-                            revenue DESC
+                            revenue DESC, m.movie_id
                     """;
 
             if (limit != null && limit > 0) {
@@ -158,32 +147,18 @@ public class RevenueAnalyticsServiceImpl implements RevenueAnalyticsService {
                         SELECT
                             c.cinema_name as category_name,
                             c.cinema_id as category_id,
-                            SUM(ss.price) as revenue,
-                            COUNT(bd.id) as ticket_count
+                            SUM(rr.revenue) as revenue,
+                            SUM(rr.ticket_count) as ticket_count
                         FROM
-                            bill b
-                        JOIN
-                            bill_detail bd ON b.bill_id = bd.bill_id
-                        JOIN
-                            showtime_seat ss ON bd.showtime_seat_id = ss.showtime_seat_id
+                            revenue_rollup rr
                         JOIN
-                            showtimes st ON ss.schedule_id = st.schedule_id AND ss.room_id = st.room_id
-                        JOIN
-                            schedules s ON st.schedule_id = s.schedule_id
-                        JOIN
-                            rooms r ON st.room_id = r.room_id
-                        JOIN
-                            branchs br ON r.branch_id = br.branch_id
-                        JOIN
-                            cinemas c ON br.cinema_id = c.cinema_id
+                            cinemas c ON rr.cinema_id = c.cinema_id
                         WHERE
-                            b.status_bill = 'PAID'
-                            AND b.is_deleted = false
-                            AND s.schedule_date BETWEEN ::startDate AND ::endDate
+                            rr.schedule_date BETWEEN :startDate AND :endDate
                         GROUP BY
                             c.cinema_id, c.cinema_name
                         ORDER BY
-                            revenue DESC
+                            revenue DESC, c.cinema_id
                     """;
 
             Query query = entityManager.createNativeQuery(sql);
@@ -227,26 +202,16 @@ public class RevenueAnalyticsServiceImpl implements RevenueAnalyticsService {
         try {
             String sql = """
                         SELECT
-                            CONCAT(CAST(EXTRACT(HOUR FROM s.schedule_time_start) AS VARCHAR), ':00') as category_name,
-                            EXTRACT(HOUR FROM s.schedule_time_start) as category_id,
-                            SUM(ss.price) as revenue,
-                            COUNT(bd.id) as ticket_count
+                            CONCAT(CAST(rr.start_hour AS VARCHAR), ':00') as category_name,
+                            rr.start_hour as category_id,
+                            SUM(rr.revenue) as revenue,
+                            SUM(rr.ticket_count) as ticket_count
                         FROM
-                            bill b
-                        JOIN
-                            bill_detail bd ON b.bill_id = bd.bill_id
-                        JOIN
-                            showtime_seat ss ON bd.showtime_seat_id = ss.showtime_seat_id
-                        JOIN
-                            showtimes st ON ss.schedule_id = st.schedule_id AND ss.room_id = st.room_id
-                        JOIN
-                            schedules s ON st.schedule_id = s.schedule_id
+                            revenue_rollup rr
                         WHERE
-                            b.status_bill = 'PAID'
-                            AND b.is_deleted = false
-                            AND s.schedule_date BETWEEN :startDate AND :endDate
+                            rr.schedule_date BETWEEN :startDate AND :endDate
                         GROUP BY
-                            EXTRACT(HOUR FROM s.schedule_time_start)
+                            rr.start_hour
                         ORDER BY
                             category_id
                     """;
@@ -292,30 +257,18 @@ public class RevenueAnalyticsServiceImpl implements RevenueAnalyticsService {
         try {
             String sql = """
                         SELECT
-                            se.type_seat as category_name,
-                            se.type_seat as category_id, 
-                            SUM(ss.price) as revenue,
-                            COUNT(bd.id) as ticket_count
+                            rr.type_seat as category_name,
+                            rr.type_seat as category_id,
+                            SUM(rr.revenue) as revenue,
+                            SUM(rr.ticket_count) as ticket_count
                         FROM
-                            bill b
-                        JOIN
-                            bill_detail bd ON b.bill_id = bd.bill_id
-                        JOIN
-                            showtime_seat ss ON bd.showtime_seat_id = ss.showtime_seat_id
-                        JOIN
-                            seats se ON ss.seat_id = se.seat_id
-                        JOIN
-                            showtimes st ON ss.schedule_id = st.schedule_id AND ss.room_id = st.room_id
-                        JOIN
-                            schedules s ON st.schedule_id = s.schedule_id
+                            revenue_rollup rr
                         WHERE
-                            b.status_bill = 'PAID'
-                            AND b.is_deleted = false
-                            AND s.schedule_date BETWEEN :startDate AND :endDate
+                            rr.schedule_date BETWEEN :startDate AND :endDate
                         GROUP BY
-                            se.type_seat
+                            rr.type_seat
                         ORDER BY
-                            revenue DESC
+                            revenue DESC, rr.type_seat
                     """;
 
             Query query = entityManager.createNativeQuery(sql);
@@ -359,24 +312,14 @@ public class RevenueAnalyticsServiceImpl implements RevenueAnalyticsService {
         try {
             String sql = """
                         SELECT
-                            SUM(ss.price) as total_revenue,
-                            COUNT(bd.id) as total_tickets,
-                            COUNT(DISTINCT s.movie_id) as total_movies,
-                            COUNT(DISTINCT st.schedule_id) as total_showtimes
+                            SUM(rr.revenue) as total_revenue,
+                            SUM(rr.ticket_count) as total_tickets,
+                            COUNT(DISTINCT rr.movie_id) as total_movies,
+                            COUNT(DISTINCT rr.schedule_id) as total_showtimes
                         FROM
-                            bill b
-                        JOIN
-                            bill_detail bd ON b.bill_id = bd.bill_id
-                        JOIN
-                            showtime_seat ss ON bd.showtime_seat_id = ss.showtime_seat_id
-                        JOIN
-                            showtimes st ON ss.schedule_id = st.schedule_id AND ss.room_id = st.room_id
-                        JOIN
-                            schedules s ON st.schedule_id = s.schedule_id
+                            revenue_rollup rr
                         WHERE
-                            b.status_bill = 'PAID'
-                            AND b.is_deleted = false
-                            AND s.schedule_date BETWEEN :startDate AND :endDate
+                            rr.schedule_date BETWEEN :startDate AND :endDate
                     """;
 
             Query query = entityManager.createNativeQuery(sql);
@@ -398,4 +341,148 @@ public class RevenueAnalyticsServiceImpl implements RevenueAnalyticsService {
             throw new AppException(ErrorCode.UNCATEGORIZED_EXCEPTION, "Error getting revenue summary statistics");
         }
     }
+
+    @Override
+    public RevenueDashboardDTO getRevenueDashboard(LocalDate startDate, LocalDate endDate, Integer movieLimit) {
+        try {
+            // One pass over the rollup; GROUPING(...) tells which breakdown each row belongs to
+            String sql = """
+                        SELECT
+                            GROUPING(rr.schedule_date) as by_date,
+                            GROUPING(rr.movie_id, m.movie_name) as by_movie,
+                            GROUPING(rr.cinema_id, c.cinema_name) as by_cinema,
+                            GROUPING(rr.start_hour) as by_hour,
+                            GROUPING(rr.type_seat) as by_type,
+                            rr.schedule_date,
+                            rr.movie_id,
+                            m.movie_name,
+                            rr.cinema_id,
+                            c.cinema_name,
+                            rr.start_hour,
+                            rr.type_seat,
+                            SUM(rr.revenue) as revenue,
+                            SUM(rr.ticket_count) as ticket_count,
+                            COUNT(DISTINCT rr.movie_id) as total_movies,
+                            COUNT(DISTINCT rr.schedule_id) as total_showtimes
+                        FROM
+                            revenue_rollup rr
+                        LEFT JOIN
+                            movies m ON rr.movie_id = m.movie_id
+                        LEFT JOIN
+                            cinemas c ON rr.cinema_id = c.cinema_id
+                        WHERE
+                            rr.schedule_date BETWEEN :startDate AND :endDate
+                        GROUP BY GROUPING SETS (
+                            (rr.schedule_date),
+                            (rr.movie_id, m.movie_name),
+                            (rr.cinema_id, c.cinema_name),
+                            (rr.start_hour),
+                            (rr.type_seat),
+                            ()
+                        )
+                    """;
+
+            Query query = entityManager.createNativeQuery(sql);
+            query.setParameter("startDate", startDate);
+            query.setParameter("endDate", endDate);
+
+            List<Object[]> results = query.getResultList();
+
+            RevenueSummaryDTO summary = null;
+            List<DateRevenuePoint> daily = new ArrayList<>();
+            List<CategoryRevenuePoint> byMovie = new ArrayList<>();
+            List<CategoryRevenuePoint> byCinema = new ArrayList<>();
+            List<CategoryRevenuePoint> byShowtime = new ArrayList<>();
+            List<CategoryRevenuePoint> byTicketType = new ArrayList<>();
+
+            for (Object[] row : results) {
+                double revenue = row[12] != null ? ((Number) row[12]).doubleValue() : 0.0;
+                int ticketCount = row[13] != null ? ((Number) row[13]).intValue() : 0;
+                if (((Number) row[0]).intValue() == 0) {
+                    daily.add(DateRevenuePoint.builder()
+                            .date(((java.sql.Date) row[5]).toLocalDate())
+                            .revenue(revenue)
+                            .ticketCount(ticketCount)
+                            .build());
+                } else if (((Number) row[1]).intValue() == 0) {
+                    // The single-breakdown queries inner join movies and cinemas
+                    if (row[7] != null) {
+                        byMovie.add(categoryPoint((String) row[7], ((Number) row[6]).longValue(), revenue, ticketCount));
+                    }
+                } else if (((Number) row[2]).intValue() == 0) {
+                    if (row[9] != null) {
+                        byCinema.add(categoryPoint((String) row[9], ((Number) row[8]).longValue(), revenue, ticketCount));
+                    }
+                } else if (((Number) row[3]).intValue() == 0) {
+                    Long hour = row[10] != null ? ((Number) row[10]).longValue() : null;
+                    byShowtime.add(categoryPoint((hour != null ? hour : "") + ":00", hour, revenue, ticketCount));
+                } else if (((Number) row[4]).intValue() == 0) {
+                    byTicketType.add(categoryPoint((String) row[11], 0L, revenue, ticketCount));
+                } else {
+                    summary = RevenueSummaryDTO.builder()
+                            .totalRevenue(revenue)
+                            .totalTickets(ticketCount)
+                            .totalMovies(((Number) row[14]).intValue())
+                            .totalShowtimes(((Number) row[15]).intValue())
+                            .startDate(startDate)
+                            .endDate(endDate)
+                            .build();
+                }
+            }
+
+            // Same orders and percentages as the single-breakdown endpoints, ties included: a movie limit must cut
+            // the same movies
+            daily.sort(Comparator.comparing(DateRevenuePoint::getDate));
+            Comparator<CategoryRevenuePoint> byRevenueDesc =
+                    Comparator.comparing(CategoryRevenuePoint::getRevenue).reversed();
+            byMovie.sort(byRevenueDesc.thenComparing(CategoryRevenuePoint::getCategoryId));
+            if (movieLimit != null && movieLimit > 0 && byMovie.size() > movieLimit) {
+                byMovie = new ArrayList<>(byMovie.subList(0, movieLimit));
+            }
+            byCinema.sort(byRevenueDesc.thenComparing(CategoryRevenuePoint::getCategoryId));
+            byShowtime.sort(Comparator.comparing(CategoryRevenuePoint::getCategoryId,
+                    Comparator.nullsLast(Comparator.naturalOrder())));
+            byTicketType.sort(byRevenueDesc.thenComparing(CategoryRevenuePoint::getCategoryName));
+
+            return RevenueDashboardDTO.builder()
+                    .summary(summary)
+                    .daily(RevenueTimeSeriesDTO.builder().dataPoints(daily).build())
+                    .byMovie(withPercentages(byMovie))
+                    .byCinema(withPercentages(byCinema))
+                    .byShowtime(withPercentages(byShowtime))
+                    .byTicketType(withPercentages(byTicketType))
+                    .build();
+        } catch (Exception e) {
+            log.error("Error getting revenue dashboard: {}", e.getMessage(), e);
+            throw new AppException(ErrorCode.UNCATEGORIZED_EXCEPTION, "Error getting revenue dashboard statistics");
+        }
+    }
+
+    private static CategoryRevenuePoint categoryPoint(String name, Long id, double revenue, int ticketCount) {
+        return CategoryRevenuePoint.builder()
+                .categoryName(name)
+                .categoryId(id)
+                .revenue(revenue)
+                .ticketCount(ticketCount)
+                .build();
+    }
+
+    /**
+     * Set each point's share of the breakdown's total revenue, rounded to 2 decimal places
+     */
+    private static RevenueByCategoryDTO withPercentages(List<CategoryRevenuePoint> dataPoints) {
+        double totalRevenue = dataPoints.stream().mapToDouble(CategoryRevenuePoint::getRevenue).sum();
+        for (CategoryRevenuePoint point : dataPoints) {
+            double percentage = totalRevenue > 0 ? (point.getRevenue() / totalRevenue) * 100 : 0;
+            point.setPercentage(Math.round(percentage * 100.0) / 100.0);
+        }
+        return RevenueByCategoryDTO.builder()
+                .dataPoints(dataPoints)
+                .build();
+    }
+
+    @Override
+    public int reconcileRollup(LocalDate startDate, LocalDate endDate) {
+        return revenueRollup.reconcile(startDate, endDate);
+    }
 }
\ No newline at end of file
@@ -12,6 +12,7 @@ import com.booking.movieticket.entity.Room;
 import com.booking.movieticket.entity.Seat;
 import com.booking.movieticket.entity.enums.RoomStatus;
 import com.booking.movieticket.entity.enums.TypeSeat;
+import com.booking.movieticket.event.RoomLayoutChangedEvent;
 import com.booking.movieticket.exception.AppException;
 import com.booking.movieticket.exception.ErrorCode;
 import com.booking.movieticket.mapper.RoomMapper;
@@ -23,6 +24,7 @@ import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -38,6 +40,7 @@ public class RoomServiceImpl implements RoomService {
     RoomRepository roomRepository;
     SeatRepository seatRepository;
     RoomMapper roomMapper;
+    ApplicationEventPublisher eventPublisher;
 
     @Override
     public RoomDetailResponse getRoomById(Long id) {
@@ -145,6 +148,7 @@ public class RoomServiceImpl implements RoomService {
             room.setRoomStatus(RoomStatus.AVAILABLE);
             roomRepository.save(room);
         }
+        eventPublisher.publishEvent(new RoomLayoutChangedEvent(room.getId()));
     }
 
     private String generateRowName(int row) {
@@ -217,7 +221,8 @@ public class RoomServiceImpl implements RoomService {
             }
         }
         seatRepository.saveAll(seats);
-        roomRepository.save(room);
+        Room savedRoom = roomRepository.save(room);
+        eventPublisher.publishEvent(new RoomLayoutChangedEvent(savedRoom.getId()));
     }
 
     @Override
@@ -229,6 +234,7 @@ public class RoomServiceImpl implements RoomService {
                 .orElseThrow(() -> new AppException(ErrorCode.ROOM_NOT_FOUND));
         roomMapper.updateRoomFromRequest(roomRequest, room);
         roomRepository.save(room);
+        eventPublisher.publishEvent(new RoomLayoutChangedEvent(room.getId()));
     }
 
     @Override
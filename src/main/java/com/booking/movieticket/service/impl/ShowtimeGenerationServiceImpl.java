@@ -0,0 +1,354 @@
+package com.booking.movieticket.service.impl;
+
+import com.booking.movieticket.dto.request.admin.create.ShowtimeGenerationRequest;
+import com.booking.movieticket.dto.response.ShowtimeGenerationJobResponse;
+import com.booking.movieticket.entity.ShowtimeGenerationJob;
+import com.booking.movieticket.entity.enums.JobStatus;
+import com.booking.movieticket.event.ShowtimesChangedEvent;
+import com.booking.movieticket.exception.AppException;
+import com.booking.movieticket.exception.ErrorCode;
+import com.booking.movieticket.repository.ShowtimeGenerationJobRepository;
+import com.booking.movieticket.service.ShowtimeGenerationService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Generates showtimes from persisted plans. A plan is split into chunks of one (movie, date); each chunk runs three
+ * set-based statements (missing schedules per start time, missing showtimes per room, missing showtime seats per
+ * seat, priced in SQL) and commits together with the job's checkpoint and counters. Existing rows are skipped by the
+ * statements themselves (NOT EXISTS, and ON CONFLICT DO NOTHING on the unique keys), so a chunk that is replayed
+ * after a crash inserts nothing twice.
+ * <p>
+ * Jobs run on the bounded showtimeGenerationExecutor. Jobs left QUEUED or RUNNING by a previous process are
+ * resubmitted at startup and continue after their checkpoint; this assumes a single node runs the generator.
+ */
+@Service
+@Slf4j
+public class ShowtimeGenerationServiceImpl implements ShowtimeGenerationService {
+
+    private static final int MAX_DAYS = 31;
+    private static final List<LocalTime> DEFAULT_START_TIMES = List.of(
+            LocalTime.of(10, 0), LocalTime.of(13, 30), LocalTime.of(17, 0), LocalTime.of(20, 30));
+    private static final double DEFAULT_BASE_PRICE = 75000;
+    private static final double DEFAULT_VIP_FACTOR = 1.5;
+    private static final double DEFAULT_DOUBLE_FACTOR = 2.2;
+    private static final double DEFAULT_WEEKEND_SURCHARGE = 15000;
+    private static final List<JobStatus> UNFINISHED = List.of(JobStatus.QUEUED, JobStatus.RUNNING);
+    private static final String CREATED_BY = "system";
+
+    // Schedules of one chunk; parameters: movieId, date, startTimes
+    private static final String WINDOW = "s.movie_id = ? AND s.schedule_date = ? " +
+            "AND s.schedule_time_start = ANY (CAST(? AS time[])) AND s.is_deleted = false ";
+
+    // Parameters: roomIds, roomIds (null for every room)
+    private static final String ROOM_FILTER = "(CAST(? AS bigint[]) IS NULL OR %s = ANY (CAST(? AS bigint[]))) ";
+
+    // Parameters: movieId, date, startTimes, movieId, date
+    private static final String INSERT_SCHEDULES =
+            "INSERT INTO schedules (schedule_id, movie_id, schedule_date, schedule_time_start, is_deleted, created_at, created_by) " +
+            "SELECT nextval('sequence_schedule'), ?, ?, t.start_time, false, now(), '" + CREATED_BY + "' " +
+            "FROM unnest(CAST(? AS time[])) AS t(start_time) " +
+            "WHERE NOT EXISTS (SELECT 1 FROM schedules s WHERE s.movie_id = ? AND s.schedule_date = ? " +
+            "AND s.schedule_time_start = t.start_time AND s.is_deleted = false)";
+
+    // Parameters: WINDOW, ROOM_FILTER
+    private static final String INSERT_SHOWTIMES =
+            "INSERT INTO showtimes (schedule_id, room_id, format, is_deleted, created_at, created_by) " +
+            "SELECT s.schedule_id, r.room_id, COALESCE(r.room_type, '2D'), false, now(), '" + CREATED_BY + "' " +
+            "FROM schedules s CROSS JOIN rooms r " +
+            "WHERE " + WINDOW + "AND r.is_deleted = false AND " + ROOM_FILTER.formatted("r.room_id") +
+            "ON CONFLICT (schedule_id, room_id) DO NOTHING";
+
+    // Parameters: basePrice, vipFactor, doubleFactor, weekendSurcharge, WINDOW, ROOM_FILTER
+    private static final String INSERT_SEATS =
+            "INSERT INTO showtime_seat (showtime_seat_id, seat_id, schedule_id, room_id, status, price, version, " +
+            "is_deleted, created_at, created_by) " +
+            "SELECT nextval('sequence_showtime_seat'), se.seat_id, st.schedule_id, st.room_id, 'AVAILABLE', " +
+            "CAST(? AS float8) * CASE se.type_seat WHEN 'VIP' THEN CAST(? AS float8) " +
+            "WHEN 'DOUBLE' THEN CAST(? AS float8) ELSE 1 END " +
+            "+ CASE WHEN EXTRACT(ISODOW FROM s.schedule_date) >= 5 THEN CAST(? AS float8) ELSE 0 END, " +
+            "0, false, now(), '" + CREATED_BY + "' " +
+            "FROM schedules s " +
+            "JOIN showtimes st ON st.schedule_id = s.schedule_id AND st.is_deleted = false " +
+            "JOIN seats se ON se.room_id = st.room_id AND se.is_deleted = false " +
+            "WHERE " + WINDOW + "AND " + ROOM_FILTER.formatted("st.room_id") +
+            "AND NOT EXISTS (SELECT 1 FROM showtime_seat ss WHERE ss.seat_id = se.seat_id " +
+            "AND ss.schedule_id = st.schedule_id AND ss.room_id = st.room_id) " +
+            "ON CONFLICT (seat_id, schedule_id, room_id) DO NOTHING";
+
+    private final ShowtimeGenerationJobRepository jobRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolTaskExecutor executor;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public ShowtimeGenerationServiceImpl(ShowtimeGenerationJobRepository jobRepository,
+                                         JdbcTemplate jdbcTemplate,
+                                         TransactionTemplate transactionTemplate,
+                                         @Qualifier("showtimeGenerationExecutor") ThreadPoolTaskExecutor executor,
+                                         ApplicationEventPublisher eventPublisher) {
+        this.jobRepository = jobRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.executor = executor;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    public synchronized ShowtimeGenerationJobResponse submit(ShowtimeGenerationRequest request) {
+        ShowtimeGenerationJob job = toJob(request);
+        for (ShowtimeGenerationJob unfinished : jobRepository.findByStatusInOrderByCreatedAtAsc(UNFINISHED)) {
+            if (samePlan(unfinished, job)) {
+                log.info("Showtime generation plan already queued as job {}", unfinished.getId());
+                return toResponse(unfinished);
+            }
+        }
+        jobRepository.save(job);
+        try {
+            executor.execute(() -> run(job.getId()));
+        } catch (TaskRejectedException e) {
+            jobRepository.delete(job);
+            throw new AppException(ErrorCode.SHOWTIME_GENERATION_QUEUE_FULL);
+        }
+        log.info("Queued showtime generation job {} for {} to {}", job.getId(), job.getFromDate(), job.getToDate());
+        return toResponse(job);
+    }
+
+    @Override
+    public ShowtimeGenerationJobResponse startForShowingMovies() {
+        return submit(new ShowtimeGenerationRequest());
+    }
+
+    @Override
+    public ShowtimeGenerationJobResponse getJob(String jobId) {
+        return jobRepository.findById(jobId)
+                .map(this::toResponse)
+                .orElseThrow(() -> new AppException(ErrorCode.SHOWTIME_GENERATION_JOB_NOT_FOUND));
+    }
+
+    /**
+     * Resubmit the jobs a previous process left unfinished
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeUnfinishedJobs() {
+        for (ShowtimeGenerationJob job : jobRepository.findByStatusInOrderByCreatedAtAsc(UNFINISHED)) {
+            try {
+                executor.execute(() -> run(job.getId()));
+                log.info("Resuming showtime generation job {} after chunk {}/{}", job.getId(),
+                        job.getCheckpointMovieId(), job.getCheckpointDate());
+            } catch (TaskRejectedException e) {
+                log.warn("No room to resume showtime generation job {}, it stays {}", job.getId(), job.getStatus());
+            }
+        }
+    }
+
+    private void run(String jobId) {
+        ShowtimeGenerationJob job = transactionTemplate.execute(status -> {
+            ShowtimeGenerationJob current = jobRepository.findById(jobId).orElse(null);
+            if (current == null || !UNFINISHED.contains(current.getStatus())) {
+                return null;
+            }
+            current.setStatus(JobStatus.RUNNING);
+            if (current.getStartedAt() == null) {
+                current.setStartedAt(Instant.now());
+            }
+            return current;
+        });
+        if (job == null) {
+            return;
+        }
+        try {
+            List<Long> movieIds = findMovies(job);
+            List<LocalDate> dates = job.getFromDate().datesUntil(job.getToDate().plusDays(1)).toList();
+            int remaining = 0;
+            for (Long movieId : movieIds) {
+                for (LocalDate date : dates) {
+                    if (isAfterCheckpoint(job, movieId, date)) {
+                        remaining++;
+                    }
+                }
+            }
+            int total = job.getProcessedChunks() + remaining;
+            updateJob(jobId, current -> current.setTotalChunks(total));
+
+            for (Long movieId : movieIds) {
+                boolean generated = false;
+                for (LocalDate date : dates) {
+                    if (isAfterCheckpoint(job, movieId, date)) {
+                        generateChunk(jobId, job, movieId, date);
+                        generated = true;
+                    }
+                }
+                if (generated) {
+                    eventPublisher.publishEvent(new ShowtimesChangedEvent(movieId));
+                }
+            }
+            updateJob(jobId, current -> {
+                current.setStatus(JobStatus.COMPLETED);
+                current.setFinishedAt(Instant.now());
+            });
+            log.info("Showtime generation job {} completed: {}", jobId, getJob(jobId));
+        } catch (Exception e) {
+            log.error("Showtime generation job {} failed", jobId, e);
+            String message = e.getMessage() != null && e.getMessage().length() > 1000
+                    ? e.getMessage().substring(0, 1000) : e.getMessage();
+            updateJob(jobId, current -> {
+                current.setStatus(JobStatus.FAILED);
+                current.setErrorMessage(message);
+                current.setFinishedAt(Instant.now());
+            });
+        }
+    }
+
+    /**
+     * Insert the missing rows of one (movie, date) and move the checkpoint past it in the same transaction
+     */
+    private void generateChunk(String jobId, ShowtimeGenerationJob plan, Long movieId, LocalDate date) {
+        long start = System.currentTimeMillis();
+        Date day = Date.valueOf(date);
+        String startTimes = toArrayLiteral(plan.getStartTimes());
+        String roomIds = toArrayLiteral(plan.getRoomIds());
+        transactionTemplate.executeWithoutResult(status -> {
+            int schedules = jdbcTemplate.update(INSERT_SCHEDULES, movieId, day, startTimes, movieId, day);
+            int showtimes = jdbcTemplate.update(INSERT_SHOWTIMES, movieId, day, startTimes, roomIds, roomIds);
+            int seats = jdbcTemplate.update(INSERT_SEATS, plan.getBasePrice(), plan.getVipFactor(),
+                    plan.getDoubleFactor(), plan.getWeekendSurcharge(), movieId, day, startTimes, roomIds, roomIds);
+            ShowtimeGenerationJob current = jobRepository.findById(jobId).orElseThrow();
+            current.setSchedulesCreated(current.getSchedulesCreated() + schedules);
+            current.setShowtimesCreated(current.getShowtimesCreated() + showtimes);
+            current.setSeatsCreated(current.getSeatsCreated() + seats);
+            current.setProcessedChunks(current.getProcessedChunks() + 1);
+            current.setCheckpointMovieId(movieId);
+            current.setCheckpointDate(date);
+            current.setProcessingMillis(current.getProcessingMillis() + System.currentTimeMillis() - start);
+            log.debug("Showtime generation job {}: movie {} on {}: {} schedules, {} showtimes, {} seats",
+                    jobId, movieId, date, schedules, showtimes, seats);
+        });
+    }
+
+    private List<Long> findMovies(ShowtimeGenerationJob job) {
+        if (job.getMovieIds() == null) {
+            return jdbcTemplate.queryForList(
+                    "SELECT movie_id FROM movies WHERE movie_status = 'SHOWING' ORDER BY movie_id", Long.class);
+        }
+        return jdbcTemplate.queryForList(
+                "SELECT movie_id FROM movies WHERE movie_id = ANY (CAST(? AS bigint[])) ORDER BY movie_id",
+                Long.class, toArrayLiteral(job.getMovieIds()));
+    }
+
+    private void updateJob(String jobId, Consumer<ShowtimeGenerationJob> change) {
+        transactionTemplate.executeWithoutResult(status -> jobRepository.findById(jobId).ifPresent(change));
+    }
+
+    /**
+     * Chunks are processed by movie id, then date, so everything up to the checkpoint is committed
+     */
+    private static boolean isAfterCheckpoint(ShowtimeGenerationJob job, Long movieId, LocalDate date) {
+        if (job.getCheckpointMovieId() == null) {
+            return true;
+        }
+        int byMovie = movieId.compareTo(job.getCheckpointMovieId());
+        return byMovie > 0 || (byMovie == 0 && date.isAfter(job.getCheckpointDate()));
+    }
+
+    private ShowtimeGenerationJob toJob(ShowtimeGenerationRequest request) {
+        LocalDate fromDate = request.getFromDate() != null ? request.getFromDate() : LocalDate.now();
+        LocalDate toDate = request.getToDate() != null ? request.getToDate() : fromDate.plusDays(1);
+        if (toDate.isBefore(fromDate) || ChronoUnit.DAYS.between(fromDate, toDate) >= MAX_DAYS) {
+            throw new AppException(ErrorCode.BAD_REQUEST,
+                    "toDate must be on or after fromDate and at most " + MAX_DAYS + " days later");
+        }
+        List<LocalTime> startTimes = request.getStartTimes() != null && !request.getStartTimes().isEmpty()
+                ? request.getStartTimes() : DEFAULT_START_TIMES;
+
+        ShowtimeGenerationJob job = new ShowtimeGenerationJob();
+        job.setId(UUID.randomUUID().toString());
+        job.setStatus(JobStatus.QUEUED);
+        job.setFromDate(fromDate);
+        job.setToDate(toDate);
+        job.setStartTimes(new TreeSet<>(startTimes).stream().map(LocalTime::toString).collect(Collectors.joining(",")));
+        job.setMovieIds(joinIds(request.getMovieIds()));
+        job.setRoomIds(joinIds(request.getRoomIds()));
+        job.setBasePrice(request.getBasePrice() != null ? request.getBasePrice() : DEFAULT_BASE_PRICE);
+        job.setVipFactor(request.getVipFactor() != null ? request.getVipFactor() : DEFAULT_VIP_FACTOR);
+        job.setDoubleFactor(request.getDoubleFactor() != null ? request.getDoubleFactor() : DEFAULT_DOUBLE_FACTOR);
+        job.setWeekendSurcharge(request.getWeekendSurcharge() != null
+                ? request.getWeekendSurcharge() : DEFAULT_WEEKEND_SURCHARGE);
+        job.setProcessedChunks(0);
+        job.setSchedulesCreated(0L);
+        job.setShowtimesCreated(0L);
+        job.setSeatsCreated(0L);
+        job.setProcessingMillis(0L);
+        return job;
+    }
+
+    private static boolean samePlan(ShowtimeGenerationJob a, ShowtimeGenerationJob b) {
+        return a.getFromDate().equals(b.getFromDate())
+                && a.getToDate().equals(b.getToDate())
+                && a.getStartTimes().equals(b.getStartTimes())
+                && Objects.equals(a.getMovieIds(), b.getMovieIds())
+                && Objects.equals(a.getRoomIds(), b.getRoomIds())
+                && a.getBasePrice().equals(b.getBasePrice())
+                && a.getVipFactor().equals(b.getVipFactor())
+                && a.getDoubleFactor().equals(b.getDoubleFactor())
+                && a.getWeekendSurcharge().equals(b.getWeekendSurcharge());
+    }
+
+    private static String joinIds(List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return null;
+        }
+        return new TreeSet<>(ids).stream().map(String::valueOf).collect(Collectors.joining(","));
+    }
+
+    // PostgreSQL array literal of a comma-separated list, null stays null
+    private static String toArrayLiteral(String commaSeparated) {
+        return commaSeparated == null ? null : "{" + commaSeparated + "}";
+    }
+
+    private ShowtimeGenerationJobResponse toResponse(ShowtimeGenerationJob job) {
+        Double seatsPerSecond = job.getProcessingMillis() > 0
+                ? job.getSeatsCreated() * 1000.0 / job.getProcessingMillis() : null;
+        return ShowtimeGenerationJobResponse.builder()
+                .jobId(job.getId())
+                .status(job.getStatus())
+                .fromDate(job.getFromDate())
+                .toDate(job.getToDate())
+                .startTimes(Arrays.asList(job.getStartTimes().split(",")))
+                .totalChunks(job.getTotalChunks())
+                .processedChunks(job.getProcessedChunks())
+                .checkpointMovieId(job.getCheckpointMovieId())
+                .checkpointDate(job.getCheckpointDate())
+                .schedulesCreated(job.getSchedulesCreated())
+                .showtimesCreated(job.getShowtimesCreated())
+                .seatsCreated(job.getSeatsCreated())
+                .processingMillis(job.getProcessingMillis())
+                .seatsPerSecond(seatsPerSecond)
+                .errorMessage(job.getErrorMessage())
+                .createdAt(job.getCreatedAt() != null ? job.getCreatedAt().toEpochMilli() : null)
+                .startedAt(job.getStartedAt() != null ? job.getStartedAt().toEpochMilli() : null)
+                .finishedAt(job.getFinishedAt() != null ? job.getFinishedAt().toEpochMilli() : null)
+                .build();
+    }
+}
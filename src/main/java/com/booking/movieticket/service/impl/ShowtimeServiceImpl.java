@@ -2,25 +2,43 @@ package com.booking.movieticket.service.impl;
 
 import com.booking.movieticket.dto.request.admin.create.ShowtimeForCreateRequest;
 import com.booking.movieticket.dto.response.BranchWithShowtimesDTO;
+import com.booking.movieticket.dto.response.DateAvailabilityResponse;
+import com.booking.movieticket.dto.response.RoomLayoutResponse;
+import com.booking.movieticket.dto.response.SeatStateResponse;
+import com.booking.movieticket.dto.response.SeatStatusVectorResponse;
 import com.booking.movieticket.dto.response.ShowtimeDTO;
 import com.booking.movieticket.dto.response.ShowtimeDetailResponse;
 import com.booking.movieticket.dto.response.ShowtimeResponse;
 import com.booking.movieticket.entity.*;
 import com.booking.movieticket.entity.compositekey.ShowtimeId;
+import com.booking.movieticket.entity.enums.StatusSeat;
+import com.booking.movieticket.event.ShowtimesChangedEvent;
 import com.booking.movieticket.exception.AppException;
 import com.booking.movieticket.exception.ErrorCode;
 import com.booking.movieticket.repository.*;
+import com.booking.movieticket.repository.projection.MovieHeaderView;
+import com.booking.movieticket.repository.projection.ShowtimeListingView;
+import com.booking.movieticket.repository.projection.ShowtimeSeatPriceView;
 import com.booking.movieticket.service.ShowtimeService;
+import com.booking.movieticket.service.seat.SeatStateTracker;
+import com.booking.movieticket.service.showtime.RoomLayoutCache;
+import com.booking.movieticket.service.showtime.ShowtimeAvailabilityIndex;
+import com.booking.movieticket.service.showtime.ShowtimeListingCache;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.DigestUtils;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -34,14 +52,21 @@ public class ShowtimeServiceImpl implements ShowtimeService {
     MovieRepository movieRepository;
     ShowtimeSeatRepository showtimeSeatRepository;
     RoomRepository roomRepository;
+    SeatRepository seatRepository;
+    SeatStateTracker seatStateTracker;
+    RoomLayoutCache roomLayoutCache;
+    ShowtimeListingCache showtimeListingCache;
+    ShowtimeAvailabilityIndex showtimeAvailabilityIndex;
+    ApplicationEventPublisher eventPublisher;
+    TransactionTemplate transactionTemplate;
 
     @Override
     @Transactional(readOnly = true)
     public ShowtimeResponse getShowtimesByMovieAndDate(Long movieId, LocalDate date) {
         try {
-            Movie movie = findMovieById(movieId);
+            MovieHeaderView movie = findMovieHeader(movieId);
             // Get showtimes for the movie on the specified date
-            List<Showtime> showtimes = showtimeRepository.findByMovieIdAndDateOrderByBranchAndTime(movieId, date);
+            List<ShowtimeListingView> showtimes = showtimeRepository.findListingByMovieIdAndDate(movieId, date);
             return buildShowtimeResponse(movie, showtimes);
         } catch (AppException e) {
             log.error("AppException fetching showtimes by date: {}", e.getMessage());
@@ -53,17 +78,25 @@ public class ShowtimeServiceImpl implements ShowtimeService {
         }
     }
 
+    /**
+     * Not transactional itself: a cache hit must not check out a connection, so only the loader of a miss runs in a
+     * transaction
+     */
     @Override
-    @Transactional(readOnly = true)
     public ShowtimeResponse getShowtimesByMovieAndDateAndCinema(Long movieId, LocalDate date, Long cinemaId) {
+        return showtimeListingCache.getOrLoad(movieId, date, cinemaId,
+                () -> transactionTemplate.execute(status -> loadShowtimesByMovieAndDateAndCinema(movieId, date, cinemaId)));
+    }
+
+    private ShowtimeResponse loadShowtimesByMovieAndDateAndCinema(Long movieId, LocalDate date, Long cinemaId) {
         try {
             log.info("Starting to fetch showtimes for movie ID: {} on date: {} {}",
                     movieId, date, cinemaId != null ? "with cinema ID: " + cinemaId : "for all cinemas");
 
-            Movie movie = findMovieById(movieId);
+            MovieHeaderView movie = findMovieHeader(movieId);
 
             // Get showtimes for the movie on the specified date, optionally filtered by cinema
-            List<Showtime> showtimes = showtimeRepository.findByMovieIdAndDateAndCinemaIdOrderByBranchAndTime(
+            List<ShowtimeListingView> showtimes = showtimeRepository.findListingByMovieIdAndDateAndCinemaId(
                     movieId, date, cinemaId);
 
             log.info("Found {} showtimes for movie on date {} {}",
@@ -74,14 +107,13 @@ public class ShowtimeServiceImpl implements ShowtimeService {
             if (showtimes.isEmpty()) {
                 log.warn("No showtimes found for the specified criteria");
             } else {
-                for (Showtime showtime : showtimes) {
-                    log.debug("Showtime: scheduleId={}, roomId={}, date={}, time={}, branch={}, cinema={}",
-                            showtime.getId().getScheduleId(),
-                            showtime.getId().getRoomId(),
-                            showtime.getSchedule().getDate(),
-                            showtime.getSchedule().getTimeStart(),
-                            showtime.getRoom().getBranch().getName(),
-                            showtime.getRoom().getBranch().getCinema().getName());
+                for (ShowtimeListingView showtime : showtimes) {
+                    log.debug("Showtime: scheduleId={}, roomId={}, date={}, time={}, branch={}",
+                            showtime.getScheduleId(),
+                            showtime.getRoomId(),
+                            showtime.getScheduleDate(),
+                            showtime.getTimeStart(),
+                            showtime.getBranchName());
                 }
             }
 
@@ -106,8 +138,8 @@ public class ShowtimeServiceImpl implements ShowtimeService {
             // Verify the movie exists
             findMovieById(movieId);
 
-            // Get available dates
-            return scheduleRepository.findAvailableDatesByMovieId(movieId);
+            // Dates that still have showtimes, from the availability index
+            return showtimeAvailabilityIndex.availableDates(movieId);
         } catch (AppException e) {
             log.error("AppException fetching available dates: {}", e.getMessage());
             throw e;
@@ -118,6 +150,22 @@ public class ShowtimeServiceImpl implements ShowtimeService {
         }
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<DateAvailabilityResponse> getAvailabilityByMovie(Long movieId, Long cinemaId) {
+        try {
+            findMovieById(movieId);
+            return showtimeAvailabilityIndex.availabilityByDate(movieId, cinemaId);
+        } catch (AppException e) {
+            log.error("AppException fetching availability: {}", e.getMessage());
+            throw e;
+        } catch (Exception e) {
+            log.error("Unexpected error fetching availability: {}", e.getMessage(), e);
+            throw new AppException(ErrorCode.UNCATEGORIZED_EXCEPTION,
+                    "Error fetching availability for movie: " + movieId);
+        }
+    }
+
     /**
      * Helper method to find a movie by ID
      */
@@ -127,10 +175,16 @@ public class ShowtimeServiceImpl implements ShowtimeService {
                         "Movie not found with ID: " + movieId));
     }
 
+    private MovieHeaderView findMovieHeader(Long movieId) {
+        return movieRepository.findHeaderById(movieId)
+                .orElseThrow(() -> new AppException(ErrorCode.MOVIE_NOT_FOUND,
+                        "Movie not found with ID: " + movieId));
+    }
+
     /**
      * Helper method to build the ShowtimeResponse from a movie and a list of showtimes
      */
-    private ShowtimeResponse buildShowtimeResponse(Movie movie, List<Showtime> showtimes) {
+    private ShowtimeResponse buildShowtimeResponse(MovieHeaderView movie, List<ShowtimeListingView> showtimes) {
         if (showtimes.isEmpty()) {
             return ShowtimeResponse.builder()
                     .movieId(movie.getId())
@@ -144,18 +198,18 @@ public class ShowtimeServiceImpl implements ShowtimeService {
                     .build();
         }
 
-        // Group showtimes by branch
-        Map<Long, List<Showtime>> showtimesByBranch = showtimes.stream()
-                .collect(Collectors.groupingBy(showtime -> showtime.getRoom().getBranch().getId()));
+        // Group showtimes by branch, keeping the branch order of the query
+        Map<Long, List<ShowtimeListingView>> showtimesByBranch = showtimes.stream()
+                .collect(Collectors.groupingBy(ShowtimeListingView::getBranchId, LinkedHashMap::new, Collectors.toList()));
 
         // Convert to BranchWithShowtimesDTO list
         List<BranchWithShowtimesDTO> branchDTOs = showtimesByBranch.entrySet().stream()
                 .map(entry -> {
                     Long branchId = entry.getKey();
-                    List<Showtime> branchShowtimes = entry.getValue();
+                    List<ShowtimeListingView> branchShowtimes = entry.getValue();
 
                     // Get branch info from the first showtime
-                    Showtime firstShowtime = branchShowtimes.get(0);
+                    ShowtimeListingView firstShowtime = branchShowtimes.get(0);
 
                     // Convert showtimes to DTOs
                     List<ShowtimeDTO> showtimeDTOs = branchShowtimes.stream()
@@ -164,10 +218,10 @@ public class ShowtimeServiceImpl implements ShowtimeService {
 
                     return BranchWithShowtimesDTO.builder()
                             .branchId(branchId)
-                            .branchName(firstShowtime.getRoom().getBranch().getName())
-                            .address(firstShowtime.getRoom().getBranch().getAddress())
-                            .hotline(firstShowtime.getRoom().getBranch().getHotline())
-                            .imageUrl(firstShowtime.getRoom().getBranch().getImageUrl())
+                            .branchName(firstShowtime.getBranchName())
+                            .address(firstShowtime.getBranchAddress())
+                            .hotline(firstShowtime.getBranchHotline())
+                            .imageUrl(firstShowtime.getBranchImageUrl())
                             .showtimes(showtimeDTOs)
                             .build();
                 })
@@ -187,24 +241,38 @@ public class ShowtimeServiceImpl implements ShowtimeService {
     }
 
     /**
-     * Helper method to convert a Showtime entity to a ShowtimeDTO
+     * Helper method to convert a showtime row to a ShowtimeDTO
      * Calculates the end time based on the start time and movie duration
      */
-    private ShowtimeDTO convertToShowtimeDTO(Showtime showtime, Integer movieDuration) {
-        LocalTime startTime = showtime.getSchedule().getTimeStart();
+    private ShowtimeDTO convertToShowtimeDTO(ShowtimeListingView showtime, Integer movieDuration) {
+        LocalTime startTime = showtime.getTimeStart();
         LocalTime endTime = startTime.plusMinutes(movieDuration);
 
         return ShowtimeDTO.builder()
-                .scheduleId(showtime.getId().getScheduleId())
-                .roomId(showtime.getId().getRoomId())
-                .roomName(showtime.getRoom().getName())
-                .roomType(showtime.getRoom().getRoomType().toString())
-                .scheduleDate(showtime.getSchedule().getDate())
+                .scheduleId(showtime.getScheduleId())
+                .roomId(showtime.getRoomId())
+                .roomName(showtime.getRoomName())
+                .roomType(showtime.getRoomType().toString())
+                .scheduleDate(showtime.getScheduleDate())
                 .scheduleTime(startTime)
                 .scheduleEndTime(endTime)
                 .build();
     }
 
+    @Override
+    public SeatStateResponse getSeatState(Long scheduleId, Long roomId, Long sinceVersion) {
+        ShowtimeId showtimeId = new ShowtimeId(scheduleId, roomId);
+        Optional<SeatStateResponse> state = Optional.empty();
+        if (sinceVersion != null) {
+            state = seatStateTracker.changesSince(showtimeId, sinceVersion);
+        }
+        if (state.isEmpty()) {
+            state = seatStateTracker.snapshot(showtimeId);
+        }
+        return state.orElseThrow(() -> new AppException(ErrorCode.SHOWTIME_NOT_FOUND,
+                "Showtime not found for scheduleId: " + scheduleId + " and roomId: " + roomId));
+    }
+
     @Override
     @Transactional(readOnly = true)
     public ShowtimeDetailResponse getShowtimeDetail(Long scheduleId, Long roomId) {
@@ -290,6 +358,105 @@ public class ShowtimeServiceImpl implements ShowtimeService {
         }
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public RoomLayoutResponse getRoomLayout(Long roomId) {
+        return roomLayoutCache.get(roomId, this::loadRoomLayout);
+    }
+
+    private RoomLayoutResponse loadRoomLayout(Long roomId) {
+        Room room = roomRepository.findById(roomId)
+                .orElseThrow(() -> new AppException(ErrorCode.ROOM_NOT_FOUND));
+        List<RoomLayoutResponse.LayoutSeat> seats = seatRepository.findByRoomIdOrderByIdAsc(roomId).stream()
+                .map(seat -> RoomLayoutResponse.LayoutSeat.builder()
+                        .id(seat.getId())
+                        .rowName(seat.getRowName())
+                        .columnName(seat.getColumnName())
+                        .rowScreenLabel(seat.getRowScreenLabel())
+                        .columnScreenLabel(seat.getColumnScreenLabel())
+                        .typeSeat(seat.getTypeSeat())
+                        .build())
+                .collect(Collectors.toList());
+
+        RoomLayoutResponse layout = RoomLayoutResponse.builder()
+                .roomId(room.getId())
+                .name(room.getName())
+                .roomType(room.getRoomType())
+                .seatRowNumbers(room.getSeatRowNumbers())
+                .seatColumnNumbers(room.getSeatColumnNumbers())
+                .aislePosition(room.getAislePosition())
+                .aisleWidth(room.getAisleWidth())
+                .aisleHeight(room.getAisleHeight())
+                .branchName(room.getBranch() != null ? room.getBranch().getName() : null)
+                .seats(seats)
+                .build();
+        // Hash of every field of the layout, so any change to the room or its seats yields a new version
+        layout.setLayoutVersion(DigestUtils.md5DigestAsHex(layout.toString().getBytes(StandardCharsets.UTF_8)));
+        log.debug("Built layout {} of room {} with {} seats", layout.getLayoutVersion(), roomId, seats.size());
+        return layout;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public SeatStatusVectorResponse getSeatStatusVector(Long scheduleId, Long roomId) {
+        RoomLayoutResponse layout = getRoomLayout(roomId);
+        ShowtimeId showtimeId = new ShowtimeId(scheduleId, roomId);
+
+        // Statuses come from the live seat state, so seats held by other users show as SELECTED
+        SeatStateResponse state = seatStateTracker.snapshot(showtimeId)
+                .orElseThrow(() -> new AppException(ErrorCode.SHOWTIME_NOT_FOUND));
+        Map<Long, StatusSeat> statusByShowtimeSeat = new HashMap<>();
+        for (SeatStateResponse.SeatState seat : state.getSeats()) {
+            statusByShowtimeSeat.put(seat.getSeatId(), seat.getStatus());
+        }
+        Map<Long, ShowtimeSeatPriceView> showtimeSeatBySeat = showtimeSeatRepository.findPricesByShowtimeId(scheduleId, roomId)
+                .stream()
+                .collect(Collectors.toMap(ShowtimeSeatPriceView::getSeatId, Function.identity(), (first, second) -> first));
+
+        RunLengthVector<StatusSeat> statuses = new RunLengthVector<>();
+        RunLengthVector<Double> prices = new RunLengthVector<>();
+        for (RoomLayoutResponse.LayoutSeat seat : layout.getSeats()) {
+            ShowtimeSeatPriceView showtimeSeat = showtimeSeatBySeat.get(seat.getId());
+            statuses.add(showtimeSeat != null ? statusByShowtimeSeat.get(showtimeSeat.getId()) : null);
+            prices.add(showtimeSeat != null ? showtimeSeat.getPrice() : null);
+        }
+
+        return SeatStatusVectorResponse.builder()
+                .scheduleId(scheduleId)
+                .roomId(roomId)
+                .layoutVersion(layout.getLayoutVersion())
+                .version(state.getVersion())
+                .statusTable(statuses.table)
+                .statusRuns(statuses.runs)
+                .priceTable(prices.table)
+                .priceRuns(prices.runs)
+                .build();
+    }
+
+    /**
+     * Run-length encoding of a sequence into a table of distinct values and (table index, run length) pairs;
+     * null values get index -1
+     */
+    private static final class RunLengthVector<T> {
+        private final List<T> table = new ArrayList<>();
+        private final List<Integer> runs = new ArrayList<>();
+        private final Map<T, Integer> indexes = new HashMap<>();
+
+        void add(T value) {
+            int index = value == null ? -1 : indexes.computeIfAbsent(value, key -> {
+                table.add(key);
+                return table.size() - 1;
+            });
+            int last = runs.size() - 2;
+            if (last >= 0 && runs.get(last) == index) {
+                runs.set(last + 1, runs.get(last + 1) + 1);
+            } else {
+                runs.add(index);
+                runs.add(1);
+            }
+        }
+    }
+
     @Override
     @Transactional
     public void createShowtime(ShowtimeForCreateRequest request) {
@@ -317,5 +484,6 @@ public class ShowtimeServiceImpl implements ShowtimeService {
         showtime.setRoom(room);
         showtime.setFormat(request.getFormat());
         showtimeRepository.save(showtime);
+        eventPublisher.publishEvent(new ShowtimesChangedEvent(movie.getId()));
     }
 }
\ No newline at end of file
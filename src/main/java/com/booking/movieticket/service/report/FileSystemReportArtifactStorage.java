@@ -0,0 +1,104 @@
+package com.booking.movieticket.service.report;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * {@link ReportArtifactStorage} on local disk, one file per artifact under {@code report.jobs.folder}.
+ * Artifacts are written to a temporary file in the same folder and moved into place, so readers never see a
+ * half-written file.
+ */
+@Component
+@Slf4j
+public class FileSystemReportArtifactStorage implements ReportArtifactStorage {
+
+    private static final String EXTENSION = ".xlsx";
+    private static final String TEMP_EXTENSION = ".part";
+    private static final Pattern ARTIFACT_ID = Pattern.compile("[A-Za-z0-9-]+");
+
+    private final Path folder;
+
+    public FileSystemReportArtifactStorage(@Value("${report.jobs.folder:${storage.folder}/reports}") String folder) {
+        this.folder = Paths.get(folder).toAbsolutePath().normalize();
+    }
+
+    @PostConstruct
+    public void createFolder() throws IOException {
+        Files.createDirectories(folder);
+        log.info("Storing report artifacts in {}", folder);
+    }
+
+    @Override
+    public long store(String artifactId, ArtifactWriter writer) throws IOException {
+        Path target = resolve(artifactId);
+        Path temp = folder.resolve(artifactId + TEMP_EXTENSION);
+        try {
+            try (OutputStream outputStream = Files.newOutputStream(temp)) {
+                writer.write(outputStream);
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return Files.size(target);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    @Override
+    public Resource load(String artifactId) {
+        Path file = resolve(artifactId);
+        return Files.isRegularFile(file) ? new FileSystemResource(file) : null;
+    }
+
+    @Override
+    public void delete(String artifactId) {
+        try {
+            Files.deleteIfExists(resolve(artifactId));
+        } catch (IOException e) {
+            log.warn("Could not delete report artifact {}", artifactId, e);
+        }
+    }
+
+    @Override
+    public int deleteOlderThan(Instant cutoff) {
+        int deleted = 0;
+        try (Stream<Path> files = Files.list(folder)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                String name = file.getFileName().toString();
+                if ((name.endsWith(EXTENSION) || name.endsWith(TEMP_EXTENSION))
+                        && Files.getLastModifiedTime(file).toInstant().isBefore(cutoff)
+                        && Files.deleteIfExists(file)) {
+                    deleted++;
+                }
+            }
+        } catch (IOException | UncheckedIOException e) {
+            log.warn("Could not clean up report artifacts in {}", folder, e);
+        }
+        return deleted;
+    }
+
+    /**
+     * Artifact ids are generated by the job service, but they end up in a path, so anything that could leave the
+     * folder is refused
+     */
+    private Path resolve(String artifactId) {
+        if (artifactId == null || !ARTIFACT_ID.matcher(artifactId).matches()) {
+            throw new IllegalArgumentException("Invalid report artifact id: " + artifactId);
+        }
+        return folder.resolve(artifactId + EXTENSION);
+    }
+}
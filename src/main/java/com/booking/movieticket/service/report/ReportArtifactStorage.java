@@ -0,0 +1,42 @@
+package com.booking.movieticket.service.report;
+
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Instant;
+
+/**
+ * Storage of generated report files, addressed by an artifact id chosen by the caller.
+ * Implementations must not expose a partially written artifact: {@link #load} only sees an artifact once
+ * {@link #store} has returned.
+ * <p>
+ * The default implementation, {@link FileSystemReportArtifactStorage}, keeps files on local disk, so artifacts
+ * are only visible to the node that generated them.
+ */
+public interface ReportArtifactStorage {
+
+    /**
+     * Write an artifact, replacing any previous one with the same id
+     * @return Size of the stored artifact in bytes
+     */
+    long store(String artifactId, ArtifactWriter writer) throws IOException;
+
+    /**
+     * Get a stored artifact, or null when it does not exist (never stored, deleted or expired)
+     */
+    Resource load(String artifactId);
+
+    void delete(String artifactId);
+
+    /**
+     * Delete every artifact last written before the cutoff, including ones left by a previous process
+     * @return Number of artifacts deleted
+     */
+    int deleteOlderThan(Instant cutoff);
+
+    @FunctionalInterface
+    interface ArtifactWriter {
+        void write(OutputStream outputStream) throws IOException;
+    }
+}
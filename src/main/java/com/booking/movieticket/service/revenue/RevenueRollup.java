@@ -0,0 +1,202 @@
+package com.booking.movieticket.service.revenue;
+
+import com.booking.movieticket.entity.compositekey.ShowtimeId;
+import com.booking.movieticket.event.BillPaidEvent;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Ticket revenue of PAID bills pre-aggregated per (showtime, seat type) in the revenue_rollup table, with the
+ * showtime's date, start hour, movie, branch and cinema copied alongside. Every revenue report groups by one of
+ * those columns, so reports read a few rows per showtime instead of joining bills down to seats.
+ * <p>
+ * A showtime's rows are recomputed from the raw tables, never incremented, each time one of its bills is paid, so a
+ * retried or duplicated refresh cannot double count. Refreshes run on the revenueRollupExecutor after the booking
+ * committed, and bills paid while a refresh of their showtime is still queued ride along with it. A refresh that
+ * fails or is refused leaves the rollup behind until the next reconciliation, which compares the rollup, counts and
+ * copied dimensions alike, with the raw tables and recomputes every showtime that differs. An empty rollup is
+ * filled from the raw tables at startup by whichever node gets there first.
+ */
+@Component
+@Slf4j
+public class RevenueRollup {
+
+    // Raw ticket revenue per (showtime, seat type); %s is an extra condition on the showtime
+    private static final String AGGREGATE = """
+            SELECT ss.schedule_id, ss.room_id, COALESCE(se.type_seat, 'UNKNOWN') AS type_seat,
+                   s.schedule_date, CAST(EXTRACT(HOUR FROM s.schedule_time_start) AS INTEGER) AS start_hour,
+                   s.movie_id, r.branch_id, br.cinema_id,
+                   SUM(ss.price) AS revenue, COUNT(bd.id) AS ticket_count
+            FROM bill b
+            JOIN bill_detail bd ON b.bill_id = bd.bill_id
+            JOIN showtime_seat ss ON bd.showtime_seat_id = ss.showtime_seat_id
+            JOIN seats se ON ss.seat_id = se.seat_id
+            JOIN showtimes st ON ss.schedule_id = st.schedule_id AND ss.room_id = st.room_id
+            JOIN schedules s ON st.schedule_id = s.schedule_id
+            JOIN rooms r ON st.room_id = r.room_id
+            LEFT JOIN branchs br ON r.branch_id = br.branch_id
+            WHERE b.status_bill = 'PAID' AND b.is_deleted = false AND %s
+            GROUP BY ss.schedule_id, ss.room_id, COALESCE(se.type_seat, 'UNKNOWN'), s.schedule_date,
+                     EXTRACT(HOUR FROM s.schedule_time_start), s.movie_id, r.branch_id, br.cinema_id
+            """;
+
+    private static final String INSERT = "INSERT INTO revenue_rollup (schedule_id, room_id, type_seat, schedule_date, " +
+            "start_hour, movie_id, branch_id, cinema_id, revenue, ticket_count) ";
+
+    // Showtimes whose rollup rows differ from the raw aggregate, in either direction
+    private static final String MISMATCHES = """
+            SELECT DISTINCT COALESCE(raw.schedule_id, rr.schedule_id) AS schedule_id,
+                   COALESCE(raw.room_id, rr.room_id) AS room_id
+            FROM (%s) raw
+            FULL OUTER JOIN (SELECT * FROM revenue_rollup WHERE schedule_date BETWEEN ? AND ?) rr
+                ON rr.schedule_id = raw.schedule_id AND rr.room_id = raw.room_id AND rr.type_seat = raw.type_seat
+            WHERE raw.schedule_id IS NULL OR rr.schedule_id IS NULL
+               OR rr.ticket_count <> raw.ticket_count OR ABS(rr.revenue - raw.revenue) > 0.005
+               OR rr.schedule_date IS DISTINCT FROM raw.schedule_date OR rr.start_hour IS DISTINCT FROM raw.start_hour
+               OR rr.movie_id IS DISTINCT FROM raw.movie_id OR rr.branch_id IS DISTINCT FROM raw.branch_id
+               OR rr.cinema_id IS DISTINCT FROM raw.cinema_id
+            """.formatted(AGGREGATE.formatted("s.schedule_date BETWEEN ? AND ?"));
+
+    // Advisory lock key serializing the startup backfill between nodes
+    private static final long BACKFILL_LOCK = 0x5245_5652_4f4c_4cL;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolTaskExecutor executor;
+    private final int reconcileDays;
+
+    // Showtimes with a refresh queued but not started yet
+    private final Set<ShowtimeId> pendingRefreshes = ConcurrentHashMap.newKeySet();
+
+    public RevenueRollup(JdbcTemplate jdbcTemplate,
+                         PlatformTransactionManager transactionManager,
+                         @Qualifier("revenueRollupExecutor") ThreadPoolTaskExecutor executor,
+                         @Value("${revenue.rollup.reconcile-days:35}") int reconcileDays) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.executor = executor;
+        // Refreshes run after the booking transaction has committed, so they need a transaction of their own
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.reconcileDays = reconcileDays;
+    }
+
+    @PostConstruct
+    void createTable() {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS revenue_rollup (" +
+                "schedule_id BIGINT NOT NULL, " +
+                "room_id BIGINT NOT NULL, " +
+                "type_seat VARCHAR(32) NOT NULL, " +
+                "schedule_date DATE, " +
+                "start_hour INTEGER, " +
+                "movie_id BIGINT, " +
+                "branch_id BIGINT, " +
+                "cinema_id BIGINT, " +
+                "revenue DOUBLE PRECISION NOT NULL, " +
+                "ticket_count BIGINT NOT NULL, " +
+                "PRIMARY KEY (schedule_id, room_id, type_seat))");
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_revenue_rollup_date ON revenue_rollup (schedule_date)");
+    }
+
+    /**
+     * Nodes starting together take turns on an advisory lock; the ones after the first find the rollup filled.
+     * A failure is logged rather than thrown, so it never stops the application from starting.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() {
+        try {
+            Integer rows = transactionTemplate.execute(status -> {
+                jdbcTemplate.query("SELECT pg_advisory_xact_lock(?)", rs -> null, BACKFILL_LOCK);
+                Boolean empty = jdbcTemplate.queryForObject("SELECT NOT EXISTS (SELECT 1 FROM revenue_rollup)", Boolean.class);
+                return Boolean.TRUE.equals(empty) ? jdbcTemplate.update(INSERT + AGGREGATE.formatted("true")) : null;
+            });
+            if (rows != null) {
+                log.info("Filled revenue rollup from the raw tables: {} rows", rows);
+            }
+        } catch (Exception e) {
+            log.error("Could not fill the revenue rollup, reconciliation will repair it", e);
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onBillPaid(BillPaidEvent event) {
+        ShowtimeId showtimeId = new ShowtimeId(event.getScheduleId(), event.getRoomId());
+        if (!pendingRefreshes.add(showtimeId)) {
+            // The queued refresh has not started yet, so it will see this bill too
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                pendingRefreshes.remove(showtimeId);
+                try {
+                    refreshShowtime(showtimeId.getScheduleId(), showtimeId.getRoomId());
+                } catch (Exception e) {
+                    log.error("Could not refresh revenue rollup of showtime {}/{} for bill {}, reconciliation will repair it",
+                            event.getRoomId(), event.getScheduleId(), event.getBillId(), e);
+                }
+            });
+        } catch (TaskRejectedException e) {
+            pendingRefreshes.remove(showtimeId);
+            log.warn("Revenue rollup refresh queue is full, showtime {}/{} will be repaired by reconciliation",
+                    event.getRoomId(), event.getScheduleId());
+        }
+    }
+
+    /**
+     * Nightly check of the recent rollup against the raw tables
+     */
+    @Scheduled(cron = "${revenue.rollup.reconcile-cron:0 30 3 * * *}")
+    public void reconcileRecent() {
+        LocalDate today = LocalDate.now();
+        reconcile(today.minusDays(reconcileDays), today.plusDays(reconcileDays));
+    }
+
+    /**
+     * Recompute every showtime between the dates whose rollup differs from the raw tables
+     * @return Number of showtimes repaired
+     */
+    public int reconcile(LocalDate startDate, LocalDate endDate) {
+        Date start = Date.valueOf(startDate);
+        Date end = Date.valueOf(endDate);
+        List<long[]> mismatches = jdbcTemplate.query(MISMATCHES,
+                (rs, rowNum) -> new long[]{rs.getLong("schedule_id"), rs.getLong("room_id")},
+                start, end, start, end);
+        for (long[] showtime : mismatches) {
+            refreshShowtime(showtime[0], showtime[1]);
+        }
+        if (mismatches.isEmpty()) {
+            log.info("Revenue rollup from {} to {} matches the raw tables", startDate, endDate);
+        } else {
+            log.warn("Revenue rollup from {} to {}: repaired {} showtimes", startDate, endDate, mismatches.size());
+        }
+        return mismatches.size();
+    }
+
+    private void refreshShowtime(Long scheduleId, Long roomId) {
+        transactionTemplate.executeWithoutResult(status -> {
+            // Concurrent refreshes of one showtime would both delete, then collide on insert
+            jdbcTemplate.query("SELECT pg_advisory_xact_lock(?)", rs -> null, scheduleId * 1_000_003L + roomId);
+            jdbcTemplate.update("DELETE FROM revenue_rollup WHERE schedule_id = ? AND room_id = ?", scheduleId, roomId);
+            jdbcTemplate.update(INSERT + AGGREGATE.formatted("st.schedule_id = ? AND st.room_id = ?"), scheduleId, roomId);
+        });
+    }
+}
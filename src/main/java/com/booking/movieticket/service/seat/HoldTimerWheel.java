@@ -0,0 +1,73 @@
+package com.booking.movieticket.service.seat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Hashed timer wheel for hold expiry. Scheduling is lock-free and O(1); each tick only drains the buckets that
+ * elapsed since the previous tick instead of scanning every live hold.
+ * A hold goes into the first tick that starts at or after its expiry: once that tick has elapsed the whole bucket
+ * is due, and while it is still running the bucket is scanned on every advance so no hold comes out late.
+ * Holds whose expiry lies more than one rotation ahead are simply put back until their round comes up.
+ */
+final class HoldTimerWheel {
+
+    private final long tickMillis;
+    private final int mask;
+    private final Queue<SeatHold>[] buckets;
+    private volatile long lastTick;
+
+    @SuppressWarnings("unchecked")
+    HoldTimerWheel(long tickMillis, int wheelSize, long now) {
+        if (Integer.bitCount(wheelSize) != 1) {
+            throw new IllegalArgumentException("Wheel size must be a power of two: " + wheelSize);
+        }
+        this.tickMillis = tickMillis;
+        this.mask = wheelSize - 1;
+        this.buckets = new Queue[wheelSize];
+        for (int i = 0; i < wheelSize; i++) {
+            buckets[i] = new ConcurrentLinkedQueue<>();
+        }
+        this.lastTick = now / tickMillis - 1;
+    }
+
+    void schedule(SeatHold hold) {
+        long tick = (hold.getExpiresAt() + tickMillis - 1) / tickMillis;
+        // A tick that was already drained would only be visited again a full rotation later
+        tick = Math.max(tick, lastTick + 1);
+        buckets[(int) (tick & mask)].add(hold);
+    }
+
+    /**
+     * Returns every scheduled hold whose expiry is at or before {@code now}. The caller decides whether the hold
+     * is still current, since released or re-claimed holds are never unscheduled.
+     */
+    synchronized List<SeatHold> advance(long now) {
+        // Every hold of this tick and the ones before it is due
+        long elapsedTick = now / tickMillis;
+        // The running tick, whose holds are only partly due; equal to elapsedTick on a tick boundary
+        long runningTick = (now + tickMillis - 1) / tickMillis;
+        long firstTick = Math.max(lastTick + 1, runningTick - buckets.length + 1);
+        if (firstTick > runningTick) {
+            return List.of();
+        }
+        List<SeatHold> due = new ArrayList<>();
+        List<SeatHold> notYetDue = new ArrayList<>();
+        for (long tick = firstTick; tick <= runningTick; tick++) {
+            Queue<SeatHold> bucket = buckets[(int) (tick & mask)];
+            SeatHold hold;
+            while ((hold = bucket.poll()) != null) {
+                if (hold.isExpired(now)) {
+                    due.add(hold);
+                } else {
+                    notYetDue.add(hold);
+                }
+            }
+        }
+        notYetDue.forEach(this::schedule);
+        lastTick = Math.max(lastTick, elapsedTick);
+        return due;
+    }
+}
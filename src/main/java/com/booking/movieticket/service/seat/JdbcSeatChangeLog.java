@@ -0,0 +1,118 @@
+package com.booking.movieticket.service.seat;
+
+import com.booking.movieticket.dto.response.SeatStateResponse;
+import com.booking.movieticket.entity.compositekey.ShowtimeId;
+import com.booking.movieticket.entity.enums.StatusSeat;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link SeatChangeLog} shared by every node through PostgreSQL. Each showtime has one row in seat_state_versions;
+ * appending a change increments it and stores the change under the new version in seat_state_changes, in one
+ * transaction. The counter row lock orders concurrent appends from all nodes, so versions are contiguous per
+ * showtime and a change is committed before any later version is handed out.
+ * <p>
+ * Both tables are UNLOGGED, like seat_holds. A counter lost in a database crash restarts at the current time in
+ * milliseconds, above any version issued before. Changes are kept for {@link #RETENTION_MILLIS}, well beyond the
+ * idle eviction of {@link SeatStateTracker}; a node that finds a gap reloads the showtime instead.
+ */
+@Component
+@ConditionalOnProperty(name = "seat.hold.store", havingValue = "jdbc")
+@Transactional(propagation = Propagation.REQUIRES_NEW)
+@RequiredArgsConstructor
+@Slf4j
+public class JdbcSeatChangeLog implements SeatChangeLog {
+
+    private static final long RETENTION_MILLIS = TimeUnit.MINUTES.toMillis(30);
+
+    // Parameters: scheduleId, roomId, initial version (current time in milliseconds)
+    private static final String NEXT_VERSION_SQL =
+            "INSERT INTO seat_state_versions (schedule_id, room_id, version) VALUES (?, ?, ?) " +
+            "ON CONFLICT (schedule_id, room_id) DO UPDATE SET version = seat_state_versions.version + 1 " +
+            "RETURNING version";
+
+    private static final String CHANGES_SQL =
+            "SELECT seat_id, status, user_id, version FROM seat_state_changes " +
+            "WHERE schedule_id = ? AND room_id = ? AND version > ? AND version <= ? ORDER BY version";
+
+    private static final RowMapper<SeatStateResponse.SeatState> CHANGE_MAPPER = (rs, rowNum) ->
+            new SeatStateResponse.SeatState(
+                    rs.getLong("seat_id"),
+                    StatusSeat.valueOf(rs.getString("status")),
+                    rs.getString("user_id"),
+                    rs.getLong("version"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    void createTables() {
+        jdbcTemplate.execute("CREATE UNLOGGED TABLE IF NOT EXISTS seat_state_versions (" +
+                "schedule_id BIGINT NOT NULL, " +
+                "room_id BIGINT NOT NULL, " +
+                "version BIGINT NOT NULL, " +
+                "PRIMARY KEY (schedule_id, room_id))");
+        jdbcTemplate.execute("CREATE UNLOGGED TABLE IF NOT EXISTS seat_state_changes (" +
+                "schedule_id BIGINT NOT NULL, " +
+                "room_id BIGINT NOT NULL, " +
+                "version BIGINT NOT NULL, " +
+                "seat_id BIGINT NOT NULL, " +
+                "status VARCHAR(20) NOT NULL, " +
+                "user_id VARCHAR(255), " +
+                "changed_at BIGINT NOT NULL, " +
+                "PRIMARY KEY (schedule_id, room_id, version))");
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_seat_state_changes_changed_at ON seat_state_changes (changed_at)");
+        log.info("Using shared seat-state versions (tables seat_state_versions, seat_state_changes)");
+    }
+
+    @Override
+    public long currentVersion(ShowtimeId showtimeId) {
+        jdbcTemplate.update("INSERT INTO seat_state_versions (schedule_id, room_id, version) VALUES (?, ?, ?) " +
+                        "ON CONFLICT (schedule_id, room_id) DO NOTHING",
+                showtimeId.getScheduleId(), showtimeId.getRoomId(), System.currentTimeMillis());
+        Long version = jdbcTemplate.queryForObject(
+                "SELECT version FROM seat_state_versions WHERE schedule_id = ? AND room_id = ?",
+                Long.class, showtimeId.getScheduleId(), showtimeId.getRoomId());
+        return version != null ? version : System.currentTimeMillis();
+    }
+
+    @Override
+    public List<SeatStateResponse.SeatState> append(ShowtimeId showtimeId, long seatId, StatusSeat status,
+                                                    String userId, long knownVersion) {
+        long now = System.currentTimeMillis();
+        Long version = jdbcTemplate.queryForObject(NEXT_VERSION_SQL, Long.class,
+                showtimeId.getScheduleId(), showtimeId.getRoomId(), now);
+        jdbcTemplate.update("INSERT INTO seat_state_changes " +
+                        "(schedule_id, room_id, version, seat_id, status, user_id, changed_at) VALUES (?, ?, ?, ?, ?, ?, ?)",
+                showtimeId.getScheduleId(), showtimeId.getRoomId(), version, seatId, status.name(), userId, now);
+        // Includes the change just inserted, which has the highest version
+        return jdbcTemplate.query(CHANGES_SQL, CHANGE_MAPPER,
+                showtimeId.getScheduleId(), showtimeId.getRoomId(), knownVersion, version);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public List<SeatStateResponse.SeatState> changesAfter(ShowtimeId showtimeId, long knownVersion) {
+        return jdbcTemplate.query(CHANGES_SQL, CHANGE_MAPPER,
+                showtimeId.getScheduleId(), showtimeId.getRoomId(), knownVersion, Long.MAX_VALUE);
+    }
+
+    @Scheduled(fixedDelay = 60000)
+    public void pruneChanges() {
+        int deleted = jdbcTemplate.update("DELETE FROM seat_state_changes WHERE changed_at < ?",
+                System.currentTimeMillis() - RETENTION_MILLIS);
+        if (deleted > 0) {
+            log.debug("Pruned {} seat-state changes", deleted);
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.booking.movieticket.service.seat;
+
+import com.booking.movieticket.entity.compositekey.ShowtimeId;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link SeatHoldStore} shared by every node through a PostgreSQL table, so users on different nodes cannot hold
+ * the same seat. The table is UNLOGGED: holds are short-lived and losing them on a database crash is acceptable,
+ * which spares the write-ahead log on every click. Each seat has at most one row; a claim is a single upsert that
+ * only overwrites an expired hold or the claimer's own.
+ * <p>
+ * Every operation commits on its own, even when called from inside another transaction, so a hold is visible to
+ * the other nodes as soon as the call returns.
+ */
+@Component
+@ConditionalOnProperty(name = "seat.hold.store", havingValue = "jdbc")
+@Transactional(propagation = Propagation.REQUIRES_NEW)
+@Slf4j
+public class JdbcSeatHoldStore implements SeatHoldStore {
+
+    private static final String COLUMNS = "seat_id, schedule_id, room_id, user_id, held_at, expires_at";
+
+    private static final String CLAIM_SQL =
+            "INSERT INTO seat_holds (" + COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?) " +
+            "ON CONFLICT (seat_id) DO UPDATE SET schedule_id = EXCLUDED.schedule_id, room_id = EXCLUDED.room_id, " +
+            "user_id = EXCLUDED.user_id, held_at = EXCLUDED.held_at, expires_at = EXCLUDED.expires_at " +
+            "WHERE seat_holds.expires_at <= EXCLUDED.held_at OR seat_holds.user_id = EXCLUDED.user_id";
+
+    private static final RowMapper<SeatHold> HOLD_MAPPER = (rs, rowNum) -> new SeatHold(
+            rs.getLong("schedule_id"),
+            rs.getLong("room_id"),
+            rs.getLong("seat_id"),
+            rs.getString("user_id"),
+            rs.getLong("held_at"),
+            rs.getLong("expires_at"));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final long holdTimeoutMillis;
+
+    public JdbcSeatHoldStore(JdbcTemplate jdbcTemplate,
+                             @Value("${seat.hold.timeout-minutes:5}") long holdTimeoutMinutes) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.holdTimeoutMillis = TimeUnit.MINUTES.toMillis(holdTimeoutMinutes);
+    }
+
+    @PostConstruct
+    void createTable() {
+        jdbcTemplate.execute("CREATE UNLOGGED TABLE IF NOT EXISTS seat_holds (" +
+                "seat_id BIGINT PRIMARY KEY, " +
+                "schedule_id BIGINT NOT NULL, " +
+                "room_id BIGINT NOT NULL, " +
+                "user_id VARCHAR(255) NOT NULL, " +
+                "held_at BIGINT NOT NULL, " +
+                "expires_at BIGINT NOT NULL)");
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_seat_holds_expires_at ON seat_holds (expires_at)");
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_seat_holds_showtime ON seat_holds (schedule_id, room_id)");
+        log.info("Using shared seat hold store (table seat_holds)");
+    }
+
+    @Override
+    public SeatClaimResult claim(ShowtimeId showtimeId, long seatId, String userId, long now) {
+        SeatHold hold = new SeatHold(showtimeId.getScheduleId(), showtimeId.getRoomId(), seatId, userId,
+                now, now + holdTimeoutMillis);
+        while (true) {
+            int updated = jdbcTemplate.update(CLAIM_SQL, seatId, hold.getScheduleId(), hold.getRoomId(), userId,
+                    hold.getHeldAt(), hold.getExpiresAt());
+            if (updated > 0) {
+                return SeatClaimResult.claimed(hold);
+            }
+            SeatHold current = get(showtimeId, seatId);
+            if (current != null) {
+                return SeatClaimResult.rejected(current);
+            }
+            // The competing hold was released or expired between the upsert and the read; try again
+        }
+    }
+
+    @Override
+    public boolean release(ShowtimeId showtimeId, long seatId, String userId) {
+        return jdbcTemplate.update(
+                "DELETE FROM seat_holds WHERE seat_id = ? AND schedule_id = ? AND room_id = ? AND user_id = ?",
+                seatId, showtimeId.getScheduleId(), showtimeId.getRoomId(), userId) > 0;
+    }
+
+    @Override
+    public SeatHold remove(ShowtimeId showtimeId, long seatId) {
+        List<SeatHold> removed = jdbcTemplate.query(
+                "DELETE FROM seat_holds WHERE seat_id = ? AND schedule_id = ? AND room_id = ? RETURNING " + COLUMNS,
+                HOLD_MAPPER, seatId, showtimeId.getScheduleId(), showtimeId.getRoomId());
+        return removed.isEmpty() ? null : removed.get(0);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public SeatHold get(ShowtimeId showtimeId, long seatId) {
+        List<SeatHold> holds = jdbcTemplate.query(
+                "SELECT " + COLUMNS + " FROM seat_holds WHERE seat_id = ? AND schedule_id = ? AND room_id = ?",
+                HOLD_MAPPER, seatId, showtimeId.getScheduleId(), showtimeId.getRoomId());
+        return holds.isEmpty() ? null : holds.get(0);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public List<SeatHold> holdsFor(ShowtimeId showtimeId) {
+        return jdbcTemplate.query(
+                "SELECT " + COLUMNS + " FROM seat_holds WHERE schedule_id = ? AND room_id = ?",
+                HOLD_MAPPER, showtimeId.getScheduleId(), showtimeId.getRoomId());
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public Set<ShowtimeId> activeShowtimes() {
+        return new HashSet<>(jdbcTemplate.query("SELECT DISTINCT schedule_id, room_id FROM seat_holds",
+                (rs, rowNum) -> new ShowtimeId(rs.getLong("schedule_id"), rs.getLong("room_id"))));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public Map<ShowtimeId, Integer> activeHoldCounts(long now) {
+        Map<ShowtimeId, Integer> counts = new HashMap<>();
+        jdbcTemplate.query("SELECT schedule_id, room_id, COUNT(*) AS holds FROM seat_holds WHERE expires_at > ? " +
+                        "GROUP BY schedule_id, room_id",
+                rs -> {
+                    counts.put(new ShowtimeId(rs.getLong("schedule_id"), rs.getLong("room_id")), rs.getInt("holds"));
+                }, now);
+        return counts;
+    }
+
+    /**
+     * Concurrent sweeps on several nodes are safe: a row can only be deleted once, so each expired hold is
+     * returned to exactly one node.
+     */
+    @Override
+    public List<SeatHold> expire(long now) {
+        return jdbcTemplate.query("DELETE FROM seat_holds WHERE expires_at <= ? RETURNING " + COLUMNS,
+                HOLD_MAPPER, now);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public int size() {
+        Integer count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM seat_holds", Integer.class);
+        return count != null ? count : 0;
+    }
+}
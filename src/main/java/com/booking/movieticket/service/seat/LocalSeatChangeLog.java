@@ -0,0 +1,35 @@
+package com.booking.movieticket.service.seat;
+
+import com.booking.movieticket.dto.response.SeatStateResponse;
+import com.booking.movieticket.entity.compositekey.ShowtimeId;
+import com.booking.movieticket.entity.enums.StatusSeat;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * {@link SeatChangeLog} of a single node: every change is made here, so there is nothing to catch up on.
+ * A freshly loaded showtime starts at the load time in milliseconds, so versions keep increasing across an
+ * eviction and reload and a client's stale version is never mistaken for a current one.
+ */
+@Component
+@ConditionalOnProperty(name = "seat.hold.store", havingValue = "memory", matchIfMissing = true)
+public class LocalSeatChangeLog implements SeatChangeLog {
+
+    @Override
+    public long currentVersion(ShowtimeId showtimeId) {
+        return System.currentTimeMillis();
+    }
+
+    @Override
+    public List<SeatStateResponse.SeatState> append(ShowtimeId showtimeId, long seatId, StatusSeat status,
+                                                    String userId, long knownVersion) {
+        return List.of(new SeatStateResponse.SeatState(seatId, status, userId, knownVersion + 1));
+    }
+
+    @Override
+    public List<SeatStateResponse.SeatState> changesAfter(ShowtimeId showtimeId, long knownVersion) {
+        return List.of();
+    }
+}
@@ -0,0 +1,151 @@
+package com.booking.movieticket.service.seat;
+
+import java.util.function.Consumer;
+
+/**
+ * Open-addressing hash map from a positive {@code long} seat id to its {@link SeatHold}.
+ * Avoids boxing the key and allocating an entry per hold. Not thread-safe: callers guard it with a stripe lock.
+ */
+final class LongHoldMap {
+
+    // Seat ids are database sequence values, so 0 is free to mark an empty slot
+    private static final long EMPTY = 0L;
+
+    private long[] keys;
+    private SeatHold[] values;
+    private int size;
+
+    LongHoldMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, expectedSize * 2) - 1) << 1;
+        keys = new long[capacity];
+        values = new SeatHold[capacity];
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    SeatHold get(long key) {
+        int slot = indexOf(key);
+        return slot < 0 ? null : values[slot];
+    }
+
+    SeatHold put(long key, SeatHold value) {
+        checkKey(key);
+        if ((size + 1) * 4 >= keys.length * 3) {
+            resize(keys.length << 1);
+        }
+        int mask = keys.length - 1;
+        int slot = mix(key) & mask;
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                SeatHold previous = values[slot];
+                values[slot] = value;
+                return previous;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        size++;
+        return null;
+    }
+
+    SeatHold remove(long key) {
+        int slot = indexOf(key);
+        if (slot < 0) {
+            return null;
+        }
+        SeatHold previous = values[slot];
+        deleteSlot(slot);
+        return previous;
+    }
+
+    /**
+     * Removes the mapping only if it still points at {@code expected} (identity comparison).
+     */
+    boolean remove(long key, SeatHold expected) {
+        int slot = indexOf(key);
+        if (slot < 0 || values[slot] != expected) {
+            return false;
+        }
+        deleteSlot(slot);
+        return true;
+    }
+
+    void forEach(Consumer<SeatHold> action) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != EMPTY) {
+                action.accept(values[i]);
+            }
+        }
+    }
+
+    private int indexOf(long key) {
+        checkKey(key);
+        int mask = keys.length - 1;
+        int slot = mix(key) & mask;
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Backward-shift deletion keeps probe chains intact without tombstones.
+     */
+    private void deleteSlot(int slot) {
+        int mask = keys.length - 1;
+        int hole = slot;
+        int next = slot;
+        while (true) {
+            next = (next + 1) & mask;
+            if (keys[next] == EMPTY) {
+                break;
+            }
+            int home = mix(keys[next]) & mask;
+            boolean homeBetweenHoleAndNext = hole <= next
+                    ? (home > hole && home <= next)
+                    : (home > hole || home <= next);
+            if (!homeBetweenHoleAndNext) {
+                keys[hole] = keys[next];
+                values[hole] = values[next];
+                hole = next;
+            }
+        }
+        keys[hole] = EMPTY;
+        values[hole] = null;
+        size--;
+    }
+
+    private void resize(int newCapacity) {
+        long[] oldKeys = keys;
+        SeatHold[] oldValues = values;
+        keys = new long[newCapacity];
+        values = new SeatHold[newCapacity];
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                put(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    private static void checkKey(long key) {
+        if (key <= 0) {
+            throw new IllegalArgumentException("Seat id must be positive: " + key);
+        }
+    }
+
+    private static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -0,0 +1,98 @@
+package com.booking.movieticket.service.seat;
+
+import com.booking.movieticket.dto.response.SeatBatchUpdate;
+import com.booking.movieticket.dto.response.SeatReservationResponse;
+import com.booking.movieticket.entity.compositekey.ShowtimeId;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Collects seat changes per showtime topic and flushes them as one {@link SeatBatchUpdate} per showtime every
+ * coalescing window, so a group booking or a burst of expiring holds reaches subscribers as a single frame.
+ * Only broadcasts go through here; private replies to a single session are still sent immediately.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SeatBroadcastCoalescer {
+
+    private final SimpMessagingTemplate messagingTemplate;
+
+    // Each list is only touched inside compute/remove on its key, so it needs no locking of its own
+    private final ConcurrentHashMap<ShowtimeId, List<SeatReservationResponse>> pending = new ConcurrentHashMap<>();
+
+    private final AtomicLong changesSent = new AtomicLong();
+    private final AtomicLong framesSent = new AtomicLong();
+    private long lastReportedChanges;
+
+    /**
+     * Append a change to the showtime's next batch. Callers enqueue versioned changes in version order (see
+     * {@link SeatStateTracker#recordChange}), so batches need no reordering and never overtake each other.
+     */
+    public void enqueue(ShowtimeId showtimeId, SeatReservationResponse change) {
+        pending.compute(showtimeId, (id, changes) -> {
+            List<SeatReservationResponse> result = changes != null ? changes : new ArrayList<>();
+            result.add(change);
+            return result;
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${seat.broadcast.coalesce-window-ms:50}")
+    public void flush() {
+        for (ShowtimeId showtimeId : pending.keySet()) {
+            // Taking the whole list atomically; changes enqueued from now on start the next batch
+            List<SeatReservationResponse> changes = pending.remove(showtimeId);
+            if (changes == null || changes.isEmpty()) {
+                continue;
+            }
+            try {
+                messagingTemplate.convertAndSend("/topic/seats/" + showtimeId.getRoomId() + "/" + showtimeId.getScheduleId(),
+                        SeatBatchUpdate.builder()
+                                .roomId(showtimeId.getRoomId())
+                                .scheduleId(showtimeId.getScheduleId())
+                                .timestamp(Instant.now().toEpochMilli())
+                                .changes(changes)
+                                .build());
+                framesSent.incrementAndGet();
+                changesSent.addAndGet(changes.size());
+            } catch (Exception e) {
+                log.error("Error broadcasting {} seat changes for showtime {}/{}", changes.size(),
+                        showtimeId.getRoomId(), showtimeId.getScheduleId(), e);
+            }
+        }
+    }
+
+    /**
+     * Frames that were not sent because their change rode along in another change's batch
+     */
+    public long getFramesSaved() {
+        return changesSent.get() - framesSent.get();
+    }
+
+    public long getChangesSent() {
+        return changesSent.get();
+    }
+
+    public long getFramesSent() {
+        return framesSent.get();
+    }
+
+    @Scheduled(fixedDelay = 60000)
+    public void reportStats() {
+        long changes = changesSent.get();
+        if (changes != lastReportedChanges) {
+            lastReportedChanges = changes;
+            log.info("Seat broadcast coalescing: {} changes sent in {} frames ({} frames saved)",
+                    changes, framesSent.get(), getFramesSaved());
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.booking.movieticket.service.seat;
+
+import com.booking.movieticket.dto.response.SeatStateResponse;
+import com.booking.movieticket.entity.compositekey.ShowtimeId;
+import com.booking.movieticket.entity.enums.StatusSeat;
+
+import java.util.List;
+
+/**
+ * Source of the seat-state versions {@link SeatStateTracker} assigns, and of the changes other nodes made.
+ * <p>
+ * Selected together with the hold store by {@code seat.hold.store}: {@code memory} ({@link LocalSeatChangeLog})
+ * versions changes in this node only; {@code jdbc} ({@link JdbcSeatChangeLog}) draws versions from one sequence
+ * per showtime in the database and keeps recent changes there, so every node broadcasts and serves the same
+ * version stream.
+ */
+public interface SeatChangeLog {
+
+    /**
+     * Version to start a freshly loaded seat state at. Changes up to it are already reflected in the database
+     * statuses and the hold store.
+     */
+    long currentVersion(ShowtimeId showtimeId);
+
+    /**
+     * Assign the next version to a change. Returns the changes made elsewhere after {@code knownVersion} that the
+     * caller has not seen, followed by the new change, in version order.
+     */
+    List<SeatStateResponse.SeatState> append(ShowtimeId showtimeId, long seatId, StatusSeat status, String userId,
+                                             long knownVersion);
+
+    /**
+     * Changes made elsewhere after {@code knownVersion}, in version order
+     */
+    List<SeatStateResponse.SeatState> changesAfter(ShowtimeId showtimeId, long knownVersion);
+}
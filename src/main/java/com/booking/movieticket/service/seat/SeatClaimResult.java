@@ -0,0 +1,23 @@
+package com.booking.movieticket.service.seat;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Outcome of a seat claim: either the caller now owns the hold, or {@link #getHold()} is the competing hold that won.
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public final class SeatClaimResult {
+    private final boolean claimed;
+    private final SeatHold hold;
+
+    public static SeatClaimResult claimed(SeatHold hold) {
+        return new SeatClaimResult(true, hold);
+    }
+
+    public static SeatClaimResult rejected(SeatHold currentHold) {
+        return new SeatClaimResult(false, currentHold);
+    }
+}
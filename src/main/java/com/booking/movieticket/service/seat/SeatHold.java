@@ -0,0 +1,31 @@
+package com.booking.movieticket.service.seat;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.Objects;
+
+/**
+ * Immutable temporary hold of one showtime seat by one user.
+ * A new instance is created on every claim, so identity comparison tells whether a hold was replaced.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public final class SeatHold {
+    private final long scheduleId;
+    private final long roomId;
+    private final long seatId;
+    private final String userId;
+    private final long heldAt;
+    private final long expiresAt;
+
+    public boolean isExpired(long now) {
+        return expiresAt <= now;
+    }
+
+    public boolean isHeldBy(String candidateUserId) {
+        return Objects.equals(userId, candidateUserId);
+    }
+}
@@ -0,0 +1,256 @@
+package com.booking.movieticket.service.seat;
+
+import com.booking.movieticket.entity.compositekey.ShowtimeId;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory {@link SeatHoldStore}: holds are only visible to this node.
+ * Holds are indexed per showtime; inside a showtime the seat id picks one of a fixed number of lock stripes, so
+ * clicks on different seats of the same showtime rarely contend. Expiry is driven by a {@link HoldTimerWheel}.
+ */
+@Component
+@ConditionalOnProperty(name = "seat.hold.store", havingValue = "memory", matchIfMissing = true)
+@Slf4j
+public class SeatHoldRegistry implements SeatHoldStore {
+
+    private static final int STRIPES = 16;
+    private static final int WHEEL_SIZE = 512;
+    private static final long WHEEL_TICK_MILLIS = 1000;
+
+    private final ConcurrentHashMap<ShowtimeId, ShowtimeHolds> showtimes = new ConcurrentHashMap<>();
+    private final HoldTimerWheel timerWheel;
+    private final long holdTimeoutMillis;
+
+    public SeatHoldRegistry(@Value("${seat.hold.timeout-minutes:5}") long holdTimeoutMinutes) {
+        this.holdTimeoutMillis = TimeUnit.MINUTES.toMillis(holdTimeoutMinutes);
+        this.timerWheel = new HoldTimerWheel(WHEEL_TICK_MILLIS, WHEEL_SIZE, System.currentTimeMillis());
+    }
+
+    @Override
+    public SeatClaimResult claim(ShowtimeId showtimeId, long seatId, String userId, long now) {
+        SeatHold hold = new SeatHold(showtimeId.getScheduleId(), showtimeId.getRoomId(), seatId, userId,
+                now, now + holdTimeoutMillis);
+        while (true) {
+            ShowtimeHolds holds = showtimes.computeIfAbsent(showtimeId, id -> new ShowtimeHolds());
+            ReentrantLock lock = holds.lockFor(seatId);
+            lock.lock();
+            try {
+                if (holds.retired) {
+                    continue;
+                }
+                LongHoldMap stripe = holds.stripeFor(seatId);
+                SeatHold current = stripe.get(seatId);
+                if (current != null && !current.isExpired(now) && !current.isHeldBy(userId)) {
+                    return SeatClaimResult.rejected(current);
+                }
+                stripe.put(seatId, hold);
+            } finally {
+                lock.unlock();
+            }
+            timerWheel.schedule(hold);
+            return SeatClaimResult.claimed(hold);
+        }
+    }
+
+    @Override
+    public boolean release(ShowtimeId showtimeId, long seatId, String userId) {
+        ShowtimeHolds holds = showtimes.get(showtimeId);
+        if (holds == null) {
+            return false;
+        }
+        ReentrantLock lock = holds.lockFor(seatId);
+        lock.lock();
+        try {
+            LongHoldMap stripe = holds.stripeFor(seatId);
+            SeatHold current = stripe.get(seatId);
+            return current != null && current.isHeldBy(userId) && stripe.remove(seatId, current);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public SeatHold remove(ShowtimeId showtimeId, long seatId) {
+        ShowtimeHolds holds = showtimes.get(showtimeId);
+        if (holds == null) {
+            return null;
+        }
+        ReentrantLock lock = holds.lockFor(seatId);
+        lock.lock();
+        try {
+            return holds.stripeFor(seatId).remove(seatId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public SeatHold get(ShowtimeId showtimeId, long seatId) {
+        ShowtimeHolds holds = showtimes.get(showtimeId);
+        if (holds == null) {
+            return null;
+        }
+        ReentrantLock lock = holds.lockFor(seatId);
+        lock.lock();
+        try {
+            return holds.stripeFor(seatId).get(seatId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public List<SeatHold> holdsFor(ShowtimeId showtimeId) {
+        ShowtimeHolds holds = showtimes.get(showtimeId);
+        return holds == null ? List.of() : holds.snapshot();
+    }
+
+    @Override
+    public Set<ShowtimeId> activeShowtimes() {
+        return showtimes.keySet();
+    }
+
+    @Override
+    public Map<ShowtimeId, Integer> activeHoldCounts(long now) {
+        Map<ShowtimeId, Integer> counts = new HashMap<>();
+        showtimes.forEach((showtimeId, holds) -> {
+            int active = 0;
+            for (SeatHold hold : holds.snapshot()) {
+                if (!hold.isExpired(now)) {
+                    active++;
+                }
+            }
+            if (active > 0) {
+                counts.put(showtimeId, active);
+            }
+        });
+        return counts;
+    }
+
+    /**
+     * Advance the timer wheel and remove every hold that expired at or before {@code now}.
+     * A hold is only removed if it is still the current one for its seat, so a seat that was re-claimed in the
+     * meantime keeps its new hold.
+     */
+    @Override
+    public List<SeatHold> expire(long now) {
+        List<SeatHold> expired = new ArrayList<>();
+        for (SeatHold candidate : timerWheel.advance(now)) {
+            ShowtimeId showtimeId = new ShowtimeId(candidate.getScheduleId(), candidate.getRoomId());
+            ShowtimeHolds holds = showtimes.get(showtimeId);
+            if (holds == null) {
+                continue;
+            }
+            ReentrantLock lock = holds.lockFor(candidate.getSeatId());
+            lock.lock();
+            try {
+                if (holds.stripeFor(candidate.getSeatId()).remove(candidate.getSeatId(), candidate)) {
+                    expired.add(candidate);
+                }
+            } finally {
+                lock.unlock();
+            }
+            if (holds.isEmpty()) {
+                retireIfEmpty(showtimeId, holds);
+            }
+        }
+        return expired;
+    }
+
+    @Override
+    public int size() {
+        int total = 0;
+        for (ShowtimeHolds holds : showtimes.values()) {
+            total += holds.size();
+        }
+        return total;
+    }
+
+    /**
+     * Unlink an empty showtime table. All stripe locks are taken so no claim can slip in between the emptiness
+     * check and the removal; a claimer that already looked the table up sees {@code retired} and retries.
+     */
+    private void retireIfEmpty(ShowtimeId showtimeId, ShowtimeHolds holds) {
+        for (ReentrantLock lock : holds.locks) {
+            lock.lock();
+        }
+        try {
+            if (!holds.retired && holds.isEmpty()) {
+                holds.retired = true;
+                showtimes.remove(showtimeId, holds);
+            }
+        } finally {
+            for (ReentrantLock lock : holds.locks) {
+                lock.unlock();
+            }
+        }
+    }
+
+    private static final class ShowtimeHolds {
+        private final ReentrantLock[] locks = new ReentrantLock[STRIPES];
+        private final LongHoldMap[] stripes = new LongHoldMap[STRIPES];
+        // Written under all stripe locks, read under one of them
+        private boolean retired;
+
+        ShowtimeHolds() {
+            for (int i = 0; i < STRIPES; i++) {
+                locks[i] = new ReentrantLock();
+                stripes[i] = new LongHoldMap(8);
+            }
+        }
+
+        ReentrantLock lockFor(long seatId) {
+            return locks[stripeIndex(seatId)];
+        }
+
+        LongHoldMap stripeFor(long seatId) {
+            return stripes[stripeIndex(seatId)];
+        }
+
+        boolean isEmpty() {
+            return size() == 0;
+        }
+
+        int size() {
+            int total = 0;
+            for (int i = 0; i < STRIPES; i++) {
+                locks[i].lock();
+                try {
+                    total += stripes[i].size();
+                } finally {
+                    locks[i].unlock();
+                }
+            }
+            return total;
+        }
+
+        List<SeatHold> snapshot() {
+            List<SeatHold> result = new ArrayList<>();
+            for (int i = 0; i < STRIPES; i++) {
+                locks[i].lock();
+                try {
+                    stripes[i].forEach(result::add);
+                } finally {
+                    locks[i].unlock();
+                }
+            }
+            return result;
+        }
+
+        private static int stripeIndex(long seatId) {
+            return (int) (seatId ^ (seatId >>> 32)) & (STRIPES - 1);
+        }
+    }
+}
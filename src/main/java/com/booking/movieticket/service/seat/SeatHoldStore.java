@@ -0,0 +1,52 @@
+package com.booking.movieticket.service.seat;
+
+import com.booking.movieticket.entity.compositekey.ShowtimeId;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Storage of temporary seat holds. Implementations must make {@link #claim} atomic per seat: of several users
+ * claiming the same free seat at once, exactly one succeeds.
+ * <p>
+ * Selected with {@code seat.hold.store}: {@code memory} (default, {@link SeatHoldRegistry}) keeps holds in this
+ * node only; {@code jdbc} ({@link JdbcSeatHoldStore}) shares them between nodes through the database.
+ */
+public interface SeatHoldStore {
+
+    /**
+     * Claim a seat for a user. Succeeds when the seat is free, its hold has expired, or the user already holds it
+     * (which refreshes the expiry); otherwise the competing hold is returned untouched.
+     */
+    SeatClaimResult claim(ShowtimeId showtimeId, long seatId, String userId, long now);
+
+    /**
+     * Release a seat only if it is currently held by the given user.
+     */
+    boolean release(ShowtimeId showtimeId, long seatId, String userId);
+
+    /**
+     * Drop a hold regardless of owner, e.g. once the seat has been booked. Returns the removed hold, if any.
+     */
+    SeatHold remove(ShowtimeId showtimeId, long seatId);
+
+    SeatHold get(ShowtimeId showtimeId, long seatId);
+
+    List<SeatHold> holdsFor(ShowtimeId showtimeId);
+
+    Set<ShowtimeId> activeShowtimes();
+
+    /**
+     * Number of holds not yet expired at {@code now}, per showtime, read in one pass over the store
+     */
+    Map<ShowtimeId, Integer> activeHoldCounts(long now);
+
+    /**
+     * Remove and return the holds that expired at or before {@code now}. Each expired hold is returned by exactly
+     * one call, so with a shared store only one node reports it.
+     */
+    List<SeatHold> expire(long now);
+
+    int size();
+}
@@ -0,0 +1,68 @@
+package com.booking.movieticket.service.seat;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+import java.util.Optional;
+
+/**
+ * Signs and verifies hold tokens: proof, handed to the holder when a seat is claimed, that a given user held a given
+ * showtime seat until a given time. A booking carrying a valid token for a seat consumes the hold and skips the
+ * check against other users' holds; the seat is still row-locked with the rest of the booking, in id order.
+ * The signing key is derived from the JWT secret but differs from it, so a hold token is never a valid login token.
+ */
+@Component
+@Slf4j
+public class SeatHoldTokenService {
+
+    private static final String SCHEDULE_ID_KEY = "scheduleId";
+    private static final String ROOM_ID_KEY = "roomId";
+    private static final String SEAT_ID_KEY = "seatId";
+
+    private final String signingKey;
+
+    public SeatHoldTokenService(@Value("${security.jwt.secret}") String jwtSecret) {
+        this.signingKey = Base64.getEncoder()
+                .encodeToString((jwtSecret + ":seat-hold").getBytes(StandardCharsets.UTF_8));
+    }
+
+    public String issue(SeatHold hold) {
+        Claims claims = Jwts.claims().setSubject(hold.getUserId());
+        claims.put(SCHEDULE_ID_KEY, hold.getScheduleId());
+        claims.put(ROOM_ID_KEY, hold.getRoomId());
+        claims.put(SEAT_ID_KEY, hold.getSeatId());
+        return Jwts.builder()
+                .setClaims(claims)
+                .setIssuedAt(new Date(hold.getHeldAt()))
+                .setExpiration(new Date(hold.getExpiresAt()))
+                .signWith(SignatureAlgorithm.HS512, signingKey)
+                .compact();
+    }
+
+    /**
+     * The hold described by the token, or empty if the token is malformed, tampered with or expired.
+     * The caller still has to check that the hold store agrees the hold is current.
+     */
+    public Optional<SeatHold> verify(String token) {
+        try {
+            Claims claims = Jwts.parser().setSigningKey(signingKey).parseClaimsJws(token).getBody();
+            return Optional.of(new SeatHold(
+                    Long.parseLong(claims.get(SCHEDULE_ID_KEY).toString()),
+                    Long.parseLong(claims.get(ROOM_ID_KEY).toString()),
+                    Long.parseLong(claims.get(SEAT_ID_KEY).toString()),
+                    claims.getSubject(),
+                    claims.getIssuedAt().getTime(),
+                    claims.getExpiration().getTime()));
+        } catch (Exception e) {
+            log.debug("Rejected seat hold token: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+}
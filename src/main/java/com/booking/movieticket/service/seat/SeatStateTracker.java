@@ -0,0 +1,227 @@
+package com.booking.movieticket.service.seat;
+
+import com.booking.movieticket.dto.response.SeatStateResponse;
+import com.booking.movieticket.entity.compositekey.ShowtimeId;
+import com.booking.movieticket.entity.enums.StatusSeat;
+import com.booking.movieticket.repository.ShowtimeSeatRepository;
+import com.booking.movieticket.repository.projection.SeatStatusView;
+import com.booking.movieticket.service.showtime.ShowtimeAvailabilityIndex;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Versioned seat state per showtime: the database status of every seat overlaid with live holds.
+ * Each showtime is loaded once with a single (id, status) query, then kept current by {@link #recordChange}; every
+ * change bumps the showtime's version by one and is kept in a bounded history, so a reconnecting client can ask for
+ * the changes after the version it last saw instead of reloading the whole seat map.
+ * <p>
+ * Versions come from the {@link SeatChangeLog}. With the shared (jdbc) log every node draws from the same sequence
+ * per showtime and applies the changes other nodes made before serving a snapshot or recording a change, so the
+ * broadcasts relayed from all nodes form one version stream.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SeatStateTracker {
+
+    private static final int CHANGE_HISTORY = 512;
+    private static final long IDLE_EVICTION_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+    private final ShowtimeSeatRepository showtimeSeatRepository;
+    private final SeatHoldStore seatHoldStore;
+    private final SeatChangeLog seatChangeLog;
+    private final ShowtimeAvailabilityIndex availabilityIndex;
+
+    private final ConcurrentHashMap<ShowtimeId, ShowtimeSeatState> states = new ConcurrentHashMap<>();
+
+    /**
+     * Full seat state of a showtime, or empty if the showtime has no seats.
+     */
+    public Optional<SeatStateResponse> snapshot(ShowtimeId showtimeId) {
+        return currentStateFor(showtimeId).map(state -> state.snapshot(showtimeId));
+    }
+
+    /**
+     * Changes after {@code version}, or empty if they are no longer (or were never) in the history, in which case
+     * the caller should fall back to {@link #snapshot}.
+     */
+    public Optional<SeatStateResponse> changesSince(ShowtimeId showtimeId, long version) {
+        return currentStateFor(showtimeId).flatMap(state -> state.changesSince(showtimeId, version));
+    }
+
+    /**
+     * Apply a seat change and hand it with its version to {@code publisher}, or null if the showtime has no seats.
+     * The publisher runs under the showtime's lock, so changes reach it in version order; it must not block.
+     * The free-seat count of the showtime in the availability index moves with it.
+     */
+    public void recordChange(ShowtimeId showtimeId, long seatId, StatusSeat status, String userId,
+                             Consumer<SeatStateResponse.SeatState> publisher) {
+        Optional<ShowtimeSeatState> seatState = stateFor(showtimeId);
+        if (seatState.isEmpty()) {
+            publisher.accept(null);
+            return;
+        }
+        ShowtimeSeatState state = seatState.get();
+        synchronized (state) {
+            List<SeatStateResponse.SeatState> changes =
+                    seatChangeLog.append(showtimeId, seatId, status, userId, state.version);
+            if (!applyAll(showtimeId, state, changes)) {
+                // Changes from other nodes were pruned before this node saw them; reload on next access
+                states.remove(showtimeId, state);
+            }
+            publisher.accept(changes.get(changes.size() - 1));
+        }
+    }
+
+    @Scheduled(fixedDelay = 60000)
+    public void evictIdleShowtimes() {
+        long threshold = System.currentTimeMillis() - IDLE_EVICTION_MILLIS;
+        int before = states.size();
+        states.entrySet().removeIf(entry -> entry.getValue().lastAccess < threshold);
+        if (states.size() != before) {
+            log.debug("Evicted {} idle showtime seat states, {} remain", before - states.size(), states.size());
+        }
+    }
+
+    /**
+     * Seat state with the changes other nodes made applied; reloaded if some of them are no longer in the log
+     */
+    private Optional<ShowtimeSeatState> currentStateFor(ShowtimeId showtimeId) {
+        Optional<ShowtimeSeatState> state = stateFor(showtimeId);
+        if (state.isPresent() && !catchUp(showtimeId, state.get())) {
+            states.remove(showtimeId, state.get());
+            state = stateFor(showtimeId);
+        }
+        return state;
+    }
+
+    private boolean catchUp(ShowtimeId showtimeId, ShowtimeSeatState state) {
+        synchronized (state) {
+            return applyAll(showtimeId, state, seatChangeLog.changesAfter(showtimeId, state.version));
+        }
+    }
+
+    /**
+     * Apply changes in version order, skipping the ones already applied. Returns false if a version is missing.
+     * Must be called while holding the state's lock.
+     */
+    private boolean applyAll(ShowtimeId showtimeId, ShowtimeSeatState state, List<SeatStateResponse.SeatState> changes) {
+        boolean contiguous = true;
+        for (SeatStateResponse.SeatState change : changes) {
+            if (change.getVersion() <= state.version) {
+                continue;
+            }
+            if (change.getVersion() != state.version + 1) {
+                contiguous = false;
+            }
+            SeatStateResponse.SeatState previous = state.seats.get(change.getSeatId());
+            state.apply(change);
+            availabilityIndex.adjustFreeSeats(showtimeId, previous != null ? previous.getStatus() : null,
+                    change.getStatus());
+        }
+        return contiguous;
+    }
+
+    private Optional<ShowtimeSeatState> stateFor(ShowtimeId showtimeId) {
+        ShowtimeSeatState state = states.get(showtimeId);
+        if (state == null) {
+            // Loaded outside the map so a slow query never blocks other showtimes; a concurrent loser is discarded
+            ShowtimeSeatState loaded = load(showtimeId);
+            if (loaded == null) {
+                return Optional.empty();
+            }
+            ShowtimeSeatState existing = states.putIfAbsent(showtimeId, loaded);
+            state = existing != null ? existing : loaded;
+        }
+        state.lastAccess = System.currentTimeMillis();
+        return Optional.of(state);
+    }
+
+    private ShowtimeSeatState load(ShowtimeId showtimeId) {
+        List<SeatStatusView> seats = showtimeSeatRepository.findStatusesByShowtimeId(
+                showtimeId.getScheduleId(), showtimeId.getRoomId());
+        if (seats.isEmpty()) {
+            return null;
+        }
+        long now = System.currentTimeMillis();
+        ShowtimeSeatState state = new ShowtimeSeatState(seatChangeLog.currentVersion(showtimeId), now);
+        for (SeatStatusView seat : seats) {
+            state.seats.put(seat.getId(), new SeatStateResponse.SeatState(seat.getId(), seat.getStatus(), null, state.version));
+        }
+        for (SeatHold hold : seatHoldStore.holdsFor(showtimeId)) {
+            SeatStateResponse.SeatState current = state.seats.get(hold.getSeatId());
+            if (current != null && current.getStatus() == StatusSeat.AVAILABLE && !hold.isExpired(now)) {
+                state.seats.put(hold.getSeatId(),
+                        new SeatStateResponse.SeatState(hold.getSeatId(), StatusSeat.SELECTED, hold.getUserId(), state.version));
+            }
+        }
+        log.debug("Loaded seat state of showtime {}/{}: {} seats at version {}",
+                showtimeId.getRoomId(), showtimeId.getScheduleId(), state.seats.size(), state.version);
+        return state;
+    }
+
+    private static final class ShowtimeSeatState {
+        // Seat entries are never mutated once stored, only replaced, so snapshots can share them
+        private final Map<Long, SeatStateResponse.SeatState> seats = new LinkedHashMap<>();
+        private final ArrayDeque<SeatStateResponse.SeatState> changes = new ArrayDeque<>();
+        private long version;
+        private volatile long lastAccess;
+
+        ShowtimeSeatState(long initialVersion, long loadedAt) {
+            this.version = initialVersion;
+            this.lastAccess = loadedAt;
+        }
+
+        synchronized void apply(SeatStateResponse.SeatState change) {
+            seats.put(change.getSeatId(), change);
+            version = change.getVersion();
+            if (changes.size() == CHANGE_HISTORY) {
+                changes.pollFirst();
+            }
+            changes.addLast(change);
+        }
+
+        synchronized SeatStateResponse snapshot(ShowtimeId showtimeId) {
+            return response(showtimeId, true, new ArrayList<>(seats.values()));
+        }
+
+        synchronized Optional<SeatStateResponse> changesSince(ShowtimeId showtimeId, long since) {
+            if (since > version) {
+                return Optional.empty();
+            }
+            long oldestAvailable = changes.isEmpty() ? version : changes.peekFirst().getVersion() - 1;
+            if (since < oldestAvailable) {
+                return Optional.empty();
+            }
+            List<SeatStateResponse.SeatState> result = new ArrayList<>();
+            for (SeatStateResponse.SeatState change : changes) {
+                if (change.getVersion() > since) {
+                    result.add(change);
+                }
+            }
+            return Optional.of(response(showtimeId, false, result));
+        }
+
+        private SeatStateResponse response(ShowtimeId showtimeId, boolean snapshot, List<SeatStateResponse.SeatState> seatStates) {
+            return SeatStateResponse.builder()
+                    .scheduleId(showtimeId.getScheduleId())
+                    .roomId(showtimeId.getRoomId())
+                    .version(version)
+                    .snapshot(snapshot)
+                    .seats(seatStates)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.booking.movieticket.service.showtime;
+
+import com.booking.movieticket.dto.response.RoomLayoutResponse;
+import com.booking.movieticket.event.RoomLayoutChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Room layouts by room id. Layouts only change when an admin edits a room or its seats, which publishes a
+ * {@link RoomLayoutChangedEvent}; there is one entry per room, so the map needs no size bound.
+ */
+@Component
+@Slf4j
+public class RoomLayoutCache {
+
+    private final ConcurrentHashMap<Long, RoomLayoutResponse> layouts = new ConcurrentHashMap<>();
+
+    // Bumped on every eviction; a load that started before one is not stored, since it may have read the old seats
+    private long generation;
+
+    public RoomLayoutResponse get(Long roomId, Function<Long, RoomLayoutResponse> loader) {
+        RoomLayoutResponse layout = layouts.get(roomId);
+        if (layout != null) {
+            return layout;
+        }
+        long loadGeneration;
+        synchronized (this) {
+            loadGeneration = generation;
+        }
+        // Loaded outside any lock so a slow query never blocks other rooms; a concurrent loser is discarded
+        RoomLayoutResponse loaded = loader.apply(roomId);
+        synchronized (this) {
+            if (generation != loadGeneration) {
+                return loaded;
+            }
+            RoomLayoutResponse existing = layouts.putIfAbsent(roomId, loaded);
+            return existing != null ? existing : loaded;
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public synchronized void onRoomLayoutChanged(RoomLayoutChangedEvent event) {
+        generation++;
+        if (layouts.remove(event.getRoomId()) != null) {
+            log.debug("Room layout {} evicted", event.getRoomId());
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.booking.movieticket.service.showtime;
+
+import com.booking.movieticket.dto.response.DateAvailabilityResponse;
+import com.booking.movieticket.entity.compositekey.ShowtimeId;
+import com.booking.movieticket.entity.enums.StatusSeat;
+import com.booking.movieticket.event.ShowtimesChangedEvent;
+import com.booking.movieticket.repository.ShowtimeRepository;
+import com.booking.movieticket.repository.projection.ShowtimeAvailabilityView;
+import com.booking.movieticket.service.seat.SeatHoldStore;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Free-seat counts of the upcoming showtimes of each movie, for the date picker and its sold-out flags.
+ * A movie is loaded with one grouped query and then kept current by {@link #adjustFreeSeats}, which the seat state
+ * tracker calls for every seat that becomes or stops being free (held, released, expired or booked), so reads never
+ * touch schedules or showtime seats. Movies are rebuilt from the database every few minutes to shed any drift, and
+ * dropped as soon as their showtimes change.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ShowtimeAvailabilityIndex {
+
+    private static final long REBUILD_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+    private final ShowtimeRepository showtimeRepository;
+    private final SeatHoldStore seatHoldStore;
+
+    private final ConcurrentHashMap<Long, MovieAvailability> movies = new ConcurrentHashMap<>();
+    // Same entries by showtime, so a seat change finds its counter without knowing the movie
+    private final ConcurrentHashMap<ShowtimeId, ShowtimeAvailability> showtimes = new ConcurrentHashMap<>();
+
+    /**
+     * Showtime count and free seats per upcoming date, optionally for one cinema only
+     */
+    public List<DateAvailabilityResponse> availabilityByDate(Long movieId, Long cinemaId) {
+        LocalDate today = LocalDate.now();
+        Map<LocalDate, int[]> byDate = new TreeMap<>();
+        for (ShowtimeAvailability showtime : movieFor(movieId).showtimes) {
+            if (showtime.date.isBefore(today) || (cinemaId != null && !cinemaId.equals(showtime.cinemaId))) {
+                continue;
+            }
+            int[] counts = byDate.computeIfAbsent(showtime.date, date -> new int[2]);
+            counts[0]++;
+            counts[1] += Math.max(0, showtime.freeSeats.get());
+        }
+        List<DateAvailabilityResponse> result = new ArrayList<>(byDate.size());
+        byDate.forEach((date, counts) -> result.add(DateAvailabilityResponse.builder()
+                .date(date)
+                .showtimeCount(counts[0])
+                .freeSeats(counts[1])
+                .soldOut(counts[1] == 0)
+                .build()));
+        return result;
+    }
+
+    public List<LocalDate> availableDates(Long movieId) {
+        return availabilityByDate(movieId, null).stream().map(DateAvailabilityResponse::getDate).toList();
+    }
+
+    /**
+     * Apply a seat status change of a showtime; a no-op for showtimes of movies that are not loaded
+     */
+    public void adjustFreeSeats(ShowtimeId showtimeId, StatusSeat previous, StatusSeat current) {
+        if (previous == null || previous == current) {
+            return;
+        }
+        int delta = (current == StatusSeat.AVAILABLE ? 1 : 0) - (previous == StatusSeat.AVAILABLE ? 1 : 0);
+        ShowtimeAvailability showtime = showtimes.get(showtimeId);
+        if (delta != 0 && showtime != null) {
+            showtime.freeSeats.addAndGet(delta);
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onShowtimesChanged(ShowtimesChangedEvent event) {
+        if (event.getMovieId() == null) {
+            movies.keySet().forEach(this::evict);
+        } else {
+            evict(event.getMovieId());
+        }
+    }
+
+    private void evict(Long movieId) {
+        MovieAvailability removed = movies.remove(movieId);
+        if (removed != null) {
+            removed.showtimes.forEach(showtime -> showtimes.remove(showtime.showtimeId, showtime));
+        }
+    }
+
+    private MovieAvailability movieFor(Long movieId) {
+        MovieAvailability current = movies.get(movieId);
+        long now = System.currentTimeMillis();
+        if (current != null && now - current.builtAt < REBUILD_MILLIS) {
+            return current;
+        }
+        // Built outside the map so a slow query never blocks other movies; concurrent builders both win in turn
+        MovieAvailability built = build(movieId, now);
+        built.showtimes.forEach(showtime -> showtimes.put(showtime.showtimeId, showtime));
+        MovieAvailability replaced = movies.put(movieId, built);
+        if (replaced != null) {
+            replaced.showtimes.forEach(showtime -> showtimes.remove(showtime.showtimeId, showtime));
+        }
+        return built;
+    }
+
+    private MovieAvailability build(Long movieId, long now) {
+        List<ShowtimeAvailabilityView> rows = showtimeRepository.findAvailabilityByMovieId(
+                movieId, LocalDate.now(), StatusSeat.AVAILABLE);
+        // All active holds in one read rather than one per showtime
+        Map<ShowtimeId, Integer> heldByShowtime = rows.isEmpty() ? Map.of() : seatHoldStore.activeHoldCounts(now);
+        List<ShowtimeAvailability> result = new ArrayList<>(rows.size());
+        for (ShowtimeAvailabilityView row : rows) {
+            ShowtimeId showtimeId = new ShowtimeId(row.getScheduleId(), row.getRoomId());
+            int held = heldByShowtime.getOrDefault(showtimeId, 0);
+            int available = row.getAvailableSeats() != null ? row.getAvailableSeats().intValue() : 0;
+            result.add(new ShowtimeAvailability(showtimeId, row.getScheduleDate(), row.getCinemaId(), available - held));
+        }
+        log.debug("Built availability of movie {}: {} upcoming showtimes", movieId, result.size());
+        return new MovieAvailability(now, result);
+    }
+
+    private record MovieAvailability(long builtAt, List<ShowtimeAvailability> showtimes) {
+    }
+
+    private static final class ShowtimeAvailability {
+        private final ShowtimeId showtimeId;
+        private final LocalDate date;
+        private final Long cinemaId;
+        private final AtomicInteger freeSeats;
+
+        ShowtimeAvailability(ShowtimeId showtimeId, LocalDate date, Long cinemaId, int freeSeats) {
+            this.showtimeId = showtimeId;
+            this.date = date;
+            this.cinemaId = cinemaId;
+            this.freeSeats = new AtomicInteger(freeSeats);
+        }
+    }
+}
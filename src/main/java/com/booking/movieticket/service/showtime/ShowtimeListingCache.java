@@ -0,0 +1,156 @@
+package com.booking.movieticket.service.showtime;
+
+import com.booking.movieticket.dto.response.ShowtimeResponse;
+import com.booking.movieticket.event.ShowtimesChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Bounded read-through cache of assembled showtime listings, keyed by (movieId, date, cinemaId).
+ * Entries are dropped least-recently-used first once {@code showtime.listing-cache.max-entries} is reached, and
+ * expire after {@code showtime.listing-cache.ttl-seconds}. Listings change only when showtimes are created, so
+ * a {@link ShowtimesChangedEvent} invalidates them as soon as the creating transaction commits; the TTL only bounds
+ * staleness for writes that bypass the event.
+ * <p>
+ * Cached responses are shared between requests and must be treated as read-only.
+ */
+@Component
+@Slf4j
+public class ShowtimeListingCache {
+
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final LinkedHashMap<Key, Entry> entries;
+
+    // Bumped on every invalidation; a load that started before one is not stored, since it may have read old rows
+    private long generation;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+    private long lastReportedRequests;
+
+    public ShowtimeListingCache(@Value("${showtime.listing-cache.max-entries:2000}") int maxEntries,
+                                @Value("${showtime.listing-cache.ttl-seconds:300}") long ttlSeconds) {
+        this.maxEntries = maxEntries;
+        this.ttlMillis = TimeUnit.SECONDS.toMillis(ttlSeconds);
+        // Access order, so the eldest entry is the least recently used one
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                if (size() > ShowtimeListingCache.this.maxEntries) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Return the cached listing, or build it with {@code loader} and cache it. The loader runs outside the cache
+     * lock, so a slow query never blocks hits on other keys; two concurrent misses on one key both load.
+     */
+    public ShowtimeResponse getOrLoad(Long movieId, LocalDate date, Long cinemaId, Supplier<ShowtimeResponse> loader) {
+        if (maxEntries <= 0) {
+            return loader.get();
+        }
+        Key key = new Key(movieId, date, cinemaId);
+        long now = System.currentTimeMillis();
+        long loadGeneration;
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                if (entry.expiresAt > now) {
+                    hits.incrementAndGet();
+                    return entry.response;
+                }
+                entries.remove(key);
+                evictions.incrementAndGet();
+            }
+            loadGeneration = generation;
+        }
+        misses.incrementAndGet();
+        ShowtimeResponse response = loader.get();
+        synchronized (this) {
+            if (generation == loadGeneration) {
+                entries.put(key, new Entry(response, System.currentTimeMillis() + ttlMillis));
+            }
+        }
+        return response;
+    }
+
+    public synchronized void invalidateMovie(Long movieId) {
+        generation++;
+        entries.keySet().removeIf(key -> Objects.equals(key.movieId, movieId));
+        invalidations.incrementAndGet();
+    }
+
+    public synchronized void invalidateAll() {
+        generation++;
+        entries.clear();
+        invalidations.incrementAndGet();
+    }
+
+    // fallbackExecution: showtimes created outside a transaction still invalidate, immediately
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onShowtimesChanged(ShowtimesChangedEvent event) {
+        if (event.getMovieId() == null) {
+            invalidateAll();
+        } else {
+            invalidateMovie(event.getMovieId());
+        }
+        log.debug("Showtime listing cache invalidated by {}", event);
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    public long getInvalidations() {
+        return invalidations.get();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    @Scheduled(fixedDelay = 60000)
+    public void reportStats() {
+        long hitCount = hits.get();
+        long requests = hitCount + misses.get();
+        if (requests != lastReportedRequests) {
+            lastReportedRequests = requests;
+            log.info("Showtime listing cache: {} entries, {} hits / {} requests ({}%), {} evictions, {} invalidations",
+                    size(), hitCount, requests, requests == 0 ? 0 : hitCount * 100 / requests,
+                    evictions.get(), invalidations.get());
+        }
+    }
+
+    private record Key(Long movieId, LocalDate date, Long cinemaId) {
+    }
+
+    private record Entry(ShowtimeResponse response, long expiresAt) {
+    }
+}
@@ -0,0 +1,190 @@
+package com.booking.movieticket.controller;
+
+import com.booking.movieticket.dto.request.SeatReservationRequest;
+import com.booking.movieticket.dto.response.SeatReservationResponse;
+import com.booking.movieticket.entity.compositekey.ShowtimeId;
+import com.booking.movieticket.entity.enums.StatusSeat;
+import com.booking.movieticket.repository.ShowtimeSeatRepository;
+import com.booking.movieticket.repository.projection.SeatStatusView;
+import com.booking.movieticket.service.seat.SeatBroadcastCoalescer;
+import com.booking.movieticket.service.seat.SeatHold;
+import com.booking.movieticket.service.seat.SeatHoldStore;
+import com.booking.movieticket.service.seat.SeatHoldTokenService;
+import com.booking.movieticket.service.seat.SeatStateTracker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * The hold cleanup and database sync read the status of every seat they look at in bulk (id, status) queries
+ * rather than one query per seat. Reservations without a user id never reach the hold store.
+ */
+@ExtendWith(MockitoExtension.class)
+class SeatSocketControllerTest {
+
+    private static final ShowtimeId SHOWTIME = new ShowtimeId(10L, 1L);
+    private static final ShowtimeId OTHER_SHOWTIME = new ShowtimeId(20L, 2L);
+
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+    @Mock
+    private ShowtimeSeatRepository showtimeSeatRepository;
+    @Mock
+    private SeatHoldStore seatHoldStore;
+    @Mock
+    private SeatStateTracker seatStateTracker;
+    @Mock
+    private SeatBroadcastCoalescer seatBroadcastCoalescer;
+    @Mock
+    private SeatHoldTokenService seatHoldTokenService;
+
+    @InjectMocks
+    private SeatSocketController controller;
+
+    // Seat id -> status in the database; seats missing here do not exist
+    private final Map<Long, StatusSeat> statusesInDb = new HashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(showtimeSeatRepository.findStatusesByIds(anyCollection())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            return ids.stream().filter(statusesInDb::containsKey).map(id -> seat(id, statusesInDb.get(id))).toList();
+        });
+    }
+
+    @Test
+    void cleanupReadsTheStatusOfEveryExpiredSeatInOneQuery() {
+        statusesInDb.put(1L, StatusSeat.BOOKED);
+        statusesInDb.put(2L, StatusSeat.AVAILABLE);
+        when(seatHoldStore.expire(anyLong())).thenReturn(List.of(hold(SHOWTIME, 1), hold(SHOWTIME, 2), hold(OTHER_SHOWTIME, 3)));
+
+        controller.cleanupExpiredReservations();
+
+        verify(showtimeSeatRepository).findStatusesByIds(List.of(1L, 2L, 3L));
+        verify(showtimeSeatRepository, never()).findStatusById(any(), any(), any());
+        // A booked seat is not broadcast as AVAILABLE; a seat missing from the database is
+        verify(seatStateTracker, never()).recordChange(eq(SHOWTIME), eq(1L), any(), any(), any());
+        verify(seatStateTracker).recordChange(eq(SHOWTIME), eq(2L), eq(StatusSeat.AVAILABLE), eq("system_timeout"), any());
+        verify(seatStateTracker).recordChange(eq(OTHER_SHOWTIME), eq(3L), eq(StatusSeat.AVAILABLE), eq("system_timeout"), any());
+    }
+
+    @Test
+    void cleanupSplitsLargeSweepsIntoBatches() {
+        List<SeatHold> expired = new ArrayList<>();
+        for (long seatId = 1; seatId <= 2500; seatId++) {
+            expired.add(hold(SHOWTIME, seatId));
+        }
+        when(seatHoldStore.expire(anyLong())).thenReturn(expired);
+
+        controller.cleanupExpiredReservations();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<Long>> batches = ArgumentCaptor.forClass(Collection.class);
+        verify(showtimeSeatRepository, times(3)).findStatusesByIds(batches.capture());
+        assertThat(batches.getAllValues()).extracting(Collection::size).containsExactly(1000, 1000, 500);
+    }
+
+    @Test
+    void cleanupStillReleasesSeatsWhenTheStatusQueryFails() {
+        when(seatHoldStore.expire(anyLong())).thenReturn(List.of(hold(SHOWTIME, 1)));
+        doThrow(new QueryTimeoutException("timeout")).when(showtimeSeatRepository).findStatusesByIds(anyCollection());
+
+        controller.cleanupExpiredReservations();
+
+        verify(seatStateTracker).recordChange(eq(SHOWTIME), eq(1L), eq(StatusSeat.AVAILABLE), eq("system_timeout"), any());
+    }
+
+    @Test
+    void cleanupWithoutExpiredHoldsQueriesNothing() {
+        when(seatHoldStore.expire(anyLong())).thenReturn(List.of());
+
+        controller.cleanupExpiredReservations();
+
+        verifyNoInteractions(showtimeSeatRepository, seatStateTracker);
+    }
+
+    @Test
+    void syncReadsTheStatusOfHeldSeatsOfEveryShowtimeInOneQuery() {
+        statusesInDb.put(1L, StatusSeat.BOOKED);
+        statusesInDb.put(2L, StatusSeat.AVAILABLE);
+        when(seatHoldStore.activeShowtimes()).thenReturn(Set.of(SHOWTIME, OTHER_SHOWTIME));
+        when(seatHoldStore.holdsFor(SHOWTIME)).thenReturn(List.of(hold(SHOWTIME, 1), hold(SHOWTIME, 2)));
+        when(seatHoldStore.holdsFor(OTHER_SHOWTIME)).thenReturn(List.of(hold(OTHER_SHOWTIME, 3)));
+
+        controller.syncWithDatabase();
+
+        verify(showtimeSeatRepository, times(1)).findStatusesByIds(anyCollection());
+        verify(showtimeSeatRepository, never()).findStatusById(any(), any(), any());
+        // Booked: dropped and broadcast as BOOKED; missing from the database: dropped; still available: kept
+        verify(seatHoldStore).remove(SHOWTIME, 1L);
+        verify(seatStateTracker).recordChange(eq(SHOWTIME), eq(1L), eq(StatusSeat.BOOKED), eq("system_sync"), any());
+        verify(seatHoldStore).remove(OTHER_SHOWTIME, 3L);
+        verify(seatHoldStore, never()).remove(SHOWTIME, 2L);
+        verify(seatStateTracker, never()).recordChange(eq(SHOWTIME), eq(2L), any(), any(), any());
+    }
+
+    @Test
+    void reservationWithoutAUserIdIsRejectedBeforeAnyHold() {
+        SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.create();
+        headers.setSessionId("session-1");
+        SeatReservationRequest request = SeatReservationRequest.builder()
+                .seatId(1L)
+                .userId(" ")
+                .status(StatusSeat.SELECTED)
+                .build();
+
+        controller.reserveSeat(SHOWTIME.getRoomId(), SHOWTIME.getScheduleId(), request, headers);
+
+        ArgumentCaptor<Object> rejection = ArgumentCaptor.forClass(Object.class);
+        verify(messagingTemplate).convertAndSendToUser(eq("session-1"), eq("/queue/seats"), rejection.capture(), anyMap());
+        assertThat(((SeatReservationResponse) rejection.getValue()).getError()).isEqualTo("User id is required");
+        verifyNoInteractions(seatHoldStore, seatStateTracker, seatBroadcastCoalescer, showtimeSeatRepository);
+    }
+
+    private static SeatHold hold(ShowtimeId showtimeId, long seatId) {
+        long now = System.currentTimeMillis();
+        return new SeatHold(showtimeId.getScheduleId(), showtimeId.getRoomId(), seatId, "alice", now - 60_000, now);
+    }
+
+    private static SeatStatusView seat(long id, StatusSeat status) {
+        return new SeatStatusView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public StatusSeat getStatus() {
+                return status;
+            }
+        };
+    }
+}
@@ -0,0 +1,216 @@
+package com.booking.movieticket.service.impl;
+
+import com.booking.movieticket.dto.request.BookingRequest;
+import com.booking.movieticket.entity.Branch;
+import com.booking.movieticket.entity.Movie;
+import com.booking.movieticket.entity.Room;
+import com.booking.movieticket.entity.enums.RoomType;
+import com.booking.movieticket.entity.enums.TypeSeat;
+import com.booking.movieticket.exception.AppException;
+import com.booking.movieticket.exception.ErrorCode;
+import com.booking.movieticket.service.BookingService;
+import com.booking.movieticket.support.BookingFixture;
+import com.booking.movieticket.support.BookingFixture.SeatRow;
+import com.booking.movieticket.support.BookingFixture.SeededShowtime;
+import com.booking.movieticket.support.PostgresIntegrationTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Both booking concurrency modes under the same load: eight threads booking overlapping pairs of seats of one hot
+ * showtime as fast as they can. Every attempt is timed end to end, retries included; the report gives bookings per
+ * second, p50/p99 attempt latency and how the attempts ended, per mode.
+ * <p>
+ * Tagged benchmark, so it only runs with {@code ./gradlew benchmarkTest}.
+ */
+@Tag("benchmark")
+@PostgresIntegrationTest
+class BookingConcurrencyLoadTest {
+
+    private static final List<String> MODES = List.of("pessimistic", "optimistic");
+    private static final int THREADS = 8;
+    private static final int WARMUP_ATTEMPTS_PER_THREAD = 20;
+    private static final int ATTEMPTS_PER_THREAD = 100;
+    private static final int ROWS = 10;
+    private static final int SEATS_PER_ROW = 20;
+    private static final int GROUP_SIZE = 2;
+    private static final String BOOKED = "BOOKED";
+    // Everything else an attempt may end with under contention; anything outside this set fails the test
+    private static final Set<String> EXPECTED_OUTCOMES = Set.of(BOOKED, ErrorCode.SEAT_ALREADY_BOOKED.name(),
+            ErrorCode.BOOKING_CONFLICT.name(), ErrorCode.SEAT_LOCK_TIMEOUT.name());
+
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private BookingFixture fixture;
+
+    private Movie movie;
+    private Room room;
+    private List<Long> userIds;
+    private int showtimesSeeded;
+
+    @BeforeEach
+    void setUp() {
+        movie = fixture.movie("Load Test", 120);
+        Branch branch = fixture.branch("Load Cinema");
+        room = fixture.room(branch.getId(), RoomType.STANDARD);
+        userIds = IntStream.range(0, THREADS).mapToObj(i -> fixture.user().getId()).toList();
+    }
+
+    @Test
+    void comparesOptimisticAndPessimisticBookingUnderContention() throws Exception {
+        BookingServiceImpl target = AopTestUtils.getTargetObject(bookingService);
+        Object concurrencyMode = ReflectionTestUtils.getField(target, "concurrencyMode");
+        Map<String, LoadResult> results = new LinkedHashMap<>();
+        try {
+            for (String mode : MODES) {
+                ReflectionTestUtils.setField(target, "concurrencyMode", mode);
+                run(mode, WARMUP_ATTEMPTS_PER_THREAD, 7L);
+                results.put(mode, run(mode, ATTEMPTS_PER_THREAD, 42L));
+            }
+        } finally {
+            ReflectionTestUtils.setField(target, "concurrencyMode", concurrencyMode);
+        }
+
+        System.out.println(report(results));
+        for (LoadResult result : results.values()) {
+            assertThat(result.outcomes().keySet()).as("outcomes in %s mode", result.mode())
+                    .isSubsetOf(EXPECTED_OUTCOMES);
+            assertThat(result.count(BOOKED)).as("bookings in %s mode", result.mode()).isPositive();
+        }
+    }
+
+    /**
+     * One round on a fresh showtime. Both modes get the same seat pairs in the same order per thread, so they
+     * see the same overlaps.
+     */
+    private LoadResult run(String mode, int attemptsPerThread, long seed) throws Exception {
+        SeededShowtime showtime = fixture.showtime(movie.getId(), room.getId(), LocalDate.now().plusDays(1),
+                LocalTime.of(8, 0).plusMinutes(showtimesSeeded++), rows());
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<List<Attempt>>> futures = new ArrayList<>();
+        for (int thread = 0; thread < THREADS; thread++) {
+            Long userId = userIds.get(thread);
+            Random random = new Random(seed * 31 + thread);
+            futures.add(executor.submit(() -> {
+                start.await();
+                List<Attempt> attempts = new ArrayList<>(attemptsPerThread);
+                for (int i = 0; i < attemptsPerThread; i++) {
+                    attempts.add(attempt(userId, showtime, pickGroup(showtime, random)));
+                }
+                return attempts;
+            }));
+        }
+
+        List<Attempt> attempts = new ArrayList<>();
+        long begin = System.nanoTime();
+        start.countDown();
+        try {
+            for (Future<List<Attempt>> future : futures) {
+                attempts.addAll(future.get(5, TimeUnit.MINUTES));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        long wallNanos = System.nanoTime() - begin;
+
+        LoadResult result = new LoadResult(mode, attempts, wallNanos);
+        assertThat(fixture.inconsistentSeats(showtime)).as("double booked seats in %s mode", mode).isEmpty();
+        assertThat(fixture.bookedSeatCount(showtime)).as("booked seats in %s mode", mode)
+                .isEqualTo(result.count(BOOKED) * GROUP_SIZE);
+        return result;
+    }
+
+    private Attempt attempt(Long userId, SeededShowtime showtime, List<Long> seatIds) {
+        BookingRequest request = BookingRequest.builder()
+                .scheduleId(showtime.scheduleId())
+                .roomId(showtime.roomId())
+                .seatIds(seatIds)
+                .build();
+        long begin = System.nanoTime();
+        String outcome;
+        try {
+            bookingService.createBooking(userId, request);
+            outcome = BOOKED;
+        } catch (AppException e) {
+            outcome = e.getErrorCode().name();
+        } catch (RuntimeException e) {
+            outcome = e.getClass().getSimpleName();
+        }
+        return new Attempt(outcome, System.nanoTime() - begin);
+    }
+
+    /**
+     * Two adjacent seats of a random row, so groups overlap with their neighbours on either side
+     */
+    private static List<Long> pickGroup(SeededShowtime showtime, Random random) {
+        int first = random.nextInt(ROWS) * SEATS_PER_ROW + random.nextInt(SEATS_PER_ROW - GROUP_SIZE + 1);
+        return showtime.seatIds().subList(first, first + GROUP_SIZE);
+    }
+
+    private static SeatRow[] rows() {
+        return IntStream.range(0, ROWS)
+                .mapToObj(row -> new SeatRow(String.valueOf((char) ('A' + row)), SEATS_PER_ROW, TypeSeat.NORMAL, 80_000))
+                .toArray(SeatRow[]::new);
+    }
+
+    private static String report(Map<String, LoadResult> results) {
+        StringBuilder report = new StringBuilder(String.format("%n%-12s %9s %9s %12s %12s %9s %9s %9s  %s%n",
+                "mode", "attempts", "booked", "bookings/s", "attempts/s", "p50 ms", "p99 ms", "max ms", "outcomes"));
+        for (LoadResult result : results.values()) {
+            double seconds = result.wallNanos() / 1e9;
+            report.append(String.format("%-12s %9d %9d %12.1f %12.1f %9.2f %9.2f %9.2f  %s%n",
+                    result.mode(), result.attempts().size(), result.count(BOOKED),
+                    result.count(BOOKED) / seconds, result.attempts().size() / seconds,
+                    result.percentileMillis(0.50), result.percentileMillis(0.99), result.percentileMillis(1.0),
+                    result.outcomes()));
+        }
+        return report.toString();
+    }
+
+    private record Attempt(String outcome, long nanos) {
+    }
+
+    private record LoadResult(String mode, List<Attempt> attempts, long wallNanos) {
+
+        Map<String, Integer> outcomes() {
+            Map<String, Integer> outcomes = new TreeMap<>();
+            attempts.forEach(attempt -> outcomes.merge(attempt.outcome(), 1, Integer::sum));
+            return outcomes;
+        }
+
+        int count(String outcome) {
+            return outcomes().getOrDefault(outcome, 0);
+        }
+
+        double percentileMillis(double percentile) {
+            long[] nanos = attempts.stream().mapToLong(Attempt::nanos).sorted().toArray();
+            int index = Math.max(0, (int) Math.ceil(percentile * nanos.length) - 1);
+            return nanos[index] / 1e6;
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package com.booking.movieticket.service.impl;
+
+import com.booking.movieticket.dto.request.BookingRequest;
+import com.booking.movieticket.entity.Branch;
+import com.booking.movieticket.entity.Movie;
+import com.booking.movieticket.entity.Room;
+import com.booking.movieticket.entity.enums.RoomType;
+import com.booking.movieticket.entity.enums.TypeSeat;
+import com.booking.movieticket.exception.AppException;
+import com.booking.movieticket.exception.ErrorCode;
+import com.booking.movieticket.service.BookingService;
+import com.booking.movieticket.support.BookingFixture;
+import com.booking.movieticket.support.BookingFixture.SeatRow;
+import com.booking.movieticket.support.BookingFixture.SeededShowtime;
+import com.booking.movieticket.support.PostgresIntegrationTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Pessimistic seat locking on a real PostgreSQL: overlapping group bookings must never deadlock or double book,
+ * and bookings that cannot get a seat lock in time must fail with SEAT_LOCK_TIMEOUT through the database's own
+ * lock_timeout and NOWAIT.
+ */
+@PostgresIntegrationTest
+class BookingLockStressTest {
+
+    private static final int THREADS = 16;
+    private static final int ROUNDS = 20;
+    private static final int SEATS = 12;
+    private static final int GROUP_SIZE = 4;
+    // Long enough that only a deadlock, never a plain wait, can end in SEAT_LOCK_TIMEOUT
+    private static final long STRESS_LOCK_TIMEOUT_MS = 10_000;
+    private static final long SHORT_LOCK_TIMEOUT_MS = 200;
+    private static final String BOOKED = "BOOKED";
+
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private BookingFixture fixture;
+    @Autowired
+    private DataSource dataSource;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private BookingServiceImpl target;
+    private Object concurrencyMode;
+    private Object lockTimeoutMs;
+    private Movie movie;
+    private Room room;
+    private List<Long> userIds;
+    private int showtimesSeeded;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        target = AopTestUtils.getTargetObject(bookingService);
+        concurrencyMode = ReflectionTestUtils.getField(target, "concurrencyMode");
+        lockTimeoutMs = ReflectionTestUtils.getField(target, "lockTimeoutMs");
+        ReflectionTestUtils.setField(target, "concurrencyMode", "pessimistic");
+
+        movie = fixture.movie("Lock Stress", 100);
+        Branch branch = fixture.branch("Stress Cinema");
+        room = fixture.room(branch.getId(), RoomType.STANDARD);
+        userIds = IntStream.range(0, THREADS).mapToObj(i -> fixture.user().getId()).toList();
+        executor = Executors.newFixedThreadPool(THREADS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+        ReflectionTestUtils.setField(target, "concurrencyMode", concurrencyMode);
+        ReflectionTestUtils.setField(target, "lockTimeoutMs", lockTimeoutMs);
+    }
+
+    @Test
+    void overlappingGroupBookingsNeitherDeadlockNorDoubleBook() throws Exception {
+        ReflectionTestUtils.setField(target, "lockTimeoutMs", STRESS_LOCK_TIMEOUT_MS);
+        Random random = new Random(2024);
+
+        for (int round = 0; round < ROUNDS; round++) {
+            SeededShowtime showtime = showtime();
+            // Every thread asks for a random group of the same few seats, listed in random order
+            List<List<Long>> groups = new ArrayList<>();
+            for (int thread = 0; thread < THREADS; thread++) {
+                List<Long> seatIds = new ArrayList<>(showtime.seatIds());
+                Collections.shuffle(seatIds, random);
+                groups.add(List.copyOf(seatIds.subList(0, GROUP_SIZE)));
+            }
+
+            List<String> outcomes = bookAtOnce(showtime, groups);
+
+            long booked = outcomes.stream().filter(BOOKED::equals).count();
+            assertThat(outcomes).as("round %d", round)
+                    .containsOnly(BOOKED, ErrorCode.SEAT_ALREADY_BOOKED.name())
+                    .contains(BOOKED);
+            assertThat(fixture.inconsistentSeats(showtime)).as("round %d", round).isEmpty();
+            assertThat(fixture.bookedSeatCount(showtime)).as("round %d", round).isEqualTo((int) booked * GROUP_SIZE);
+        }
+    }
+
+    @Test
+    void bookingsWaitingOnALockedSeatTimeOutAndLeaveItAvailable() throws Exception {
+        ReflectionTestUtils.setField(target, "lockTimeoutMs", SHORT_LOCK_TIMEOUT_MS);
+        assertLosersTimeOutWhileASeatIsLocked(SHORT_LOCK_TIMEOUT_MS);
+    }
+
+    @Test
+    void noWaitBookingsOfALockedSeatFailAtOnceAndLeaveItAvailable() throws Exception {
+        ReflectionTestUtils.setField(target, "lockTimeoutMs", 0L);
+        assertLosersTimeOutWhileASeatIsLocked(0);
+    }
+
+    /**
+     * Another transaction holds the row lock of one seat while every thread tries to book a group containing it
+     */
+    private void assertLosersTimeOutWhileASeatIsLocked(long minimumWaitMs) throws Exception {
+        SeededShowtime showtime = showtime();
+        Long lockedSeatId = showtime.seatIds().get(0);
+        List<List<Long>> groups = IntStream.range(0, THREADS)
+                .mapToObj(thread -> List.of(showtime.seatIds().get(1 + thread % (SEATS - 1)), lockedSeatId))
+                .toList();
+
+        List<Long> elapsedMillis = new ArrayList<>();
+        List<String> outcomes;
+        try (Connection lockHolder = dataSource.getConnection()) {
+            lockHolder.setAutoCommit(false);
+            try (PreparedStatement lock = lockHolder.prepareStatement(
+                    "SELECT showtime_seat_id FROM showtime_seat WHERE showtime_seat_id = ? FOR UPDATE")) {
+                lock.setLong(1, lockedSeatId);
+                try (ResultSet rows = lock.executeQuery()) {
+                    assertThat(rows.next()).isTrue();
+                }
+            }
+            outcomes = bookAtOnce(showtime, groups, elapsedMillis);
+            lockHolder.rollback();
+        }
+
+        assertThat(outcomes).containsOnly(ErrorCode.SEAT_LOCK_TIMEOUT.name()).hasSize(THREADS);
+        assertThat(elapsedMillis).allSatisfy(millis -> assertThat(millis).isGreaterThanOrEqualTo(minimumWaitMs));
+        assertThat(fixture.bookedSeatCount(showtime)).isZero();
+        assertThat(jdbcTemplate.queryForObject("SELECT status FROM showtime_seat WHERE showtime_seat_id = ?",
+                String.class, lockedSeatId)).isEqualTo("AVAILABLE");
+
+        // Nothing was left locked or half written: the seat books normally once the holder is gone
+        assertThat(bookAtOnce(showtime, List.of(groups.get(0)))).containsExactly(BOOKED);
+    }
+
+    private List<String> bookAtOnce(SeededShowtime showtime, List<List<Long>> groups) throws Exception {
+        return bookAtOnce(showtime, groups, new ArrayList<>());
+    }
+
+    /**
+     * Start one booking per group on its own thread at the same moment and collect how each ended
+     */
+    private List<String> bookAtOnce(SeededShowtime showtime, List<List<Long>> groups, List<Long> elapsedMillis)
+            throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Long>> timings = new ArrayList<>();
+        List<String> outcomes = Collections.synchronizedList(new ArrayList<>());
+        for (int i = 0; i < groups.size(); i++) {
+            Long userId = userIds.get(i);
+            BookingRequest request = BookingRequest.builder()
+                    .scheduleId(showtime.scheduleId())
+                    .roomId(showtime.roomId())
+                    .seatIds(groups.get(i))
+                    .build();
+            timings.add(executor.submit(() -> {
+                start.await();
+                long begin = System.nanoTime();
+                try {
+                    bookingService.createBooking(userId, request);
+                    outcomes.add(BOOKED);
+                } catch (AppException e) {
+                    outcomes.add(e.getErrorCode().name());
+                }
+                return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - begin);
+            }));
+        }
+        start.countDown();
+        for (Future<Long> timing : timings) {
+            // A booking stuck on a lock far past every configured timeout fails here
+            elapsedMillis.add(timing.get(STRESS_LOCK_TIMEOUT_MS * 3, TimeUnit.MILLISECONDS));
+        }
+        return outcomes;
+    }
+
+    private SeededShowtime showtime() {
+        return fixture.showtime(movie.getId(), room.getId(), LocalDate.now().plusDays(2),
+                LocalTime.of(9, 0).plusMinutes(showtimesSeeded++), new SeatRow("A", SEATS, TypeSeat.NORMAL, 90_000));
+    }
+}
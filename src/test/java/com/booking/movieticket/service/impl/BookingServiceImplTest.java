@@ -0,0 +1,427 @@
+package com.booking.movieticket.service.impl;
+
+import com.booking.movieticket.dto.request.BookingRequest;
+import com.booking.movieticket.dto.response.BookingHistoryResponse;
+import com.booking.movieticket.dto.response.BookingResponse;
+import com.booking.movieticket.entity.Bill;
+import com.booking.movieticket.entity.BillDetail;
+import com.booking.movieticket.entity.BillFood;
+import com.booking.movieticket.entity.Booking;
+import com.booking.movieticket.entity.Branch;
+import com.booking.movieticket.entity.Cinema;
+import com.booking.movieticket.entity.Food;
+import com.booking.movieticket.entity.Movie;
+import com.booking.movieticket.entity.Room;
+import com.booking.movieticket.entity.Schedule;
+import com.booking.movieticket.entity.Seat;
+import com.booking.movieticket.entity.Showtime;
+import com.booking.movieticket.entity.ShowtimeSeat;
+import com.booking.movieticket.entity.User;
+import com.booking.movieticket.entity.compositekey.ShowtimeId;
+import com.booking.movieticket.entity.enums.BookingStatus;
+import com.booking.movieticket.entity.enums.RoomType;
+import com.booking.movieticket.entity.enums.StatusSeat;
+import com.booking.movieticket.event.BillPaidEvent;
+import com.booking.movieticket.event.SeatsBookedEvent;
+import com.booking.movieticket.exception.AppException;
+import com.booking.movieticket.exception.ErrorCode;
+import com.booking.movieticket.repository.BillRepository;
+import com.booking.movieticket.repository.BookingRepository;
+import com.booking.movieticket.repository.FoodRepository;
+import com.booking.movieticket.repository.ShowtimeRepository;
+import com.booking.movieticket.repository.ShowtimeSeatRepository;
+import com.booking.movieticket.repository.UserRepository;
+import com.booking.movieticket.repository.projection.BookingFoodView;
+import com.booking.movieticket.repository.projection.BookingHistoryView;
+import com.booking.movieticket.repository.projection.BookingSeatView;
+import com.booking.movieticket.service.seat.SeatHoldStore;
+import com.booking.movieticket.service.seat.SeatHoldTokenService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.data.projection.ProjectionFactory;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BookingServiceImplTest {
+
+    private static final long USER_ID = 5L;
+    private static final ShowtimeId SHOWTIME = new ShowtimeId(10L, 1L);
+    private static final ProjectionFactory PROJECTIONS = new SpelAwareProxyProjectionFactory();
+
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private ShowtimeRepository showtimeRepository;
+    @Mock
+    private ShowtimeSeatRepository showtimeSeatRepository;
+    @Mock
+    private BillRepository billRepository;
+    @Mock
+    private FoodRepository foodRepository;
+    @Mock
+    private BookingRepository bookingRepository;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private SeatHoldStore seatHoldStore;
+    @Mock
+    private SeatHoldTokenService seatHoldTokenService;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @InjectMocks
+    private BookingServiceImpl bookingService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(bookingService, "concurrencyMode", "pessimistic");
+        ReflectionTestUtils.setField(bookingService, "optimisticMaxAttempts", 3);
+        ReflectionTestUtils.setField(bookingService, "lockTimeoutMs", 3000L);
+
+        User user = new User();
+        user.setId(USER_ID);
+        user.setEmail("alice@example.com");
+        lenient().when(userRepository.findById(USER_ID)).thenReturn(Optional.of(user));
+        lenient().when(showtimeRepository.findById(SHOWTIME)).thenReturn(Optional.of(showtime()));
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        lenient().when(bookingRepository.save(any(Booking.class))).thenAnswer(invocation -> {
+            Booking booking = invocation.getArgument(0);
+            booking.setId(100L);
+            return booking;
+        });
+        lenient().when(billRepository.save(any(Bill.class))).thenAnswer(invocation -> {
+            Bill bill = invocation.getArgument(0);
+            bill.setId(200L);
+            return bill;
+        });
+    }
+
+    @Test
+    void booksSeatsAndFoodsWithOneFoodQueryAndASingleBillSave() {
+        ShowtimeSeat first = showtimeSeat(11, "A", "1", 10.0, StatusSeat.AVAILABLE);
+        ShowtimeSeat second = showtimeSeat(12, "A", "2", 12.0, StatusSeat.AVAILABLE);
+        when(showtimeSeatRepository.findAllByIdsForUpdate(List.of(11L, 12L))).thenReturn(List.of(first, second));
+        when(foodRepository.findAllById(anyIterable())).thenReturn(List.of(food(1, "Popcorn", 5.0), food(2, "Soda", 3.5)));
+
+        BookingResponse response = bookingService.createBooking(USER_ID, request(List.of(12L, 11L),
+                new BookingRequest.FoodOrderItem(1L, 2), new BookingRequest.FoodOrderItem(2L, 1)));
+
+        assertThat(response.getTotalAmount()).isEqualTo(35.5);
+        assertThat(response.getSeats()).containsExactly("A1", "A2");
+        assertThat(response.getFoodItems()).extracting(BookingResponse.FoodItem::getName).containsExactlyInAnyOrder("Popcorn", "Soda");
+        verify(foodRepository).findAllById(Set.of(1L, 2L));
+
+        // Seats are managed entities updated in place; the bill is saved once with its foods and details cascaded
+        assertThat(List.of(first, second)).allSatisfy(seat -> {
+            assertThat(seat.getStatus()).isEqualTo(StatusSeat.BOOKED);
+            assertThat(seat.getBooking().getId()).isEqualTo(100L);
+        });
+        verify(showtimeSeatRepository, never()).saveAll(any());
+        ArgumentCaptor<Bill> bill = ArgumentCaptor.forClass(Bill.class);
+        verify(billRepository).save(bill.capture());
+        assertThat(bill.getValue().getBillFoods()).extracting(BillFood::getQuantity).containsExactlyInAnyOrder(2, 1);
+        assertThat(bill.getValue().getBillDetails()).extracting(BillDetail::getShowtimeSeat).containsExactlyInAnyOrder(first, second);
+
+        verify(eventPublisher).publishEvent(any(SeatsBookedEvent.class));
+        verify(eventPublisher).publishEvent(any(BillPaidEvent.class));
+    }
+
+    @Test
+    void bookingWithoutFoodsDoesNotQueryFoods() {
+        when(showtimeSeatRepository.findAllByIdsForUpdate(List.of(11L)))
+                .thenReturn(List.of(showtimeSeat(11, "A", "1", 10.0, StatusSeat.AVAILABLE)));
+
+        BookingResponse response = bookingService.createBooking(USER_ID, request(List.of(11L)));
+
+        assertThat(response.getTotalAmount()).isEqualTo(10.0);
+        assertThat(response.getFoodItems()).isEmpty();
+        verify(foodRepository, never()).findAllById(any());
+    }
+
+    @Test
+    void unknownFoodFailsBeforeAnythingIsSaved() {
+        when(showtimeSeatRepository.findAllByIdsForUpdate(List.of(11L)))
+                .thenReturn(List.of(showtimeSeat(11, "A", "1", 10.0, StatusSeat.AVAILABLE)));
+        when(foodRepository.findAllById(anyIterable())).thenReturn(List.of(food(1, "Popcorn", 5.0)));
+
+        assertThatThrownBy(() -> bookingService.createBooking(USER_ID, request(List.of(11L),
+                new BookingRequest.FoodOrderItem(1L, 1), new BookingRequest.FoodOrderItem(9L, 1))))
+                .isInstanceOfSatisfying(AppException.class, e -> assertThat(e.getErrorCode()).isEqualTo(ErrorCode.FOOD_NOT_FOUND));
+        verify(bookingRepository, never()).save(any());
+        verify(billRepository, never()).save(any());
+    }
+
+    @Test
+    void optimisticModeReadsSeatsUnlockedAndWritesThemBeforeTheBill() {
+        ReflectionTestUtils.setField(bookingService, "concurrencyMode", "optimistic");
+        when(showtimeSeatRepository.findAllById(List.of(11L, 12L))).thenReturn(List.of(
+                showtimeSeat(11, "A", "1", 10.0, StatusSeat.AVAILABLE), showtimeSeat(12, "A", "2", 10.0, StatusSeat.AVAILABLE)));
+
+        bookingService.createBooking(USER_ID, request(List.of(12L, 11L)));
+
+        verify(showtimeSeatRepository, never()).findAllByIdsForUpdate(any());
+        verify(showtimeSeatRepository, never()).findAllByIdsForUpdateNoWait(any());
+        InOrder inOrder = inOrder(showtimeSeatRepository, billRepository);
+        inOrder.verify(showtimeSeatRepository).flush();
+        inOrder.verify(billRepository).save(any(Bill.class));
+    }
+
+    @Test
+    void optimisticModeRetriesABookingThatLostASeatRace() {
+        ReflectionTestUtils.setField(bookingService, "concurrencyMode", "optimistic");
+        // Every attempt reads the seats afresh
+        when(showtimeSeatRepository.findAllById(List.of(11L)))
+                .thenAnswer(invocation -> List.of(showtimeSeat(11, "A", "1", 10.0, StatusSeat.AVAILABLE)));
+        doThrow(new ObjectOptimisticLockingFailureException(ShowtimeSeat.class, 11L))
+                .doNothing()
+                .when(showtimeSeatRepository).flush();
+
+        BookingResponse response = bookingService.createBooking(USER_ID, request(List.of(11L)));
+
+        assertThat(response.getBookingId()).isEqualTo(100L);
+        verify(transactionTemplate, times(2)).execute(any());
+        verify(billRepository, times(1)).save(any(Bill.class));
+    }
+
+    @Test
+    void optimisticModeGivesUpAfterTheConfiguredAttempts() {
+        ReflectionTestUtils.setField(bookingService, "concurrencyMode", "optimistic");
+        when(showtimeSeatRepository.findAllById(List.of(11L)))
+                .thenAnswer(invocation -> List.of(showtimeSeat(11, "A", "1", 10.0, StatusSeat.AVAILABLE)));
+        doThrow(new ObjectOptimisticLockingFailureException(ShowtimeSeat.class, 11L)).when(showtimeSeatRepository).flush();
+
+        assertThatThrownBy(() -> bookingService.createBooking(USER_ID, request(List.of(11L))))
+                .isInstanceOfSatisfying(AppException.class, e -> assertThat(e.getErrorCode()).isEqualTo(ErrorCode.BOOKING_CONFLICT));
+        verify(transactionTemplate, times(3)).execute(any());
+        verify(billRepository, never()).save(any());
+    }
+
+    @Test
+    void optimisticModeReportsASeatTakenMeanwhileWithoutRetrying() {
+        ReflectionTestUtils.setField(bookingService, "concurrencyMode", "optimistic");
+        when(showtimeSeatRepository.findAllById(List.of(11L)))
+                .thenReturn(List.of(showtimeSeat(11, "A", "1", 10.0, StatusSeat.BOOKED)));
+
+        assertThatThrownBy(() -> bookingService.createBooking(USER_ID, request(List.of(11L))))
+                .isInstanceOfSatisfying(AppException.class, e -> assertThat(e.getErrorCode()).isEqualTo(ErrorCode.SEAT_ALREADY_BOOKED));
+        verify(transactionTemplate, times(1)).execute(any());
+    }
+
+    @Test
+    void locksEverySeatInOnePassInIdOrderWithinTheLockTimeout() {
+        when(showtimeSeatRepository.findAllByIdsForUpdate(List.of(11L, 12L, 15L))).thenReturn(List.of(
+                showtimeSeat(11, "A", "1", 10.0, StatusSeat.AVAILABLE),
+                showtimeSeat(12, "A", "2", 10.0, StatusSeat.AVAILABLE),
+                showtimeSeat(15, "B", "1", 10.0, StatusSeat.AVAILABLE)));
+
+        bookingService.createBooking(USER_ID, request(List.of(15L, 11L, 12L)));
+
+        InOrder inOrder = inOrder(showtimeSeatRepository);
+        inOrder.verify(showtimeSeatRepository).setLocalLockTimeout("3000ms");
+        inOrder.verify(showtimeSeatRepository).findAllByIdsForUpdate(List.of(11L, 12L, 15L));
+        verify(showtimeSeatRepository, times(1)).findAllByIdsForUpdate(any());
+    }
+
+    @Test
+    void zeroLockTimeoutLocksWithNoWait() {
+        ReflectionTestUtils.setField(bookingService, "lockTimeoutMs", 0L);
+        when(showtimeSeatRepository.findAllByIdsForUpdateNoWait(List.of(11L)))
+                .thenReturn(List.of(showtimeSeat(11, "A", "1", 10.0, StatusSeat.AVAILABLE)));
+
+        bookingService.createBooking(USER_ID, request(List.of(11L)));
+
+        verify(showtimeSeatRepository, never()).setLocalLockTimeout(any());
+        verify(showtimeSeatRepository, never()).findAllByIdsForUpdate(any());
+    }
+
+    @Test
+    void seatLockTimeoutIsReportedAsRetriable() {
+        when(showtimeSeatRepository.findAllByIdsForUpdate(List.of(11L, 12L)))
+                .thenThrow(new CannotAcquireLockException("canceling statement due to lock timeout"));
+
+        assertThatThrownBy(() -> bookingService.createBooking(USER_ID, request(List.of(12L, 11L))))
+                .isInstanceOfSatisfying(AppException.class, e -> assertThat(e.getErrorCode()).isEqualTo(ErrorCode.SEAT_LOCK_TIMEOUT));
+        verify(bookingRepository, never()).save(any());
+    }
+
+    @Test
+    void lockedSeatAlreadyBookedIsRejected() {
+        when(showtimeSeatRepository.findAllByIdsForUpdate(List.of(11L, 12L))).thenReturn(List.of(
+                showtimeSeat(11, "A", "1", 10.0, StatusSeat.AVAILABLE),
+                showtimeSeat(12, "A", "2", 10.0, StatusSeat.BOOKED)));
+
+        assertThatThrownBy(() -> bookingService.createBooking(USER_ID, request(List.of(11L, 12L))))
+                .isInstanceOfSatisfying(AppException.class, e -> assertThat(e.getErrorCode()).isEqualTo(ErrorCode.SEAT_ALREADY_BOOKED));
+        verify(bookingRepository, never()).save(any());
+    }
+
+    @Test
+    void historyLoadsTheSeatsAndFoodsOfAPageInOneQueryEach() {
+        LocalDateTime now = LocalDateTime.of(2025, 5, 2, 20, 0);
+        when(userRepository.existsById(USER_ID)).thenReturn(true);
+        when(bookingRepository.findHistoryFirstPage(eq(USER_ID), any())).thenReturn(List.of(
+                historyRow(3, now), historyRow(2, now.minusDays(1)), historyRow(1, now.minusDays(2))));
+        when(showtimeSeatRepository.findSeatLabelsByBookingIds(List.of(3L, 2L, 1L))).thenReturn(List.of(
+                projection(BookingSeatView.class, Map.of("bookingId", 3L, "rowName", "B", "columnName", "2")),
+                projection(BookingSeatView.class, Map.of("bookingId", 3L, "rowName", "A", "columnName", "1")),
+                projection(BookingSeatView.class, Map.of("bookingId", 1L, "rowName", "C", "columnName", "4"))));
+        when(billRepository.findFoodsByBookingIds(List.of(3L, 2L, 1L))).thenReturn(List.of(
+                projection(BookingFoodView.class, Map.of("bookingId", 2L, "name", "Popcorn", "quantity", 2, "price", 10.0))));
+
+        List<BookingHistoryResponse> history = bookingService.getUserBookingHistory(USER_ID);
+
+        assertThat(history).extracting(BookingHistoryResponse::getBookingId).containsExactly(3L, 2L, 1L);
+        assertThat(history.get(0).getSeats()).containsExactly("A1", "B2");
+        assertThat(history.get(1).getSeats()).isEmpty();
+        assertThat(history.get(1).getFoodItems()).extracting(BookingHistoryResponse.FoodItem::getName).containsExactly("Popcorn");
+        assertThat(history.get(2).getFoodItems()).isEmpty();
+        assertThat(history.get(0).getMovie().getEndTime()).isEqualTo(LocalTime.of(21, 30));
+        verify(billRepository, never()).findByBooking(any());
+        verify(bookingRepository, never()).findHistoryPageAfter(any(), any(), any(), any());
+    }
+
+    @Test
+    void historyWalksEveryKeysetPage() {
+        LocalDateTime now = LocalDateTime.of(2025, 5, 2, 20, 0);
+        List<BookingHistoryView> firstPage = new ArrayList<>();
+        for (long bookingId = 300; bookingId > 100; bookingId--) {
+            firstPage.add(historyRow(bookingId, now.minusMinutes(300 - bookingId)));
+        }
+        LocalDateTime lastTime = now.minusMinutes(199);
+        when(userRepository.existsById(USER_ID)).thenReturn(true);
+        when(bookingRepository.findHistoryFirstPage(eq(USER_ID), any())).thenReturn(firstPage);
+        when(bookingRepository.findHistoryPageAfter(eq(USER_ID), eq(lastTime), eq(101L), any()))
+                .thenReturn(List.of(historyRow(100, lastTime.minusMinutes(1))));
+
+        List<BookingHistoryResponse> history = bookingService.getUserBookingHistory(USER_ID);
+
+        assertThat(history).hasSize(201);
+        assertThat(history.get(200).getBookingId()).isEqualTo(100L);
+        verify(showtimeSeatRepository, times(2)).findSeatLabelsByBookingIds(anyCollection());
+        verify(billRepository, times(2)).findFoodsByBookingIds(anyCollection());
+    }
+
+    @Test
+    void historyOfAnUnknownUserFails() {
+        when(userRepository.existsById(USER_ID)).thenReturn(false);
+
+        assertThatThrownBy(() -> bookingService.getUserBookingHistory(USER_ID))
+                .isInstanceOfSatisfying(AppException.class, e -> assertThat(e.getErrorCode()).isEqualTo(ErrorCode.USER_NOT_FOUND));
+        verify(bookingRepository, never()).findHistoryFirstPage(any(), any());
+    }
+
+    private static BookingHistoryView historyRow(long bookingId, LocalDateTime bookingTime) {
+        Map<String, Object> row = new HashMap<>();
+        row.put("bookingId", bookingId);
+        row.put("bookingCode", "MV" + bookingId);
+        row.put("bookingTime", bookingTime);
+        row.put("totalAmount", 20.0);
+        row.put("status", BookingStatus.CONFIRMED);
+        row.put("paymentMethod", "CASH");
+        row.put("paymentStatus", "PAID");
+        row.put("movieId", 7L);
+        row.put("movieName", "Dune");
+        row.put("movieDuration", 150);
+        row.put("scheduleDate", bookingTime.toLocalDate());
+        row.put("timeStart", LocalTime.of(19, 0));
+        row.put("roomType", RoomType.STANDARD);
+        row.put("roomName", "Room 1");
+        row.put("cinemaName", "Galaxy");
+        row.put("branchAddress", "1 Main Street");
+        return projection(BookingHistoryView.class, row);
+    }
+
+    private static <T> T projection(Class<T> type, Map<String, Object> values) {
+        return PROJECTIONS.createProjection(type, values);
+    }
+
+    private static BookingRequest request(List<Long> seatIds, BookingRequest.FoodOrderItem... foodItems) {
+        return BookingRequest.builder()
+                .scheduleId(SHOWTIME.getScheduleId())
+                .roomId(SHOWTIME.getRoomId())
+                .seatIds(seatIds)
+                .foodItems(List.of(foodItems))
+                .build();
+    }
+
+    private static Showtime showtime() {
+        Cinema cinema = new Cinema();
+        cinema.setName("Galaxy");
+        Branch branch = new Branch();
+        branch.setAddress("1 Main Street");
+        branch.setCinema(cinema);
+        Room room = new Room();
+        room.setName("Room 1");
+        room.setBranch(branch);
+        Movie movie = new Movie();
+        movie.setId(7L);
+        movie.setName("Dune");
+        movie.setDuration(150);
+        Schedule schedule = new Schedule();
+        schedule.setDate(LocalDate.of(2025, 5, 2));
+        schedule.setTimeStart(LocalTime.of(19, 0));
+        schedule.setMovie(movie);
+        Showtime showtime = new Showtime();
+        showtime.setId(SHOWTIME);
+        showtime.setSchedule(schedule);
+        showtime.setRoom(room);
+        return showtime;
+    }
+
+    private static ShowtimeSeat showtimeSeat(long id, String row, String column, double price, StatusSeat status) {
+        Seat seat = new Seat();
+        seat.setRowName(row);
+        seat.setColumnName(column);
+        ShowtimeSeat showtimeSeat = new ShowtimeSeat();
+        showtimeSeat.setId(id);
+        showtimeSeat.setSeat(seat);
+        showtimeSeat.setPrice(price);
+        showtimeSeat.setStatus(status);
+        return showtimeSeat;
+    }
+
+    private static Food food(long id, String name, double price) {
+        Food food = new Food();
+        food.setId(id);
+        food.setName(name);
+        food.setPrice(price);
+        return food;
+    }
+}
@@ -0,0 +1,118 @@
+package com.booking.movieticket.service.impl;
+
+import com.booking.movieticket.dto.request.BookingRequest;
+import com.booking.movieticket.dto.response.BookingResponse;
+import com.booking.movieticket.entity.Branch;
+import com.booking.movieticket.entity.Food;
+import com.booking.movieticket.entity.Movie;
+import com.booking.movieticket.entity.Room;
+import com.booking.movieticket.entity.User;
+import com.booking.movieticket.entity.enums.RoomType;
+import com.booking.movieticket.entity.enums.TypeSeat;
+import com.booking.movieticket.service.BookingService;
+import com.booking.movieticket.support.BookingFixture;
+import com.booking.movieticket.support.BookingFixture.SeatRow;
+import com.booking.movieticket.support.BookingFixture.SeededShowtime;
+import com.booking.movieticket.support.PostgresIntegrationTest;
+import com.booking.movieticket.support.SqlStatementRecorder;
+import com.booking.movieticket.support.SqlStatementRecorder.Statement;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The statements one booking sends to PostgreSQL, recorded on the JDBC connection: the reads it needs, the single
+ * locking read of its seats, and the writes Hibernate flushes at commit, grouped into JDBC batches.
+ */
+@PostgresIntegrationTest
+class BookingStatementCountTest {
+
+    private static final int SEATS = 3;
+
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private BookingFixture fixture;
+    @Autowired
+    private SqlStatementRecorder recorder;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void pessimisticBookingLocksOnceAndBatchesItsWrites() {
+        User user = fixture.user();
+        Movie movie = fixture.movie("Statement Count", 120);
+        Branch branch = fixture.branch("Galaxy");
+        Room room = fixture.room(branch.getId(), RoomType.STANDARD);
+        SeededShowtime showtime = fixture.showtime(movie.getId(), room.getId(), LocalDate.now().plusDays(1),
+                LocalTime.of(19, 0), new SeatRow("A", 5, TypeSeat.NORMAL, 80_000));
+        Food popcorn = fixture.food("Popcorn", 50_000);
+        Food soda = fixture.food("Soda", 30_000);
+
+        BookingRequest request = BookingRequest.builder()
+                .scheduleId(showtime.scheduleId())
+                .roomId(showtime.roomId())
+                .seatIds(showtime.seatIds().subList(0, SEATS))
+                .foodItems(List.of(new BookingRequest.FoodOrderItem(popcorn.getId(), 2),
+                        new BookingRequest.FoodOrderItem(soda.getId(), 1)))
+                .build();
+
+        BookingServiceImpl target = AopTestUtils.getTargetObject(bookingService);
+        Object concurrencyMode = ReflectionTestUtils.getField(target, "concurrencyMode");
+        ReflectionTestUtils.setField(target, "concurrencyMode", "pessimistic");
+        AtomicReference<BookingResponse> response = new AtomicReference<>();
+        List<Statement> statements;
+        try {
+            statements = recorder.record(() -> response.set(bookingService.createBooking(user.getId(), request)));
+        } finally {
+            ReflectionTestUtils.setField(target, "concurrencyMode", concurrencyMode);
+        }
+
+        assertThat(response.get().getSeats()).containsExactly("A1", "A2", "A3");
+        assertThat(response.get().getTotalAmount()).isEqualTo(3 * 80_000 + 2 * 50_000 + 30_000.0);
+
+        // Reads: the foods in one query, the seats locked in one query
+        assertThat(matching(statements, s -> s.sql().startsWith("select") && s.sql().contains(" from foods ")))
+                .hasSize(1);
+        assertThat(matching(statements, s -> s.sql().startsWith("select") && s.sql().contains(" from showtime_seat ")
+                && (s.sql().contains(" for update") || s.sql().contains(" for no key update"))))
+                .hasSize(1);
+
+        // Writes: one execution per table, the per-seat and per-line rows sent as one JDBC batch each
+        assertThat(matching(statements, s -> s.sql().startsWith("insert into bookings ")))
+                .extracting(Statement::batchSize).containsExactly(1);
+        assertThat(matching(statements, s -> s.sql().startsWith("insert into bill ")))
+                .extracting(Statement::batchSize).containsExactly(1);
+        assertThat(matching(statements, s -> s.sql().startsWith("insert into bill_detail ")))
+                .extracting(Statement::batchSize).containsExactly(SEATS);
+        assertThat(matching(statements, s -> s.sql().startsWith("insert into bill_food ")))
+                .extracting(Statement::batchSize).containsExactly(2);
+        assertThat(matching(statements, s -> s.sql().startsWith("update showtime_seat ")))
+                .extracting(Statement::batchSize).containsExactly(SEATS);
+        assertThat(matching(statements, s -> s.sql().startsWith("update bill "))).isEmpty();
+        assertThat(matching(statements, Statement::isWrite)).hasSize(5);
+
+        // And the batches really reached the database
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM bill_detail bd JOIN bill b ON b.bill_id = bd.bill_id "
+                        + "JOIN bookings bk ON bk.booking_id = b.booking_id WHERE bk.booking_id = ?",
+                Integer.class, response.get().getBookingId())).isEqualTo(SEATS);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM showtime_seat WHERE booking_id = ? AND status = 'BOOKED'",
+                Integer.class, response.get().getBookingId())).isEqualTo(SEATS);
+    }
+
+    private static List<Statement> matching(List<Statement> statements, Predicate<Statement> filter) {
+        return statements.stream().filter(filter).toList();
+    }
+}
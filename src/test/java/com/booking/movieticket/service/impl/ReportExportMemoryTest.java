@@ -0,0 +1,139 @@
+package com.booking.movieticket.service.impl;
+
+import com.booking.movieticket.repository.BookingRepository;
+import com.booking.movieticket.repository.ShowtimeRepository;
+import com.booking.movieticket.repository.projection.SalesReportRowView;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+/**
+ * Heap used while a million-row sales report is exported. The rows are generated as the export pulls them and the
+ * file goes to a stream that only counts bytes, so the only thing holding memory is the workbook.
+ * <p>
+ * Two numbers are reported: the peak of every heap pool while exporting, garbage included, and the live heap
+ * after a full GC taken every 100,000 rows, which is what the export really retains. Only the latter is asserted.
+ * <p>
+ * Tagged benchmark, so it only runs with {@code ./gradlew benchmarkTest}.
+ */
+@Tag("benchmark")
+@ExtendWith(MockitoExtension.class)
+class ReportExportMemoryTest {
+
+    private static final LocalDate START = LocalDate.of(2025, 1, 1);
+    private static final LocalDate END = LocalDate.of(2025, 12, 31);
+    private static final int ROWS = 1_000_000;
+    private static final int SAMPLE_EVERY = 100_000;
+    // Holding the rows, as the in-memory workbook did, would take several hundred MB
+    private static final long MAX_RETAINED_GROWTH = 64L * 1024 * 1024;
+
+    @Mock
+    private BookingRepository bookingRepository;
+    @Mock
+    private ShowtimeRepository showtimeRepository;
+
+    @InjectMocks
+    private ReportServiceImpl reportService;
+
+    @Test
+    void millionRowSalesExportRetainsBoundedHeap() throws IOException {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        List<MemoryPoolMXBean> heapPools = ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .toList();
+
+        AtomicLong maxRetained = new AtomicLong();
+        Stream<SalesReportRowView> rows = IntStream.range(0, ROWS).mapToObj(i -> {
+            if (i % SAMPLE_EVERY == 0) {
+                maxRetained.accumulateAndGet(retainedHeap(memory), Math::max);
+            }
+            return new Row("Movie " + (i % 500), i % 3 == 0 ? "IMAX" : "2D", START.plusDays(i % 365),
+                    i * 10.0, (long) i % 300);
+        });
+        when(bookingRepository.streamSalesReport(START, END, null)).thenReturn(rows);
+        CountingOutputStream out = new CountingOutputStream();
+
+        long baseline = retainedHeap(memory);
+        heapPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+        long begin = System.nanoTime();
+        reportService.exportSalesReport(START, END, null, out);
+        long millis = (System.nanoTime() - begin) / 1_000_000;
+        long peak = heapPools.stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum();
+
+        System.out.printf("%nSales export, %,d rows: %,d KB written in %,d ms%n", ROWS, out.count / 1024, millis);
+        System.out.printf("heap before export       %,12d KB%n", baseline / 1024);
+        System.out.printf("peak heap during export  %,12d KB (sum of pool peaks, garbage included, max heap %,d KB)%n",
+                peak / 1024, memory.getHeapMemoryUsage().getMax() / 1024);
+        System.out.printf("max live heap (after GC) %,12d KB, %,d KB above the baseline%n",
+                maxRetained.get() / 1024, (maxRetained.get() - baseline) / 1024);
+
+        assertThat(out.count).isPositive();
+        assertThat(maxRetained.get() - baseline).isLessThan(MAX_RETAINED_GROWTH);
+    }
+
+    private static long retainedHeap(MemoryMXBean memory) {
+        System.gc();
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+
+    private record Row(String movieName, String format, LocalDate date, Double revenue, Long tickets)
+            implements SalesReportRowView {
+
+        @Override
+        public String getMovieName() {
+            return movieName;
+        }
+
+        @Override
+        public String getFormat() {
+            return format;
+        }
+
+        @Override
+        public LocalDate getDate() {
+            return date;
+        }
+
+        @Override
+        public Double getRevenue() {
+            return revenue;
+        }
+
+        @Override
+        public Long getTickets() {
+            return tickets;
+        }
+    }
+
+    private static class CountingOutputStream extends OutputStream {
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
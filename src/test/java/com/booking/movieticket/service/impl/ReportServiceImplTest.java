@@ -0,0 +1,121 @@
+package com.booking.movieticket.service.impl;
+
+import com.booking.movieticket.repository.BookingRepository;
+import com.booking.movieticket.repository.ShowtimeRepository;
+import com.booking.movieticket.repository.projection.AttendanceReportRowView;
+import com.booking.movieticket.repository.projection.SalesReportRowView;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.projection.ProjectionFactory;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReportServiceImplTest {
+
+    private static final LocalDate START = LocalDate.of(2025, 5, 1);
+    private static final LocalDate END = LocalDate.of(2025, 5, 31);
+    // Well past the rows the streaming workbook keeps in memory
+    private static final int ROWS = 1000;
+    private static final ProjectionFactory PROJECTIONS = new SpelAwareProxyProjectionFactory();
+
+    @Mock
+    private BookingRepository bookingRepository;
+    @Mock
+    private ShowtimeRepository showtimeRepository;
+
+    @InjectMocks
+    private ReportServiceImpl reportService;
+
+    @Test
+    void salesExportWritesEveryStreamedRowAndClosesTheStream() throws IOException {
+        AtomicBoolean closed = new AtomicBoolean();
+        Stream<SalesReportRowView> rows = IntStream.range(0, ROWS)
+                .mapToObj(i -> PROJECTIONS.createProjection(SalesReportRowView.class, Map.of(
+                        "movieName", "Movie " + i,
+                        "format", "IMAX",
+                        "date", START.plusDays(i % 31),
+                        "revenue", i * 10.0,
+                        "tickets", (long) i)))
+                .onClose(() -> closed.set(true));
+        when(bookingRepository.streamSalesReport(START, END, "SHOWING")).thenReturn(rows);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        reportService.exportSalesReport(START, END, "SHOWING", out);
+
+        assertThat(closed).isTrue();
+        verify(bookingRepository).streamSalesReport(START, END, "SHOWING");
+        verifyNoInteractions(showtimeRepository);
+        try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()))) {
+            Sheet sheet = workbook.getSheet("Sales Report");
+            assertThat(sheet.getLastRowNum()).isEqualTo(ROWS);
+            assertThat(sheet.getRow(0).getCell(0).getStringCellValue()).isEqualTo("Movie");
+            assertThat(sheet.getRow(0).getCell(4).getStringCellValue()).isEqualTo("Tickets");
+
+            Row last = sheet.getRow(ROWS);
+            assertThat(last.getCell(0).getStringCellValue()).isEqualTo("Movie 999");
+            assertThat(last.getCell(1).getStringCellValue()).isEqualTo("IMAX");
+            assertThat(last.getCell(2).getStringCellValue()).isEqualTo("08/05/2025");
+            assertThat(last.getCell(3).getNumericCellValue()).isEqualTo(9990.0);
+            assertThat(last.getCell(4).getNumericCellValue()).isEqualTo(999.0);
+        }
+    }
+
+    @Test
+    void attendanceExportWritesEveryStreamedRow() throws IOException {
+        Stream<AttendanceReportRowView> rows = IntStream.range(0, ROWS)
+                .mapToObj(i -> PROJECTIONS.createProjection(AttendanceReportRowView.class, Map.of(
+                        "movieName", "Movie " + i,
+                        "cinemaName", "Galaxy",
+                        "date", START,
+                        "attendance", (long) i * 2)));
+        when(showtimeRepository.streamAttendanceReport(START, END, null)).thenReturn(rows);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        reportService.exportAttendanceReport(START, END, null, out);
+
+        try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()))) {
+            Sheet sheet = workbook.getSheet("Attendance Report");
+            assertThat(sheet.getLastRowNum()).isEqualTo(ROWS);
+            assertThat(sheet.getRow(0).getCell(3).getStringCellValue()).isEqualTo("Attendance");
+            assertThat(sheet.getRow(1).getCell(0).getStringCellValue()).isEqualTo("Movie 0");
+            assertThat(sheet.getRow(ROWS).getCell(1).getStringCellValue()).isEqualTo("Galaxy");
+            assertThat(sheet.getRow(ROWS).getCell(2).getStringCellValue()).isEqualTo("01/05/2025");
+            assertThat(sheet.getRow(ROWS).getCell(3).getNumericCellValue()).isEqualTo(1998.0);
+        }
+    }
+
+    @Test
+    void failedExportStillClosesTheStream() {
+        AtomicBoolean closed = new AtomicBoolean();
+        Stream<SalesReportRowView> rows = Stream.<SalesReportRowView>generate(() -> {
+                    throw new IllegalStateException("cursor lost");
+                })
+                .onClose(() -> closed.set(true));
+        when(bookingRepository.streamSalesReport(START, END, null)).thenReturn(rows);
+
+        assertThatThrownBy(() -> reportService.exportSalesReport(START, END, null, new ByteArrayOutputStream()))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(closed).isTrue();
+    }
+}
@@ -0,0 +1,172 @@
+package com.booking.movieticket.service.impl;
+
+import com.booking.movieticket.dto.response.RevenueByCategoryDTO.CategoryRevenuePoint;
+import com.booking.movieticket.dto.response.RevenueDashboardDTO;
+import com.booking.movieticket.dto.response.RevenueTimeSeriesDTO.DateRevenuePoint;
+import com.booking.movieticket.entity.Branch;
+import com.booking.movieticket.entity.Movie;
+import com.booking.movieticket.entity.Room;
+import com.booking.movieticket.entity.enums.RoomType;
+import com.booking.movieticket.entity.enums.TypeSeat;
+import com.booking.movieticket.service.RevenueAnalyticsService;
+import com.booking.movieticket.support.BookingFixture;
+import com.booking.movieticket.support.BookingFixture.SeatRow;
+import com.booking.movieticket.support.BookingFixture.SeededShowtime;
+import com.booking.movieticket.support.PostgresIntegrationTest;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The dashboard must return exactly what the single-breakdown endpoints return, both answered by PostgreSQL from
+ * the same revenue_rollup rows. The seeded bills cover several dates and start hours, movies and cinemas tied on
+ * revenue, a room without a branch (no cinema) and seats without a type, so the GROUPING() bitmasks,
+ * COUNT(DISTINCT) under grouping sets, NULL groups and tie ordering all come from the real database.
+ * <p>
+ * The dates are years ahead of the other tests' bookings, so the shared database adds nothing to this range.
+ */
+@PostgresIntegrationTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class RevenueAnalyticsServiceImplTest {
+
+    private static final LocalDate START = LocalDate.of(2031, 3, 1);
+    private static final LocalDate END = START.plusDays(6);
+
+    @Autowired
+    private RevenueAnalyticsService revenueAnalyticsService;
+    @Autowired
+    private BookingFixture fixture;
+
+    private Movie alpha;
+    private Movie bravo;
+    private Movie charlie;
+    private Movie delta;
+    private Branch galaxy;
+    private Branch lotte;
+    private Branch cgv;
+
+    @BeforeAll
+    void seed() {
+        Long userId = fixture.user().getId();
+        alpha = fixture.movie("Alpha", 120);
+        bravo = fixture.movie("Bravo", 95);
+        charlie = fixture.movie("Charlie", 100);
+        delta = fixture.movie("Delta", 105);
+        galaxy = fixture.branch("Galaxy");
+        lotte = fixture.branch("Lotte");
+        cgv = fixture.branch("CGV");
+        Room galaxyRoom = fixture.room(galaxy.getId(), RoomType.STANDARD);
+        Room lotteRoom = fixture.room(lotte.getId(), RoomType.IMAX);
+        Room cgvRoom = fixture.room(cgv.getId(), RoomType.THREE_D);
+        Room branchlessRoom = fixture.room(null, RoomType.STANDARD);
+
+        // Day 1, 10:00, Alpha at Galaxy: 540 over 5 tickets, including a seat without a type
+        SeededShowtime s1 = fixture.showtime(alpha.getId(), galaxyRoom.getId(), START.plusDays(1), LocalTime.of(10, 0),
+                new SeatRow("A", 5, TypeSeat.NORMAL, 100), new SeatRow("B", 3, TypeSeat.VIP, 150),
+                new SeatRow("C", 2, null, 90));
+        fixture.paidBill(userId, s1, List.of(seat(s1, 0), seat(s1, 1), seat(s1, 5)));
+        fixture.paidBill(userId, s1, List.of(seat(s1, 8)));
+        fixture.paidBill(userId, s1, List.of(seat(s1, 2)));
+        // Day 2, Bravo at Lotte 19:00 and Charlie at Galaxy 14:30: 200 each
+        SeededShowtime s2 = fixture.showtime(bravo.getId(), lotteRoom.getId(), START.plusDays(2), LocalTime.of(19, 0),
+                new SeatRow("A", 4, TypeSeat.NORMAL, 100));
+        fixture.paidBill(userId, s2, List.of(seat(s2, 0), seat(s2, 1)));
+        SeededShowtime s3 = fixture.showtime(charlie.getId(), galaxyRoom.getId(), START.plusDays(2), LocalTime.of(14, 30),
+                new SeatRow("A", 4, TypeSeat.NORMAL, 100));
+        fixture.paidBill(userId, s3, List.of(seat(s3, 0), seat(s3, 1)));
+        // Day 3, Alpha in the room without a branch 21:00 (300) and at CGV 14:00 (300)
+        SeededShowtime s4 = fixture.showtime(alpha.getId(), branchlessRoom.getId(), START.plusDays(3), LocalTime.of(21, 0),
+                new SeatRow("A", 4, TypeSeat.VIP, 150));
+        fixture.paidBill(userId, s4, List.of(seat(s4, 0), seat(s4, 1)));
+        SeededShowtime s7 = fixture.showtime(alpha.getId(), cgvRoom.getId(), START.plusDays(3), LocalTime.of(14, 0),
+                new SeatRow("A", 4, TypeSeat.NORMAL, 100));
+        fixture.paidBill(userId, s7, List.of(seat(s7, 0), seat(s7, 1), seat(s7, 2)));
+        // Day 4, Delta at Lotte 19:00 and in the room without a branch 10:00: 200 in all
+        SeededShowtime s5 = fixture.showtime(delta.getId(), lotteRoom.getId(), START.plusDays(4), LocalTime.of(19, 0),
+                new SeatRow("A", 3, TypeSeat.NORMAL, 100));
+        fixture.paidBill(userId, s5, List.of(seat(s5, 0)));
+        SeededShowtime s6 = fixture.showtime(delta.getId(), branchlessRoom.getId(), START.plusDays(4), LocalTime.of(10, 0),
+                new SeatRow("A", 3, TypeSeat.NORMAL, 100));
+        fixture.paidBill(userId, s6, List.of(seat(s6, 0)));
+        // Outside the range
+        SeededShowtime late = fixture.showtime(bravo.getId(), galaxyRoom.getId(), END.plusDays(5), LocalTime.of(19, 0),
+                new SeatRow("A", 2, TypeSeat.NORMAL, 1000));
+        fixture.paidBill(userId, late, List.of(seat(late, 0), seat(late, 1)));
+
+        // The bills bypass the booking events, so the rollup picks them up here
+        revenueAnalyticsService.reconcileRollup(START.minusDays(1), END.plusDays(10));
+    }
+
+    @Test
+    void dashboardMatchesTheSingleBreakdownEndpoints() {
+        RevenueDashboardDTO dashboard = revenueAnalyticsService.getRevenueDashboard(START, END, null);
+
+        assertMatchesSingleEndpoints(dashboard, START, END, null);
+
+        // And the shared answer is the right one
+        assertThat(dashboard.getSummary().getTotalRevenue()).isEqualTo(1740.0);
+        assertThat(dashboard.getSummary().getTotalTickets()).isEqualTo(16);
+        assertThat(dashboard.getSummary().getTotalMovies()).isEqualTo(4);
+        assertThat(dashboard.getSummary().getTotalShowtimes()).isEqualTo(7);
+        assertThat(dashboard.getDaily().getDataPoints()).extracting(DateRevenuePoint::getRevenue)
+                .containsExactly(540.0, 400.0, 600.0, 200.0);
+        // Bravo, Charlie and Delta tie at 200 and follow in id order
+        assertThat(dashboard.getByMovie().getDataPoints()).extracting(CategoryRevenuePoint::getCategoryId)
+                .containsExactly(alpha.getId(), bravo.getId(), charlie.getId(), delta.getId());
+        // Lotte and CGV tie at 300; the rooms without a branch belong to no cinema
+        assertThat(dashboard.getByCinema().getDataPoints()).extracting(CategoryRevenuePoint::getCategoryId)
+                .containsExactly(galaxy.getCinema().getId(), lotte.getCinema().getId(), cgv.getCinema().getId());
+        assertThat(dashboard.getByCinema().getDataPoints()).extracting(CategoryRevenuePoint::getRevenue)
+                .containsExactly(740.0, 300.0, 300.0);
+        assertThat(dashboard.getByShowtime().getDataPoints()).extracting(CategoryRevenuePoint::getCategoryName)
+                .containsExactly("10:00", "14:00", "19:00", "21:00");
+        assertThat(dashboard.getByTicketType().getDataPoints()).extracting(CategoryRevenuePoint::getCategoryName)
+                .containsExactly("NORMAL", "VIP", "UNKNOWN");
+    }
+
+    @Test
+    void movieLimitCutsTheSameTiedMoviesAsTheMovieEndpoint() {
+        RevenueDashboardDTO dashboard = revenueAnalyticsService.getRevenueDashboard(START, END, 2);
+
+        assertMatchesSingleEndpoints(dashboard, START, END, 2);
+        assertThat(dashboard.getByMovie().getDataPoints()).extracting(CategoryRevenuePoint::getCategoryId)
+                .containsExactly(alpha.getId(), bravo.getId());
+    }
+
+    @Test
+    void emptyRangeMatchesTheSingleBreakdownEndpoints() {
+        LocalDate emptyStart = START.minusMonths(2);
+        LocalDate emptyEnd = emptyStart.plusDays(6);
+        RevenueDashboardDTO dashboard = revenueAnalyticsService.getRevenueDashboard(emptyStart, emptyEnd, null);
+
+        assertMatchesSingleEndpoints(dashboard, emptyStart, emptyEnd, null);
+        assertThat(dashboard.getSummary().getTotalRevenue()).isZero();
+        assertThat(dashboard.getByMovie().getDataPoints()).isEmpty();
+    }
+
+    private void assertMatchesSingleEndpoints(RevenueDashboardDTO dashboard, LocalDate start, LocalDate end, Integer limit) {
+        assertThat(dashboard.getSummary()).usingRecursiveComparison()
+                .isEqualTo(revenueAnalyticsService.getRevenueSummary(start, end));
+        assertThat(dashboard.getDaily()).usingRecursiveComparison()
+                .isEqualTo(revenueAnalyticsService.getDailyRevenue(start, end));
+        assertThat(dashboard.getByMovie()).usingRecursiveComparison()
+                .isEqualTo(revenueAnalyticsService.getRevenueByMovie(start, end, limit));
+        assertThat(dashboard.getByCinema()).usingRecursiveComparison()
+                .isEqualTo(revenueAnalyticsService.getRevenueByCinema(start, end));
+        assertThat(dashboard.getByShowtime()).usingRecursiveComparison()
+                .isEqualTo(revenueAnalyticsService.getRevenueByShowtime(start, end));
+        assertThat(dashboard.getByTicketType()).usingRecursiveComparison()
+                .isEqualTo(revenueAnalyticsService.getRevenueByTicketType(start, end));
+    }
+
+    private static Long seat(SeededShowtime showtime, int index) {
+        return showtime.seatIds().get(index);
+    }
+}
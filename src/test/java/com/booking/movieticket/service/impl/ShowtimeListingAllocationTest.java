@@ -0,0 +1,186 @@
+package com.booking.movieticket.service.impl;
+
+import com.booking.movieticket.dto.response.BranchWithShowtimesDTO;
+import com.booking.movieticket.dto.response.ShowtimeDTO;
+import com.booking.movieticket.dto.response.ShowtimeResponse;
+import com.booking.movieticket.entity.Branch;
+import com.booking.movieticket.entity.Movie;
+import com.booking.movieticket.entity.Room;
+import com.booking.movieticket.entity.Showtime;
+import com.booking.movieticket.entity.enums.RoomType;
+import com.booking.movieticket.service.ShowtimeService;
+import com.booking.movieticket.support.BookingFixture;
+import com.booking.movieticket.support.PostgresIntegrationTest;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Heap allocated per request by the showtime listing of a busy day (1,000 showtimes of one movie), measured with
+ * the per-thread allocation counter of the JVM. "before" is the listing as it was built until the column
+ * projections: the fetch-join entity query in a read-only transaction and the same response assembled from the
+ * entities. "after" is {@link ShowtimeService#getShowtimesByMovieAndDate}.
+ * <p>
+ * Tagged benchmark, so it only runs with {@code ./gradlew benchmarkTest}.
+ */
+@Tag("benchmark")
+@PostgresIntegrationTest
+class ShowtimeListingAllocationTest {
+
+    private static final int BRANCHES = 10;
+    private static final int ROOMS_PER_BRANCH = 5;
+    private static final int SHOWTIMES_PER_ROOM = 20;
+    private static final int WARMUP_REQUESTS = 30;
+    private static final int MEASURED_REQUESTS = 100;
+    // The entity query the listing used before it moved to ShowtimeListingView
+    private static final String LEGACY_QUERY = "SELECT st FROM Showtime st "
+            + "JOIN FETCH st.schedule s "
+            + "JOIN FETCH s.movie m "
+            + "JOIN FETCH st.room r "
+            + "JOIN FETCH r.branch b "
+            + "LEFT JOIN FETCH b.cinema c "
+            + "WHERE m.id = :movieId "
+            + "AND s.date = :date "
+            + "AND st.isDeleted = false "
+            + "ORDER BY b.id, s.timeStart";
+
+    @Autowired
+    private ShowtimeService showtimeService;
+    @Autowired
+    private BookingFixture fixture;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Movie movie;
+    private LocalDate date;
+
+    @BeforeEach
+    void setUp() {
+        movie = fixture.movie("Busy Day", 110);
+        date = LocalDate.now().plusDays(3);
+        for (int b = 0; b < BRANCHES; b++) {
+            Branch branch = fixture.branch("Cinema " + b);
+            for (int r = 0; r < ROOMS_PER_BRANCH; r++) {
+                Room room = fixture.room(branch.getId(), r % 2 == 0 ? RoomType.STANDARD : RoomType.IMAX);
+                for (int s = 0; s < SHOWTIMES_PER_ROOM; s++) {
+                    fixture.showtime(movie.getId(), room.getId(), date, LocalTime.of(8, 0).plusMinutes(45L * s));
+                }
+            }
+        }
+    }
+
+    @Test
+    void reportsBytesAllocatedPerListingRequest() {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        Supplier<ShowtimeResponse> before = () -> readOnly.execute(status -> legacyListing(movie.getId(), date));
+        Supplier<ShowtimeResponse> after = () -> showtimeService.getShowtimesByMovieAndDate(movie.getId(), date);
+
+        ShowtimeResponse legacyResponse = before.get();
+        ShowtimeResponse response = after.get();
+        assertThat(response.getBranches()).hasSize(BRANCHES);
+        assertThat(response.getBranches().stream().mapToInt(branch -> branch.getShowtimes().size()).sum())
+                .isEqualTo(BRANCHES * ROOMS_PER_BRANCH * SHOWTIMES_PER_ROOM);
+        assertThat(response).usingRecursiveComparison().ignoringCollectionOrder().isEqualTo(legacyResponse);
+
+        Allocation beforeAllocation = measure(before);
+        Allocation afterAllocation = measure(after);
+        System.out.printf("%nShowtime listing, %d showtimes per request%n%-8s %16s %16s %10s%n",
+                BRANCHES * ROOMS_PER_BRANCH * SHOWTIMES_PER_ROOM, "", "mean bytes/req", "min bytes/req", "mean ms");
+        System.out.printf("%-8s %16d %16d %10.2f%n", "before",
+                beforeAllocation.meanBytes(), beforeAllocation.minBytes(), beforeAllocation.meanMillis());
+        System.out.printf("%-8s %16d %16d %10.2f%n", "after",
+                afterAllocation.meanBytes(), afterAllocation.minBytes(), afterAllocation.meanMillis());
+    }
+
+    /**
+     * Heap allocated by this thread per request; the JDBC driver decodes rows on the calling thread, so this covers
+     * the result set as well as the entities or projections and the response
+     */
+    private static Allocation measure(Supplier<ShowtimeResponse> request) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        threads.setThreadAllocatedMemoryEnabled(true);
+        for (int i = 0; i < WARMUP_REQUESTS; i++) {
+            request.get();
+        }
+        long totalBytes = 0;
+        long minBytes = Long.MAX_VALUE;
+        long totalNanos = 0;
+        for (int i = 0; i < MEASURED_REQUESTS; i++) {
+            long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+            long begin = System.nanoTime();
+            request.get();
+            totalNanos += System.nanoTime() - begin;
+            long bytes = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+            totalBytes += bytes;
+            minBytes = Math.min(minBytes, bytes);
+        }
+        return new Allocation(totalBytes / MEASURED_REQUESTS, minBytes, totalNanos / 1e6 / MEASURED_REQUESTS);
+    }
+
+    /**
+     * The listing as ShowtimeServiceImpl built it from entities before the projections
+     */
+    private ShowtimeResponse legacyListing(Long movieId, LocalDate date) {
+        Movie movie = entityManager.find(Movie.class, movieId);
+        List<Showtime> showtimes = entityManager.createQuery(LEGACY_QUERY, Showtime.class)
+                .setParameter("movieId", movieId)
+                .setParameter("date", date)
+                .getResultList();
+
+        Map<Long, List<Showtime>> showtimesByBranch = showtimes.stream()
+                .collect(Collectors.groupingBy(showtime -> showtime.getRoom().getBranch().getId()));
+        List<BranchWithShowtimesDTO> branches = new ArrayList<>();
+        for (Map.Entry<Long, List<Showtime>> entry : showtimesByBranch.entrySet()) {
+            Branch branch = entry.getValue().get(0).getRoom().getBranch();
+            branches.add(BranchWithShowtimesDTO.builder()
+                    .branchId(entry.getKey())
+                    .branchName(branch.getName())
+                    .address(branch.getAddress())
+                    .hotline(branch.getHotline())
+                    .imageUrl(branch.getImageUrl())
+                    .showtimes(entry.getValue().stream()
+                            .map(showtime -> ShowtimeDTO.builder()
+                                    .scheduleId(showtime.getId().getScheduleId())
+                                    .roomId(showtime.getId().getRoomId())
+                                    .roomName(showtime.getRoom().getName())
+                                    .roomType(showtime.getRoom().getRoomType().toString())
+                                    .scheduleDate(showtime.getSchedule().getDate())
+                                    .scheduleTime(showtime.getSchedule().getTimeStart())
+                                    .scheduleEndTime(showtime.getSchedule().getTimeStart().plusMinutes(movie.getDuration()))
+                                    .build())
+                            .collect(Collectors.toList()))
+                    .build());
+        }
+        return ShowtimeResponse.builder()
+                .movieId(movie.getId())
+                .movieName(movie.getName())
+                .imageUrl(movie.getImageSmallUrl())
+                .duration(movie.getDuration())
+                .summary(movie.getSummary())
+                .director(movie.getDirector())
+                .ageLimit(movie.getAgeLimit())
+                .branches(branches)
+                .build();
+    }
+
+    private record Allocation(long meanBytes, long minBytes, double meanMillis) {
+    }
+}
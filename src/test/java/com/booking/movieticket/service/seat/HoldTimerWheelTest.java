@@ -0,0 +1,96 @@
+package com.booking.movieticket.service.seat;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class HoldTimerWheelTest {
+
+    private static final long TICK = 1000;
+    private static final long START = 1_000_000;
+
+    @Test
+    void rejectsWheelSizeThatIsNotAPowerOfTwo() {
+        assertThatThrownBy(() -> new HoldTimerWheel(TICK, 6, START)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void returnsHoldOnceItExpires() {
+        HoldTimerWheel wheel = new HoldTimerWheel(TICK, 8, START);
+        SeatHold hold = hold(1, START + 3 * TICK);
+        wheel.schedule(hold);
+
+        assertThat(wheel.advance(START + TICK)).isEmpty();
+        assertThat(wheel.advance(START + 2 * TICK)).isEmpty();
+        assertThat(wheel.advance(START + 3 * TICK)).containsExactly(hold);
+        assertThat(wheel.advance(START + 4 * TICK)).isEmpty();
+    }
+
+    @Test
+    void returnsHoldExpiringWithinATickOnTheFirstAdvanceAfterIt() {
+        HoldTimerWheel wheel = new HoldTimerWheel(TICK, 8, START);
+        SeatHold hold = hold(1, START + 2 * TICK + 500);
+        wheel.schedule(hold);
+
+        assertThat(wheel.advance(START + 2 * TICK)).isEmpty();
+        assertThat(wheel.advance(START + 2 * TICK + 400)).isEmpty();
+        assertThat(wheel.advance(START + 2 * TICK + 500)).containsExactly(hold);
+        assertThat(wheel.advance(START + 3 * TICK)).isEmpty();
+    }
+
+    @Test
+    void returnsHoldScheduledIntoAnAlreadyDrainedTickOnTheNextAdvance() {
+        HoldTimerWheel wheel = new HoldTimerWheel(TICK, 8, START);
+        assertThat(wheel.advance(START + 2 * TICK)).isEmpty();
+
+        SeatHold hold = hold(1, START + TICK);
+        wheel.schedule(hold);
+
+        assertThat(wheel.advance(START + 2 * TICK + 1)).containsExactly(hold);
+    }
+
+    @Test
+    void returnsEveryHoldOnlyOnce() {
+        HoldTimerWheel wheel = new HoldTimerWheel(TICK, 8, START);
+        SeatHold first = hold(1, START);
+        SeatHold second = hold(2, START + 10);
+        wheel.schedule(first);
+        wheel.schedule(second);
+
+        assertThat(wheel.advance(START)).containsExactly(first);
+        assertThat(wheel.advance(START + 10)).containsExactly(second);
+        assertThat(wheel.advance(START + 20)).isEmpty();
+        assertThat(wheel.advance(START + TICK)).isEmpty();
+    }
+
+    @Test
+    void holdMoreThanOneRotationAheadWaitsForItsRound() {
+        HoldTimerWheel wheel = new HoldTimerWheel(TICK, 8, START);
+        SeatHold hold = hold(1, START + 20 * TICK);
+        wheel.schedule(hold);
+
+        for (long tick = 1; tick < 20; tick++) {
+            assertThat(wheel.advance(START + tick * TICK)).isEmpty();
+        }
+        assertThat(wheel.advance(START + 20 * TICK)).containsExactly(hold);
+    }
+
+    @Test
+    void catchesUpAfterSkippingMoreThanOneRotation() {
+        HoldTimerWheel wheel = new HoldTimerWheel(TICK, 8, START);
+        SeatHold early = hold(1, START + 2 * TICK);
+        SeatHold late = hold(2, START + 5 * TICK);
+        SeatHold future = hold(3, START + 200 * TICK);
+        wheel.schedule(early);
+        wheel.schedule(late);
+        wheel.schedule(future);
+
+        assertThat(wheel.advance(START + 100 * TICK)).containsExactlyInAnyOrder(early, late);
+        assertThat(wheel.advance(START + 200 * TICK)).containsExactly(future);
+    }
+
+    private static SeatHold hold(long seatId, long expiresAt) {
+        return new SeatHold(1, 1, seatId, "alice", START, expiresAt);
+    }
+}
@@ -0,0 +1,34 @@
+package com.booking.movieticket.service.seat;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+/**
+ * Runs against the PostgreSQL database named by SEAT_HOLD_TEST_DB_URL (with SEAT_HOLD_TEST_DB_USERNAME and
+ * SEAT_HOLD_TEST_DB_PASSWORD), and is skipped when it is not set. The seat_holds table is emptied before every
+ * test, so never point it at a database the application uses.
+ */
+@EnabledIfEnvironmentVariable(named = "SEAT_HOLD_TEST_DB_URL", matches = ".+")
+class JdbcSeatHoldStoreContractTest extends SeatHoldStoreContractTest {
+
+    private static JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    static void connect() {
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(
+                System.getenv("SEAT_HOLD_TEST_DB_URL"),
+                System.getenv("SEAT_HOLD_TEST_DB_USERNAME"),
+                System.getenv("SEAT_HOLD_TEST_DB_PASSWORD")));
+    }
+
+    @Override
+    protected SeatHoldStore createStore() {
+        // Without the Spring proxy every statement commits on its own, as each call does in the application
+        JdbcSeatHoldStore store = new JdbcSeatHoldStore(jdbcTemplate, 5);
+        store.createTable();
+        jdbcTemplate.update("DELETE FROM seat_holds");
+        return store;
+    }
+}
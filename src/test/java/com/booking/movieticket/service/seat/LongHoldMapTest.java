@@ -0,0 +1,108 @@
+package com.booking.movieticket.service.seat;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LongHoldMapTest {
+
+    @Test
+    void putGetAndRemove() {
+        LongHoldMap map = new LongHoldMap(4);
+        SeatHold first = hold(7, "alice");
+        SeatHold second = hold(7, "bob");
+
+        assertThat(map.put(7, first)).isNull();
+        assertThat(map.get(7)).isSameAs(first);
+        assertThat(map.put(7, second)).isSameAs(first);
+        assertThat(map.size()).isEqualTo(1);
+
+        assertThat(map.remove(7)).isSameAs(second);
+        assertThat(map.get(7)).isNull();
+        assertThat(map.remove(7)).isNull();
+        assertThat(map.isEmpty()).isTrue();
+    }
+
+    @Test
+    void conditionalRemoveComparesIdentity() {
+        LongHoldMap map = new LongHoldMap(4);
+        SeatHold current = hold(3, "alice");
+        map.put(3, current);
+
+        assertThat(map.remove(3, hold(3, "alice"))).isFalse();
+        assertThat(map.get(3)).isSameAs(current);
+        assertThat(map.remove(3, current)).isTrue();
+        assertThat(map.get(3)).isNull();
+    }
+
+    @Test
+    void rejectsNonPositiveSeatIds() {
+        LongHoldMap map = new LongHoldMap(4);
+
+        assertThatThrownBy(() -> map.put(0, hold(1, "alice"))).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> map.get(-1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void growsBeyondItsInitialCapacity() {
+        LongHoldMap map = new LongHoldMap(2);
+        for (long seatId = 1; seatId <= 10_000; seatId++) {
+            map.put(seatId, hold(seatId, "user" + seatId));
+        }
+
+        assertThat(map.size()).isEqualTo(10_000);
+        for (long seatId = 1; seatId <= 10_000; seatId++) {
+            assertThat(map.get(seatId).getSeatId()).isEqualTo(seatId);
+        }
+    }
+
+    @Test
+    void forEachVisitsEveryHold() {
+        LongHoldMap map = new LongHoldMap(8);
+        for (long seatId = 1; seatId <= 50; seatId++) {
+            map.put(seatId, hold(seatId, "alice"));
+        }
+        List<Long> visited = new ArrayList<>();
+
+        map.forEach(hold -> visited.add(hold.getSeatId()));
+
+        assertThat(visited).hasSize(50).doesNotHaveDuplicates().allMatch(seatId -> seatId >= 1 && seatId <= 50);
+    }
+
+    /**
+     * Removals shift later entries of a probe chain back; every remaining key must still be found afterwards
+     */
+    @Test
+    void matchesHashMapUnderRandomPutsAndRemoves() {
+        LongHoldMap map = new LongHoldMap(4);
+        Map<Long, SeatHold> expected = new HashMap<>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 50_000; i++) {
+            // A small key range keeps the table dense, so probe chains overlap and wrap around
+            long seatId = 1 + random.nextInt(512);
+            if (random.nextInt(3) == 0) {
+                assertThat(map.remove(seatId)).isSameAs(expected.remove(seatId));
+            } else {
+                SeatHold hold = hold(seatId, "user" + i);
+                assertThat(map.put(seatId, hold)).isSameAs(expected.put(seatId, hold));
+            }
+        }
+
+        assertThat(map.size()).isEqualTo(expected.size());
+        for (long seatId = 1; seatId <= 512; seatId++) {
+            assertThat(map.get(seatId)).isSameAs(expected.get(seatId));
+        }
+    }
+
+    private static SeatHold hold(long seatId, String userId) {
+        return new SeatHold(1, 1, seatId, userId, 0, 1000);
+    }
+}
@@ -0,0 +1,173 @@
+package com.booking.movieticket.service.seat;
+
+import com.booking.movieticket.dto.response.SeatBatchUpdate;
+import com.booking.movieticket.dto.response.SeatReservationResponse;
+import com.booking.movieticket.entity.compositekey.ShowtimeId;
+import com.booking.movieticket.entity.enums.StatusSeat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.MessagingException;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class SeatBroadcastCoalescerTest {
+
+    private static final ShowtimeId SHOWTIME = new ShowtimeId(10L, 1L);
+    private static final ShowtimeId OTHER_SHOWTIME = new ShowtimeId(20L, 2L);
+
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+
+    private SeatBroadcastCoalescer coalescer;
+    // Destination -> frames sent to it, in order
+    private final Map<String, List<SeatBatchUpdate>> sent = Collections.synchronizedMap(new HashMap<>());
+
+    @BeforeEach
+    void setUp() {
+        coalescer = new SeatBroadcastCoalescer(messagingTemplate);
+    }
+
+    @Test
+    void flushesOneFramePerShowtimeWithChangesInOrder() {
+        recordFrames();
+        coalescer.enqueue(SHOWTIME, change(1, 101));
+        coalescer.enqueue(SHOWTIME, change(2, 102));
+        coalescer.enqueue(OTHER_SHOWTIME, change(3, 7));
+        coalescer.enqueue(SHOWTIME, change(4, 103));
+
+        coalescer.flush();
+
+        assertThat(sent.get("/topic/seats/1/10")).singleElement().satisfies(frame -> {
+            assertThat(frame.getRoomId()).isEqualTo(1L);
+            assertThat(frame.getScheduleId()).isEqualTo(10L);
+            assertThat(frame.getChanges()).extracting(SeatReservationResponse::getVersion).containsExactly(101L, 102L, 103L);
+        });
+        assertThat(sent.get("/topic/seats/2/20")).singleElement()
+                .satisfies(frame -> assertThat(frame.getChanges()).extracting(SeatReservationResponse::getSeatId).containsExactly(3L));
+        assertThat(coalescer.getFramesSent()).isEqualTo(2);
+        assertThat(coalescer.getChangesSent()).isEqualTo(4);
+        assertThat(coalescer.getFramesSaved()).isEqualTo(2);
+    }
+
+    @Test
+    void sendsNothingWhenNoChangeIsPending() {
+        coalescer.flush();
+
+        verifyNoInteractions(messagingTemplate);
+    }
+
+    @Test
+    void changesAfterAFlushGoInTheNextFrame() {
+        recordFrames();
+        coalescer.enqueue(SHOWTIME, change(1, 1));
+        coalescer.flush();
+        coalescer.flush();
+        coalescer.enqueue(SHOWTIME, change(2, 2));
+        coalescer.flush();
+
+        assertThat(sent.get("/topic/seats/1/10")).extracting(frame -> frame.getChanges().size()).containsExactly(1, 1);
+    }
+
+    @Test
+    void failedSendDoesNotStopOtherShowtimes() {
+        recordFrames();
+        doThrow(new MessagingException("broker down"))
+                .when(messagingTemplate).convertAndSend(eq("/topic/seats/1/10"), any(Object.class));
+        coalescer.enqueue(SHOWTIME, change(1, 1));
+        coalescer.enqueue(OTHER_SHOWTIME, change(2, 1));
+
+        coalescer.flush();
+
+        assertThat(sent.get("/topic/seats/2/20")).hasSize(1);
+        assertThat(coalescer.getFramesSent()).isEqualTo(1);
+    }
+
+    @Test
+    void concurrentEnqueuesAreNeitherLostNorReordered() throws Exception {
+        recordFrames();
+        int producers = 4;
+        int changesPerProducer = 2000;
+        ExecutorService pool = Executors.newFixedThreadPool(producers + 1);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean producing = new AtomicBoolean(true);
+        try {
+            Future<?> flusher = pool.submit(() -> {
+                start.await();
+                while (producing.get()) {
+                    coalescer.flush();
+                }
+                return null;
+            });
+            List<Future<?>> results = new ArrayList<>();
+            for (int p = 0; p < producers; p++) {
+                long seatId = p + 1;
+                results.add(pool.submit(() -> {
+                    start.await();
+                    for (long version = 1; version <= changesPerProducer; version++) {
+                        coalescer.enqueue(SHOWTIME, change(seatId, version));
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> result : results) {
+                result.get(10, TimeUnit.SECONDS);
+            }
+            producing.set(false);
+            flusher.get(10, TimeUnit.SECONDS);
+        } finally {
+            pool.shutdownNow();
+        }
+        coalescer.flush();
+
+        Map<Long, List<Long>> versionsBySeat = new HashMap<>();
+        for (SeatBatchUpdate frame : sent.get("/topic/seats/1/10")) {
+            for (SeatReservationResponse change : frame.getChanges()) {
+                versionsBySeat.computeIfAbsent(change.getSeatId(), id -> new ArrayList<>()).add(change.getVersion());
+            }
+        }
+        assertThat(versionsBySeat).hasSize(producers);
+        versionsBySeat.values().forEach(versions -> assertThat(versions).hasSize(changesPerProducer).isSorted());
+        assertThat(coalescer.getChangesSent()).isEqualTo((long) producers * changesPerProducer);
+    }
+
+    private void recordFrames() {
+        doAnswer(invocation -> {
+            sent.computeIfAbsent(invocation.getArgument(0), destination -> Collections.synchronizedList(new ArrayList<>()))
+                    .add(invocation.getArgument(1));
+            return null;
+        }).when(messagingTemplate).convertAndSend(anyString(), any(Object.class));
+    }
+
+    private static SeatReservationResponse change(long seatId, long version) {
+        return SeatReservationResponse.builder()
+                .seatId(seatId)
+                .userId("user" + seatId)
+                .status(StatusSeat.SELECTED)
+                .version(version)
+                .build();
+    }
+}
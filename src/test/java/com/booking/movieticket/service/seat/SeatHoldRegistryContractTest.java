@@ -0,0 +1,9 @@
+package com.booking.movieticket.service.seat;
+
+class SeatHoldRegistryContractTest extends SeatHoldStoreContractTest {
+
+    @Override
+    protected SeatHoldStore createStore() {
+        return new SeatHoldRegistry(5);
+    }
+}
@@ -0,0 +1,125 @@
+package com.booking.movieticket.service.seat;
+
+import com.booking.movieticket.entity.compositekey.ShowtimeId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SeatHoldRegistryTest {
+
+    private static final long TIMEOUT = TimeUnit.MINUTES.toMillis(5);
+    private static final ShowtimeId SHOWTIME = new ShowtimeId(1L, 1L);
+
+    private SeatHoldRegistry registry;
+    private long now;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SeatHoldRegistry(5);
+        now = System.currentTimeMillis();
+    }
+
+    @Test
+    void holdsSeatsSpreadOverEveryStripe() {
+        for (long seatId = 1; seatId <= 100; seatId++) {
+            assertThat(registry.claim(SHOWTIME, seatId, "alice", now).isClaimed()).isTrue();
+        }
+
+        assertThat(registry.size()).isEqualTo(100);
+        assertThat(registry.holdsFor(SHOWTIME)).extracting(SeatHold::getSeatId).doesNotHaveDuplicates().hasSize(100);
+        assertThat(registry.get(SHOWTIME, 42).getUserId()).isEqualTo("alice");
+    }
+
+    @Test
+    void expiryOfAReplacedHoldKeepsTheNewOne() {
+        registry.claim(SHOWTIME, 1, "alice", now);
+        registry.release(SHOWTIME, 1, "alice");
+        SeatHold bobs = registry.claim(SHOWTIME, 1, "bob", now + 1000).getHold();
+
+        // Alice's hold is still on the timer wheel, but it no longer owns the seat
+        assertThat(registry.expire(now + TIMEOUT)).isEmpty();
+        assertThat(registry.get(SHOWTIME, 1)).isSameAs(bobs);
+        assertThat(registry.expire(now + TIMEOUT + 1000)).containsExactly(bobs);
+    }
+
+    @Test
+    void showtimeIsUnlinkedOnceItsLastHoldExpiresAndCanBeHeldAgain() {
+        registry.claim(SHOWTIME, 1, "alice", now);
+        registry.claim(SHOWTIME, 2, "bob", now);
+
+        assertThat(registry.expire(now + TIMEOUT)).hasSize(2);
+        assertThat(registry.activeShowtimes()).isEmpty();
+
+        assertThat(registry.claim(SHOWTIME, 1, "carol", now + TIMEOUT).isClaimed()).isTrue();
+        assertThat(registry.activeShowtimes()).containsExactly(SHOWTIME);
+        assertThat(registry.get(SHOWTIME, 1).getUserId()).isEqualTo("carol");
+    }
+
+    @Test
+    void concurrentClaimsOfDifferentSeatsAllSucceed() throws Exception {
+        int threads = 8;
+        int seatsPerThread = 250;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                long firstSeat = 1 + (long) t * seatsPerThread;
+                String userId = "user" + t;
+                results.add(pool.submit(() -> {
+                    start.await();
+                    int claimed = 0;
+                    for (long seatId = firstSeat; seatId < firstSeat + seatsPerThread; seatId++) {
+                        if (registry.claim(SHOWTIME, seatId, userId, now).isClaimed()) {
+                            claimed++;
+                        }
+                    }
+                    return claimed;
+                }));
+            }
+            start.countDown();
+            for (Future<Integer> result : results) {
+                assertThat(result.get(10, TimeUnit.SECONDS)).isEqualTo(seatsPerThread);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertThat(registry.size()).isEqualTo(threads * seatsPerThread);
+    }
+
+    @Test
+    void claimsRacingTheUnlinkingOfAnEmptyShowtimeAreNotLost() throws Exception {
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            for (int round = 0; round < 200; round++) {
+                long claimedAt = now + round * TIMEOUT;
+                registry.claim(SHOWTIME, 1, "alice", claimedAt);
+                CountDownLatch start = new CountDownLatch(1);
+                Future<SeatClaimResult> claim = pool.submit(() -> {
+                    start.await();
+                    return registry.claim(SHOWTIME, 2, "bob", claimedAt + TIMEOUT);
+                });
+                start.countDown();
+                registry.expire(claimedAt + TIMEOUT);
+
+                assertThat(claim.get(10, TimeUnit.SECONDS).isClaimed()).isTrue();
+                // Whichever ran first, Bob's hold must be reachable through the showtime index
+                assertThat(registry.get(SHOWTIME, 2)).isNotNull();
+                assertThat(registry.holdsFor(SHOWTIME)).extracting(SeatHold::getUserId).contains("bob");
+                registry.remove(SHOWTIME, 2);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
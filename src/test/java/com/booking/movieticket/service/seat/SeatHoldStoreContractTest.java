@@ -0,0 +1,198 @@
+package com.booking.movieticket.service.seat;
+
+import com.booking.movieticket.entity.compositekey.ShowtimeId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Behaviour every {@link SeatHoldStore} must share, whether holds live in this node or in the database.
+ * Each implementation gets a subclass that creates an empty store with a 5 minute hold timeout.
+ */
+abstract class SeatHoldStoreContractTest {
+
+    protected static final long TIMEOUT = TimeUnit.MINUTES.toMillis(5);
+    protected static final ShowtimeId SHOWTIME = new ShowtimeId(10L, 1L);
+    protected static final ShowtimeId OTHER_SHOWTIME = new ShowtimeId(20L, 2L);
+
+    protected SeatHoldStore store;
+    protected long now;
+
+    protected abstract SeatHoldStore createStore();
+
+    @BeforeEach
+    void setUpStore() {
+        store = createStore();
+        now = System.currentTimeMillis();
+    }
+
+    @Test
+    void claimsAFreeSeat() {
+        SeatClaimResult result = store.claim(SHOWTIME, 1, "alice", now);
+
+        assertThat(result.isClaimed()).isTrue();
+        assertThat(result.getHold().getUserId()).isEqualTo("alice");
+        assertThat(result.getHold().getExpiresAt()).isEqualTo(now + TIMEOUT);
+        assertThat(store.get(SHOWTIME, 1)).satisfies(hold -> {
+            assertThat(hold.getUserId()).isEqualTo("alice");
+            assertThat(hold.getScheduleId()).isEqualTo(10L);
+            assertThat(hold.getRoomId()).isEqualTo(1L);
+        });
+    }
+
+    @Test
+    void rejectsASeatHeldByAnotherUser() {
+        store.claim(SHOWTIME, 1, "alice", now);
+
+        SeatClaimResult result = store.claim(SHOWTIME, 1, "bob", now + 1000);
+
+        assertThat(result.isClaimed()).isFalse();
+        assertThat(result.getHold().getUserId()).isEqualTo("alice");
+        assertThat(store.get(SHOWTIME, 1).getExpiresAt()).isEqualTo(now + TIMEOUT);
+    }
+
+    @Test
+    void reclaimByTheHolderRefreshesTheExpiry() {
+        store.claim(SHOWTIME, 1, "alice", now);
+
+        SeatClaimResult result = store.claim(SHOWTIME, 1, "alice", now + 60_000);
+
+        assertThat(result.isClaimed()).isTrue();
+        assertThat(store.get(SHOWTIME, 1).getExpiresAt()).isEqualTo(now + 60_000 + TIMEOUT);
+    }
+
+    @Test
+    void anExpiredHoldCanBeTakenOver() {
+        store.claim(SHOWTIME, 1, "alice", now);
+
+        SeatClaimResult result = store.claim(SHOWTIME, 1, "bob", now + TIMEOUT);
+
+        assertThat(result.isClaimed()).isTrue();
+        assertThat(store.get(SHOWTIME, 1).getUserId()).isEqualTo("bob");
+    }
+
+    @Test
+    void onlyTheHolderCanRelease() {
+        store.claim(SHOWTIME, 1, "alice", now);
+
+        assertThat(store.release(SHOWTIME, 1, "bob")).isFalse();
+        assertThat(store.release(OTHER_SHOWTIME, 1, "alice")).isFalse();
+        assertThat(store.get(SHOWTIME, 1)).isNotNull();
+        assertThat(store.release(SHOWTIME, 1, "alice")).isTrue();
+        assertThat(store.get(SHOWTIME, 1)).isNull();
+        assertThat(store.release(SHOWTIME, 1, "alice")).isFalse();
+    }
+
+    @Test
+    void removeDropsTheHoldWhoeverHoldsIt() {
+        store.claim(SHOWTIME, 1, "alice", now);
+
+        assertThat(store.remove(SHOWTIME, 1).getUserId()).isEqualTo("alice");
+        assertThat(store.remove(SHOWTIME, 1)).isNull();
+        assertThat(store.claim(SHOWTIME, 1, "bob", now).isClaimed()).isTrue();
+    }
+
+    @Test
+    void listsHoldsAndCountsActiveOnesPerShowtime() {
+        store.claim(SHOWTIME, 1, "alice", now);
+        store.claim(SHOWTIME, 2, "bob", now);
+        // Expires exactly now, so it is listed but no longer counted
+        store.claim(OTHER_SHOWTIME, 3, "carol", now - TIMEOUT);
+
+        assertThat(store.holdsFor(SHOWTIME)).extracting(SeatHold::getSeatId).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(store.holdsFor(new ShowtimeId(30L, 3L))).isEmpty();
+        assertThat(store.activeShowtimes()).containsExactlyInAnyOrder(SHOWTIME, OTHER_SHOWTIME);
+        assertThat(store.activeHoldCounts(now)).containsOnlyKeys(SHOWTIME).containsEntry(SHOWTIME, 2);
+        assertThat(store.size()).isEqualTo(3);
+    }
+
+    @Test
+    void expireReturnsEachExpiredHoldOnce() {
+        store.claim(SHOWTIME, 1, "alice", now);
+        store.claim(SHOWTIME, 2, "bob", now + 60_000);
+
+        assertThat(store.expire(now + TIMEOUT)).extracting(SeatHold::getSeatId).containsExactly(1L);
+        assertThat(store.expire(now + TIMEOUT)).isEmpty();
+        assertThat(store.get(SHOWTIME, 1)).isNull();
+        assertThat(store.get(SHOWTIME, 2)).isNotNull();
+    }
+
+    @Test
+    void expiryKeepsASeatReclaimedBeforeItsHoldRanOut() {
+        store.claim(SHOWTIME, 1, "alice", now);
+        store.claim(SHOWTIME, 1, "alice", now + 60_000);
+
+        assertThat(store.expire(now + TIMEOUT)).isEmpty();
+        assertThat(store.get(SHOWTIME, 1).getExpiresAt()).isEqualTo(now + 60_000 + TIMEOUT);
+    }
+
+    @Test
+    void concurrentClaimsOfOneSeatHaveASingleWinner() throws Exception {
+        int users = 16;
+        for (long seatId = 1; seatId <= 20; seatId++) {
+            long seat = seatId;
+            List<SeatClaimResult> results = runConcurrently(users, user -> store.claim(SHOWTIME, seat, "user" + user, now));
+
+            List<SeatClaimResult> winners = results.stream().filter(SeatClaimResult::isClaimed).toList();
+            assertThat(winners).hasSize(1);
+            String winner = winners.get(0).getHold().getUserId();
+            assertThat(store.get(SHOWTIME, seat).getUserId()).isEqualTo(winner);
+            assertThat(results).allSatisfy(result -> assertThat(result.getHold().getUserId()).isEqualTo(winner));
+        }
+    }
+
+    @Test
+    void concurrentSweepsReportEachExpiredHoldOnce() throws Exception {
+        for (long seatId = 1; seatId <= 100; seatId++) {
+            store.claim(SHOWTIME, seatId, "alice", now);
+        }
+
+        List<List<SeatHold>> sweeps = runConcurrently(4, sweeper -> store.expire(now + TIMEOUT));
+
+        assertThat(sweeps.stream().flatMap(List::stream).map(SeatHold::getSeatId).toList())
+                .hasSize(100).doesNotHaveDuplicates();
+        assertThat(store.size()).isZero();
+    }
+
+    /**
+     * Run {@code task} on that many threads released at the same moment, and return every result
+     */
+    protected <T> List<T> runConcurrently(int threads, IndexedTask<T> task) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<T>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                int index = i;
+                Callable<T> callable = () -> {
+                    start.await();
+                    return task.run(index);
+                };
+                futures.add(pool.submit(callable));
+            }
+            start.countDown();
+            List<T> results = new ArrayList<>();
+            for (Future<T> future : futures) {
+                results.add(future.get(30, TimeUnit.SECONDS));
+            }
+            return results;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @FunctionalInterface
+    protected interface IndexedTask<T> {
+        T run(int index) throws Exception;
+    }
+}
@@ -0,0 +1,178 @@
+package com.booking.movieticket.service.seat;
+
+import com.booking.movieticket.dto.response.SeatStateResponse;
+import com.booking.movieticket.entity.compositekey.ShowtimeId;
+import com.booking.movieticket.entity.enums.StatusSeat;
+import com.booking.movieticket.repository.ShowtimeSeatRepository;
+import com.booking.movieticket.repository.projection.SeatStatusView;
+import com.booking.movieticket.service.showtime.ShowtimeAvailabilityIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.groups.Tuple.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SeatStateTrackerTest {
+
+    private static final ShowtimeId SHOWTIME = new ShowtimeId(10L, 1L);
+    private static final long LOADED_VERSION = 100;
+
+    @Mock
+    private ShowtimeSeatRepository showtimeSeatRepository;
+    @Mock
+    private SeatHoldStore seatHoldStore;
+    @Mock
+    private SeatChangeLog seatChangeLog;
+    @Mock
+    private ShowtimeAvailabilityIndex availabilityIndex;
+
+    private SeatStateTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        tracker = new SeatStateTracker(showtimeSeatRepository, seatHoldStore, seatChangeLog, availabilityIndex);
+        lenient().when(showtimeSeatRepository.findStatusesByShowtimeId(10L, 1L)).thenReturn(List.of(
+                seat(1, StatusSeat.AVAILABLE), seat(2, StatusSeat.BOOKED), seat(3, StatusSeat.AVAILABLE)));
+        lenient().when(seatChangeLog.currentVersion(SHOWTIME)).thenReturn(LOADED_VERSION);
+        lenient().when(seatChangeLog.changesAfter(eq(SHOWTIME), anyLong())).thenReturn(List.of());
+    }
+
+    @Test
+    void snapshotOverlaysLiveHoldsOnDatabaseStatuses() {
+        long now = System.currentTimeMillis();
+        when(seatHoldStore.holdsFor(SHOWTIME)).thenReturn(List.of(
+                new SeatHold(10, 1, 3, "alice", now, now + 60_000),
+                // Expired holds and holds on booked seats are ignored
+                new SeatHold(10, 1, 1, "bob", now - 120_000, now - 60_000),
+                new SeatHold(10, 1, 2, "carol", now, now + 60_000)));
+
+        SeatStateResponse snapshot = tracker.snapshot(SHOWTIME).orElseThrow();
+
+        assertThat(snapshot.getSnapshot()).isTrue();
+        assertThat(snapshot.getVersion()).isEqualTo(LOADED_VERSION);
+        assertThat(snapshot.getSeats()).extracting(SeatStateResponse.SeatState::getSeatId,
+                        SeatStateResponse.SeatState::getStatus, SeatStateResponse.SeatState::getUserId)
+                .containsExactly(
+                        tuple(1L, StatusSeat.AVAILABLE, null),
+                        tuple(2L, StatusSeat.BOOKED, null),
+                        tuple(3L, StatusSeat.SELECTED, "alice"));
+    }
+
+    @Test
+    void showtimeWithoutSeatsHasNoState() {
+        ShowtimeId empty = new ShowtimeId(99L, 9L);
+        when(showtimeSeatRepository.findStatusesByShowtimeId(99L, 9L)).thenReturn(List.of());
+        List<SeatStateResponse.SeatState> published = new ArrayList<>();
+
+        assertThat(tracker.snapshot(empty)).isEmpty();
+        tracker.recordChange(empty, 1, StatusSeat.SELECTED, "alice", published::add);
+
+        assertThat(published).containsExactly((SeatStateResponse.SeatState) null);
+    }
+
+    @Test
+    void recordedChangeIsPublishedWithItsVersionAndServedAsADelta() {
+        SeatStateResponse.SeatState selected = new SeatStateResponse.SeatState(1L, StatusSeat.SELECTED, "alice", 101L);
+        when(seatChangeLog.append(SHOWTIME, 1, StatusSeat.SELECTED, "alice", LOADED_VERSION)).thenReturn(List.of(selected));
+        List<SeatStateResponse.SeatState> published = new ArrayList<>();
+
+        tracker.recordChange(SHOWTIME, 1, StatusSeat.SELECTED, "alice", published::add);
+
+        assertThat(published).containsExactly(selected);
+        SeatStateResponse delta = tracker.changesSince(SHOWTIME, LOADED_VERSION).orElseThrow();
+        assertThat(delta.getSnapshot()).isFalse();
+        assertThat(delta.getVersion()).isEqualTo(101L);
+        assertThat(delta.getSeats()).containsExactly(selected);
+        verify(availabilityIndex).adjustFreeSeats(SHOWTIME, StatusSeat.AVAILABLE, StatusSeat.SELECTED);
+    }
+
+    @Test
+    void changesFromOtherNodesAreAppliedBeforeTheOwnOne() {
+        SeatStateResponse.SeatState elsewhere = new SeatStateResponse.SeatState(3L, StatusSeat.SELECTED, "bob", 101L);
+        SeatStateResponse.SeatState own = new SeatStateResponse.SeatState(1L, StatusSeat.SELECTED, "alice", 102L);
+        when(seatChangeLog.append(SHOWTIME, 1, StatusSeat.SELECTED, "alice", LOADED_VERSION))
+                .thenReturn(List.of(elsewhere, own));
+        List<SeatStateResponse.SeatState> published = new ArrayList<>();
+
+        tracker.recordChange(SHOWTIME, 1, StatusSeat.SELECTED, "alice", published::add);
+
+        // Only the own change is broadcast from here; the other node broadcast its change itself
+        assertThat(published).containsExactly(own);
+        assertThat(tracker.changesSince(SHOWTIME, LOADED_VERSION).orElseThrow().getSeats()).containsExactly(elsewhere, own);
+        verify(availabilityIndex, times(2)).adjustFreeSeats(SHOWTIME, StatusSeat.AVAILABLE, StatusSeat.SELECTED);
+    }
+
+    @Test
+    void snapshotCatchesUpWithChangesMadeElsewhere() {
+        tracker.snapshot(SHOWTIME);
+        when(seatChangeLog.changesAfter(SHOWTIME, LOADED_VERSION)).thenReturn(List.of(
+                new SeatStateResponse.SeatState(1L, StatusSeat.BOOKED, null, 101L)));
+
+        SeatStateResponse snapshot = tracker.snapshot(SHOWTIME).orElseThrow();
+
+        assertThat(snapshot.getVersion()).isEqualTo(101L);
+        assertThat(snapshot.getSeats()).filteredOn(seat -> seat.getSeatId() == 1L)
+                .extracting(SeatStateResponse.SeatState::getStatus).containsExactly(StatusSeat.BOOKED);
+    }
+
+    @Test
+    void gapInTheChangeLogReloadsTheShowtime() {
+        tracker.snapshot(SHOWTIME);
+        when(seatChangeLog.changesAfter(SHOWTIME, LOADED_VERSION)).thenReturn(List.of(
+                new SeatStateResponse.SeatState(1L, StatusSeat.BOOKED, null, 105L)));
+        when(seatChangeLog.currentVersion(SHOWTIME)).thenReturn(105L);
+
+        SeatStateResponse snapshot = tracker.snapshot(SHOWTIME).orElseThrow();
+
+        assertThat(snapshot.getVersion()).isEqualTo(105L);
+        verify(showtimeSeatRepository, times(2)).findStatusesByShowtimeId(10L, 1L);
+    }
+
+    @Test
+    void changesOutsideTheHistoryAskForASnapshot() {
+        when(seatChangeLog.append(eq(SHOWTIME), anyLong(), any(StatusSeat.class), anyString(), anyLong()))
+                .thenAnswer(invocation -> List.of(new SeatStateResponse.SeatState(invocation.getArgument(1),
+                        invocation.getArgument(2), invocation.getArgument(3), (long) invocation.getArgument(4) + 1)));
+        for (int i = 0; i < 600; i++) {
+            tracker.recordChange(SHOWTIME, 1 + i % 3, StatusSeat.SELECTED, "alice", change -> { });
+        }
+        long version = LOADED_VERSION + 600;
+
+        assertThat(tracker.changesSince(SHOWTIME, version + 1)).isEmpty();
+        assertThat(tracker.changesSince(SHOWTIME, LOADED_VERSION)).isEmpty();
+        Optional<SeatStateResponse> oldestKept = tracker.changesSince(SHOWTIME, version - 512);
+        assertThat(oldestKept).hasValueSatisfying(delta -> assertThat(delta.getSeats()).hasSize(512));
+        assertThat(tracker.changesSince(SHOWTIME, version - 513)).isEmpty();
+        assertThat(tracker.changesSince(SHOWTIME, version)).hasValueSatisfying(delta -> assertThat(delta.getSeats()).isEmpty());
+    }
+
+    private static SeatStatusView seat(long id, StatusSeat status) {
+        return new SeatStatusView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public StatusSeat getStatus() {
+                return status;
+            }
+        };
+    }
+}
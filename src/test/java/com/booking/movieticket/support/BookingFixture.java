@@ -0,0 +1,270 @@
+package com.booking.movieticket.support;
+
+import com.booking.movieticket.entity.Bill;
+import com.booking.movieticket.entity.BillDetail;
+import com.booking.movieticket.entity.Booking;
+import com.booking.movieticket.entity.Branch;
+import com.booking.movieticket.entity.Cinema;
+import com.booking.movieticket.entity.Food;
+import com.booking.movieticket.entity.Movie;
+import com.booking.movieticket.entity.Room;
+import com.booking.movieticket.entity.Schedule;
+import com.booking.movieticket.entity.Seat;
+import com.booking.movieticket.entity.Showtime;
+import com.booking.movieticket.entity.ShowtimeSeat;
+import com.booking.movieticket.entity.User;
+import com.booking.movieticket.entity.compositekey.ShowtimeId;
+import com.booking.movieticket.entity.enums.BookingStatus;
+import com.booking.movieticket.entity.enums.RoomType;
+import com.booking.movieticket.entity.enums.StatusBill;
+import com.booking.movieticket.entity.enums.StatusMovie;
+import com.booking.movieticket.entity.enums.StatusSeat;
+import com.booking.movieticket.entity.enums.TypeSeat;
+import jakarta.persistence.EntityManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Seeds the rows a booking needs, each call in its own committed transaction. Names that must be unique get a
+ * random suffix, so tests sharing the database never collide.
+ */
+public class BookingFixture {
+
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+
+    public BookingFixture(TransactionTemplate transactionTemplate, EntityManager entityManager) {
+        this.transactionTemplate = transactionTemplate;
+        this.entityManager = entityManager;
+    }
+
+    public User user() {
+        return persist(() -> {
+            String name = "user-" + UUID.randomUUID().toString().substring(0, 8);
+            User user = new User();
+            user.setUsername(name);
+            user.setEmail(name + "@example.com");
+            user.setPassword("{noop}password");
+            user.setFullName("Test " + name);
+            user.setIsDeleted(false);
+            return user;
+        });
+    }
+
+    public Movie movie(String name, int duration) {
+        return persist(() -> {
+            Movie movie = new Movie();
+            movie.setName(name);
+            movie.setSummary(name);
+            movie.setDescriptionLong(name);
+            movie.setDirector("Director");
+            movie.setAgeLimit(13);
+            movie.setDuration(duration);
+            movie.setLanguage("English");
+            movie.setStatus(StatusMovie.SHOWING);
+            movie.setIsDeleted(false);
+            return movie;
+        });
+    }
+
+    /**
+     * A branch of a new cinema with the given name
+     */
+    public Branch branch(String cinemaName) {
+        return persist(() -> {
+            Cinema cinema = new Cinema();
+            cinema.setName(cinemaName);
+            cinema.setHotline("1900");
+            cinema.setIsDeleted(false);
+            Branch branch = new Branch();
+            branch.setName(cinemaName + " Central");
+            branch.setAddress("1 Main Street");
+            branch.setHotline("1900");
+            branch.setImageUrl("branch.png");
+            branch.setCinema(cinema);
+            branch.setIsDeleted(false);
+            return branch;
+        });
+    }
+
+    /**
+     * A room of the branch, or of no branch at all when it is null
+     */
+    public Room room(Long branchId, RoomType roomType) {
+        return persist(() -> {
+            Room room = new Room();
+            room.setName("Room " + UUID.randomUUID().toString().substring(0, 4));
+            room.setRoomType(roomType);
+            room.setBranch(branchId == null ? null : entityManager.getReference(Branch.class, branchId));
+            room.setIsDeleted(false);
+            return room;
+        });
+    }
+
+    /**
+     * A showtime of the movie in the room, with a seat and an AVAILABLE showtime seat per seat of the given rows
+     */
+    public SeededShowtime showtime(Long movieId, Long roomId, LocalDate date, LocalTime start, SeatRow... rows) {
+        return transactionTemplate.execute(status -> {
+            Room room = entityManager.getReference(Room.class, roomId);
+
+            Schedule schedule = new Schedule();
+            schedule.setDate(date);
+            schedule.setTimeStart(start);
+            schedule.setMovie(entityManager.getReference(Movie.class, movieId));
+            schedule.setIsDeleted(false);
+            entityManager.persist(schedule);
+
+            Showtime showtime = new Showtime();
+            showtime.setId(new ShowtimeId(schedule.getId(), roomId));
+            showtime.setSchedule(schedule);
+            showtime.setRoom(room);
+            showtime.setFormat("2D");
+            showtime.setIsDeleted(false);
+            entityManager.persist(showtime);
+
+            List<Long> showtimeSeatIds = new ArrayList<>();
+            for (SeatRow row : rows) {
+                for (int column = 1; column <= row.seats(); column++) {
+                    Seat seat = new Seat();
+                    seat.setRowName(row.rowName());
+                    seat.setColumnName(String.valueOf(column));
+                    seat.setTypeSeat(row.typeSeat());
+                    seat.setRoom(room);
+                    seat.setIsDeleted(false);
+                    entityManager.persist(seat);
+
+                    ShowtimeSeat showtimeSeat = new ShowtimeSeat();
+                    showtimeSeat.setSeat(seat);
+                    showtimeSeat.setShowtime(showtime);
+                    showtimeSeat.setStatus(StatusSeat.AVAILABLE);
+                    showtimeSeat.setPrice(row.price());
+                    showtimeSeat.setIsDeleted(false);
+                    entityManager.persist(showtimeSeat);
+                    showtimeSeatIds.add(showtimeSeat.getId());
+                }
+            }
+            return new SeededShowtime(showtime.getId(), showtimeSeatIds);
+        });
+    }
+
+    public Food food(String name, double price) {
+        return persist(() -> {
+            Food food = new Food();
+            food.setName(name);
+            food.setPrice(price);
+            food.setStock(1000);
+            food.setIsDeleted(false);
+            return food;
+        });
+    }
+
+    /**
+     * A PAID bill for the seats, written straight to the tables without the booking service or its events, so it
+     * also works for rooms without a branch. The revenue rollup only sees it after a reconcile.
+     */
+    public Long paidBill(Long userId, SeededShowtime showtime, List<Long> showtimeSeatIds) {
+        return transactionTemplate.execute(status -> {
+            User user = entityManager.getReference(User.class, userId);
+            List<ShowtimeSeat> seats = showtimeSeatIds.stream()
+                    .map(id -> entityManager.find(ShowtimeSeat.class, id))
+                    .toList();
+
+            String code = "FX" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+            Booking booking = new Booking();
+            booking.setUser(user);
+            booking.setShowtime(entityManager.getReference(Showtime.class, showtime.id()));
+            booking.setTotalAmount(seats.stream().mapToDouble(ShowtimeSeat::getPrice).sum());
+            booking.setStatus(BookingStatus.CONFIRMED);
+            booking.setBookingTime(LocalDateTime.now());
+            booking.setBookingCode(code);
+            booking.setShowtimeSeats(new ArrayList<>(seats));
+            booking.setIsDeleted(false);
+            entityManager.persist(booking);
+
+            Bill bill = new Bill();
+            bill.setBooking(booking);
+            bill.setUser(user);
+            bill.setStatus(StatusBill.PAID);
+            bill.setBillCode(code);
+            bill.setIsDeleted(false);
+            for (ShowtimeSeat seat : seats) {
+                seat.setStatus(StatusSeat.BOOKED);
+                seat.setBooking(booking);
+                BillDetail billDetail = new BillDetail();
+                billDetail.setShowtimeSeat(seat);
+                billDetail.setIsDeleted(false);
+                bill.addBillDetail(billDetail);
+            }
+            entityManager.persist(bill);
+            return bill.getId();
+        });
+    }
+
+    /**
+     * Seats of the showtime marked BOOKED
+     */
+    public int bookedSeatCount(SeededShowtime showtime) {
+        return transactionTemplate.execute(status -> ((Number) entityManager.createNativeQuery(
+                        "SELECT COUNT(*) FROM showtime_seat WHERE schedule_id = ?1 AND room_id = ?2 AND status = 'BOOKED'")
+                .setParameter(1, showtime.scheduleId())
+                .setParameter(2, showtime.roomId())
+                .getSingleResult()).intValue());
+    }
+
+    /**
+     * Seats of the showtime sold on more than one bill, or BOOKED without a booking; empty unless a seat was
+     * double booked or lost
+     */
+    @SuppressWarnings("unchecked")
+    public List<Long> inconsistentSeats(SeededShowtime showtime) {
+        return transactionTemplate.execute(status -> ((List<Number>) entityManager.createNativeQuery(
+                        "SELECT ss.showtime_seat_id FROM showtime_seat ss "
+                                + "LEFT JOIN bill_detail bd ON bd.showtime_seat_id = ss.showtime_seat_id "
+                                + "WHERE ss.schedule_id = ?1 AND ss.room_id = ?2 "
+                                + "GROUP BY ss.showtime_seat_id, ss.status, ss.booking_id "
+                                + "HAVING COUNT(bd.id) > 1 "
+                                + "OR (ss.status = 'BOOKED' AND (ss.booking_id IS NULL OR COUNT(bd.id) <> 1)) "
+                                + "OR (ss.status <> 'BOOKED' AND COUNT(bd.id) > 0)")
+                .setParameter(1, showtime.scheduleId())
+                .setParameter(2, showtime.roomId())
+                .getResultList()).stream()
+                .map(Number::longValue)
+                .toList());
+    }
+
+    private <T> T persist(Supplier<T> factory) {
+        return transactionTemplate.execute(status -> {
+            T entity = factory.get();
+            entityManager.persist(entity);
+            return entity;
+        });
+    }
+
+    /**
+     * A row of seats of one type, all sold at the same price; a null type is left unset on the seats
+     */
+    public record SeatRow(String rowName, int seats, TypeSeat typeSeat, double price) {
+    }
+
+    /**
+     * The showtime's id and its showtime seat ids, row by row in column order
+     */
+    public record SeededShowtime(ShowtimeId id, List<Long> seatIds) {
+
+        public Long scheduleId() {
+            return id.getScheduleId();
+        }
+
+        public Long roomId() {
+            return id.getRoomId();
+        }
+    }
+}
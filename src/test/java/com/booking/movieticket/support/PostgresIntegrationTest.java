@@ -0,0 +1,35 @@
+package com.booking.movieticket.support;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Test against the whole application on a throwaway PostgreSQL ({@link PostgresTestConfiguration}).
+ * Skipped when no Docker daemon is available. Every class using it shares one application context and database,
+ * so tests seed their own rows ({@link BookingFixture}) instead of expecting an empty schema.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@SpringBootTest(properties = {
+        "storage.folder=${java.io.tmpdir}/movie-ticket-test",
+        "showtime.listing-cache.max-entries=0",
+        "spring.jpa.show-sql=false",
+        "logging.level.com.booking.movieticket=WARN",
+        "logging.level.org.hibernate.SQL=WARN",
+        "logging.level.org.hibernate.type.descriptor.sql=WARN",
+        "logging.level.org.springframework.security=WARN",
+        "logging.level.org.springframework.security.web.FilterChainProxy=WARN",
+        "logging.level.org.springframework.web=WARN"
+})
+@Import(PostgresTestConfiguration.class)
+@Testcontainers(disabledWithoutDocker = true)
+public @interface PostgresIntegrationTest {
+}
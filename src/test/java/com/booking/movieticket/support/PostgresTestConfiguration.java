@@ -0,0 +1,55 @@
+package com.booking.movieticket.support;
+
+import jakarta.persistence.EntityManager;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Bean;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import javax.sql.DataSource;
+
+/**
+ * PostgreSQL in a container, wired in as the application's datasource. The datasource is wrapped so tests can
+ * record the SQL statements their own thread executes with {@link SqlStatementRecorder}.
+ */
+@TestConfiguration(proxyBeanMethods = false)
+public class PostgresTestConfiguration {
+
+    @Bean
+    @ServiceConnection
+    PostgreSQLContainer<?> postgresContainer() {
+        return new PostgreSQLContainer<>(DockerImageName.parse("postgres:16-alpine"));
+    }
+
+    @Bean
+    SqlStatementRecorder sqlStatementRecorder() {
+        return new SqlStatementRecorder();
+    }
+
+    @Bean
+    BookingFixture bookingFixture(TransactionTemplate transactionTemplate, EntityManager entityManager) {
+        return new BookingFixture(transactionTemplate, entityManager);
+    }
+
+    @Bean
+    static BeanPostProcessor statementRecordingDataSource(ObjectProvider<SqlStatementRecorder> recorder) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+                    return ProxyDataSourceBuilder.create(dataSource)
+                            .name(beanName)
+                            .listener(recorder.getObject())
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,52 @@
+package com.booking.movieticket.support;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Records the JDBC executions of the calling thread while an action runs. A batch counts as one execution, with
+ * the number of parameter sets it carried; SQL is lower-cased with whitespace collapsed.
+ */
+public class SqlStatementRecorder implements QueryExecutionListener {
+
+    private final ThreadLocal<List<Statement>> recording = new ThreadLocal<>();
+
+    public List<Statement> record(Runnable action) {
+        List<Statement> statements = new ArrayList<>();
+        recording.set(statements);
+        try {
+            action.run();
+        } finally {
+            recording.remove();
+        }
+        return statements;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        List<Statement> statements = recording.get();
+        if (statements == null) {
+            return;
+        }
+        for (QueryInfo queryInfo : queryInfoList) {
+            String sql = queryInfo.getQuery().trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+            statements.add(new Statement(sql, execInfo.isBatch() ? execInfo.getBatchSize() : 1));
+        }
+    }
+
+    public record Statement(String sql, int batchSize) {
+
+        public boolean isWrite() {
+            return sql.startsWith("insert ") || sql.startsWith("update ") || sql.startsWith("delete ");
+        }
+    }
+}